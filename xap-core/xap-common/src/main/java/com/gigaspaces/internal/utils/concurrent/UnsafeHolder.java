@@ -21,6 +21,9 @@ import org.slf4j.LoggerFactory;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 
 /**
  * @author kimchy
@@ -33,6 +36,8 @@ public class UnsafeHolder {
     private static final Unsafe _unsafe = initUnsafe();
 
     public static final long BYTE_ARR_OFF = _unsafe != null ? _unsafe.arrayBaseOffset(byte[].class) : 0;
+    private static final long BUFFER_ADDRESS_OFF = initBufferAddressOffset();
+    private static final Method INVOKE_CLEANER = initInvokeCleaner();
 
     private static Unsafe initUnsafe() {
         try {
@@ -45,6 +50,28 @@ public class UnsafeHolder {
         }
     }
 
+    private static long initBufferAddressOffset() {
+        if (_unsafe == null)
+            return -1;
+        try {
+            return _unsafe.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+        } catch (Throwable e) {
+            logger.debug("Fail to initialize direct buffer address offset.", e);
+            return -1;
+        }
+    }
+
+    private static Method initInvokeCleaner() {
+        if (_unsafe == null)
+            return null;
+        try {
+            return Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (Throwable e) {
+            //not available before java 9, the cleaner of the buffer is used instead
+            return null;
+        }
+    }
+
     public static boolean isAvailable() {
         return _unsafe != null;
     }
@@ -80,4 +107,64 @@ public class UnsafeHolder {
     public static int getByte(long address) {
         return _unsafe.getByte(address);
     }
+
+    public static void putInt(long address, int value) {
+        _unsafe.putInt(address, value);
+    }
+
+    public static int getInt(long address) {
+        return _unsafe.getInt(address);
+    }
+
+    /**
+     * @return the native address of the first byte of a direct buffer
+     */
+    public static long getDirectBufferAddress(ByteBuffer buffer) {
+        if (!buffer.isDirect() || BUFFER_ADDRESS_OFF < 0)
+            throw new IllegalArgumentException("Address of buffer is not available: " + buffer);
+        return _unsafe.getLong(buffer, BUFFER_ADDRESS_OFF);
+    }
+
+    public static long getLongVolatile(long address) {
+        return _unsafe.getLongVolatile(null, address);
+    }
+
+    public static void putOrderedLong(long address, long value) {
+        _unsafe.putOrderedLong(null, address, value);
+    }
+
+    public static void putLongVolatile(long address, long value) {
+        _unsafe.putLongVolatile(null, address, value);
+    }
+
+    public static boolean compareAndSwapLong(long address, long expected, long value) {
+        return _unsafe.compareAndSwapLong(null, address, expected, value);
+    }
+
+    /**
+     * Frees the memory of a direct or mapped buffer right away rather than once it is garbage
+     * collected. The buffer, and any view of it, must not be used afterwards.
+     *
+     * @return true if the memory was freed, false if it is left to the garbage collector
+     */
+    public static boolean freeDirectBuffer(ByteBuffer buffer) {
+        if (!buffer.isDirect())
+            return false;
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(_unsafe, buffer);
+                return true;
+            }
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner == null)
+                return false;
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+            return true;
+        } catch (Throwable e) {
+            logger.debug("Fail to free direct buffer.", e);
+            return false;
+        }
+    }
 }
@@ -20,6 +20,7 @@ package com.gigaspaces.config.lrmi.nio;
 import com.gigaspaces.config.lrmi.ITransportConfig;
 import com.gigaspaces.internal.utils.GsEnv;
 import com.gigaspaces.lrmi.nio.PAdapter;
+import com.gigaspaces.lrmi.nio.shm.SharedMemoryPAdapter;
 import com.gigaspaces.serialization.SmartExternalizable;
 import com.gigaspaces.start.SystemInfo;
 import com.j_spaces.kernel.SystemProperties;
@@ -536,6 +537,8 @@ public class NIOConfiguration implements ITransportConfig, Cloneable, SmartExter
 
     @Override
     public String getProtocolAdaptorClass() {
+        if (SharedMemoryPAdapter.isEnabled())
+            return SharedMemoryPAdapter.class.getName();
         return PAdapter.class.getName();
     }
 
@@ -24,6 +24,7 @@ import com.gigaspaces.internal.client.spaceproxy.actioninfo.CommonProxyActionInf
 import com.gigaspaces.internal.client.spaceproxy.actioninfo.SnapshotProxyActionInfo;
 import com.gigaspaces.internal.client.spaceproxy.actions.AbstractSpaceProxyActionManager;
 import com.gigaspaces.internal.client.spaceproxy.actions.SpaceProxyImplActionManager;
+import com.gigaspaces.internal.client.spaceproxy.actions.SpaceProxyImplWriteCoalescer;
 import com.gigaspaces.internal.client.spaceproxy.events.SpaceProxyDataEventsManager;
 import com.gigaspaces.internal.client.spaceproxy.executors.SystemTask;
 import com.gigaspaces.internal.client.spaceproxy.metadata.ISpaceProxyTypeManager;
@@ -103,6 +104,7 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
     private final ISpaceProxyTypeManager _typeManager;
     private final IQueryManager _queryManager;
     private final SpaceProxyDataEventsManager _dataEventsManager;
+    private final SpaceProxyImplWriteCoalescer _writeCoalescer;
 
     private boolean _initializedNewRouter;
     private volatile SpaceProxyRouter _proxyRouter;
@@ -121,6 +123,7 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
         this._queryManager = new QueryManager(this);
         this._typeManager = new SpaceProxyTypeManager(this);
         this._dataEventsManager = new SpaceProxyDataEventsManager(this, _proxySettings.getExportedTransportConfig());
+        this._writeCoalescer = SpaceProxyImplWriteCoalescer.create(this);
 
         // set properties attached to space url
         getURL().setPropertiesForSpaceProxy(this);
@@ -187,6 +190,13 @@ public class SpaceProxyImpl extends AbstractDirectSpaceProxy implements SameProx
         return _typeManager;
     }
 
+    /**
+     * @return the coalescer of single writes, null if write coalescing is disabled
+     */
+    public SpaceProxyImplWriteCoalescer getWriteCoalescer() {
+        return _writeCoalescer;
+    }
+
     @Override
     public void setActionListener(ActionListener actionListener) {
         _transactionManager.setActionListener(actionListener);
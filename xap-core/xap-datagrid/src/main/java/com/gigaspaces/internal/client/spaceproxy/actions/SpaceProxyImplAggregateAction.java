@@ -49,7 +49,8 @@ public class SpaceProxyImplAggregateAction extends AggregateProxyAction<SpacePro
         AggregateEntriesSpaceOperationRequest request = new AggregateEntriesSpaceOperationRequest(actionInfo.queryPacket,
                 actionInfo.txn,
                 actionInfo.modifiers,
-                aggregators);
+                aggregators,
+                actionInfo.aggregationSet.isParallel());
 
         spaceProxy.getProxyRouter().execute(request);
         return request.getFinalResult(spaceProxy, actionInfo.queryPacket, actionInfo.isReturnPacket());
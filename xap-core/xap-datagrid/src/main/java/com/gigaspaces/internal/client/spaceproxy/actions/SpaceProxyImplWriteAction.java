@@ -39,6 +39,10 @@ public class SpaceProxyImplWriteAction extends WriteProxyAction<SpaceProxyImpl>
             throws RemoteException, TransactionException, InterruptedException {
         spaceProxy.beforeSpaceAction(actionInfo);
 
+        SpaceProxyImplWriteCoalescer coalescer = spaceProxy.getWriteCoalescer();
+        if (coalescer != null && coalescer.isCoalescable(actionInfo))
+            return coalescer.write(actionInfo);
+
         WriteEntrySpaceOperationRequest request = new WriteEntrySpaceOperationRequest(actionInfo.entryPacket,
                 actionInfo.txn, actionInfo.lease, actionInfo.timeout, actionInfo.modifiers, actionInfo.isUpdate());
         if (Modifiers.contains(actionInfo.modifiers, Modifiers.ONE_WAY)) {
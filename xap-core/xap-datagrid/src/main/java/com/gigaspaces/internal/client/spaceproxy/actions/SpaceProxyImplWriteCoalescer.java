@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.client.spaceproxy.actions;
+
+import com.gigaspaces.client.WriteMultipleException;
+import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
+import com.gigaspaces.internal.client.spaceproxy.actioninfo.WriteProxyActionInfo;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationRequest;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.utils.concurrent.OperationCoalescer;
+import com.j_spaces.core.LeaseContext;
+import com.j_spaces.core.client.Modifiers;
+import com.j_spaces.core.client.UpdateModifiers;
+import com.j_spaces.core.exception.internal.ProxyInternalSpaceException;
+import com.j_spaces.kernel.SystemProperties;
+
+import net.jini.core.entry.UnusableEntryException;
+import net.jini.core.transaction.TransactionException;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent single writes and updates of a proxy into write multiple operations, by
+ * target partition, by the write parameters and by whether they are writes or updates. Each write
+ * gets its own result, as if it was executed alone.
+ *
+ * Writes under a transaction, one way writes and writes of broadcast types are not coalesced.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceProxyImplWriteCoalescer extends OperationCoalescer<SpaceProxyImplWriteCoalescer.BatchKey, WriteProxyActionInfo, LeaseContext<?>> {
+    private final SpaceProxyImpl _spaceProxy;
+
+    public SpaceProxyImplWriteCoalescer(SpaceProxyImpl spaceProxy, int maxBatchSize, long maxDelayMicros) {
+        super(maxBatchSize, TimeUnit.MICROSECONDS.toNanos(maxDelayMicros));
+        this._spaceProxy = spaceProxy;
+    }
+
+    /**
+     * @return a new coalescer if write coalescing is enabled, null otherwise
+     */
+    public static SpaceProxyImplWriteCoalescer create(SpaceProxyImpl spaceProxy) {
+        if (!Boolean.getBoolean(SystemProperties.CLIENT_WRITE_COALESCING_ENABLED))
+            return null;
+        int maxBatchSize = Integer.getInteger(SystemProperties.CLIENT_WRITE_COALESCING_MAX_BATCH_SIZE, SystemProperties.CLIENT_WRITE_COALESCING_MAX_BATCH_SIZE_DEFAULT);
+        long maxDelayMicros = Long.getLong(SystemProperties.CLIENT_WRITE_COALESCING_MAX_DELAY_MICROS, SystemProperties.CLIENT_WRITE_COALESCING_MAX_DELAY_MICROS_DEFAULT);
+        return new SpaceProxyImplWriteCoalescer(spaceProxy, maxBatchSize, maxDelayMicros);
+    }
+
+    public boolean isCoalescable(WriteProxyActionInfo actionInfo) {
+        return actionInfo.txn == null
+                && !Modifiers.contains(actionInfo.modifiers, Modifiers.ONE_WAY)
+                && !actionInfo.entryPacket.getTypeDescriptor().isBroadcast()
+                //a write multiple without update modifiers writes the entries
+                && (!actionInfo.isUpdate() || UpdateModifiers.isPotentialUpdate(actionInfo.modifiers));
+    }
+
+    public LeaseContext<?> write(WriteProxyActionInfo actionInfo)
+            throws RemoteException, TransactionException, InterruptedException {
+        BatchKey key = new BatchKey(_spaceProxy.getPartitionId(actionInfo.entryPacket.getRoutingFieldValue()),
+                actionInfo.lease, actionInfo.timeout, actionInfo.modifiers, actionInfo.isUpdate());
+        try {
+            return execute(key, actionInfo);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // same as a single write result
+            if (cause instanceof TransactionException)
+                throw (TransactionException) cause;
+            if (cause instanceof RemoteException)
+                throw (RemoteException) cause;
+            if (cause instanceof InterruptedException)
+                throw (InterruptedException) cause;
+            if (cause instanceof UnusableEntryException)
+                throw new RemoteException("Failed during update operation ", cause);
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new ProxyInternalSpaceException("Unexpected exception: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    protected void executeBatch(BatchKey key, Batch<WriteProxyActionInfo, LeaseContext<?>> batch) throws Exception {
+        int size = batch.size();
+        Object[] entries = new Object[size];
+        IEntryPacket[] entryPackets = new IEntryPacket[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = batch.getOperation(i).entry;
+            entryPackets[i] = batch.getOperation(i).entryPacket;
+        }
+        WriteEntriesSpaceOperationRequest request = new WriteEntriesSpaceOperationRequest(_spaceProxy.getTypeManager(),
+                entries, entryPackets, null, key._lease, null, key._timeout, getBatchModifiers(key), false);
+        _spaceProxy.getProxyRouter().execute(request);
+        //the results are converted by processWriteResult of the type manager, same as a single write result
+        try {
+            LeaseContext<?>[] leases = request.getFinalResult();
+            for (int i = 0; i < size; i++)
+                batch.setResult(i, leases[i]);
+        } catch (WriteMultipleException e) {
+            WriteMultipleException.IWriteResult[] results = e.getResults();
+            for (int i = 0; i < size; i++) {
+                if (results[i].isError())
+                    batch.setError(i, results[i].getError());
+                else
+                    batch.setResult(i, results[i].getLeaseContext());
+            }
+        }
+    }
+
+    /**
+     * A write multiple updates the entries if its modifiers are a potential update, while a single
+     * write which is not an update (e.g. an entry without a uid) writes the entry even with {@link
+     * UpdateModifiers#UPDATE_OR_WRITE}, so a batch of such writes is sent as write only.
+     */
+    private static int getBatchModifiers(BatchKey key) {
+        if (key._update || !UpdateModifiers.isUpdateOrWrite(key._modifiers))
+            return key._modifiers;
+        return Modifiers.add(Modifiers.remove(key._modifiers, UpdateModifiers.UPDATE_OR_WRITE), UpdateModifiers.WRITE_ONLY);
+    }
+
+    public static class BatchKey {
+        private final int _partitionId;
+        private final long _lease;
+        private final long _timeout;
+        private final int _modifiers;
+        private final boolean _update;
+
+        private BatchKey(int partitionId, long lease, long timeout, int modifiers, boolean update) {
+            this._partitionId = partitionId;
+            this._lease = lease;
+            this._timeout = timeout;
+            this._modifiers = modifiers;
+            this._update = update;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof BatchKey))
+                return false;
+            BatchKey other = (BatchKey) o;
+            return _partitionId == other._partitionId && _lease == other._lease
+                    && _timeout == other._timeout && _modifiers == other._modifiers && _update == other._update;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = _partitionId;
+            result = 31 * result + (int) (_lease ^ (_lease >>> 32));
+            result = 31 * result + (int) (_timeout ^ (_timeout >>> 32));
+            result = 31 * result + _modifiers;
+            result = 31 * result + (_update ? 1 : 0);
+            return result;
+        }
+    }
+}
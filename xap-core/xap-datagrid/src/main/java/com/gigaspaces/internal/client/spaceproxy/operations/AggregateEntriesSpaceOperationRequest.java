@@ -55,6 +55,7 @@ public class AggregateEntriesSpaceOperationRequest extends SpaceOperationRequest
     private List<SpaceEntriesAggregator> aggregators;
     private Transaction txn;
     private int readModifiers;
+    private boolean parallel;
 
     private transient Exception _exception;
     private transient ExplainPlanImpl explainPlan;
@@ -66,7 +67,13 @@ public class AggregateEntriesSpaceOperationRequest extends SpaceOperationRequest
     }
 
     public AggregateEntriesSpaceOperationRequest(ITemplatePacket queryPacket, Transaction txn, int modifiers, List<SpaceEntriesAggregator> aggregators) {
+        this(queryPacket, txn, modifiers, aggregators, false);
+    }
+
+    public AggregateEntriesSpaceOperationRequest(ITemplatePacket queryPacket, Transaction txn, int modifiers, List<SpaceEntriesAggregator> aggregators,
+                                                 boolean parallel) {
         this.queryPacket = queryPacket;
+        this.parallel = parallel;
         this.aggregators = aggregators;
         this.readModifiers = modifiers;
         this.explainPlan = ExplainPlanImpl.fromQueryPacket(queryPacket);
@@ -190,8 +197,14 @@ public class AggregateEntriesSpaceOperationRequest extends SpaceOperationRequest
         return readModifiers;
     }
 
+    public boolean isParallel() {
+        return parallel;
+    }
+
     private static final short FLAG_TRANSACTION = 1 << 0;
     private static final short FLAG_MODIFIERS = 1 << 1;
+    //has no payload, so older spaces which do not know it simply ignore it
+    private static final short FLAG_PARALLEL = 1 << 2;
 
     private static final int DEFAULT_MODIFIERS = 0;
 
@@ -237,6 +250,7 @@ public class AggregateEntriesSpaceOperationRequest extends SpaceOperationRequest
             if ((flags & FLAG_TRANSACTION) != 0)
                 this.txn = IOUtils.readWithCachedStubs(in);
             this.readModifiers = (flags & FLAG_MODIFIERS) != 0 ? in.readInt() : DEFAULT_MODIFIERS;
+            this.parallel = (flags & FLAG_PARALLEL) != 0;
         } else {
             this.readModifiers = DEFAULT_MODIFIERS;
         }
@@ -249,6 +263,8 @@ public class AggregateEntriesSpaceOperationRequest extends SpaceOperationRequest
             flags |= FLAG_TRANSACTION;
         if (readModifiers != DEFAULT_MODIFIERS)
             flags |= FLAG_MODIFIERS;
+        if (parallel)
+            flags |= FLAG_PARALLEL;
 
         return flags;
     }
@@ -34,6 +34,7 @@ import com.gigaspaces.internal.cluster.node.impl.config.DynamicSourceGroupConfig
 import com.gigaspaces.internal.cluster.node.impl.config.DynamicSourceGroupConfigHolder.IDynamicSourceGroupStateListener;
 import com.gigaspaces.internal.cluster.node.impl.config.MemberAddedEvent;
 import com.gigaspaces.internal.cluster.node.impl.config.SourceGroupConfig;
+import com.gigaspaces.internal.cluster.node.impl.groups.GeneralReplicationChannelDataFilter;
 import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationChannelDataFilter;
 import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationChannelDataFilter.FilterOperation;
 import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationGroupHistory;
@@ -41,6 +42,7 @@ import com.gigaspaces.internal.cluster.node.impl.groups.ReplicationChannelDataFi
 import com.gigaspaces.internal.cluster.node.impl.groups.ReplicationChannelDataFilterResult;
 import com.gigaspaces.internal.cluster.node.impl.groups.handshake.IHandshakeContext;
 import com.gigaspaces.internal.cluster.node.impl.groups.handshake.IHandshakeIteration;
+import com.gigaspaces.internal.cluster.node.impl.groups.reliableasync.MirrorChannelDataFilter;
 import com.gigaspaces.internal.cluster.node.impl.groups.reliableasync.ReliableAsyncSourceGroupConfig;
 import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
 import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacketData;
@@ -54,7 +56,6 @@ import com.gigaspaces.internal.server.space.redolog.storage.BufferedRedoLogFileS
 import com.gigaspaces.internal.server.space.redolog.storage.CacheLastRedoLogFileStorageDecorator;
 import com.gigaspaces.internal.server.space.redolog.storage.IRedoLogFileStorage;
 import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.*;
-import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.raf.RAFByteBufferStorageFactory;
 import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.collections.CopyOnUpdateMap;
 import com.gigaspaces.internal.utils.collections.CopyOnUpdateSet;
@@ -65,11 +66,13 @@ import com.gigaspaces.logger.Constants;
 import com.gigaspaces.metrics.Gauge;
 import com.gigaspaces.metrics.MetricRegistrator;
 import com.j_spaces.core.cluster.RedoLogCompaction;
+import com.j_spaces.core.cluster.ReplicationPolicy;
 import com.j_spaces.core.cluster.RedoLogSwapStorageType;
 import com.j_spaces.core.cluster.SwapBacklogConfig;
 import com.j_spaces.core.cluster.startup.CompactionResult;
 import com.j_spaces.core.exception.internal.ReplicationInternalSpaceException;
 import com.j_spaces.kernel.JSpaceUtilities;
+import com.j_spaces.kernel.SystemProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -129,6 +132,11 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
     private final ICaluclateMinUnconfirmedKey _getMinUnconfirmedKeyProcedure;
     private boolean _closed;
     private RedoLogCompaction _redoLogCompaction;
+    private final boolean _coalescingEnabled;
+    private long _lastCoalescedKey = -1;
+    //guarded by the write lock, members such as durable notifications, local views and gateways which
+    //filter the packets they receive, unlike backups and mirrors which only need the latest state of an entry
+    private final Set<String> _nonReplicaMembers = new HashSet<String>();
 
     public AbstractSingleFileGroupBacklog(DynamicSourceGroupConfigHolder groupConfigHolder,
                                           String name, IReplicationPacketDataProducer<?> dataProducer) {
@@ -152,6 +160,11 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         _mirrorMemberName = groupConfig.getBacklogConfig().getMirrorMemberName();
         _redoLogCompaction = groupConfig.getBacklogConfig().getRedoLogCompaction();
         _getMinUnconfirmedKeyProcedure = isRedoLogCompactionEnabled() ? new CompactionEnabledCaluclateMinUnconfirmedKeyProcedure() : new CaluclateMinUnconfirmedKeyProcedure();
+        _coalescingEnabled = Boolean.getBoolean(SystemProperties.REDOLOG_COALESCING_ENABLED);
+        for (String memberName : groupConfig.getMembersLookupNames()) {
+            if (!isReplicaFilter(groupConfig.getFilter(memberName)))
+                _nonReplicaMembers.add(memberName);
+        }
     }
 
     protected void updateBacklogLimitations(SourceGroupConfig groupConfig) {
@@ -180,6 +193,8 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
             if (previous != null)
                 throw new IllegalStateException("Cannot add an already existing member ["
                         + memberAddedParam.getMemberName() + "]");
+            if (!isReplicaFilter(memberAddedParam.getFilter()))
+                _nonReplicaMembers.add(memberAddedParam.getMemberName());
 
             if (_logger.isDebugEnabled())
                 _logger.debug(getLogPrefix() + "adding new member [" + memberAddedParam.getMemberName() + "] to backlog, using backlog configuration [" + memberAddedParam.getBacklogMemberLimitation().toString() + "], setting its confirmation state to [" + newConfirmationHolder + "]");
@@ -190,6 +205,10 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         }
     }
 
+    private static boolean isReplicaFilter(IReplicationChannelDataFilter filter) {
+        return filter == null || filter instanceof GeneralReplicationChannelDataFilter || filter instanceof MirrorChannelDataFilter;
+    }
+
     public void makeMemberConfirmedOnAll(String memberName) {
         _rwLock.writeLock().lock();
         try {
@@ -209,6 +228,7 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         try {
             CType member = _confirmationMap.remove(memberName);
 
+            _nonReplicaMembers.remove(memberName);
             _outOfSyncDueToDeletionTargets.remove(memberName);
             _backlogCapacityAllowedBreachingTargets.remove(memberName);
 
@@ -389,9 +409,6 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
             return new DBSwapRedoLogFile<>(config, this);
         }
         else { // RedoLogSwapStorageType.BYTE_BUFFER
-            IByteBufferStorageFactory byteBufferStorageProvider = new RAFByteBufferStorageFactory("redolog_"
-                    + _name.replace(":", "_"));
-
             // Configure ByteBufferRedoLogFile
             ByteBufferRedoLogFileConfig<T> storageConfig = new ByteBufferRedoLogFileConfig<T>();
             storageConfig.setMaxSizePerSegment(swapBacklogConfig.getSegmentSize());
@@ -400,6 +417,9 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
             storageConfig.setWriterMaxBufferSize(swapBacklogConfig.getWriterBufferSize());
             storageConfig.setPacketStreamSerializer(packetStreamSerializer);
 
+            IByteBufferStorageFactory byteBufferStorageProvider = storageConfig.createStorageFactory("redolog_"
+                    + _name.replace(":", "_"));
+
             IRedoLogFileStorage<T> externalRedoLogFileStorage = new ByteBufferRedoLogFileStorage<T>(byteBufferStorageProvider,
                     storageConfig, backlogConfig.getBackLogWeightPolicy());
             // Configure BufferedRedoLogFileStorageDecorator
@@ -1135,6 +1155,49 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
         }
     }
 
+    /*
+     * should be called under write lock, discards packets which are superseded by later packets of
+     * the same entry and were not confirmed by any member yet. Each pass covers the packets inserted
+     * since the previous one and the batch before them, and is skipped while the group has a member
+     * which is not a backup or a mirror.
+     */
+    protected void coalesceUnsafe() {
+        if (!_coalescingEnabled) {
+            return;
+        }
+        final long batchSize = (long) ReplicationPolicy.DEFAULT_REDO_LOG_COMPACTION_BATCH_SIZE;
+        final long lastInsertedKey = getLastInsertedKeyToBacklogUnsafe();
+        if (lastInsertedKey - _lastCoalescedKey < batchSize) {
+            return;
+        }
+        long maxConfirmedKey = -1;
+        for (Entry<String, CType> entry : _confirmationMap.entrySet()) {
+            maxConfirmedKey = Math.max(maxConfirmedKey, entry.getValue().getLastConfirmedKey());
+        }
+        final long from = Math.max(maxConfirmedKey + 1, _lastCoalescedKey + 1 - batchSize);
+        _lastCoalescedKey = lastInsertedKey;
+        if (!_nonReplicaMembers.isEmpty()) {
+            return;
+        }
+
+        final CompactionResult coalescingResult = _backlogFile.coalesce(from);
+        if (coalescingResult.isEmpty()) {
+            return;
+        }
+        //no member confirmed any of the discarded packets, so they all counted their weight
+        for (Entry<String, CType> entry : _confirmationMap.entrySet()) {
+            CType confirmationHolder = entry.getValue();
+            confirmationHolder.setWeight(confirmationHolder.getWeight() - coalescingResult.getDiscardedWeight());
+        }
+        if (hasMirror()) {
+            increaseMirrorDiscardedCount(coalescingResult.getDiscardedCount());
+        }
+        if (_logger.isDebugEnabled()) {
+            _logger.debug(getLogPrefix() + "coalesced " + coalescingResult.getDiscardedCount()
+                    + " superseded packets from key " + from + ", discarded weight " + coalescingResult.getDiscardedWeight());
+        }
+    }
+
     // Should be called under write lock
     public void updateMirrorWeightAfterCompaction(final CompactionResult compactionResult) {
         AbstractSingleFileConfirmationHolder confirmation = _confirmationMap.get(_mirrorMemberName);
@@ -1846,7 +1909,8 @@ public abstract class AbstractSingleFileGroupBacklog<T extends IReplicationOrder
     }
 
     private long getWeightForRangeUnsafe(long fromKey, long toKey) {
-        if (_groupConfigHolder.getConfig().getBacklogConfig().getBackLogWeightPolicy() instanceof FixedBacklogWeightPolicy) {
+        //coalesced packets are discarded in place, their weight was already taken off every member
+        if (!_coalescingEnabled && _groupConfigHolder.getConfig().getBacklogConfig().getBackLogWeightPolicy() instanceof FixedBacklogWeightPolicy) {
             return toKey - fromKey + 1;
         }
         List<T> packets = getSpecificPacketsUnsafe(fromKey, toKey);
@@ -334,6 +334,7 @@ public abstract class AbstractGlobalOrderGroupBacklog
                         + "] to backlog");
 
             insertReplicationOrderedPacketToBacklog(packet, outContext);
+            coalesceUnsafe();
             return packet;
         } catch (RuntimeException e) {
             if (_logger.isErrorEnabled())
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.io;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream which reads the remaining bytes of a {@link ByteBuffer}, heap or direct, or of a
+ * chain of buffers one after the other. The buffer can be replaced so that the stream, and the
+ * object stream over it, are reused.
+ *
+ * Naturally, this class is not thread safe.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ByteBufferInputStream extends InputStream {
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+
+    private ByteBuffer _buffer;
+    //null unless a chain of buffers is read, in which case _buffer is the one at _index
+    private ByteBuffer[] _buffers;
+    private int _index;
+
+    public ByteBufferInputStream() {
+        this._buffer = EMPTY_BUFFER;
+    }
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this._buffer = buffer;
+    }
+
+    /**
+     * Sets the buffer to read, from its position to its limit.
+     *
+     * @return the previous buffer
+     */
+    public ByteBuffer setBuffer(ByteBuffer buffer) {
+        ByteBuffer previous = _buffer;
+        _buffer = buffer;
+        _buffers = null;
+        return previous;
+    }
+
+    /**
+     * Sets a chain of buffers to read one after the other, each from its position to its limit.
+     */
+    public void setBuffers(ByteBuffer[] buffers) {
+        _buffers = buffers;
+        _index = 0;
+        _buffer = buffers[0];
+    }
+
+    /**
+     * @return the chain of buffers which is read, null if a single buffer is read
+     */
+    public ByteBuffer[] getBuffers() {
+        return _buffers;
+    }
+
+    /**
+     * Detaches the current buffer, or chain of buffers, from the stream.
+     *
+     * @return the detached buffer
+     */
+    public ByteBuffer clearBuffer() {
+        return setBuffer(EMPTY_BUFFER);
+    }
+
+    /**
+     * @return true if the current buffer has remaining bytes, moving on along the chain if needed
+     */
+    private boolean hasRemaining() {
+        while (!_buffer.hasRemaining()) {
+            if (_buffers == null || _index == _buffers.length - 1)
+                return false;
+            _buffer = _buffers[++_index];
+        }
+        return true;
+    }
+
+    @Override
+    public int read() {
+        return hasRemaining() ? _buffer.get() & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0)
+            return 0;
+        if (!hasRemaining())
+            return -1;
+        int n = Math.min(len, _buffer.remaining());
+        _buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0 || !hasRemaining())
+            return 0;
+        int k = (int) Math.min(n, _buffer.remaining());
+        _buffer.position(_buffer.position() + k);
+        return k;
+    }
+
+    @Override
+    public int available() {
+        int available = _buffer.remaining();
+        if (_buffers != null) {
+            for (int i = _index + 1; i < _buffers.length; i++)
+                available += _buffers[i].remaining();
+        }
+        return available;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.io;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * A pure java codec of the LZ4 block format - a sequence of literals and back references, without
+ * entropy coding, which trades compression ratio for speed.
+ *
+ * The block does not contain the length of the decompressed data, which should be kept by the
+ * caller. The compressor keeps a hash table and is not thread safe, the decompressor is
+ * stateless.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LZ4BlockCodec {
+    private static final int MIN_MATCH = 4;
+    //the last literals and the last match start distances from the block end, as defined by the format
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+    private static final int RUN_MASK = 0xF;
+    private static final int HASH_LOG = 12;
+    //after 2^SKIP_STRENGTH bytes without a match the search step grows, so incompressible data is passed quickly
+    private static final int SKIP_STRENGTH = 6;
+
+    private final int[] _hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * @return the maximal length of the compressed data of the specified length
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the data into the destination, which should have at least {@link
+     * #maxCompressedLength(int)} bytes available.
+     *
+     * @return the compressed length
+     */
+    public int compress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff) {
+        final int srcEnd = srcOff + srcLen;
+        final int mfLimit = srcEnd - MF_LIMIT;
+        final int matchLimit = srcEnd - LAST_LITERALS;
+        final int[] hashTable = _hashTable;
+        Arrays.fill(hashTable, -1);
+
+        int dOff = destOff;
+        int anchor = srcOff;
+        int sOff = srcOff;
+        while (sOff < mfLimit) {
+            int sequence = readInt(src, sOff);
+            int hash = hash(sequence);
+            int ref = hashTable[hash];
+            hashTable[hash] = sOff;
+            if (ref == -1 || sOff - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                sOff += 1 + ((sOff - anchor) >>> SKIP_STRENGTH);
+                continue;
+            }
+
+            while (sOff > anchor && ref > srcOff && src[sOff - 1] == src[ref - 1]) {
+                sOff--;
+                ref--;
+            }
+            int matchLen = MIN_MATCH;
+            while (sOff + matchLen < matchLimit && src[sOff + matchLen] == src[ref + matchLen])
+                matchLen++;
+
+            dOff = writeSequence(src, anchor, sOff - anchor, sOff - ref, matchLen, dest, dOff);
+            sOff += matchLen;
+            anchor = sOff;
+            if (sOff < mfLimit)
+                hashTable[hash(readInt(src, sOff - 2))] = sOff - 2;
+        }
+
+        dOff = writeLastLiterals(src, anchor, srcEnd - anchor, dest, dOff);
+        return dOff - destOff;
+    }
+
+    /**
+     * Decompresses a block whose decompressed length is known into the destination.
+     *
+     * @throws DataFormatException if the block is malformed or does not match the length
+     */
+    public static void decompress(byte[] src, int srcOff, int srcLen, byte[] dest, int destOff, int destLen)
+            throws DataFormatException {
+        final int srcEnd = srcOff + srcLen;
+        final int destEnd = destOff + destLen;
+        int sOff = srcOff;
+        int dOff = destOff;
+        while (true) {
+            if (sOff >= srcEnd)
+                throw new DataFormatException("Malformed LZ4 block - unexpected end of block");
+            final int token = src[sOff++] & 0xFF;
+
+            int literalLen = token >>> 4;
+            if (literalLen == RUN_MASK) {
+                int b;
+                do {
+                    if (sOff >= srcEnd)
+                        throw new DataFormatException("Malformed LZ4 block - unexpected end of block");
+                    b = src[sOff++] & 0xFF;
+                    literalLen += b;
+                } while (b == 0xFF);
+            }
+            if (literalLen > srcEnd - sOff || literalLen > destEnd - dOff)
+                throw new DataFormatException("Malformed LZ4 block - literals exceed block bounds");
+            System.arraycopy(src, sOff, dest, dOff, literalLen);
+            sOff += literalLen;
+            dOff += literalLen;
+            if (sOff == srcEnd)
+                break;
+
+            if (srcEnd - sOff < 2)
+                throw new DataFormatException("Malformed LZ4 block - unexpected end of block");
+            final int offset = (src[sOff++] & 0xFF) | ((src[sOff++] & 0xFF) << 8);
+            int matchLen = token & RUN_MASK;
+            if (matchLen == RUN_MASK) {
+                int b;
+                do {
+                    if (sOff >= srcEnd)
+                        throw new DataFormatException("Malformed LZ4 block - unexpected end of block");
+                    b = src[sOff++] & 0xFF;
+                    matchLen += b;
+                } while (b == 0xFF);
+            }
+            matchLen += MIN_MATCH;
+            final int ref = dOff - offset;
+            if (offset == 0 || ref < destOff || matchLen > destEnd - dOff)
+                throw new DataFormatException("Malformed LZ4 block - match exceeds block bounds");
+            if (offset >= matchLen) {
+                System.arraycopy(dest, ref, dest, dOff, matchLen);
+            } else {
+                //overlapping match - repeats the last offset bytes
+                for (int i = 0; i < matchLen; i++)
+                    dest[dOff + i] = dest[ref + i];
+            }
+            dOff += matchLen;
+        }
+        if (dOff != destEnd)
+            throw new DataFormatException("Malformed LZ4 block - decompressed " + (dOff - destOff) + " bytes instead of " + destLen);
+    }
+
+    private static int writeSequence(byte[] src, int literalOff, int literalLen, int offset, int matchLen, byte[] dest, int dOff) {
+        final int tokenOff = dOff++;
+        int token;
+        if (literalLen >= RUN_MASK) {
+            token = RUN_MASK << 4;
+            dOff = writeLength(literalLen - RUN_MASK, dest, dOff);
+        } else {
+            token = literalLen << 4;
+        }
+        System.arraycopy(src, literalOff, dest, dOff, literalLen);
+        dOff += literalLen;
+
+        dest[dOff++] = (byte) offset;
+        dest[dOff++] = (byte) (offset >>> 8);
+
+        int matchLenCode = matchLen - MIN_MATCH;
+        if (matchLenCode >= RUN_MASK) {
+            token |= RUN_MASK;
+            dOff = writeLength(matchLenCode - RUN_MASK, dest, dOff);
+        } else {
+            token |= matchLenCode;
+        }
+        dest[tokenOff] = (byte) token;
+        return dOff;
+    }
+
+    private static int writeLastLiterals(byte[] src, int literalOff, int literalLen, byte[] dest, int dOff) {
+        if (literalLen >= RUN_MASK) {
+            dest[dOff++] = (byte) (RUN_MASK << 4);
+            dOff = writeLength(literalLen - RUN_MASK, dest, dOff);
+        } else {
+            dest[dOff++] = (byte) (literalLen << 4);
+        }
+        System.arraycopy(src, literalOff, dest, dOff, literalLen);
+        return dOff + literalLen;
+    }
+
+    private static int writeLength(int length, byte[] dest, int dOff) {
+        while (length >= 0xFF) {
+            dest[dOff++] = (byte) 0xFF;
+            length -= 0xFF;
+        }
+        dest[dOff++] = (byte) length;
+        return dOff;
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return (b[off] & 0xFF) | ((b[off + 1] & 0xFF) << 8) | ((b[off + 2] & 0xFF) << 16) | ((b[off + 3] & 0xFF) << 24);
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
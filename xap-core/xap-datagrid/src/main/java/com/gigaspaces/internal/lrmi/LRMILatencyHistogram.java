@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.lrmi;
+
+import com.gigaspaces.lrmi.LRMILatencyDetails;
+import com.gigaspaces.serialization.SmartExternalizable;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size latency histogram in the spirit of HDR histograms. Values below 16 nanoseconds have
+ * a bucket each, above that every power of two range is split into 16 linear buckets, so a value
+ * is known to within 1/16 of its magnitude. Values above ~36 minutes are counted in the last
+ * bucket.
+ *
+ * Recording is lock free and may be done by any number of threads. A deserialized histogram is a
+ * snapshot of the recorded one. The histogram accumulates all the recorded values, and {@link
+ * #intervalSnapshot()} returns those recorded since its previous call, for reporting percentiles
+ * per interval.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LRMILatencyHistogram implements LRMILatencyDetails, SmartExternalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 41;
+    static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    static final long HIGHEST_TRACKABLE_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+
+    private AtomicLongArray _buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong _count = new AtomicLong();
+    private final AtomicLong _totalNanos = new AtomicLong();
+    private final AtomicLong _maxNanos = new AtomicLong();
+    private final AtomicLong _intervalMaxNanos = new AtomicLong();
+    //the buckets and total at the previous interval snapshot
+    private long[] _intervalStartBuckets;
+    private long _intervalStartTotalNanos;
+
+    public LRMILatencyHistogram() {
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+        _buckets.incrementAndGet(bucketIndex(nanos));
+        _count.incrementAndGet();
+        _totalNanos.addAndGet(nanos);
+        updateMax(_maxNanos, nanos);
+        updateMax(_intervalMaxNanos, nanos);
+    }
+
+    private static void updateMax(AtomicLong max, long nanos) {
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos))
+            current = max.get();
+    }
+
+    /**
+     * Returns the values recorded since the previous call and starts a new interval, without
+     * blocking the recording threads. A value which is recorded concurrently is counted in this
+     * interval or in the next one.
+     */
+    public synchronized LRMILatencyHistogram intervalSnapshot() {
+        if (_intervalStartBuckets == null)
+            _intervalStartBuckets = new long[BUCKET_COUNT];
+        LRMILatencyHistogram interval = new LRMILatencyHistogram();
+        long count = 0;
+        int highestBucket = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long current = _buckets.get(i);
+            long delta = current - _intervalStartBuckets[i];
+            if (delta != 0) {
+                interval._buckets.set(i, delta);
+                count += delta;
+                highestBucket = i;
+            }
+            _intervalStartBuckets[i] = current;
+        }
+        long totalNanos = _totalNanos.get();
+        interval._count.set(count);
+        interval._totalNanos.set(totalNanos - _intervalStartTotalNanos);
+        _intervalStartTotalNanos = totalNanos;
+        long maxNanos = _intervalMaxNanos.getAndSet(0);
+        //the max of a value which was counted in the previous interval may have been reset with it
+        if (count != 0 && bucketIndex(maxNanos) < highestBucket)
+            maxNanos = Math.min(bucketHighestValue(highestBucket), _maxNanos.get());
+        interval._maxNanos.set(count == 0 ? 0 : maxNanos);
+        return interval;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        if (value > HIGHEST_TRACKABLE_VALUE)
+            value = HIGHEST_TRACKABLE_VALUE;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return the highest value which falls in the specified bucket
+     */
+    static long bucketHighestValue(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public long getCount() {
+        return _count.get();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long count = _count.get();
+        return count == 0 ? 0 : (double) _totalNanos.get() / count;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return _maxNanos.get();
+    }
+
+    @Override
+    public long getPercentileNanos(double percentile) {
+        //the buckets are summed rather than using the count, which may be ahead of them while recording
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            total += _buckets.get(i);
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100d) / 100d * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += _buckets.get(i);
+            if (seen >= rank)
+                return Math.min(bucketHighestValue(i), getMaxNanos());
+        }
+        return getMaxNanos();
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong(_count.get());
+        out.writeLong(_totalNanos.get());
+        out.writeLong(_maxNanos.get());
+        //most buckets are empty, write only the used ones
+        int usedBuckets = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = _buckets.get(i);
+            if (counts[i] != 0)
+                usedBuckets++;
+        }
+        out.writeShort(usedBuckets);
+        for (int i = 0; i < BUCKET_COUNT && usedBuckets > 0; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+                usedBuckets--;
+            }
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        _count.set(in.readLong());
+        _totalNanos.set(in.readLong());
+        _maxNanos.set(in.readLong());
+        _buckets = new AtomicLongArray(BUCKET_COUNT);
+        int usedBuckets = in.readShort();
+        for (int i = 0; i < usedBuckets; i++)
+            _buckets.set(in.readShort(), in.readLong());
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + " mean=" + toMicros((long) getMeanNanos()) + "us p50=" + toMicros(getPercentileNanos(50))
+                + "us p99=" + toMicros(getPercentileNanos(99)) + "us p99.9=" + toMicros(getPercentileNanos(99.9))
+                + "us max=" + toMicros(getMaxNanos()) + "us";
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.lrmi;
+
+import com.gigaspaces.lrmi.LRMILatencyPhase;
+import com.gigaspaces.lrmi.LRMIMethodLatencyDetails;
+import com.gigaspaces.metrics.Gauge;
+import com.gigaspaces.metrics.MetricRegistrator;
+import com.gigaspaces.metrics.internal.GaugeContextProvider;
+import com.gigaspaces.metrics.internal.InternalGauge;
+import com.j_spaces.kernel.SystemProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the latency histograms of the remote methods invoked and served by this process, by their
+ * monitoring id. Enabled by {@link SystemProperties#LRMI_LATENCY_MONITORING_ENABLED}, otherwise
+ * callers skip taking timestamps altogether.
+ *
+ * Once a metric registrator is set, each method registers percentile gauges in microseconds per
+ * phase when it is first recorded. The count gauge is cumulative, while the percentile and max
+ * gauges report the invocations since the previous metrics sample, from a single interval snapshot
+ * per sample.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LRMILatencyMonitor {
+    private static final boolean ENABLED = Boolean.getBoolean(SystemProperties.LRMI_LATENCY_MONITORING_ENABLED);
+
+    private static final Map<String, LRMIMethodLatencyDetailsImpl> _methodsLatencyDetails = new ConcurrentHashMap<String, LRMIMethodLatencyDetailsImpl>();
+    private static MetricRegistrator _metricRegistrator;
+
+    private LRMILatencyMonitor() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static void record(String monitoringId, LRMILatencyPhase phase, long nanos) {
+        if (monitoringId == null)
+            return;
+        LRMIMethodLatencyDetailsImpl methodLatencyDetails = _methodsLatencyDetails.get(monitoringId);
+        if (methodLatencyDetails == null)
+            methodLatencyDetails = addMethod(monitoringId);
+        methodLatencyDetails.record(phase, nanos);
+    }
+
+    private static synchronized LRMIMethodLatencyDetailsImpl addMethod(String monitoringId) {
+        LRMIMethodLatencyDetailsImpl methodLatencyDetails = _methodsLatencyDetails.get(monitoringId);
+        if (methodLatencyDetails == null) {
+            methodLatencyDetails = new LRMIMethodLatencyDetailsImpl();
+            _methodsLatencyDetails.put(monitoringId, methodLatencyDetails);
+            if (_metricRegistrator != null)
+                registerMetrics(_metricRegistrator, monitoringId, methodLatencyDetails);
+        }
+        return methodLatencyDetails;
+    }
+
+    public static Map<String, LRMIMethodLatencyDetails> getMethodsLatencyDetails() {
+        return new HashMap<String, LRMIMethodLatencyDetails>(_methodsLatencyDetails);
+    }
+
+    /**
+     * Registers the metrics of the methods recorded so far and of those recorded from now on with
+     * the specified registrator.
+     */
+    public static synchronized void setMetricRegistrator(MetricRegistrator registrator) {
+        _metricRegistrator = registrator;
+        if (registrator == null)
+            return;
+        for (Map.Entry<String, LRMIMethodLatencyDetailsImpl> entry : _methodsLatencyDetails.entrySet())
+            registerMetrics(registrator, entry.getKey(), entry.getValue());
+    }
+
+    private static void registerMetrics(MetricRegistrator registrator, String monitoringId, LRMIMethodLatencyDetailsImpl methodLatencyDetails) {
+        for (LRMILatencyPhase phase : LRMILatencyPhase.values()) {
+            final LRMILatencyHistogram histogram = methodLatencyDetails.getLatencyDetails(phase);
+            String prefix = registrator.toPath(monitoringId, phase.getMetricName());
+            registrator.register(registrator.toPath(prefix, "count"), new Gauge<Long>() {
+                @Override
+                public Long getValue() throws Exception {
+                    return histogram.getCount();
+                }
+            });
+            //the sampler resets the provider before each sample, so the gauges of a sample share a snapshot
+            final GaugeContextProvider<LRMILatencyHistogram> interval = new GaugeContextProvider<LRMILatencyHistogram>() {
+                @Override
+                protected LRMILatencyHistogram loadValue() {
+                    return histogram.intervalSnapshot();
+                }
+            };
+            registerPercentile(registrator, registrator.toPath(prefix, "p50-micros"), interval, 50);
+            registerPercentile(registrator, registrator.toPath(prefix, "p99-micros"), interval, 99);
+            registerPercentile(registrator, registrator.toPath(prefix, "p999-micros"), interval, 99.9);
+            registrator.register(registrator.toPath(prefix, "max-micros"), new InternalGauge<Long>(interval) {
+                @Override
+                public Long getValue() throws Exception {
+                    return TimeUnit.NANOSECONDS.toMicros(interval.get().getMaxNanos());
+                }
+            });
+        }
+    }
+
+    private static void registerPercentile(MetricRegistrator registrator, String name, final GaugeContextProvider<LRMILatencyHistogram> interval, final double percentile) {
+        registrator.register(name, new InternalGauge<Long>(interval) {
+            @Override
+            public Long getValue() throws Exception {
+                return TimeUnit.NANOSECONDS.toMicros(interval.get().getPercentileNanos(percentile));
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.lrmi;
+
+import com.gigaspaces.internal.utils.StringUtils;
+import com.gigaspaces.lrmi.LRMILatencyPhase;
+import com.gigaspaces.lrmi.LRMIMethodLatencyDetails;
+import com.gigaspaces.serialization.SmartExternalizable;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LRMIMethodLatencyDetailsImpl implements LRMIMethodLatencyDetails, SmartExternalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final LRMILatencyPhase[] PHASES = LRMILatencyPhase.values();
+
+    private LRMILatencyHistogram[] _histograms = new LRMILatencyHistogram[PHASES.length];
+
+    public LRMIMethodLatencyDetailsImpl() {
+        for (int i = 0; i < _histograms.length; i++)
+            _histograms[i] = new LRMILatencyHistogram();
+    }
+
+    public void record(LRMILatencyPhase phase, long nanos) {
+        _histograms[phase.ordinal()].record(nanos);
+    }
+
+    @Override
+    public LRMILatencyHistogram getLatencyDetails(LRMILatencyPhase phase) {
+        return _histograms[phase.ordinal()];
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(_histograms.length);
+        for (LRMILatencyHistogram histogram : _histograms)
+            histogram.writeExternal(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int length = in.readByte();
+        for (int i = 0; i < length; i++) {
+            LRMILatencyHistogram histogram = new LRMILatencyHistogram();
+            histogram.readExternal(in);
+            //ignore phases which were added at a newer version of the other side
+            if (i < _histograms.length)
+                _histograms[i] = histogram;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (LRMILatencyPhase phase : PHASES) {
+            LRMILatencyHistogram histogram = getLatencyDetails(phase);
+            if (histogram.getCount() == 0)
+                continue;
+            builder.append(StringUtils.NEW_LINE);
+            builder.append("    ");
+            builder.append(phase.getMetricName());
+            builder.append(": ");
+            builder.append(histogram);
+        }
+        return builder.toString();
+    }
+}
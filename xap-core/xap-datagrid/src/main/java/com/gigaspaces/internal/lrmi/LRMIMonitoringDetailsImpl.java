@@ -16,8 +16,12 @@
 
 package com.gigaspaces.internal.lrmi;
 
+import com.gigaspaces.internal.io.IOUtils;
 import com.gigaspaces.internal.utils.StringUtils;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
 import com.gigaspaces.lrmi.LRMIInboundMonitoringDetails;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
+import com.gigaspaces.lrmi.LRMIMethodLatencyDetails;
 import com.gigaspaces.lrmi.LRMIMonitoringDetails;
 import com.gigaspaces.lrmi.LRMIOutboundMonitoringDetails;
 import com.gigaspaces.lrmi.nio.info.NIOInfoHelper;
@@ -27,6 +31,8 @@ import com.gigaspaces.start.SystemInfo;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * @author eitany
@@ -39,6 +45,7 @@ public class LRMIMonitoringDetailsImpl
     private static final long serialVersionUID = 1L;
     private LRMIInboundMonitoringDetailsImpl _inboundMonitoringDetails;
     private LRMIOutboundMonitoringDetailsImpl _outboundMonitoringDetails;
+    private Map<String, LRMIMethodLatencyDetails> _methodsLatencyDetails = Collections.emptyMap();
 
     public LRMIMonitoringDetailsImpl() {
     }
@@ -48,6 +55,12 @@ public class LRMIMonitoringDetailsImpl
         _outboundMonitoringDetails = outboundMonitoringDetails;
     }
 
+    public LRMIMonitoringDetailsImpl(LRMIInboundMonitoringDetailsImpl inboundMonitoringDetails, LRMIOutboundMonitoringDetailsImpl outboundMonitoringDetails,
+                                     Map<String, LRMIMethodLatencyDetails> methodsLatencyDetails) {
+        this(inboundMonitoringDetails, outboundMonitoringDetails);
+        _methodsLatencyDetails = methodsLatencyDetails;
+    }
+
     @Override
     public LRMIOutboundMonitoringDetails getOutboundMonitoringDetails() {
         return _outboundMonitoringDetails;
@@ -58,16 +71,25 @@ public class LRMIMonitoringDetailsImpl
         return _inboundMonitoringDetails;
     }
 
+    @Override
+    public Map<String, LRMIMethodLatencyDetails> getMethodsLatencyDetails() {
+        return _methodsLatencyDetails;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject(_outboundMonitoringDetails);
         out.writeObject(_inboundMonitoringDetails);
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v16_5_0))
+            IOUtils.writeMapStringT(out, _methodsLatencyDetails);
     }
 
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         _outboundMonitoringDetails = (LRMIOutboundMonitoringDetailsImpl) in.readObject();
         _inboundMonitoringDetails = (LRMIInboundMonitoringDetailsImpl) in.readObject();
+        if (LRMIInvocationContext.getEndpointLogicalVersion().greaterOrEquals(PlatformLogicalVersion.v16_5_0))
+            _methodsLatencyDetails = IOUtils.readMapStringT(in);
     }
 
     @Override
@@ -78,6 +100,16 @@ public class LRMIMonitoringDetailsImpl
         builder.append(_inboundMonitoringDetails);
         builder.append(StringUtils.NEW_LINE);
         builder.append(_outboundMonitoringDetails);
+        if (!_methodsLatencyDetails.isEmpty()) {
+            builder.append(StringUtils.NEW_LINE);
+            builder.append("Latency Details:");
+            for (Map.Entry<String, LRMIMethodLatencyDetails> entry : _methodsLatencyDetails.entrySet()) {
+                builder.append(StringUtils.NEW_LINE);
+                builder.append("  ");
+                builder.append(entry.getKey());
+                builder.append(entry.getValue());
+            }
+        }
         return builder.toString();
     }
 
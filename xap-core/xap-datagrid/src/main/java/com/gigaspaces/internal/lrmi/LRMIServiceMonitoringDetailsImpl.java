@@ -22,6 +22,7 @@ import com.gigaspaces.lrmi.LRMIServiceClientMonitoringDetails;
 import com.gigaspaces.lrmi.LRMIServiceClientMonitoringId;
 import com.gigaspaces.lrmi.LRMIServiceMonitoringDetails;
 import com.gigaspaces.lrmi.nio.ChannelEntry;
+import com.gigaspaces.lrmi.nio.NIOUtils;
 import com.gigaspaces.serialization.SmartExternalizable;
 
 import java.io.Externalizable;
@@ -84,7 +85,7 @@ public class LRMIServiceMonitoringDetailsImpl implements SmartExternalizable, LR
     }
 
     public void addChannelDetails(ChannelEntry channelEntry) {
-        Socket socket = channelEntry.getSocketChannel().socket();
+        Socket socket = NIOUtils.getSocket(channelEntry.getSocketChannel());
         if (socket == null)
             return;
 
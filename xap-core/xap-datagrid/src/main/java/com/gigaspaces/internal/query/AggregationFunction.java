@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.query;
+
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.MaxValueAggregator;
+import com.gigaspaces.query.aggregators.MinValueAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+
+/**
+ * The aggregation functions which can be computed over stored property values rather than entry
+ * by entry, by the columnar stores and the materialized aggregations.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public enum AggregationFunction {
+    COUNT, SUM, AVERAGE, MIN, MAX;
+
+    /**
+     * @return the function computed by the aggregator, null if it is not one of the functions
+     */
+    public static AggregationFunction of(SpaceEntriesAggregator aggregator) {
+        Class<?> type = aggregator.getClass();
+        if (type == CountAggregator.class)
+            return COUNT;
+        if (type == SumAggregator.class)
+            return SUM;
+        if (type == AverageAggregator.class)
+            return AVERAGE;
+        if (type == MinValueAggregator.class)
+            return MIN;
+        if (type == MaxValueAggregator.class)
+            return MAX;
+        return null;
+    }
+}
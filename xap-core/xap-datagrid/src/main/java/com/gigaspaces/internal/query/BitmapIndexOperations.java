@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.query;
+
+import com.gigaspaces.internal.utils.collections.CompressedBitmap;
+import com.j_spaces.core.cache.BitmapIndexHandler;
+import com.j_spaces.core.cache.TypeData;
+import com.j_spaces.core.cache.TypeDataIndex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the exact value conditions of a compound AND/OR scan which are on BITMAP indexes by
+ * bitmap operations over the entry ordinals of the type.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class BitmapIndexOperations {
+    private final Map<IQueryIndexScanner, TypeDataIndex<Object>> _indexes = new IdentityHashMap<IQueryIndexScanner, TypeDataIndex<Object>>();
+    private final List<ExactValueIndexScanner> _scanners = new ArrayList<ExactValueIndexScanner>();
+
+    private BitmapIndexOperations() {
+    }
+
+    /**
+     * @return the scanners which can be resolved by BITMAP indexes, null if there are less than
+     * minScanners such scanners
+     */
+    static BitmapIndexOperations collect(List<IQueryIndexScanner> scanners, TypeData typeData, int latestIndexToConsider, int minScanners) {
+        if (typeData.getEntryOrdinals() == null)
+            return null;
+        BitmapIndexOperations res = null;
+        for (IQueryIndexScanner scanner : scanners) {
+            if (scanner.getClass() != ExactValueIndexScanner.class)
+                continue;
+            TypeDataIndex<Object> index = ((ExactValueIndexScanner) scanner).getBitmapIndex(typeData, latestIndexToConsider);
+            if (index == null)
+                continue;
+            if (res == null)
+                res = new BitmapIndexOperations();
+            res._indexes.put(scanner, index);
+            res._scanners.add((ExactValueIndexScanner) scanner);
+        }
+        return res != null && res._scanners.size() >= minScanners ? res : null;
+    }
+
+    boolean covers(IQueryIndexScanner scanner) {
+        return _indexes.containsKey(scanner);
+    }
+
+    List<ExactValueIndexScanner> getScanners() {
+        return _scanners;
+    }
+
+    /**
+     * @return the ordinals of the entries matching all the conditions
+     */
+    CompressedBitmap and() {
+        //start from the most selective value so that the intermediate results stay small
+        final Map<ExactValueIndexScanner, Integer> cardinalities = new IdentityHashMap<ExactValueIndexScanner, Integer>();
+        for (ExactValueIndexScanner scanner : _scanners) {
+            Object value = scanner.getConvertedIndexValue(_indexes.get(scanner));
+            cardinalities.put(scanner, value == null ? 0 : bitmapIndex(scanner).getCardinality(value));
+        }
+        _scanners.sort(Comparator.comparing(cardinalities::get));
+
+        CompressedBitmap res = null;
+        for (ExactValueIndexScanner scanner : _scanners) {
+            Object value = scanner.getConvertedIndexValue(_indexes.get(scanner));
+            if (value == null)
+                return new CompressedBitmap();
+            res = res == null ? bitmapIndex(scanner).getBitmap(value) : bitmapIndex(scanner).and(res, value);
+            if (res.isEmpty())
+                break;
+        }
+        return res;
+    }
+
+    /**
+     * @return the ordinals of the entries matching any of the conditions
+     */
+    CompressedBitmap or() {
+        CompressedBitmap res = new CompressedBitmap();
+        for (ExactValueIndexScanner scanner : _scanners) {
+            Object value = scanner.getConvertedIndexValue(_indexes.get(scanner));
+            if (value != null)
+                res = bitmapIndex(scanner).or(res, value);
+        }
+        return res;
+    }
+
+    private BitmapIndexHandler<Object> bitmapIndex(ExactValueIndexScanner scanner) {
+        return _indexes.get(scanner).getBitmapIndex();
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.query;
+
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.utils.math.MutableNumber;
+import com.gigaspaces.query.aggregators.AbstractPathAggregator;
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByKey;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.GroupByValue;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import com.j_spaces.core.cache.CacheManager;
+import com.j_spaces.core.cache.ColumnarStore;
+import com.j_spaces.core.cache.TypeData;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates all the entries of a type over the columnar stores of the type and its sub types,
+ * instead of matching and aggregating entry by entry. Supports count, sum, average, min and max
+ * of stored properties, plain or grouped by stored properties. Each store is aggregated to
+ * intermediate results, which are merged into the requested aggregators only if all the stores
+ * could be scanned.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ColumnarAggregation {
+    private ColumnarAggregation() {
+    }
+
+    /**
+     * @param leaseFilter entries which expired before this time are not aggregated, Long.MIN_VALUE
+     *                    to aggregate them
+     * @return true if the aggregators were served from the columnar stores, false if the entries
+     * should be scanned
+     */
+    public static boolean aggregate(CacheManager cacheManager, IServerTypeDesc serverTypeDesc, List<SpaceEntriesAggregator> aggregators,
+                                    long leaseFilter) {
+        for (SpaceEntriesAggregator aggregator : aggregators)
+            if (!isSupported(aggregator))
+                return false;
+
+        List<ColumnarStore> stores = new ArrayList<ColumnarStore>();
+        for (IServerTypeDesc subType : serverTypeDesc.getAssignableTypes()) {
+            if (subType.isInactive())
+                continue;
+            TypeData typeData = cacheManager.getTypeData(subType);
+            if (typeData == null)
+                continue;
+            if (typeData.getColumnarStore() != null)
+                stores.add(typeData.getColumnarStore());
+            else if (typeData.getEntries() != null && typeData.getEntries().size() > 0)
+                return false;
+        }
+        if (stores.isEmpty())
+            return false;
+
+        List<Serializable[]> results = new ArrayList<Serializable[]>(stores.size());
+        for (ColumnarStore store : stores) {
+            Serializable[] storeResults;
+            store.beginScan();
+            try {
+                storeResults = aggregate(cacheManager, store, aggregators, leaseFilter);
+            } finally {
+                store.endScan();
+            }
+            if (storeResults == null)
+                return false;
+            results.add(storeResults);
+        }
+        for (Serializable[] storeResults : results)
+            for (int i = 0; i < storeResults.length; i++)
+                if (storeResults[i] != null)
+                    aggregators.get(i).aggregateIntermediateResult(storeResults[i]);
+        return true;
+    }
+
+    private static boolean isSupported(SpaceEntriesAggregator aggregator) {
+        if (aggregator.getClass() == GroupByAggregator.class) {
+            GroupByAggregator groupBy = (GroupByAggregator) aggregator;
+            if (groupBy.getGroupByPaths() == null || groupBy.getGroupByPaths().length == 0 || groupBy.getAggregators() == null)
+                return false;
+            for (SpaceEntriesAggregator selector : groupBy.getAggregators())
+                if (!isSupportedFunction(selector))
+                    return false;
+            return true;
+        }
+        return isSupportedFunction(aggregator);
+    }
+
+    private static boolean isSupportedFunction(SpaceEntriesAggregator aggregator) {
+        return AggregationFunction.of(aggregator) != null
+                && ((AbstractPathAggregator) aggregator).getFunctionCallColumn() == null
+                && (((AbstractPathAggregator) aggregator).getPath() != null || aggregator.getClass() == CountAggregator.class);
+    }
+
+    /**
+     * @return the intermediate result of each aggregator over the store, null if the store can't
+     * serve the aggregators
+     */
+    private static Serializable[] aggregate(CacheManager cacheManager, ColumnarStore store, List<SpaceEntriesAggregator> aggregators,
+                                            long leaseFilter) {
+        List<ColumnarStore.Column> columns = new ArrayList<ColumnarStore.Column>();
+        List<Selector> plainSelectors = new ArrayList<Selector>();
+        List<Grouping> groupings = new ArrayList<Grouping>();
+        Object[] plans = new Object[aggregators.size()];
+        for (int i = 0; i < plans.length; i++) {
+            SpaceEntriesAggregator aggregator = aggregators.get(i);
+            if (aggregator instanceof GroupByAggregator) {
+                GroupByAggregator groupBy = (GroupByAggregator) aggregator;
+                String[] paths = groupBy.getGroupByPaths();
+                int[] keys = new int[paths.length];
+                ColumnarStore.Column[] keyColumns = new ColumnarStore.Column[paths.length];
+                for (int k = 0; k < paths.length; k++) {
+                    keys[k] = columnOf(store, columns, paths[k]);
+                    if (keys[k] < 0)
+                        return null;
+                    keyColumns[k] = columns.get(keys[k]);
+                }
+                Selector[] selectors = new Selector[groupBy.getAggregators().size()];
+                for (int s = 0; s < selectors.length; s++) {
+                    selectors[s] = createSelector(store, columns, groupBy.getAggregators().get(s));
+                    if (selectors[s] == null)
+                        return null;
+                }
+                Grouping grouping = new Grouping(keys, keyColumns, selectors);
+                groupings.add(grouping);
+                plans[i] = grouping;
+            } else {
+                Selector selector = createSelector(store, columns, aggregator);
+                if (selector == null)
+                    return null;
+                selector.ensureCapacity(1);
+                plainSelectors.add(selector);
+                plans[i] = selector;
+            }
+        }
+
+        final Selector[] plain = plainSelectors.toArray(new Selector[plainSelectors.size()]);
+        final Grouping[] grouped = groupings.toArray(new Grouping[groupings.size()]);
+        boolean completed = store.scan(cacheManager, columns.toArray(new ColumnarStore.Column[columns.size()]), leaseFilter, (values, nulls) -> {
+            for (Selector selector : plain)
+                selector.accept(0, values, nulls);
+            for (Grouping grouping : grouped) {
+                int group = grouping.groupOf(values, nulls);
+                for (Selector selector : grouping._selectors)
+                    selector.accept(group, values, nulls);
+            }
+        });
+        if (!completed)
+            return null;
+
+        Serializable[] results = new Serializable[plans.length];
+        for (int i = 0; i < plans.length; i++)
+            results[i] = plans[i] instanceof Grouping ? ((Grouping) plans[i]).result() : ((Selector) plans[i]).result(0);
+        return results;
+    }
+
+    private static int columnOf(ColumnarStore store, List<ColumnarStore.Column> columns, String path) {
+        ColumnarStore.Column column = store.getColumn(path);
+        if (column == null)
+            return -1;
+        int pos = columns.indexOf(column);
+        if (pos < 0) {
+            pos = columns.size();
+            columns.add(column);
+        }
+        return pos;
+    }
+
+    private static Selector createSelector(ColumnarStore store, List<ColumnarStore.Column> columns, SpaceEntriesAggregator aggregator) {
+        AggregationFunction function = AggregationFunction.of(aggregator);
+        String path = ((AbstractPathAggregator) aggregator).getPath();
+        if (path == null)
+            return new Selector(function, -1, null, false);
+        int pos = columnOf(store, columns, path);
+        if (pos < 0)
+            return null;
+        ColumnarStore.Column column = columns.get(pos);
+        if ((function == AggregationFunction.SUM || function == AggregationFunction.AVERAGE) && column.getKind() == ColumnarStore.Kind.DICTIONARY)
+            return null;
+        boolean widest = aggregator instanceof SumAggregator ? ((SumAggregator) aggregator).isWidest()
+                : aggregator instanceof AverageAggregator && ((AverageAggregator) aggregator).isWidest();
+        return new Selector(function, pos, column, widest);
+    }
+
+    /**
+     * accumulates a single aggregation function per group
+     */
+    private static final class Selector {
+        private final AggregationFunction _function;
+        //position in the scanned columns, -1 for count(*)
+        private final int _pos;
+        private final ColumnarStore.Column _column;
+        private final boolean _widest;
+        //number of non null values per group
+        private long[] _counts = new long[0];
+        private long[] _longs;
+        private double[] _doubles;
+        private Object[] _objects;
+
+        private Selector(AggregationFunction function, int pos, ColumnarStore.Column column, boolean widest) {
+            _function = function;
+            _pos = pos;
+            _column = column;
+            _widest = widest;
+        }
+
+        private void ensureCapacity(int groups) {
+            if (_counts.length >= groups)
+                return;
+            int capacity = Math.max(groups, _counts.length * 2);
+            _counts = Arrays.copyOf(_counts, capacity);
+            if (_column == null || _function == AggregationFunction.COUNT)
+                return;
+            if (_column.getKind() == ColumnarStore.Kind.DICTIONARY)
+                _objects = _objects == null ? new Object[capacity] : Arrays.copyOf(_objects, capacity);
+            else if (_column.getKind() == ColumnarStore.Kind.DOUBLE)
+                _doubles = _doubles == null ? new double[capacity] : Arrays.copyOf(_doubles, capacity);
+            else
+                _longs = _longs == null ? new long[capacity] : Arrays.copyOf(_longs, capacity);
+        }
+
+        private void accept(int group, long[] values, long nulls) {
+            if (_pos < 0) {
+                _counts[group]++;
+                return;
+            }
+            if ((nulls & (1L << _pos)) != 0)
+                return;
+            long value = values[_pos];
+            boolean first = _counts[group]++ == 0;
+            switch (_function) {
+                case COUNT:
+                    return;
+                case SUM:
+                case AVERAGE:
+                    if (_doubles != null)
+                        _doubles[group] += ColumnarStore.Column.toDouble(value);
+                    else
+                        _longs[group] += value;
+                    return;
+                default:
+                    int c;
+                    if (_objects != null) {
+                        Object decoded = _column.decode(value);
+                        c = first ? 0 : ((Comparable) decoded).compareTo(_objects[group]);
+                        if (first || (_function == AggregationFunction.MIN ? c < 0 : c > 0))
+                            _objects[group] = decoded;
+                    } else if (_doubles != null) {
+                        double d = ColumnarStore.Column.toDouble(value);
+                        c = first ? 0 : Double.compare(d, _doubles[group]);
+                        if (first || (_function == AggregationFunction.MIN ? c < 0 : c > 0))
+                            _doubles[group] = d;
+                    } else {
+                        c = first ? 0 : Long.compare(value, _longs[group]);
+                        if (first || (_function == AggregationFunction.MIN ? c < 0 : c > 0))
+                            _longs[group] = value;
+                    }
+            }
+        }
+
+        private Serializable result(int group) {
+            long count = _counts[group];
+            if (_function == AggregationFunction.COUNT)
+                return count;
+            if (count == 0)
+                return null;
+            switch (_function) {
+                case SUM:
+                    MutableNumber sum = MutableNumber.fromClass(_column.decode(0).getClass(), _widest);
+                    sum.add(total(group));
+                    return sum;
+                case AVERAGE:
+                    return new AverageAggregator.AverageTuple((Number) _column.decode(0), _widest).add(total(group), count - 1);
+                default:
+                    if (_objects != null)
+                        return (Serializable) _objects[group];
+                    if (_doubles != null)
+                        return (Serializable) _column.decode(Double.doubleToRawLongBits(_doubles[group]));
+                    return (Serializable) _column.decode(_longs[group]);
+            }
+        }
+
+        private Number total(int group) {
+            return _doubles != null ? (Number) _doubles[group] : (Number) _longs[group];
+        }
+    }
+
+    /**
+     * assigns dense group ids to the distinct key values, and accumulates the selectors per group
+     */
+    private static final class Grouping {
+        private final int[] _keys;
+        private final ColumnarStore.Column[] _keyColumns;
+        private final Selector[] _selectors;
+        //group id + 1 per slot, 0 for an empty slot
+        private int[] _table = new int[64];
+        //keys of each group, _keys.length values per group
+        private long[] _groupKeys;
+        private long[] _groupNulls = new long[64];
+        private int _size;
+
+        private Grouping(int[] keys, ColumnarStore.Column[] keyColumns, Selector[] selectors) {
+            _keys = keys;
+            _keyColumns = keyColumns;
+            _selectors = selectors;
+            _groupKeys = new long[64 * keys.length];
+        }
+
+        private int groupOf(long[] values, long nulls) {
+            long keyNulls = 0;
+            long hash = 0;
+            for (int k = 0; k < _keys.length; k++) {
+                long value = 0;
+                if ((nulls & (1L << _keys[k])) != 0)
+                    keyNulls |= 1L << k;
+                else
+                    value = values[_keys[k]];
+                hash = hash * 31 + value;
+            }
+            hash = hash * 31 + keyNulls;
+            int mask = _table.length - 1;
+            int slot = mix(hash) & mask;
+            while (true) {
+                int group = _table[slot] - 1;
+                if (group < 0)
+                    return add(slot, values, nulls, keyNulls);
+                if (matches(group, values, keyNulls))
+                    return group;
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private boolean matches(int group, long[] values, long keyNulls) {
+            if (_groupNulls[group] != keyNulls)
+                return false;
+            int offset = group * _keys.length;
+            for (int k = 0; k < _keys.length; k++)
+                if ((keyNulls & (1L << k)) == 0 && _groupKeys[offset + k] != values[_keys[k]])
+                    return false;
+            return true;
+        }
+
+        private int add(int slot, long[] values, long nulls, long keyNulls) {
+            int group = _size++;
+            if (_groupNulls.length == group) {
+                _groupNulls = Arrays.copyOf(_groupNulls, group * 2);
+                _groupKeys = Arrays.copyOf(_groupKeys, group * 2 * _keys.length);
+            }
+            _groupNulls[group] = keyNulls;
+            int offset = group * _keys.length;
+            for (int k = 0; k < _keys.length; k++)
+                _groupKeys[offset + k] = (keyNulls & (1L << k)) == 0 ? values[_keys[k]] : 0;
+            for (Selector selector : _selectors)
+                selector.ensureCapacity(_size);
+            _table[slot] = group + 1;
+            if (_size * 2 > _table.length)
+                rehash();
+            return group;
+        }
+
+        private void rehash() {
+            int[] table = new int[_table.length * 2];
+            int mask = table.length - 1;
+            for (int group = 0; group < _size; group++) {
+                long hash = 0;
+                int offset = group * _keys.length;
+                for (int k = 0; k < _keys.length; k++)
+                    hash = hash * 31 + _groupKeys[offset + k];
+                hash = hash * 31 + _groupNulls[group];
+                int slot = mix(hash) & mask;
+                while (table[slot] != 0)
+                    slot = (slot + 1) & mask;
+                table[slot] = group + 1;
+            }
+            _table = table;
+        }
+
+        private static int mix(long hash) {
+            hash *= 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        private GroupByResult result() {
+            if (_size == 0)
+                return null;
+            Map<GroupByKey, GroupByValue> map = new HashMap<GroupByKey, GroupByValue>(_size * 2);
+            for (int group = 0; group < _size; group++) {
+                Object[] key = new Object[_keys.length];
+                int offset = group * _keys.length;
+                for (int k = 0; k < _keys.length; k++)
+                    key[k] = (_groupNulls[group] & (1L << k)) == 0 ? _keyColumns[k].decode(_groupKeys[offset + k]) : null;
+                Object[] values = new Object[_selectors.length];
+                for (int s = 0; s < _selectors.length; s++)
+                    values[s] = _selectors[s].result(group);
+                map.put(new GroupByKey(key), new GroupByValue(values));
+            }
+            return new GroupByResult(map);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.gigaspaces.internal.query.explainplan.IndexChoiceNode;
 import com.gigaspaces.internal.query.explainplan.IndexInfo;
 import com.gigaspaces.internal.query.explainplan.UnionIndexInfo;
 import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.gigaspaces.internal.utils.collections.CompressedBitmap;
 import com.j_spaces.core.cache.IEntryCacheInfo;
 import com.j_spaces.core.cache.TypeData;
 import com.j_spaces.core.cache.TypeDataIndex;
@@ -28,6 +29,7 @@ import com.j_spaces.kernel.IStoredList;
 import com.j_spaces.kernel.list.IObjectsList;
 import com.j_spaces.kernel.list.IScanListIterator;
 import com.j_spaces.kernel.list.MultiIntersectedStoredList;
+import com.j_spaces.kernel.list.ScanBitmapIterator;
 import com.j_spaces.kernel.list.ScanUidsIterator;
 
 import java.util.List;
@@ -85,6 +87,7 @@ public class CompoundAndIndexScanner extends AbstractCompoundIndexScanner {
         IndexChoiceNode fatherNode = null;
         IndexChoiceNode choiceNode = null;
         IQueryIndexScanner shortestIndex = null;
+        IQueryIndexScanner shortestExtendedIndex = null;
         final boolean isExplainPlan = context.getExplainPlanContext() != null;
         final boolean trackIndexHits = context.getIndexMetricsContext() != null;
         if(isExplainPlan){
@@ -93,8 +96,22 @@ public class CompoundAndIndexScanner extends AbstractCompoundIndexScanner {
             context.getExplainPlanContext().getSingleExplainPlan().addScanIndexChoiceNode(typeData.getClassName(), choiceNode);
         }
 
+        // Conditions on BITMAP indexes are intersected as bitmaps:
+        final BitmapIndexOperations bitmapIndexes = isExplainPlan || template.isFifoTemplate() || template.isFifoGroupPoll() ? null :
+                BitmapIndexOperations.collect(indexScanners, typeData, latestIndexToConsider, 2 /*minScanners*/);
+        ScanBitmapIterator bitmapMatch = null;
+        if (bitmapIndexes != null) {
+            CompressedBitmap ordinals = bitmapIndexes.and();
+            if (ordinals.isEmpty())
+                return IQueryIndexScanner.RESULT_NO_MATCH;
+            bitmapMatch = new ScanBitmapIterator(typeData.getEntryOrdinals(), ordinals);
+            context.setBlobStoreUsePureIndexesAccess(false);
+        }
+
         // Iterate over custom indexes to find shortest potential match list:
         for (IQueryIndexScanner queryIndex : indexScanners) {
+            if (bitmapIndexes != null && bitmapIndexes.covers(queryIndex))
+                continue;
             // Get entries in space that match the indexed value in the query (a.k.a potential match list):
             IObjectsList result;
 
@@ -136,10 +153,11 @@ public class CompoundAndIndexScanner extends AbstractCompoundIndexScanner {
                 if (context.isIndicesIntersectionEnabled())
                     intersectedList = addToIntersectedList(context, intersectedList, result, template.isFifoTemplate(), false/*shortest*/, typeData);
 
-                if (!wasUids) {
+                //keep the iterator with the smallest estimated size, otherwise the latest
+                if (!wasUids && (queryIndex.isUidsScanner() || !isShorter(shortestExtendedIndexMatch, (IScanListIterator<IEntryCacheInfo>) result))) {
                     shortestExtendedIndexMatch = (IScanListIterator<IEntryCacheInfo>) result;
                     if (isExplainPlan || trackIndexHits) {
-                        shortestIndex = queryIndex;
+                        shortestExtendedIndex = queryIndex;
                     }
                 }
                 continue;
@@ -169,7 +187,24 @@ public class CompoundAndIndexScanner extends AbstractCompoundIndexScanner {
 
         }
 
-        if (shortestPotentialMatchList != null && (uidsSize == Integer.MAX_VALUE || shortestPotentialMatchList.size() <= uidsSize)) {
+        if (bitmapMatch != null) {
+            if ((shortestPotentialMatchList == null || bitmapMatch.size() < shortestPotentialMatchList.size()) && bitmapMatch.size() <= uidsSize) {
+                if (context.isIndicesIntersectionEnabled() && intersectedList != null)
+                    return addToIntersectedList(context, intersectedList, bitmapMatch, template.isFifoTemplate(), true/*shortest*/, typeData);
+                if (trackIndexHits) {
+                    for (IQueryIndexScanner queryIndex : bitmapIndexes.getScanners())
+                        context.getIndexMetricsContext().addChosenIndex(queryIndex);
+                }
+                return bitmapMatch;
+            }
+            if (context.isIndicesIntersectionEnabled())
+                intersectedList = addToIntersectedList(context, intersectedList, bitmapMatch, template.isFifoTemplate(), false/*shortest*/, typeData);
+        }
+
+        // a range scan whose estimated size is smaller than the shortest list is preferred
+        final boolean shorterExtendedIndexMatch = uidsIter == null && shortestPotentialMatchList != null && shortestExtendedIndexMatch != null
+                && shortestExtendedIndexMatch.hasSize() && shortestExtendedIndexMatch.size() < shortestPotentialMatchList.size();
+        if (shortestPotentialMatchList != null && !shorterExtendedIndexMatch && (uidsSize == Integer.MAX_VALUE || shortestPotentialMatchList.size() <= uidsSize)) {
             if (context.isIndicesIntersectionEnabled()) {
                 intersectedList = addToIntersectedList(context, intersectedList, shortestPotentialMatchList, template.isFifoTemplate(), true/*shortest*/, typeData);
                 if (shortestExtendedIndexMatch != null)
@@ -195,11 +230,11 @@ public class CompoundAndIndexScanner extends AbstractCompoundIndexScanner {
             }
 
             if (isExplainPlan){
-                addChosenIndex(context, typeData, fatherNode, choiceNode, shortestIndex != null ? shortestIndex.getIndexName() : null);
+                addChosenIndex(context, typeData, fatherNode, choiceNode, shortestExtendedIndex != null ? shortestExtendedIndex.getIndexName() : null);
             }
 
-            if (trackIndexHits && shortestIndex != null) {
-                context.getIndexMetricsContext().addChosenIndex(shortestIndex);
+            if (trackIndexHits && shortestExtendedIndex != null) {
+                context.getIndexMetricsContext().addChosenIndex(shortestExtendedIndex);
             }
 
             return shortestExtendedIndexMatch;
@@ -216,6 +251,10 @@ public class CompoundAndIndexScanner extends AbstractCompoundIndexScanner {
         return IQueryIndexScanner.RESULT_IGNORE_INDEX;
     }
 
+    private static boolean isShorter(IScanListIterator<IEntryCacheInfo> iter, IScanListIterator<IEntryCacheInfo> other) {
+        return iter != null && iter.hasSize() && other.hasSize() && iter.size() <= other.size();
+    }
+
     private void addChosenIndex(Context context, TypeData typeData, IndexChoiceNode fatherNode, IndexChoiceNode choiceNode, String shortestIndexName) {
         IndexInfo chosen = context.getExplainPlanContext().getSingleExplainPlan().getLatestIndexChoiceNode(typeData.getClassName()).getOptionByName(shortestIndexName);
         choiceNode.setChosen(chosen);
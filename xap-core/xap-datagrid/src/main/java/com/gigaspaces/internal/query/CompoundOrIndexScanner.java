@@ -21,12 +21,14 @@ import com.gigaspaces.internal.query.explainplan.IndexChoiceNode;
 import com.gigaspaces.internal.query.explainplan.IndexInfo;
 import com.gigaspaces.internal.query.explainplan.UnionIndexInfo;
 import com.gigaspaces.internal.server.storage.ITemplateHolder;
+import com.gigaspaces.internal.utils.collections.CompressedBitmap;
 import com.j_spaces.core.cache.IEntryCacheInfo;
 import com.j_spaces.core.cache.TypeData;
 import com.j_spaces.core.cache.TypeDataIndex;
 import com.j_spaces.core.cache.context.Context;
 import com.j_spaces.kernel.list.IObjectsList;
 import com.j_spaces.kernel.list.MultiStoredList;
+import com.j_spaces.kernel.list.ScanBitmapIterator;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -89,7 +91,23 @@ public class CompoundOrIndexScanner extends AbstractCompoundIndexScanner
             explainPlanContext.setFatherNode(choiceNode);
         }
 
+        // Conditions on BITMAP indexes are united as bitmaps:
+        final BitmapIndexOperations bitmapIndexes = choiceNode != null || template.isFifoGroupPoll() ? null :
+                BitmapIndexOperations.collect(indexScanners, typeData, latestIndexToConsider, 2 /*minScanners*/);
+        if (bitmapIndexes != null) {
+            CompressedBitmap ordinals = bitmapIndexes.or();
+            if (!ordinals.isEmpty())
+                unionList.add(new ScanBitmapIterator(typeData.getEntryOrdinals(), ordinals));
+            context.setBlobStoreUsePureIndexesAccess(false);
+            if (context.getIndexMetricsContext() != null) {
+                for (IQueryIndexScanner indexScanner : bitmapIndexes.getScanners())
+                    context.getIndexMetricsContext().addChosenIndex(indexScanner);
+            }
+        }
+
         for (IQueryIndexScanner indexScanner : indexScanners) {
+            if (bitmapIndexes != null && bitmapIndexes.covers(indexScanner))
+                continue;
             IObjectsList indexResult = indexScanner.getIndexedEntriesByType(context, typeData, template, latestIndexToConsider);
 
             if (indexResult == IQueryIndexScanner.RESULT_IGNORE_INDEX) {
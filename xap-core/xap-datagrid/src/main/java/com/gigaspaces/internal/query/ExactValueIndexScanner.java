@@ -77,6 +77,27 @@ public class ExactValueIndexScanner extends AbstractQueryIndex {
         return res;
     }
 
+    /**
+     * @return the BITMAP index which can resolve this scan, null if there is none
+     */
+    TypeDataIndex<Object> getBitmapIndex(TypeData typeData, int latestIndexToConsider) {
+        final TypeDataIndex<Object> index = (TypeDataIndex<Object>) typeData.getIndex(getIndexName());
+        if (index == null || index.getBitmapIndex() == null || !hasIndexValue())
+            return null;
+        if (latestIndexToConsider < index.getIndexCreationNumber() || typeData.disableIdIndexForEntries(index))
+            return null;
+        return index;
+    }
+
+    /**
+     * @return the index value converted to the index value type, null if it cannot be converted
+     */
+    Object getConvertedIndexValue(TypeDataIndex<Object> index) {
+        if (_convertedValueWrapper == null)
+            _convertedValueWrapper = ConvertedObjectWrapper.create(_indexValue, index.getValueType());
+        return _convertedValueWrapper != null ? _convertedValueWrapper.getValue() : null;
+    }
+
     public boolean requiresOrderedIndex() {
         return false;
     }
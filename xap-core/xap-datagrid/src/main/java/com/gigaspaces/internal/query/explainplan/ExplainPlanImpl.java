@@ -23,6 +23,7 @@ import com.gigaspaces.query.explainplan.ExplainPlan;
 import com.j_spaces.core.client.SQLQuery;
 import com.j_spaces.jdbc.builder.QueryTemplatePacket;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,7 @@ public class ExplainPlanImpl implements ExplainPlan {
     protected final Map<String, SingleExplainPlan> plans = new HashMap<>();
     protected final IntegerObjectMap<Integer> indexInfoDescCache = CollectionsFactory.getInstance().createIntegerObjectMap();
     protected PartitionedClusterExecutionType executionType;
+    protected final List<String> joinsInfo = new ArrayList<>();
 
     /**
      * @param query can be null
@@ -77,12 +79,25 @@ public class ExplainPlanImpl implements ExplainPlan {
     public void reset() {
         plans.clear();
         indexInfoDescCache.clear();
+        joinsInfo.clear();
     }
 
     public void aggregate(SingleExplainPlan plan) {
         plans.put(plan.getPartitionId(), plan);
     }
 
+    /**
+     * @return the join algorithm chosen for each joined table
+     * @since 16.5
+     */
+    public List<String> getJoinsInfo() {
+        return joinsInfo;
+    }
+
+    public void addJoinInfo(String joinInfo) {
+        joinsInfo.add(joinInfo);
+    }
+
     @Override
     public String toString() {
         TextReportFormatter report = new TextReportFormatter();
@@ -100,6 +115,18 @@ public class ExplainPlanImpl implements ExplainPlan {
             appendSummary(report);
             appendDetailed(report);
         }
+        appendJoins(report);
+    }
+
+    protected void appendJoins(TextReportFormatter report) {
+        if (joinsInfo.isEmpty())
+            return;
+        report.line("Joins:");
+        report.indent();
+        for (String joinInfo : joinsInfo) {
+            report.line(joinInfo);
+        }
+        report.unindent();
     }
 
     protected void appendSummary(TextReportFormatter report) {
@@ -24,6 +24,7 @@ public class ExplainPlanInfo extends JdbcExplainPlan {
     private List<PartitionIndexInspectionDetail> indexInspectionsPerPartition = new ArrayList<>();
     private String filter;
     private boolean distinct;
+    private final List<String> joins;
 
 
     public ExplainPlanInfo(ExplainPlanV3 explainPlan) {
@@ -32,6 +33,7 @@ public class ExplainPlanInfo extends JdbcExplainPlan {
         columns = explainPlan.getProjectedColumns();
         executionType = explainPlan.getExecutionType();
         distinct = explainPlan.isDistinct();
+        joins = new ArrayList<>(explainPlan.getJoinsInfo());
     }
 
     @Override
@@ -139,6 +141,10 @@ public class ExplainPlanInfo extends JdbcExplainPlan {
         return filter;
     }
 
+    public List<String> getJoins() {
+        return joins;
+    }
+
     public void setFilter(String filter) {
         this.filter = filter;
     }
@@ -173,6 +179,10 @@ public class ExplainPlanInfo extends JdbcExplainPlan {
             formatter.line("Execution type: " + "Single Partition");
         }
 
+        for (String join : joins) {
+            formatter.line("Join: " + join);
+        }
+
         formatVerbose(formatter, false);
 
         formatter.unindent();
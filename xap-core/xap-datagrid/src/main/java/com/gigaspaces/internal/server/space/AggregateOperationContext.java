@@ -17,6 +17,7 @@
 package com.gigaspaces.internal.server.space;
 
 import com.gigaspaces.internal.transport.ITemplatePacket;
+import com.j_spaces.core.cache.IEntryCacheInfo;
 
 import java.util.HashSet;
 
@@ -26,8 +27,27 @@ import java.util.HashSet;
 @com.gigaspaces.api.InternalApi
 public class AggregateOperationContext extends BatchQueryOperationContext {
 
+    private final AggregationSegments<IEntryCacheInfo, SpaceEngine.AggregationScan> _segments;
+
     public AggregateOperationContext(ITemplatePacket template, int maxEntries, int minEntries) {
+        this(template, maxEntries, minEntries, null);
+    }
+
+    /**
+     * creates a context whose scan aggregates the entries of segment 0 and hands the entries of
+     * the other segments to their workers
+     */
+    AggregateOperationContext(ITemplatePacket template, int maxEntries, int minEntries,
+                              AggregationSegments<IEntryCacheInfo, SpaceEngine.AggregationScan> segments) {
         super(template, maxEntries, minEntries);
+        _segments = segments;
+    }
+
+    /**
+     * @return the segments the scan should hand entries to, null if the aggregation is not split
+     */
+    AggregationSegments<IEntryCacheInfo, SpaceEngine.AggregationScan> getSegments() {
+        return _segments;
     }
 
     @Override
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Partitions the candidates of a single scan between the segments of a parallel aggregation. The
+ * scanning thread aggregates segment 0 itself and hands the candidates of the other segments, in
+ * batches, to one worker per segment. A candidate is assigned to a segment by its uid, so a
+ * candidate which is scanned twice is handed to the same segment and filtered there like in a
+ * serial scan.
+ *
+ * The queues are not bounded: a worker may be queued behind the workers of other aggregations in
+ * the aggregation pool, and a bounded queue would block the scan behind it. At worst a queue holds
+ * a reference to each candidate of its segment.
+ *
+ * @param <C> the type of the candidates
+ * @param <S> the type of the scan parameters shared by consecutive candidates
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class AggregationSegments<C, S> {
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final Batch END = new Batch(null, 0);
+
+    private final int _numOfSegments;
+    private final int _batchSize;
+    private final BlockingQueue<Batch>[] _queues;
+    //only accessed by the scanning thread
+    private final Batch[] _pending;
+    private volatile Throwable _failure;
+
+    @SuppressWarnings("unchecked")
+    public AggregationSegments(int numOfSegments, int batchSize) {
+        if (numOfSegments < 2)
+            throw new IllegalArgumentException("numOfSegments should be greater than 1: " + numOfSegments);
+        _numOfSegments = numOfSegments;
+        _batchSize = batchSize;
+        _queues = new BlockingQueue[numOfSegments];
+        _pending = new Batch[numOfSegments];
+        for (int i = 1; i < numOfSegments; i++)
+            _queues[i] = new LinkedBlockingQueue<Batch>();
+    }
+
+    public int getNumOfSegments() {
+        return _numOfSegments;
+    }
+
+    /**
+     * @return the segment of the specified uid, out of numOfSegments
+     */
+    public static int segmentOf(String uid, int numOfSegments) {
+        int h = uid.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h * 0x9E3779B9, numOfSegments);
+    }
+
+    /**
+     * Hands a candidate to the worker of its segment, should be called by the scanning thread only
+     *
+     * @return false if the candidate belongs to segment 0, which the scanning thread aggregates
+     */
+    public boolean dispatch(String uid, C candidate, S scan) {
+        final int segment = segmentOf(uid, _numOfSegments);
+        if (segment == 0)
+            return false;
+        if (_failure != null)
+            return true; //the aggregation already failed, the failure is thrown by the worker
+        Batch batch = _pending[segment];
+        if (batch != null && batch._scan != scan) {
+            _queues[segment].add(batch);
+            batch = null;
+        }
+        if (batch == null) {
+            batch = new Batch(scan, _batchSize);
+            _pending[segment] = batch;
+        }
+        batch._candidates[batch._size++] = candidate;
+        if (batch._size == _batchSize) {
+            _queues[segment].add(batch);
+            _pending[segment] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Hands the remaining candidates to the workers and lets them complete, should be called by the
+     * scanning thread once the scan is done or failed
+     */
+    public void finish() {
+        for (int i = 1; i < _numOfSegments; i++) {
+            if (_pending[i] != null) {
+                _queues[i].add(_pending[i]);
+                _pending[i] = null;
+            }
+            _queues[i].add(END);
+        }
+    }
+
+    /**
+     * Consumes the candidates of the specified segment until {@link #finish()} is called. Once a
+     * segment failed the candidates of all segments are drained without being consumed.
+     */
+    @SuppressWarnings("unchecked")
+    public void consume(int segment, Consumer<C, S> consumer) throws Exception {
+        final BlockingQueue<Batch> queue = _queues[segment];
+        try {
+            for (Batch batch = queue.take(); batch != END; batch = queue.take()) {
+                if (_failure != null)
+                    continue;
+                for (int i = 0; i < batch._size; i++)
+                    consumer.consume((C) batch._candidates[i], (S) batch._scan);
+            }
+        } catch (Exception e) {
+            _failure = e;
+            throw e;
+        } catch (Error e) {
+            _failure = e;
+            throw e;
+        }
+    }
+
+    public interface Consumer<C, S> {
+        void consume(C candidate, S scan) throws Exception;
+    }
+
+    private static class Batch {
+        private final Object _scan;
+        private final Object[] _candidates;
+        private int _size;
+
+        private Batch(Object scan, int batchSize) {
+            _scan = scan;
+            _candidates = new Object[batchSize];
+        }
+    }
+}
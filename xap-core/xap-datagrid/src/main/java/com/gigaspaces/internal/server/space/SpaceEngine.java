@@ -69,6 +69,7 @@ import com.gigaspaces.internal.metadata.ITypeDesc;
 import com.gigaspaces.internal.metadata.TypeDesc;
 import com.gigaspaces.internal.metadata.TypeDescriptorUtils;
 import com.gigaspaces.internal.metadata.converter.ConversionException;
+import com.gigaspaces.internal.query.ColumnarAggregation;
 import com.gigaspaces.internal.query.EntryHolderAggregatorContext;
 import com.gigaspaces.internal.query.explainplan.ExplainPlanContext;
 import com.gigaspaces.internal.query.explainplan.SingleExplainPlan;
@@ -98,6 +99,7 @@ import com.gigaspaces.internal.transport.mvcc.IMVCCEntryPacket;
 import com.gigaspaces.internal.utils.GsEnv;
 import com.gigaspaces.internal.utils.StringUtils;
 import com.gigaspaces.internal.utils.collections.IAddOnlySet;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
 import com.gigaspaces.logger.LogLevel;
 import com.gigaspaces.lrmi.LRMIRuntime;
 import com.gigaspaces.lrmi.TransportProtocolHelper;
@@ -106,6 +108,8 @@ import com.gigaspaces.lrmi.nio.ResponseContext;
 import com.gigaspaces.management.space.SpaceQueryDetails;
 import com.gigaspaces.metadata.SpaceMetadataValidationException;
 import com.gigaspaces.metrics.*;
+import com.gigaspaces.query.aggregators.AggregationInternalUtils;
+import com.gigaspaces.query.aggregators.GroupByResult;
 import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
 import com.gigaspaces.security.authorities.SpaceAuthority.SpacePrivilege;
 import com.gigaspaces.server.blobstore.BlobStoreException;
@@ -166,9 +170,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.transaction.xa.Xid;
+import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static com.j_spaces.core.Constants.CacheManager.*;
@@ -284,6 +293,11 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
     private final int _resultsSizeLimit;
     private final int _resultsSizeLimitMemoryCheckBatchSize;
 
+    private final boolean _parallelAggregation;
+    private final int _aggregationParallelism;
+    private final int _parallelAggregationMinEntries;
+    private volatile ExecutorService _aggregationExecutor;
+
     private TieredStorageManager tieredStorageManager;
 
     private final MVCCSpaceEngineHandler _mvccSpaceEngineHandler;
@@ -389,6 +403,10 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         _duplicateOperationIDFilter = createDuplicateOperationIDFilter();
         _resultsSizeLimit = _configReader.getIntSpaceProperty(ENGINE_QUERY_RESULT_SIZE_LIMIT, ENGINE_QUERY_RESULT_SIZE_LIMIT_DEFAULT);
         _resultsSizeLimitMemoryCheckBatchSize = _configReader.getIntSpaceProperty(ENGINE_QUERY_RESULT_SIZE_LIMIT_MEMORY_CHECK_BATCH_SIZE, ENGINE_QUERY_RESULT_SIZE_LIMIT_MEMORY_CHECK_BATCH_SIZE_DEFAULT);
+        _parallelAggregation = _configReader.getBooleanSpaceProperty(ENGINE_AGGREGATION_PARALLEL_PROP, ENGINE_AGGREGATION_PARALLEL_DEFAULT);
+        final int aggregationParallelism = _configReader.getIntSpaceProperty(ENGINE_AGGREGATION_PARALLELISM_PROP, ENGINE_AGGREGATION_PARALLELISM_DEFAULT);
+        _aggregationParallelism = aggregationParallelism > 0 ? aggregationParallelism : Runtime.getRuntime().availableProcessors();
+        _parallelAggregationMinEntries = _configReader.getIntSpaceProperty(ENGINE_AGGREGATION_PARALLEL_MIN_ENTRIES_PROP, ENGINE_AGGREGATION_PARALLEL_MIN_ENTRIES_DEFAULT);
         if (!_isLocalCache) {
             registerSpaceMetrics(_metricRegistrator);
         }
@@ -3701,6 +3719,9 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         if (_processorWG != null)
             _processorWG.shutdown();
 
+        if (_aggregationExecutor != null)
+            _aggregationExecutor.shutdownNow();
+
         if (_leaseManager != null)
             _leaseManager.close();
 
@@ -4286,11 +4307,18 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
             if (toScan instanceof ExtendedIndexIterator) {
                 rightColumnPosition = ((ExtendedIndexIterator<?>)toScan).getRightColumnPosition();
             }
+            final AggregationSegments<IEntryCacheInfo, AggregationScan> segments = template.getBatchOperationContext() instanceof AggregateOperationContext
+                    ? ((AggregateOperationContext) template.getBatchOperationContext()).getSegments() : null;
+            final AggregationScan segmentsScan = segments != null ? new AggregationScan(needMatch, alreadyMatchedFixedPropertyIndexPos,
+                    alreadyMatchedIndexPath, leaseFilter, makeWaitForInfo, entryTypeDesc, rightColumnPosition) : null;
             while (hasNext = toScan.hasNext()) {
                 IEntryCacheInfo pEntry = toScan.next();
                 if (pEntry == null) {
                     continue;
                 }
+                if (segments != null && segments.dispatch(pEntry.getUID(), pEntry, segmentsScan)) {
+                    continue; //aggregated by the worker of its segment
+                }
                 getMatchedEntriesAndOperateSA_Entry(context,
                         template,
                         needMatch, alreadyMatchedFixedPropertyIndexPos, alreadyMatchedIndexPath, leaseFilter,
@@ -6701,11 +6729,37 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
     public AnswerHolder aggregate(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers,
                           SpaceContext sc)
             throws Exception {
+        return aggregate(queryPacket, aggregators, readModifiers, sc, false);
+    }
+
+    /**
+     * @param parallel true if the aggregation should be split within this partition regardless of
+     *                 the space's parallel aggregation setting
+     */
+    public AnswerHolder aggregate(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers,
+                                  SpaceContext sc, boolean parallel)
+            throws Exception {
         if (Modifiers.contains(readModifiers, Modifiers.EXPLAIN_PLAN)) {
             SingleExplainPlan.validate(0, _cacheManager.isBlobStoreCachePolicy(), readModifiers,
                     queryPacket.getCustomQuery(), getClassTypeInfo(queryPacket.getTypeName()).getIndexes());
         }
-        BatchQueryOperationContext batchContext = new AggregateOperationContext(queryPacket, Integer.MAX_VALUE, 1);
+        if (isWholeTypeAggregation(queryPacket, readModifiers)) {
+            IServerTypeDesc serverTypeDesc = _typeManager.loadServerTypeDesc(queryPacket);
+            //a backup keeps expired entries until the primary takes them, as its regular scans do
+            final long leaseFilter = _leaseManager.isSlaveLeaseManagerForEntries() ? Long.MIN_VALUE : SystemTime.timeMillis();
+            if (aggregateMaterialized(serverTypeDesc, aggregators) || ColumnarAggregation.aggregate(_cacheManager, serverTypeDesc, aggregators, leaseFilter))
+                return new AnswerHolder();
+        }
+        final int numOfSegments = getNumOfAggregationSegments(queryPacket, aggregators, readModifiers, parallel);
+        if (numOfSegments > 1)
+            return aggregateInParallel(queryPacket, aggregators, readModifiers, sc, numOfSegments);
+        return aggregateScan(queryPacket, aggregators, readModifiers, sc, null);
+    }
+
+    private AnswerHolder aggregateScan(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers,
+                                       SpaceContext sc, AggregationSegments<IEntryCacheInfo, AggregationScan> segments)
+            throws Exception {
+        BatchQueryOperationContext batchContext = new AggregateOperationContext(queryPacket, Integer.MAX_VALUE, 1, segments);
         AnswerHolder answerHolder = readMultiple(queryPacket,
                 null /*txn*/,
                 0 /*timeout*/,
@@ -6724,6 +6778,229 @@ public class SpaceEngine implements ISpaceModeListener , IClusterInfoChangedList
         return answerHolder;
     }
 
+    /**
+     * scans the matching entries once on the calling thread, which aggregates the first segment
+     * and hands the entries of the other segments, by uid, to a worker per segment. Each segment
+     * is aggregated by its own clone of the aggregators, and the intermediate results of the
+     * segments are merged into the given aggregators.
+     */
+    private AnswerHolder aggregateInParallel(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers,
+                                             SpaceContext sc, int numOfSegments)
+            throws Exception {
+        final AggregationSegments<IEntryCacheInfo, AggregationScan> segments =
+                new AggregationSegments<IEntryCacheInfo, AggregationScan>(numOfSegments, AggregationSegments.DEFAULT_BATCH_SIZE);
+        final List<List<SpaceEntriesAggregator>> segmentsAggregators = new ArrayList<List<SpaceEntriesAggregator>>(numOfSegments);
+        final List<Future<?>> futures = new ArrayList<Future<?>>(numOfSegments - 1);
+        final ExecutorService executor = getAggregationExecutor();
+        for (int i = 0; i < numOfSegments; i++) {
+            final List<SpaceEntriesAggregator> segmentAggregators = new ArrayList<SpaceEntriesAggregator>(aggregators.size());
+            for (SpaceEntriesAggregator aggregator : aggregators)
+                segmentAggregators.add(aggregator.clone());
+            segmentsAggregators.add(segmentAggregators);
+            if (i > 0) {
+                final int segment = i;
+                final ITemplatePacket segmentQueryPacket = queryPacket.clone();
+                futures.add(executor.submit(() -> {
+                    aggregateSegment(segmentQueryPacket, segmentAggregators, readModifiers, sc, segments, segment);
+                    return null;
+                }));
+            }
+        }
+
+        AnswerHolder answerHolder = null;
+        Exception error = null;
+        try {
+            answerHolder = aggregateScan(queryPacket, segmentsAggregators.get(0), readModifiers, sc, segments);
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            segments.finish();
+        }
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Error)
+                        throw (Error) e.getCause();
+                    if (error == null)
+                        error = (Exception) e.getCause();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> future : futures)
+                future.cancel(true);
+            throw e;
+        }
+        if (error != null)
+            throw error;
+
+        for (List<SpaceEntriesAggregator> segmentAggregators : segmentsAggregators) {
+            for (int i = 0; i < aggregators.size(); i++) {
+                Serializable intermediateResult = segmentAggregators.get(i).getIntermediateResult();
+                if (intermediateResult != null)
+                    aggregators.get(i).aggregateIntermediateResult(intermediateResult);
+            }
+        }
+        return answerHolder;
+    }
+
+    /**
+     * matches and aggregates the entries handed to the specified segment by the scan, with a
+     * template and a cache context of its own, as a read multiple would
+     */
+    private void aggregateSegment(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers,
+                                  SpaceContext sc, AggregationSegments<IEntryCacheInfo, AggregationScan> segments, int segment)
+            throws Exception {
+        if (isMvccEnabled() && ReadModifiers.isDefaultReadModifier(readModifiers) && sc != null && sc.getMVCCGenerationsState() != null)
+            readModifiers = Modifiers.add(readModifiers, ReadModifiers.READ_COMMITTED);
+        final IServerTypeDesc typeDesc = _typeManager.loadServerTypeDesc(queryPacket);
+        final long startTime = SystemTime.timeMillis();
+        final ITemplateHolder template = TemplateHolderFactory.createTemplateHolder(typeDesc, queryPacket,
+                null /*uid*/, LeaseManager.toAbsoluteTime(0, startTime) /*expiration time*/,
+                null /*txnEntry*/, startTime, SpaceOperations.READ, null /*respContext*/, false /*returnOnlyUid*/,
+                readModifiers, false /*isFifo*/);
+        template.setAnswerHolder(new AnswerHolder());
+        template.getAnswerHolder().setServerTypeDesc(typeDesc);
+        template.setNonBlockingRead(isNonBlockingReadForOperation(template));
+        template.setID(queryPacket.getID());
+        template.setBatchOperationContext(new AggregateOperationContext(queryPacket, Integer.MAX_VALUE, 1));
+        template.setAggregatorContext(new EntryHolderAggregatorContext(aggregators, template, getPartitionIdZeroBased()));
+
+        Context context = null;
+        try {
+            context = _cacheManager.getCacheContext();
+            context.setMainThread(true);
+            context.setOperationID(queryPacket.getOperationID());
+            context.applyOperationContext(sc);
+            context.applyMVCCGenerationsState(isMvccEnabled(), null /*txnEntry*/, sc);
+            context.setFromReplication(false);
+            context.setOrigin(true);
+            context.setTemplateInitialSearchThread();
+            final Context segmentContext = context;
+            segments.consume(segment, new AggregationSegments.Consumer<IEntryCacheInfo, AggregationScan>() {
+                @Override
+                public void consume(IEntryCacheInfo pEntry, AggregationScan scan) throws Exception {
+                    getMatchedEntriesAndOperateSA_Entry(segmentContext, template, scan.needMatch,
+                            scan.alreadyMatchedFixedPropertyIndexPos, scan.alreadyMatchedIndexPath, scan.leaseFilter,
+                            pEntry, scan.makeWaitForInfo, scan.entryTypeDesc, scan.rightColumnPosition);
+                }
+            });
+        } finally {
+            _cacheManager.freeCacheContext(context);
+        }
+    }
+
+    /**
+     * the parameters of a scan which its entries are matched with by the segment workers
+     */
+    static final class AggregationScan {
+        final boolean needMatch;
+        final int alreadyMatchedFixedPropertyIndexPos;
+        final String alreadyMatchedIndexPath;
+        final long leaseFilter;
+        final boolean makeWaitForInfo;
+        final IServerTypeDesc entryTypeDesc;
+        final int rightColumnPosition;
+
+        AggregationScan(boolean needMatch, int alreadyMatchedFixedPropertyIndexPos, String alreadyMatchedIndexPath, long leaseFilter,
+                        boolean makeWaitForInfo, IServerTypeDesc entryTypeDesc, int rightColumnPosition) {
+            this.needMatch = needMatch;
+            this.alreadyMatchedFixedPropertyIndexPos = alreadyMatchedFixedPropertyIndexPos;
+            this.alreadyMatchedIndexPath = alreadyMatchedIndexPath;
+            this.leaseFilter = leaseFilter;
+            this.makeWaitForInfo = makeWaitForInfo;
+            this.entryTypeDesc = entryTypeDesc;
+            this.rightColumnPosition = rightColumnPosition;
+        }
+    }
+
+    /**
+     * @return true if the query matches all the entries of its type with no further semantics, so
+     * that it can be served from the materialized aggregations or the columnar stores of the type
+     */
+    private boolean isWholeTypeAggregation(ITemplatePacket queryPacket, int readModifiers) {
+        if (isMvccEnabled() || Modifiers.contains(readModifiers, Modifiers.EXPLAIN_PLAN)
+                || queryPacket.isFifo() || ReadModifiers.isFifo(readModifiers) || ReadModifiers.isFifoGroupingPoll(readModifiers))
+            return false;
+        if (_filterManager._isFilter[FilterOperationCodes.BEFORE_READ_MULTIPLE] || _filterManager._isFilter[FilterOperationCodes.AFTER_READ_MULTIPLE])
+            return false;
+        if (queryPacket.getCustomQuery() != null || queryPacket.getUID() != null || queryPacket.getMultipleUIDs() != null
+                || queryPacket.getID() != null || queryPacket.getExtendedMatchCodes() != null)
+            return false;
+        if (queryPacket.getDynamicProperties() != null && !queryPacket.getDynamicProperties().isEmpty())
+            return false;
+        if (queryPacket.getFieldValues() != null)
+            for (Object value : queryPacket.getFieldValues())
+                if (value != null)
+                    return false;
+        return true;
+    }
+
+    /**
+     * answers group-by aggregators from the materialized aggregations of the type. Materialized
+     * aggregations include uncommitted changes, so they are used only when no active transaction
+     * changes entries of the type before and after reading them.
+     */
+    private boolean aggregateMaterialized(IServerTypeDesc serverTypeDesc, List<SpaceEntriesAggregator> aggregators) {
+        if (isChangedUnderTransaction(serverTypeDesc))
+            return false;
+        GroupByResult[] results = MaterializedAggregation.read(_cacheManager, serverTypeDesc, aggregators);
+        if (results == null || isChangedUnderTransaction(serverTypeDesc))
+            return false;
+        for (int i = 0; i < results.length; i++)
+            if (results[i] != null)
+                aggregators.get(i).aggregateIntermediateResult(results[i]);
+        return true;
+    }
+
+    /**
+     * @return true if an active transaction writes, updates or takes an entry of the type
+     */
+    private boolean isChangedUnderTransaction(IServerTypeDesc serverTypeDesc) {
+        String typeName = serverTypeDesc.getTypeName();
+        for (XtnEntry xtnEntry : _transactionHandler.getXtnTable().values())
+            if (xtnEntry.getXtnData().isChangedType(typeName))
+                return true;
+        return false;
+    }
+
+    /**
+     * @return the number of segments the aggregation should be split to, 1 if it should not run in
+     * parallel
+     */
+    private int getNumOfAggregationSegments(ITemplatePacket queryPacket, List<SpaceEntriesAggregator> aggregators, int readModifiers,
+                                            boolean parallel) {
+        if (!_parallelAggregation && !parallel)
+            return 1;
+        if (_aggregationParallelism < 2 || Modifiers.contains(readModifiers, Modifiers.EXPLAIN_PLAN))
+            return 1;
+        //only in-memory non-fifo scans of all the matching entries can be split
+        if (queryPacket.isFifo() || ReadModifiers.isFifo(readModifiers) || ReadModifiers.isFifoGroupingPoll(readModifiers)
+                || queryPacket.getUID() != null || queryPacket.getMultipleUIDs() != null)
+            return 1;
+        if (_cacheManager.isEvictableFromSpaceCachePolicy() || _cacheManager.isBlobStoreCachePolicy() || _cacheManager.isTieredStorageCachePolicy())
+            return 1;
+        if (!AggregationInternalUtils.supportsParallelAggregation(aggregators))
+            return 1;
+        final String typeName = queryPacket.getTypeName() != null ? queryPacket.getTypeName() : IServerTypeDesc.ROOT_TYPE_NAME;
+        return _cacheManager.getNumberOfEntries(typeName, true) < _parallelAggregationMinEntries ? 1 : _aggregationParallelism;
+    }
+
+    private ExecutorService getAggregationExecutor() {
+        ExecutorService executor = _aggregationExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = _aggregationExecutor;
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(_aggregationParallelism - 1, new GSThreadFactory(_spaceName + "-aggregation", true));
+                    _aggregationExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
     public int countIncomingConnections() throws RemoteException {
         if (isLocalCache())
             return 0;
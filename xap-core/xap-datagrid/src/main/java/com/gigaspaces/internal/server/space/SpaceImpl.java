@@ -736,6 +736,10 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
     }
 
     private void close() {
+        // stop writing snapshots before the engine is closed
+        if (_recoveryManager != null)
+            _recoveryManager.close();
+
         // close by proper way all generic workers
         if (_workerManager != null) {
             _workerManager.shutdown();
@@ -3506,6 +3510,7 @@ public class SpaceImpl extends AbstractService implements IRemoteSpace, IInterna
         else
             initAndStartRegularSpace();
 
+        _recoveryManager.startSnapshots();
         _recovering.set(false);
     }
 
@@ -21,12 +21,31 @@ import com.gigaspaces.internal.server.space.SpaceConfigReader;
 import com.gigaspaces.metadata.index.ISpaceIndex;
 import com.j_spaces.core.cache.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_BPLUS_TREE_ORDERED_INDEXES_DEFAULT;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_BPLUS_TREE_ORDERED_INDEXES_PROP;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_COLUMNAR_PROJECTION_DEFAULT;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_COLUMNAR_PROJECTION_PROP;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_MATERIALIZED_AGGREGATIONS_DEFAULT;
+import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_MATERIALIZED_AGGREGATIONS_PROP;
 import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_USE_ECONOMY_HASHMAP_DEFAULT;
 import static com.j_spaces.core.Constants.CacheManager.CACHE_MANAGER_USE_ECONOMY_HASHMAP_PROP;
 
 @com.gigaspaces.api.InternalApi
 public class TypeDataFactory {
     private final boolean _useEconomyHashMap;
+    //[type name].[index name] of ordered indexes kept in a B+-tree
+    private final Set<String> _bplusTreeOrderedIndexes;
+    //type name -> properties kept in a columnar store
+    private final Map<String, List<String>> _columnarProjection;
+    //type name -> group-by aggregations maintained for the type
+    private final Map<String, List<MaterializedAggregation.Definition>> _materializedAggregations;
 
     private final CacheManager _cacheManager;
 
@@ -34,6 +53,39 @@ public class TypeDataFactory {
         this._useEconomyHashMap = configReader.getBooleanSpaceProperty(
                 CACHE_MANAGER_USE_ECONOMY_HASHMAP_PROP, CACHE_MANAGER_USE_ECONOMY_HASHMAP_DEFAULT);
 
+        Set<String> bplusTreeOrderedIndexes = configReader.getSetSpaceProperty(
+                CACHE_MANAGER_BPLUS_TREE_ORDERED_INDEXES_PROP, CACHE_MANAGER_BPLUS_TREE_ORDERED_INDEXES_DEFAULT, ",");
+        this._bplusTreeOrderedIndexes = bplusTreeOrderedIndexes != null ? bplusTreeOrderedIndexes : Collections.<String>emptySet();
+
+        this._columnarProjection = new HashMap<String, List<String>>();
+        Set<String> columnarProjection = configReader.getSetSpaceProperty(
+                CACHE_MANAGER_COLUMNAR_PROJECTION_PROP, CACHE_MANAGER_COLUMNAR_PROJECTION_DEFAULT, ",");
+        if (columnarProjection != null) {
+            for (String property : columnarProjection) {
+                int pos = property.lastIndexOf('.');
+                if (pos <= 0 || pos == property.length() - 1)
+                    throw new IllegalArgumentException("Invalid " + CACHE_MANAGER_COLUMNAR_PROJECTION_PROP + " element '" + property + "', expected [type name].[property name]");
+                List<String> properties = _columnarProjection.get(property.substring(0, pos));
+                if (properties == null) {
+                    properties = new ArrayList<String>();
+                    _columnarProjection.put(property.substring(0, pos), properties);
+                }
+                properties.add(property.substring(pos + 1));
+            }
+        }
+
+        this._materializedAggregations = new HashMap<String, List<MaterializedAggregation.Definition>>();
+        String materializedAggregations = configReader.getSpaceProperty(
+                CACHE_MANAGER_MATERIALIZED_AGGREGATIONS_PROP, CACHE_MANAGER_MATERIALIZED_AGGREGATIONS_DEFAULT);
+        for (MaterializedAggregation.Definition definition : MaterializedAggregation.Definition.parse(materializedAggregations)) {
+            List<MaterializedAggregation.Definition> definitions = _materializedAggregations.get(definition.getTypeName());
+            if (definitions == null) {
+                definitions = new ArrayList<MaterializedAggregation.Definition>();
+                _materializedAggregations.put(definition.getTypeName(), definitions);
+            }
+            definitions.add(definition);
+        }
+
         configReader.assertSpacePropertyNotExists("engine.extended-match.enabled-classes", "7.0.1", "8.0");
         _cacheManager = cacheManager;
     }
@@ -60,10 +112,43 @@ public class TypeDataFactory {
         return new TypeData(serverTypeDesc, originalTypeData, reason);
     }
 
+    /**
+     * @return the columnar store of the type, null if none was configured or the type isn't memory resident
+     */
+    public ColumnarStore createColumnarStore(IServerTypeDesc serverTypeDesc) {
+        List<String> properties = _columnarProjection.get(serverTypeDesc.getTypeName());
+        if (properties == null || !_cacheManager.isAllInCachePolicy() || _cacheManager.isMVCCEnabled())
+            return null;
+        return ColumnarStore.create(serverTypeDesc.getTypeDesc(), properties);
+    }
+
+    /**
+     * @return the definitions of the group-by aggregations to maintain for the type, null if none
+     * were configured or the type isn't memory resident
+     */
+    public List<MaterializedAggregation.Definition> getMaterializedAggregations(String typeName) {
+        if (!_cacheManager.isAllInCachePolicy() || _cacheManager.isMVCCEnabled())
+            return null;
+        return _materializedAggregations.get(typeName);
+    }
+
     public <K> TypeDataIndex<K> createTypeDataIndex(CacheManager cacheManager, ISpaceIndex index, int pos, int indexCreationNumber, Class<?> indexValueClass, ISpaceIndex.FifoGroupsIndexTypes fifoGroupsIndexType) {
         return new TypeDataIndex<K>(cacheManager, index, pos, _useEconomyHashMap, indexCreationNumber, indexValueClass, fifoGroupsIndexType);
     }
 
+    public <K> TypeDataIndex<K> createTypeDataIndex(CacheManager cacheManager, String typeName, ISpaceIndex index, int pos, int indexCreationNumber, Class<?> indexValueClass, ISpaceIndex.FifoGroupsIndexTypes fifoGroupsIndexType) {
+        boolean bplusTreeOrderedIndex = useBPlusTreeOrderedIndex(typeName, index, indexValueClass, fifoGroupsIndexType);
+        return new TypeDataIndex<K>(cacheManager, index, pos, _useEconomyHashMap, indexCreationNumber, indexValueClass, fifoGroupsIndexType, bplusTreeOrderedIndex);
+    }
+
+    private boolean useBPlusTreeOrderedIndex(String typeName, ISpaceIndex index, Class<?> indexValueClass, ISpaceIndex.FifoGroupsIndexTypes fifoGroupsIndexType) {
+        return !_bplusTreeOrderedIndexes.isEmpty()
+                && index.getIndexType().isOrdered()
+                && fifoGroupsIndexType == ISpaceIndex.FifoGroupsIndexTypes.NONE
+                && BPlusTreeExtendedIndexHandler.isSupportedValueType(indexValueClass)
+                && _bplusTreeOrderedIndexes.contains(typeName + "." + index.getName());
+    }
+
     public <K> TypeDataIndex<K> createMultiValuePerEntryTypeDataIndex(CacheManager cacheManager, ISpaceIndex index, int pos, int indexCreationNumber, ISpaceIndex.MultiValuePerEntryIndexTypes indexType) {
         return new MultiValueTypeDataIndex<K>(cacheManager, index, pos, _useEconomyHashMap, indexCreationNumber, indexType);
 
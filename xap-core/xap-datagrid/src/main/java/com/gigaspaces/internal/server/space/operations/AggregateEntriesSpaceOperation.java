@@ -43,7 +43,8 @@ public class AggregateEntriesSpaceOperation extends AbstractSpaceOperation<Aggre
 
             space.beginPacketOperation(true, request.getSpaceContext(), requiredPrivilege, request.getQueryPacket());
 
-            AnswerHolder answerHolder = space.getEngine().aggregate(request.getQueryPacket(), request.getAggregators(), request.getReadModifiers(), request.getSpaceContext());
+            AnswerHolder answerHolder = space.getEngine().aggregate(request.getQueryPacket(), request.getAggregators(), request.getReadModifiers(), request.getSpaceContext(),
+                    request.isParallel());
 
             Object[] intermediateResults = new Object[request.getAggregators().size()];
             for (int i = 0; i < intermediateResults.length; i++)
@@ -18,6 +18,7 @@ package com.gigaspaces.internal.server.space.recovery;
 
 import com.gigaspaces.cluster.activeelection.SpaceMode;
 import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.server.space.recovery.snapshot.SpaceSnapshotManager;
 import com.gigaspaces.internal.server.space.recovery.strategy.*;
 import com.j_spaces.core.SpaceRecoveryException;
 
@@ -40,13 +41,30 @@ public class RecoveryManager {
 
     public SpaceImpl _space;
 
+    private final SpaceSnapshotManager _snapshotManager;
+
     /**
      * @param space
      */
     public RecoveryManager(SpaceImpl space) {
         super();
         _space = space;
+        _snapshotManager = new SpaceSnapshotManager(space);
+    }
+
+    public SpaceSnapshotManager getSnapshotManager() {
+        return _snapshotManager;
+    }
+
+    /**
+     * Starts writing periodic snapshots of the space, if enabled
+     */
+    public void startSnapshots() {
+        _snapshotManager.start();
+    }
 
+    public void close() {
+        _snapshotManager.close();
     }
 
 
@@ -76,7 +94,7 @@ public class RecoveryManager {
         } else {
             switch (spaceMode) {
                 case PRIMARY: {
-                    return new PrimarySpaceRecovery(_space);
+                    return new PrimarySpaceRecovery(_space, _snapshotManager);
                 }
                 case BACKUP: {
                     return getBackupSpaceRecovery();
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery.snapshot;
+
+import com.gigaspaces.internal.cluster.node.impl.replica.IExecutableSpaceReplicaData;
+import com.gigaspaces.internal.io.ContextClassResolverObjectInputStream;
+import com.gigaspaces.internal.io.IOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of a space snapshot file: a header of magic, version and creation time, followed by blocks of serialized replica data. Each block is a kind byte, the number of
+ * items, the length of the serialized items and the serialized items, so blocks can be
+ * deserialized independently of each other. Type blocks precede the entry blocks, and an end block
+ * holds the total number of items, so a truncated file is detected.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceSnapshotFile {
+    private static final int MAGIC = 0x47534e50;
+    private static final int VERSION = 1;
+
+    public static final byte BLOCK_END = 0;
+    public static final byte BLOCK_TYPES = 1;
+    public static final byte BLOCK_ENTRIES = 2;
+
+    private SpaceSnapshotFile() {
+    }
+
+    /**
+     * @return the snapshot file of the specified partition
+     */
+    public static File getFile(File directory, String spaceName, int partitionId) {
+        return new File(directory, spaceName + "-" + partitionId + ".snapshot");
+    }
+
+    /**
+     * @return the marker file which exists while the space of the specified snapshot holds updates
+     * which are not in it
+     */
+    public static File getModifiedMarker(File snapshotFile) {
+        return new File(snapshotFile.getPath() + ".modified");
+    }
+
+    /**
+     * Writes blocks to a snapshot file, which should be moved to its final name only after {@link
+     * #close()} returned
+     */
+    public static class Writer {
+        private final FileOutputStream _fileOutputStream;
+        private final DataOutputStream _out;
+        private final ByteArrayOutputStream _block = new ByteArrayOutputStream(64 * 1024);
+        private long _totalCount;
+
+        public Writer(File file) throws IOException {
+            _fileOutputStream = new FileOutputStream(file);
+            _out = new DataOutputStream(new BufferedOutputStream(_fileOutputStream, 64 * 1024));
+            _out.writeInt(MAGIC);
+            _out.writeInt(VERSION);
+            _out.writeLong(System.currentTimeMillis());
+        }
+
+        public void writeBlock(byte kind, List<? extends IExecutableSpaceReplicaData> items) throws IOException {
+            if (items.isEmpty())
+                return;
+            _block.reset();
+            ObjectOutputStream blockOut = new ObjectOutputStream(_block);
+            for (IExecutableSpaceReplicaData item : items)
+                IOUtils.writeObject(blockOut, item);
+            blockOut.close();
+            _out.writeByte(kind);
+            _out.writeInt(items.size());
+            _out.writeInt(_block.size());
+            _block.writeTo(_out);
+            _totalCount += items.size();
+        }
+
+        /**
+         * Writes the end block and flushes the file to the storage device
+         */
+        public void close() throws IOException {
+            try {
+                _out.writeByte(BLOCK_END);
+                _out.writeLong(_totalCount);
+                _out.flush();
+                _fileOutputStream.getFD().sync();
+            } finally {
+                _out.close();
+            }
+        }
+
+        /**
+         * Closes the file without completing it
+         */
+        public void abort() {
+            try {
+                _out.close();
+            } catch (IOException e) {
+                //nothing to do, the file is deleted by the caller
+            }
+        }
+    }
+
+    /**
+     * Reads the blocks of a snapshot file, deserializing them is left to {@link #deserialize(byte[],
+     * int)} so it can be done by several threads
+     */
+    public static class Reader {
+        private final DataInputStream _in;
+        private final long _creationTime;
+        private long _totalCount;
+        private byte _kind;
+        private int _count;
+
+        public Reader(File file) throws IOException {
+            _in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+            try {
+                if (_in.readInt() != MAGIC)
+                    throw new IOException("File " + file + " is not a space snapshot");
+                int version = _in.readInt();
+                if (version != VERSION)
+                    throw new IOException("Unsupported space snapshot version " + version + " in " + file);
+                _creationTime = _in.readLong();
+            } catch (IOException e) {
+                _in.close();
+                throw e;
+            }
+        }
+
+        public long getCreationTime() {
+            return _creationTime;
+        }
+
+        /**
+         * Reads the next block
+         *
+         * @return the serialized items of the block, or null once the end block was read
+         */
+        public byte[] nextBlock() throws IOException {
+            try {
+                _kind = _in.readByte();
+                if (_kind == BLOCK_END) {
+                    long expected = _in.readLong();
+                    if (expected != _totalCount)
+                        throw new IOException("Space snapshot holds " + _totalCount + " items, expected " + expected);
+                    return null;
+                }
+                _count = _in.readInt();
+                byte[] block = new byte[_in.readInt()];
+                _in.readFully(block);
+                _totalCount += _count;
+                return block;
+            } catch (EOFException e) {
+                throw new IOException("Space snapshot is truncated after " + _totalCount + " items", e);
+            }
+        }
+
+        /**
+         * @return the kind of the last block read
+         */
+        public byte getKind() {
+            return _kind;
+        }
+
+        /**
+         * @return the number of items of the last block read
+         */
+        public int getCount() {
+            return _count;
+        }
+
+        public void close() throws IOException {
+            _in.close();
+        }
+    }
+
+    public static List<IExecutableSpaceReplicaData> deserialize(byte[] block, int count) throws IOException, ClassNotFoundException {
+        ObjectInputStream in = ContextClassResolverObjectInputStream.Factory.instance.create(new ByteArrayInputStream(block));
+        try {
+            List<IExecutableSpaceReplicaData> result = new ArrayList<IExecutableSpaceReplicaData>(count);
+            for (int i = 0; i < count; i++)
+                result.add(IOUtils.<IExecutableSpaceReplicaData>readObject(in));
+            return result;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery.snapshot;
+
+import com.gigaspaces.internal.cluster.node.impl.replica.IExecutableSpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceCopyIntermediateResult;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceReplicaDataConsumer;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceEngineReplicaConsumerFacade;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads a snapshot file into a space. Types are added first by the calling thread, then the entry
+ * blocks are deserialized and written, which builds their indexes, by a pool of threads. The
+ * calling thread reads the file ahead of the pool by a bounded number of blocks.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceSnapshotLoader {
+    private final SpaceEngine _engine;
+    private final SpaceReplicaDataConsumer _consumer;
+    private final int _threads;
+
+    public SpaceSnapshotLoader(SpaceEngine engine, int threads) {
+        _engine = engine;
+        _consumer = new SpaceReplicaDataConsumer(engine.getTypeManager(), new SpaceEngineReplicaConsumerFacade(engine));
+        _threads = threads;
+    }
+
+    /**
+     * Loads the specified snapshot file, entries which are already in the space are counted as
+     * duplicates and left as they are
+     */
+    public SpaceCopyIntermediateResult load(File file) throws Exception {
+        final SpaceCopyIntermediateResult result = _consumer.createEmptyResult();
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(_threads, _threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(_threads * 2),
+                GSThreadFactory.daemon("SpaceSnapshotLoader-" + _engine.getFullSpaceName()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        SpaceSnapshotFile.Reader reader = new SpaceSnapshotFile.Reader(file);
+        try {
+            for (byte[] block = reader.nextBlock(); block != null && failure.get() == null; block = reader.nextBlock()) {
+                if (reader.getKind() == SpaceSnapshotFile.BLOCK_TYPES) {
+                    //entries can only be written once their types are known
+                    consume(block, reader.getCount(), result);
+                    continue;
+                }
+                final byte[] entriesBlock = block;
+                final int count = reader.getCount();
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (failure.get() != null)
+                            return;
+                        Thread thread = Thread.currentThread();
+                        ClassLoader previous = thread.getContextClassLoader();
+                        thread.setContextClassLoader(classLoader);
+                        try {
+                            consume(entriesBlock, count, result);
+                        } catch (Exception e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            thread.setContextClassLoader(previous);
+                        }
+                    }
+                });
+            }
+        } finally {
+            reader.close();
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        if (failure.get() != null)
+            throw failure.get();
+        return result;
+    }
+
+    private void consume(byte[] block, int count, SpaceCopyIntermediateResult result) throws Exception {
+        for (IExecutableSpaceReplicaData data : SpaceSnapshotFile.deserialize(block, count))
+            _consumer.consumeData(data, result, null);
+    }
+}
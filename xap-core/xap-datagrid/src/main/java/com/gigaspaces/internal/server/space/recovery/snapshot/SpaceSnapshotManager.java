@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery.snapshot;
+
+import com.gigaspaces.internal.cluster.node.IReplicationNode;
+import com.gigaspaces.internal.cluster.node.impl.ReplicationNode;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceCopyIntermediateResult;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.start.SystemLocations;
+import com.j_spaces.core.ISpaceState;
+import com.j_spaces.core.SpaceRecoveryException;
+import com.j_spaces.core.cache.CacheManager;
+import com.j_spaces.kernel.SystemProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes a snapshot of a primary space to the local disk, and loads it when the space
+ * starts as primary and no other member was found to recover it from, typically after a full
+ * cluster restart.
+ *
+ * The last replication key of the space when a snapshot was started is kept in memory as a
+ * watermark, a checkpoint is skipped while it has not moved since the space was not modified since
+ * the previous snapshot. The watermark is not written to the snapshot, the replication keys start
+ * over after a restart.
+ *
+ * Loading a snapshot loses the updates which were done after it was written: no redo log is
+ * persisted with it, and the replication backlog of the other members does not outlive a full
+ * cluster restart. A marker file is therefore created next to the snapshot once the watermark moves
+ * past it, and deleted when a snapshot is written which no update raced with. A space which stops
+ * writes a final snapshot once it no longer accepts operations, so a snapshot is current after a
+ * clean shutdown however long the cluster is down, as is the snapshot of an idle space. The recovery
+ * fails instead of loading a snapshot whose marker exists unless {@link
+ * SystemProperties#SPACE_SNAPSHOT_ALLOW_STALE} is set. The watermark is checked every second, so
+ * updates done in the last second before a crash may be lost without the marker. The modifications
+ * of a space without a replication backlog are not tracked, its snapshot is only considered current
+ * after a clean shutdown.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceSnapshotManager {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_SPACE);
+    private static final long NO_WATERMARK = -1;
+    private static final long MODIFICATION_CHECK_INTERVAL = 1000;
+
+    private final SpaceImpl _space;
+    private final boolean _enabled;
+    private final File _directory;
+    private final long _interval;
+    private final long _modificationCheckInterval;
+    private final int _loadThreads;
+    private final boolean _allowStale;
+    private ScheduledExecutorService _scheduler;
+    private volatile boolean _loaded;
+    //only accessed by the scheduler thread, and after it was stopped
+    private long _lastWatermark = NO_WATERMARK;
+    private boolean _modified;
+
+    public SpaceSnapshotManager(SpaceImpl space) {
+        this(space, MODIFICATION_CHECK_INTERVAL);
+    }
+
+    SpaceSnapshotManager(SpaceImpl space, long modificationCheckInterval) {
+        _space = space;
+        _enabled = Boolean.getBoolean(SystemProperties.SPACE_SNAPSHOT_ENABLED);
+        String directory = System.getProperty(SystemProperties.SPACE_SNAPSHOT_DIRECTORY);
+        _directory = directory != null ? new File(directory) : SystemLocations.singleton().work("snapshots").toFile();
+        _interval = Long.getLong(SystemProperties.SPACE_SNAPSHOT_INTERVAL, SystemProperties.SPACE_SNAPSHOT_INTERVAL_DEFAULT);
+        _modificationCheckInterval = modificationCheckInterval;
+        _loadThreads = Integer.getInteger(SystemProperties.SPACE_SNAPSHOT_LOAD_THREADS, Runtime.getRuntime().availableProcessors());
+        _allowStale = Boolean.getBoolean(SystemProperties.SPACE_SNAPSHOT_ALLOW_STALE);
+    }
+
+    public boolean isEnabled() {
+        return _enabled;
+    }
+
+    /**
+     * Loads the snapshot of this partition if there is one, should be called by a primary space
+     * which did not recover its data from a data source or another member
+     *
+     * @return true if a snapshot was loaded
+     * @throws SpaceRecoveryException if the space was modified after the snapshot was written and
+     *                                stale snapshots are not allowed
+     */
+    public boolean recover() throws Exception {
+        SpaceEngine engine = _space.getEngine();
+        if (!_enabled || !isSupported(engine.getCacheManager()))
+            return false;
+        File file = getFile(engine);
+        if (!file.exists())
+            return false;
+        if (engine.getCacheManager().getNumberOfEntries() != 0) {
+            if (_logger.isInfoEnabled())
+                _logger.info("Space [" + engine.getFullSpaceName() + "] already holds entries, snapshot " + file + " is not loaded");
+            return false;
+        }
+
+        long startTime = System.currentTimeMillis();
+        verifyNotModified(engine.getFullSpaceName(), file);
+        SpaceSnapshotFile.Reader reader = new SpaceSnapshotFile.Reader(file);
+        try {
+            if (_logger.isInfoEnabled())
+                _logger.info("Space [" + engine.getFullSpaceName() + "] loading snapshot " + file + " created at " + new Date(reader.getCreationTime()));
+        } finally {
+            reader.close();
+        }
+        SpaceCopyIntermediateResult result = new SpaceSnapshotLoader(engine, _loadThreads).load(file);
+        _loaded = true;
+        if (_logger.isInfoEnabled())
+            _logger.info(result.getStringDescription("snapshot", file.getPath(), engine.getFullSpaceName(), false, System.currentTimeMillis() - startTime));
+        return true;
+    }
+
+    /**
+     * Fails a snapshot of a space which was modified after it was written, since those updates
+     * would be silently lost, unless stale snapshots are allowed
+     */
+    void verifyNotModified(String spaceName, File file) throws SpaceRecoveryException {
+        if (!SpaceSnapshotFile.getModifiedMarker(file).exists())
+            return;
+        String message = "Space [" + spaceName + "] was modified after snapshot " + file + " was written - updates done after it are lost";
+        if (!_allowStale)
+            throw new SpaceRecoveryException(message + ", set " + SystemProperties.SPACE_SNAPSHOT_ALLOW_STALE + "=true to load it anyway");
+        if (_logger.isWarnEnabled())
+            _logger.warn(message + ", loading it since " + SystemProperties.SPACE_SNAPSHOT_ALLOW_STALE + " is set");
+    }
+
+    /**
+     * Starts writing snapshots periodically, they are only written while the space is a started
+     * primary
+     */
+    public synchronized void start() {
+        if (!_enabled || _scheduler != null || !isSupported(_space.getEngine().getCacheManager()))
+            return;
+        SpaceEngine engine = _space.getEngine();
+        //a loaded snapshot holds the entries of the space, which may differ from the snapshot if they were recovered otherwise
+        if (_loaded) {
+            _lastWatermark = getWatermark(engine);
+            clearModified(engine);
+        } else {
+            markModified(engine);
+        }
+        _scheduler = Executors.newSingleThreadScheduledExecutor(GSThreadFactory.daemon("SpaceSnapshot-" + _space.getServiceName()));
+        _scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    checkpoint();
+                } catch (Exception e) {
+                    if (_logger.isWarnEnabled())
+                        _logger.warn("Space [" + _space.getServiceName() + "] failed writing a snapshot", e);
+                }
+            }
+        }, _interval, _interval, TimeUnit.MILLISECONDS);
+        _scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkModified();
+            }
+        }, _modificationCheckInterval, _modificationCheckInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops writing snapshots, a space which stopped as primary writes a final snapshot since it no
+     * longer accepts operations
+     */
+    public synchronized void close() {
+        if (_scheduler == null)
+            return;
+        _scheduler.shutdownNow();
+        try {
+            _scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        _scheduler = null;
+
+        if (!_space.isPrimary() || _space.getState() == ISpaceState.STARTED)
+            return;
+        SpaceEngine engine = _space.getEngine();
+        try {
+            long watermark = getWatermark(engine);
+            if (_modified || watermark == NO_WATERMARK || watermark != _lastWatermark)
+                write(engine, watermark);
+            //an operation which was in progress when the space stopped may have modified it after the snapshot was started
+            if (watermark == NO_WATERMARK || getWatermark(engine) == watermark)
+                clearModified(engine);
+        } catch (Exception e) {
+            if (_logger.isWarnEnabled())
+                _logger.warn("Space [" + engine.getFullSpaceName() + "] failed writing a final snapshot", e);
+        }
+    }
+
+    /**
+     * Writes a snapshot if the space is a started primary which was modified since the last one
+     *
+     * @return true if a snapshot was written
+     */
+    public boolean checkpoint() throws Exception {
+        if (!isStartedPrimary())
+            return false;
+        SpaceEngine engine = _space.getEngine();
+        long watermark = getWatermark(engine);
+        if (watermark != NO_WATERMARK && watermark == _lastWatermark)
+            return false;
+
+        write(engine, watermark);
+        //updates done while the snapshot was written may be missing from it
+        if (watermark != NO_WATERMARK && getWatermark(engine) == watermark)
+            clearModified(engine);
+        return true;
+    }
+
+    /**
+     * Creates the modified marker of the snapshot once the space is modified after it was written
+     */
+    void checkModified() {
+        if (_modified)
+            return;
+        SpaceEngine engine = _space.getEngine();
+        long watermark = getWatermark(engine);
+        //without a watermark the modifications of the space are not known
+        if (watermark == NO_WATERMARK || watermark != _lastWatermark || !isStartedPrimary())
+            markModified(engine);
+    }
+
+    long writeSnapshot(SpaceEngine engine, File file) throws Exception {
+        return new SpaceSnapshotWriter(engine).write(file);
+    }
+
+    private void write(SpaceEngine engine, long watermark) throws Exception {
+        long startTime = System.currentTimeMillis();
+        File file = getFile(engine);
+        File tempFile = new File(file.getPath() + ".tmp");
+        createDirectory();
+        long entries = writeSnapshot(engine, tempFile);
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        _lastWatermark = watermark;
+        if (_logger.isInfoEnabled())
+            _logger.info("Space [" + engine.getFullSpaceName() + "] wrote snapshot " + file + " of " + entries + " entries with replication watermark "
+                    + watermark + " in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    private void markModified(SpaceEngine engine) {
+        File marker = SpaceSnapshotFile.getModifiedMarker(getFile(engine));
+        try {
+            createDirectory();
+            if (!marker.exists() && !marker.createNewFile() && !marker.exists())
+                throw new IOException("Failed creating " + marker);
+            _modified = true;
+        } catch (IOException e) {
+            //the next check retries
+            if (_logger.isWarnEnabled())
+                _logger.warn("Space [" + engine.getFullSpaceName() + "] failed marking its snapshot as modified", e);
+        }
+    }
+
+    private void clearModified(SpaceEngine engine) {
+        File marker = SpaceSnapshotFile.getModifiedMarker(getFile(engine));
+        if (marker.exists() && !marker.delete()) {
+            if (_logger.isWarnEnabled())
+                _logger.warn("Space [" + engine.getFullSpaceName() + "] failed deleting " + marker);
+            return;
+        }
+        _modified = false;
+    }
+
+    private void createDirectory() throws IOException {
+        if (!_directory.exists() && !_directory.mkdirs())
+            throw new IOException("Failed creating snapshot directory " + _directory);
+    }
+
+    private boolean isStartedPrimary() {
+        return _space.isPrimary() && _space.getState() == ISpaceState.STARTED;
+    }
+
+    private File getFile(SpaceEngine engine) {
+        return SpaceSnapshotFile.getFile(_directory, engine.getSpaceName(), engine.getPartitionIdOneBased());
+    }
+
+    private static long getWatermark(SpaceEngine engine) {
+        IReplicationNode replicationNode = engine.getReplicationNode();
+        if (!(replicationNode instanceof ReplicationNode))
+            return NO_WATERMARK;
+        return ((ReplicationNode) replicationNode).getBackLogStatistics().getLastKeyInRedoLog();
+    }
+
+    //blob store and tiered storage keep their own persistent copy of the entries
+    private static boolean isSupported(CacheManager cacheManager) {
+        return !cacheManager.isBlobStoreCachePolicy() && !cacheManager.isTieredStorageCachePolicy();
+    }
+}
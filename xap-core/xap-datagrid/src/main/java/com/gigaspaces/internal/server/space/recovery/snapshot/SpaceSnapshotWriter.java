@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.recovery.snapshot;
+
+import com.gigaspaces.internal.cluster.node.impl.replica.EntryReplicaProducer;
+import com.gigaspaces.internal.cluster.node.impl.replica.IExecutableSpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISingleStageReplicaDataProducer;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISynchronizationCallback;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceTypeReplicaDataProducer;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters;
+import com.gigaspaces.internal.cluster.node.replica.SpaceCopyReplicaParameters.ReplicaType;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the types and entries of a space to a snapshot file. Entries are streamed from the cache
+ * manager by the same producer a space copy uses, so each entry is read under its lock while the
+ * space keeps serving operations. A snapshot written while the space is modified is therefore not
+ * a point in time copy of it: an entry modified during the write may be captured before or after
+ * the modification, and the entries of a transaction committed during the write may be captured
+ * partially.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SpaceSnapshotWriter {
+    private static final int BLOCK_SIZE = 1000;
+
+    //every entry is produced once, there are no duplicates to filter
+    private static final ISynchronizationCallback NO_DUPLICATES = new ISynchronizationCallback() {
+        @Override
+        public boolean synchronizationDataGenerated(ISpaceReplicaData data) {
+            return false;
+        }
+    };
+
+    private final SpaceEngine _engine;
+
+    public SpaceSnapshotWriter(SpaceEngine engine) {
+        _engine = engine;
+    }
+
+    /**
+     * Writes a snapshot to the specified file, which is deleted if writing fails
+     *
+     * @return the number of entries written
+     */
+    public long write(File file) throws Exception {
+        SpaceSnapshotFile.Writer writer = new SpaceSnapshotFile.Writer(file);
+        boolean completed = false;
+        try {
+            writeBlocks(writer, SpaceSnapshotFile.BLOCK_TYPES, new SpaceTypeReplicaDataProducer(_engine));
+            long entries = writeBlocks(writer, SpaceSnapshotFile.BLOCK_ENTRIES, new EntryReplicaProducer(_engine, createParameters(), null, null));
+            writer.close();
+            completed = true;
+            return entries;
+        } finally {
+            if (!completed) {
+                writer.abort();
+                file.delete();
+            }
+        }
+    }
+
+    private static SpaceCopyReplicaParameters createParameters() {
+        SpaceCopyReplicaParameters parameters = new SpaceCopyReplicaParameters();
+        parameters.setReplicaType(ReplicaType.COPY);
+        parameters.setMemoryOnly(true);
+        return parameters;
+    }
+
+    private static <T extends IExecutableSpaceReplicaData> long writeBlocks(SpaceSnapshotFile.Writer writer, byte kind,
+                                                                           ISingleStageReplicaDataProducer<T> producer) throws Exception {
+        List<T> block = new ArrayList<T>(BLOCK_SIZE);
+        long count = 0;
+        try {
+            for (T data = producer.produceNextData(NO_DUPLICATES); data != null; data = producer.produceNextData(NO_DUPLICATES)) {
+                block.add(data);
+                if (block.size() == BLOCK_SIZE) {
+                    writer.writeBlock(kind, block);
+                    count += block.size();
+                    block.clear();
+                }
+            }
+            writer.writeBlock(kind, block);
+            return count + block.size();
+        } finally {
+            producer.close(false);
+        }
+    }
+}
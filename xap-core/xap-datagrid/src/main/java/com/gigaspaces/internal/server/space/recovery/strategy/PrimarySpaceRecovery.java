@@ -21,6 +21,7 @@ import com.gigaspaces.internal.server.space.SpaceImpl;
 import com.gigaspaces.internal.server.space.recovery.group.CompositeRecoveryGroup;
 import com.gigaspaces.internal.server.space.recovery.group.LoadBalancingGroupRecovery;
 import com.gigaspaces.internal.server.space.recovery.group.ReplicationGroupRecovery;
+import com.gigaspaces.internal.server.space.recovery.snapshot.SpaceSnapshotManager;
 import com.j_spaces.core.cluster.ClusterPolicy;
 
 
@@ -34,13 +35,23 @@ public class PrimarySpaceRecovery
 
     private final CompositeRecoveryGroup _recoveryGroup;
     private final SpaceImpl _space;
+    private final SpaceSnapshotManager _snapshotManager;
 
     /**
      * @param recoveryManager
      * @param recoveryGroup
      */
     public PrimarySpaceRecovery(SpaceImpl space) {
+        this(space, null);
+    }
+
+    /**
+     * @param snapshotManager loads the local snapshot when no other member could recover the
+     *                        space, may be null
+     */
+    public PrimarySpaceRecovery(SpaceImpl space, SpaceSnapshotManager snapshotManager) {
         _space = space;
+        _snapshotManager = snapshotManager;
         _recoveryGroup = new CompositeRecoveryGroup(space);
 
         ClusterPolicy clusterPolicy = space.getClusterPolicy();
@@ -61,7 +72,11 @@ public class PrimarySpaceRecovery
      */
     public ISpaceSynchronizeReplicaState recover() throws Exception {
         recoverFromDB();
-        return recoverFromOtherSpace();
+        ISpaceSynchronizeReplicaState recoveryState = recoverFromOtherSpace();
+        // no member was found to recover from (e.g. full cluster restart) - load the local snapshot instead
+        if (_snapshotManager != null && recoveryState == null)
+            _snapshotManager.recover();
+        return recoveryState;
     }
 
     /* (non-Javadoc)
@@ -334,6 +334,17 @@ public class FixedSizeSwapRedoLogFile<T extends IReplicationOrderedPacket> imple
         return result;
     }
 
+    @Override
+    public CompactionResult coalesce(long from) {
+        //the packets kept in memory and the ones the storage still holds in memory are coalesced separately,
+        //the swapped ones are not rewritten
+        final CompactionResult result = _memoryRedoLogFile.coalesce(from);
+        if (_insertToExternal) {
+            result.appendResult(_externalStorage.coalesce(from));
+        }
+        return result;
+    }
+
     /**
      * A read only iterator which iterate over the memory redo log file, and once completed
      * iterating over it, it continue to iterate over the external storage
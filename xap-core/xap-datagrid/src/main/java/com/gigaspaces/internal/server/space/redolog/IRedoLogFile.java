@@ -108,6 +108,20 @@ public interface IRedoLogFile<T extends IReplicationOrderedPacket> extends IRedo
      */
     CompactionResult performCompaction(long from, long to);
 
+    /**
+     * Discards packets which are superseded by later packets of the same entry, see {@link
+     * com.j_spaces.core.cluster.startup.RedoLogCompactionUtil#coalesce(long, java.util.List)}.
+     * Implementations which do not support it discard nothing.
+     *
+     * @param from key to start coalescing from, should be greater than the last key confirmed by
+     *             any target
+     * @return number and weight of discarded packets
+     * @since 16.5
+     */
+    default CompactionResult coalesce(long from) {
+        return new CompactionResult();
+    }
+
     /**
      * Flush redo-log packets from memory to underlying storage.
      * Not thread safe, should be called under lock and only when the space is in quiesce mode.
@@ -172,6 +172,14 @@ public class MemoryRedoLogFile<T extends IReplicationOrderedPacket> implements I
         return compactionResult;
     }
 
+    @Override
+    public CompactionResult coalesce(long from) {
+        final CompactionResult result = RedoLogCompactionUtil.coalesce(from, _redoFile);
+        this._weight -= result.getDiscardedWeight();
+        this._discardedPacketCount += result.getDiscardedCount();
+        return result;
+    }
+
     private void increaseWeight(T packet) {
         if (packet.isDiscardedPacket()) {
             _discardedPacketCount++;
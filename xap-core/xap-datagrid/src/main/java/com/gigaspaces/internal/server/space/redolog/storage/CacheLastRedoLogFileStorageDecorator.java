@@ -154,6 +154,15 @@ public class CacheLastRedoLogFileStorageDecorator<T extends IReplicationOrderedP
         return compactionResult;
     }
 
+    @Override
+    public CompactionResult coalesce(long from) {
+        //the cached packets are the last appended ones, so they are coalesced before they are flushed to the storage
+        final CompactionResult result = RedoLogCompactionUtil.coalesce(from, _buffer);
+        this._bufferWeight -= result.getDiscardedWeight();
+        this._discardedPacketCount += result.getDiscardedCount();
+        return result;
+    }
+
     public void deleteOldestPackets(long packetsCount) throws StorageException {
         long storageSize = _storage.size();
         _storage.deleteOldestPackets(packetsCount);
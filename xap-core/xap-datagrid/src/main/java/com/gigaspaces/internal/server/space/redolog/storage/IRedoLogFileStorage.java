@@ -95,6 +95,21 @@ public interface IRedoLogFileStorage<T extends IReplicationOrderedPacket> extend
 
     CompactionResult performCompaction(long from, long to);
 
+    /**
+     * Discards packets which are superseded by later packets of the same entry, see {@link
+     * com.j_spaces.core.cluster.startup.RedoLogCompactionUtil#coalesce(long, java.util.List)}.
+     * Only packets which are held in memory can be coalesced, implementations which do not hold any
+     * discard nothing.
+     *
+     * @param from key to start coalescing from, should be greater than the last key confirmed by
+     *             any target
+     * @return number and weight of discarded packets
+     * @since 16.5
+     */
+    default CompactionResult coalesce(long from) {
+        return new CompactionResult();
+    }
+
     long getCacheWeight();
 
     default T getOldest() throws StorageException {
@@ -16,6 +16,10 @@
 
 package com.gigaspaces.internal.server.space.redolog.storage.bytebuffer;
 
+import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.mapped.MappedByteBufferStorageFactory;
+import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.raf.RAFByteBufferStorageFactory;
+import com.j_spaces.kernel.SystemProperties;
+
 /**
  * A configuration object for {@link ByteBufferRedoLogFileStorage}
  *
@@ -41,6 +45,7 @@ public class ByteBufferRedoLogFileConfig<T> {
     private long _maxSizePerSegment = DEFAULT_SEGMENT_SIZE;
     private int _maxScanLength = DEFAULT_MAX_SCAN;
     private int _maxOpenStorageCursors = DEFAULT_MAX_STORAGE_CURSORS;
+    private boolean _memoryMapped = Boolean.getBoolean(SystemProperties.REDOLOG_SWAP_MEMORY_MAPPED);
     private IPacketStreamSerializer<T> _packetStreamSerializer = new DefaultPacketStreamSerializer<T>();
 
 
@@ -112,6 +117,28 @@ public class ByteBufferRedoLogFileConfig<T> {
         return _maxOpenStorageCursors;
     }
 
+    /**
+     * Sets whether the segments are stored in memory mapped files rather than accessed through
+     * random access files
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this._memoryMapped = memoryMapped;
+    }
+
+    public boolean isMemoryMapped() {
+        return _memoryMapped;
+    }
+
+    /**
+     * @return a factory of the segments storage which is configured, with files named after the
+     * specified name
+     */
+    public IByteBufferStorageFactory createStorageFactory(String fileName) {
+        if (_memoryMapped)
+            return new MappedByteBufferStorageFactory(fileName, _maxSizePerSegment);
+        return new RAFByteBufferStorageFactory(fileName);
+    }
+
     public IPacketStreamSerializer<T> getPacketStreamSerializer() {
         return _packetStreamSerializer;
     }
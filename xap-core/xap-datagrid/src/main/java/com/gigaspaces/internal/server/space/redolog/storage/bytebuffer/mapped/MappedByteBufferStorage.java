@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.mapped;
+
+import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.ByteBufferStorageException;
+import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.IByteBufferStorage;
+import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.IByteBufferStorageCursor;
+import com.gigaspaces.internal.utils.concurrent.UnsafeHolder;
+import com.gigaspaces.start.SystemLocations;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * {@link IByteBufferStorage} implementation that is based on memory mapped files. The file is
+ * mapped in regions of a fixed size, usually the size of a segment, so reading and writing a
+ * segment involves no system calls. A region is mapped when first accessed, and the file is not
+ * kept open once it is mapped.
+ *
+ * The regions are unmapped when the cursor is closed, i.e. when the segment is sealed or its reader
+ * is closed due to the open cursors limit, and a later cursor maps them again.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class MappedByteBufferStorage
+        implements IByteBufferStorage {
+
+    private final File _file;
+    private final int _regionSize;
+    private volatile Cursor _cursor;
+    private volatile boolean _closed;
+
+    public MappedByteBufferStorage(String fileName, int regionSize) throws ByteBufferStorageException {
+        try {
+            File workLocation = SystemLocations.singleton().work().toFile();
+            workLocation.mkdirs();
+            File replicationDirPath = new File(workLocation, "replication");
+            replicationDirPath.mkdirs();
+            _file = File.createTempFile(fileName, "tmp", replicationDirPath);
+        } catch (IOException e) {
+            throw new ByteBufferStorageException("error creating temp file", e);
+        }
+        try {
+            _file.deleteOnExit();
+        } catch (Throwable t) {
+            //Do nothing, this can occurr if deleteOnExit is called when the jvm is during shutdown.
+        }
+        this._regionSize = regionSize;
+    }
+
+    public void clear() throws ByteBufferStorageException {
+        if (_cursor == null)
+            getCursor();
+
+        _cursor.clear();
+    }
+
+    public synchronized void close() {
+        if (_cursor != null)
+            _cursor.close();
+        _cursor = null;
+        _file.delete();
+        _closed = true;
+    }
+
+    public File getFile() {
+        return _file;
+    }
+
+    public synchronized IByteBufferStorageCursor getCursor()
+            throws ByteBufferStorageException {
+        if (_closed)
+            throw new MappedByteBufferStorageException("storage is closed");
+        if (_cursor == null)
+            _cursor = new Cursor();
+
+        return _cursor;
+    }
+
+    public String getName() {
+        try {
+            return _file.getAbsolutePath();
+        } catch (Throwable t) {
+            //We dont want to throw exception from here
+            return null;
+        }
+    }
+
+    private class Cursor implements IByteBufferStorageCursor {
+
+        private final ArrayList<MappedByteBuffer> _regions = new ArrayList<MappedByteBuffer>();
+        private long _position;
+
+        /**
+         * @return the region which contains the specified position, mapping it if needed
+         */
+        private MappedByteBuffer getRegion(long position) {
+            int index = (int) (position / _regionSize);
+            while (_regions.size() <= index)
+                _regions.add(map(_regions.size()));
+            return _regions.get(index);
+        }
+
+        private MappedByteBuffer map(int index) {
+            try {
+                RandomAccessFile raf = new RandomAccessFile(_file, "rw");
+                try {
+                    //the mapping remains valid after the file is closed
+                    return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, (long) index * _regionSize, _regionSize);
+                } finally {
+                    raf.close();
+                }
+            } catch (IOException e) {
+                throw new MappedByteBufferStorageException(e);
+            }
+        }
+
+        private void unmap() {
+            for (MappedByteBuffer region : _regions)
+                UnsafeHolder.freeDirectBuffer(region);
+            _regions.clear();
+        }
+
+        private int offset(long position) {
+            return (int) (position % _regionSize);
+        }
+
+        /**
+         * @return true if the specified number of bytes at the current position are in the same
+         * region
+         */
+        private boolean isInRegion(int length) {
+            return offset(_position) + length <= _regionSize;
+        }
+
+        public void clear() {
+            unmap();
+            _position = 0;
+            try {
+                RandomAccessFile raf = new RandomAccessFile(_file, "rw");
+                try {
+                    raf.setLength(0);
+                } finally {
+                    raf.close();
+                }
+            } catch (IOException e) {
+                throw new MappedByteBufferStorageException(e);
+            }
+        }
+
+        public void close() {
+            try {
+                unmap();
+            } finally {
+                _cursor = null;
+            }
+        }
+
+        public long getPosition() {
+            return _position;
+        }
+
+        public void movePosition(long offset) {
+            _position += offset;
+        }
+
+        public void setPosition(long position) {
+            _position = position;
+        }
+
+        public byte readByte() {
+            byte value = getRegion(_position).get(offset(_position));
+            _position++;
+            return value;
+        }
+
+        public void readBytes(byte[] result, int offset, int length) {
+            while (length > 0) {
+                ByteBuffer region = getRegion(_position);
+                int regionOffset = offset(_position);
+                int bytes = Math.min(length, _regionSize - regionOffset);
+                region.position(regionOffset);
+                region.get(result, offset, bytes);
+                _position += bytes;
+                offset += bytes;
+                length -= bytes;
+            }
+        }
+
+        public int readInt() {
+            if (!isInRegion(4))
+                return ((readByte() & 0xFF) << 24) | ((readByte() & 0xFF) << 16) | ((readByte() & 0xFF) << 8) | (readByte() & 0xFF);
+            int value = getRegion(_position).getInt(offset(_position));
+            _position += 4;
+            return value;
+        }
+
+        public long readLong() {
+            if (!isInRegion(8))
+                return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+            long value = getRegion(_position).getLong(offset(_position));
+            _position += 8;
+            return value;
+        }
+
+        public void writeByte(byte value) {
+            getRegion(_position).put(offset(_position), value);
+            _position++;
+        }
+
+        public void writeBytes(byte[] array, int offset, int length) {
+            while (length > 0) {
+                ByteBuffer region = getRegion(_position);
+                int regionOffset = offset(_position);
+                int bytes = Math.min(length, _regionSize - regionOffset);
+                region.position(regionOffset);
+                region.put(array, offset, bytes);
+                _position += bytes;
+                offset += bytes;
+                length -= bytes;
+            }
+        }
+
+        public void writeInt(int value) {
+            if (!isInRegion(4)) {
+                writeByte((byte) (value >>> 24));
+                writeByte((byte) (value >>> 16));
+                writeByte((byte) (value >>> 8));
+                writeByte((byte) value);
+                return;
+            }
+            getRegion(_position).putInt(offset(_position), value);
+            _position += 4;
+        }
+
+        public void writeLong(long value) {
+            if (!isInRegion(8)) {
+                writeInt((int) (value >>> 32));
+                writeInt((int) value);
+                return;
+            }
+            getRegion(_position).putLong(offset(_position), value);
+            _position += 8;
+        }
+    }
+
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.utils.collections;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints in the roaring layout: values are partitioned by their high
+ * 16 bits, and each partition is kept either as a sorted array of the low 16 bits (sparse) or as a
+ * 64K bit-set (dense). NOTE - not thread safe, callers synchronize.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class CompressedBitmap {
+    //array containers above this cardinality are converted to bitmap containers and vice versa
+    private static final int MAX_ARRAY_CARDINALITY = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] _keys;
+    private Container[] _containers;
+    private int _size;
+
+    public CompressedBitmap() {
+        this(4);
+    }
+
+    private CompressedBitmap(int capacity) {
+        _keys = new char[Math.max(capacity, 1)];
+        _containers = new Container[_keys.length];
+    }
+
+    /**
+     * @return true if the value was not already set
+     */
+    public boolean add(int value) {
+        char high = high(value);
+        int pos = indexOf(high);
+        if (pos >= 0) {
+            Container container = _containers[pos];
+            int cardinality = container.cardinality();
+            _containers[pos] = container.add(low(value));
+            return _containers[pos].cardinality() != cardinality;
+        }
+        insertAt(-pos - 1, high, new ArrayContainer().add(low(value)));
+        return true;
+    }
+
+    /**
+     * @return true if the value was set
+     */
+    public boolean remove(int value) {
+        int pos = indexOf(high(value));
+        if (pos < 0)
+            return false;
+        Container container = _containers[pos];
+        int cardinality = container.cardinality();
+        Container res = container.remove(low(value));
+        if (res == null)
+            removeAt(pos);
+        else
+            _containers[pos] = res;
+        return res == null || res.cardinality() != cardinality;
+    }
+
+    public boolean contains(int value) {
+        int pos = indexOf(high(value));
+        return pos >= 0 && _containers[pos].contains(low(value));
+    }
+
+    public boolean isEmpty() {
+        return _size == 0;
+    }
+
+    public int cardinality() {
+        int res = 0;
+        for (int i = 0; i < _size; i++)
+            res += _containers[i].cardinality();
+        return res;
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap res = new CompressedBitmap(_size);
+        for (int i = 0; i < _size; i++)
+            res.append(_keys[i], _containers[i].copy());
+        return res;
+    }
+
+    public CompressedBitmap and(CompressedBitmap other) {
+        CompressedBitmap res = new CompressedBitmap(Math.min(_size, other._size));
+        int i = 0, j = 0;
+        while (i < _size && j < other._size) {
+            if (_keys[i] < other._keys[j])
+                i++;
+            else if (_keys[i] > other._keys[j])
+                j++;
+            else {
+                Container c = _containers[i].and(other._containers[j]);
+                if (c != null)
+                    res.append(_keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return res;
+    }
+
+    public CompressedBitmap or(CompressedBitmap other) {
+        CompressedBitmap res = new CompressedBitmap(_size + other._size);
+        int i = 0, j = 0;
+        while (i < _size || j < other._size) {
+            if (j == other._size || (i < _size && _keys[i] < other._keys[j]))
+                res.append(_keys[i], _containers[i++].copy());
+            else if (i == _size || _keys[i] > other._keys[j])
+                res.append(other._keys[j], other._containers[j++].copy());
+            else
+                res.append(_keys[i], _containers[i++].or(other._containers[j++]));
+        }
+        return res;
+    }
+
+    public CompressedBitmap andNot(CompressedBitmap other) {
+        CompressedBitmap res = new CompressedBitmap(_size);
+        int j = 0;
+        for (int i = 0; i < _size; i++) {
+            while (j < other._size && other._keys[j] < _keys[i])
+                j++;
+            Container c = j < other._size && other._keys[j] == _keys[i] ? _containers[i].andNot(other._containers[j]) : _containers[i].copy();
+            if (c != null)
+                res.append(_keys[i], c);
+        }
+        return res;
+    }
+
+    /**
+     * @return the set values in ascending order
+     */
+    public int[] toArray() {
+        int[] res = new int[cardinality()];
+        int offset = 0;
+        for (int i = 0; i < _size; i++)
+            offset = _containers[i].fill(res, offset, _keys[i] << 16);
+        return res;
+    }
+
+    private static char high(int value) {
+        return (char) (value >>> 16);
+    }
+
+    private static char low(int value) {
+        return (char) value;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(_keys, 0, _size, key);
+    }
+
+    private void append(char key, Container container) {
+        insertAt(_size, key, container);
+    }
+
+    private void insertAt(int pos, char key, Container container) {
+        if (_size == _keys.length) {
+            _keys = Arrays.copyOf(_keys, _size * 2);
+            _containers = Arrays.copyOf(_containers, _size * 2);
+        }
+        System.arraycopy(_keys, pos, _keys, pos + 1, _size - pos);
+        System.arraycopy(_containers, pos, _containers, pos + 1, _size - pos);
+        _keys[pos] = key;
+        _containers[pos] = container;
+        _size++;
+    }
+
+    private void removeAt(int pos) {
+        System.arraycopy(_keys, pos + 1, _keys, pos, _size - pos - 1);
+        System.arraycopy(_containers, pos + 1, _containers, pos, _size - pos - 1);
+        _containers[--_size] = null;
+    }
+
+    private abstract static class Container {
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        //may return a container of the other kind
+        abstract Container add(char value);
+
+        //null when the container becomes empty
+        abstract Container remove(char value);
+
+        abstract Container copy();
+
+        //null when the result is empty
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        //null when the result is empty
+        abstract Container andNot(Container other);
+
+        abstract int fill(int[] dest, int offset, int base);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] _values;
+        private int _cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            _values = values;
+            _cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return _cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(_values, 0, _cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int pos = Arrays.binarySearch(_values, 0, _cardinality, value);
+            if (pos >= 0)
+                return this;
+            if (_cardinality == MAX_ARRAY_CARDINALITY)
+                return toBitmap().add(value);
+            pos = -pos - 1;
+            if (_cardinality == _values.length)
+                _values = Arrays.copyOf(_values, Math.min(_cardinality * 2, MAX_ARRAY_CARDINALITY));
+            System.arraycopy(_values, pos, _values, pos + 1, _cardinality - pos);
+            _values[pos] = value;
+            _cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int pos = Arrays.binarySearch(_values, 0, _cardinality, value);
+            if (pos >= 0) {
+                System.arraycopy(_values, pos + 1, _values, pos, _cardinality - pos - 1);
+                _cardinality--;
+            }
+            return _cardinality == 0 ? null : this;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(_values, _cardinality), _cardinality);
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] res = new char[_cardinality];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                int i = 0, j = 0;
+                while (i < _cardinality && j < o._cardinality) {
+                    if (_values[i] < o._values[j])
+                        i++;
+                    else if (_values[i] > o._values[j])
+                        j++;
+                    else {
+                        res[count++] = _values[i++];
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < _cardinality; i++)
+                    if (other.contains(_values[i]))
+                        res[count++] = _values[i];
+            }
+            return count == 0 ? null : new ArrayContainer(res, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer)
+                return other.or(this);
+            ArrayContainer o = (ArrayContainer) other;
+            if (_cardinality + o._cardinality > MAX_ARRAY_CARDINALITY) {
+                Container res = toBitmap();
+                for (int j = 0; j < o._cardinality; j++)
+                    res = res.add(o._values[j]);
+                return res;
+            }
+            char[] res = new char[_cardinality + o._cardinality];
+            int i = 0, j = 0, count = 0;
+            while (i < _cardinality || j < o._cardinality) {
+                if (j == o._cardinality || (i < _cardinality && _values[i] < o._values[j]))
+                    res[count++] = _values[i++];
+                else if (i == _cardinality || _values[i] > o._values[j])
+                    res[count++] = o._values[j++];
+                else {
+                    res[count++] = _values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(res, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] res = new char[_cardinality];
+            int count = 0;
+            for (int i = 0; i < _cardinality; i++)
+                if (!other.contains(_values[i]))
+                    res[count++] = _values[i];
+            return count == 0 ? null : new ArrayContainer(res, count);
+        }
+
+        @Override
+        int fill(int[] dest, int offset, int base) {
+            for (int i = 0; i < _cardinality; i++)
+                dest[offset++] = base | _values[i];
+            return offset;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer res = new BitmapContainer();
+            for (int i = 0; i < _cardinality; i++)
+                res.add(_values[i]);
+            return res;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] _words;
+        private int _cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            _words = words;
+            _cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return _cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (_words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long word = _words[value >>> 6];
+            long updated = word | (1L << value);
+            if (updated != word) {
+                _words[value >>> 6] = updated;
+                _cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long word = _words[value >>> 6];
+            long updated = word & ~(1L << value);
+            if (updated != word) {
+                _words[value >>> 6] = updated;
+                _cardinality--;
+            }
+            return _cardinality <= MAX_ARRAY_CARDINALITY ? toArrayContainer(_words, _cardinality) : this;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(_words.clone(), _cardinality);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.and(this);
+            long[] o = ((BitmapContainer) other)._words;
+            long[] res = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                res[i] = _words[i] & o[i];
+                cardinality += Long.bitCount(res[i]);
+            }
+            return optimize(res, cardinality);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer) {
+                Container res = copy();
+                ArrayContainer o = (ArrayContainer) other;
+                for (int j = 0; j < o._cardinality; j++)
+                    res.add(o._values[j]);
+                return res;
+            }
+            long[] o = ((BitmapContainer) other)._words;
+            long[] res = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                res[i] = _words[i] | o[i];
+                cardinality += Long.bitCount(res[i]);
+            }
+            return new BitmapContainer(res, cardinality);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] res = _words.clone();
+            int cardinality = _cardinality;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer o = (ArrayContainer) other;
+                for (int j = 0; j < o._cardinality; j++) {
+                    char value = o._values[j];
+                    long word = res[value >>> 6];
+                    if ((word & (1L << value)) != 0) {
+                        res[value >>> 6] = word & ~(1L << value);
+                        cardinality--;
+                    }
+                }
+            } else {
+                long[] o = ((BitmapContainer) other)._words;
+                cardinality = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    res[i] &= ~o[i];
+                    cardinality += Long.bitCount(res[i]);
+                }
+            }
+            return optimize(res, cardinality);
+        }
+
+        @Override
+        int fill(int[] dest, int offset, int base) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = _words[i];
+                while (word != 0) {
+                    dest[offset++] = base | (i << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return offset;
+        }
+
+        private static Container optimize(long[] words, int cardinality) {
+            if (cardinality == 0)
+                return null;
+            return cardinality <= MAX_ARRAY_CARDINALITY ? toArrayContainer(words, cardinality) : new BitmapContainer(words, cardinality);
+        }
+
+        private static Container toArrayContainer(long[] words, int cardinality) {
+            if (cardinality == 0)
+                return null;
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
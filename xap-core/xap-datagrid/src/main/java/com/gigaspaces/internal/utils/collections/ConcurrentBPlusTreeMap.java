@@ -0,0 +1,904 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.utils.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * An ordered concurrent map for integral numeric keys, implemented as a B+-tree whose nodes keep
+ * the keys unboxed in <tt>long[]</tt> arrays and whose leaves are doubly linked for range scans.
+ * Compared with a skip-list this keeps about two arrays per {@link #NODE_CAPACITY} mappings instead
+ * of several objects per mapping, and range scans walk contiguous arrays.
+ *
+ * <p>Every node has its own {@link StampedLock}. Retrievals descend with optimistic (lock-free)
+ * reads, validating each node after reading the next one, and start over if a node was modified
+ * meanwhile. Updates descend the same way and write lock only the leaf, so updates of different
+ * leaves run in parallel. Updates which split a full leaf or unlink an empty one are structure
+ * modifications: they are serialized by a separate lock, since inner nodes are only modified by them,
+ * and write lock every node they modify until the tree is consistent again. Range iterators fetch a
+ * batch of mappings at a time and re-seek from the last returned key, so they never hold a lock
+ * between calls and are weakly consistent.
+ *
+ * <p>Keys of a type other than the map key type are never mapped: lookups return <tt>null</tt> and
+ * insertions throw {@link ClassCastException}, same as mixing types in a sorted map. Empty leaves
+ * are unlinked from the tree, but under-full leaves are not merged.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ConcurrentBPlusTreeMap<V> extends AbstractMap<Object, V> implements ConcurrentMap<Object, V> {
+
+    public static final int NODE_CAPACITY = 64;
+    private static final int MAX_HEIGHT = 32;
+
+    private final PrimitiveKeyConcurrentHashMap.KeyType _keyType;
+    //serializes structure modifications, inner nodes are only modified while it is held
+    private final ReentrantLock _structureLock = new ReentrantLock();
+    //modified while the previous node is write locked
+    private volatile Node _root;
+    private volatile Leaf _head;
+    private volatile Leaf _tail;
+    //guarded by _structureLock
+    private int _height;
+    //modified while the modified leaf is write locked
+    private final LongAdder _size = new LongAdder();
+    private transient Set<Map.Entry<Object, V>> _entrySet;
+
+    public ConcurrentBPlusTreeMap(PrimitiveKeyConcurrentHashMap.KeyType keyType) {
+        if (keyType == null)
+            throw new IllegalArgumentException("keyType cannot be null");
+        _keyType = keyType;
+        Leaf leaf = new Leaf();
+        _root = leaf;
+        _head = leaf;
+        _tail = leaf;
+        _height = 1;
+    }
+
+    public PrimitiveKeyConcurrentHashMap.KeyType getKeyType() {
+        return _keyType;
+    }
+
+    private boolean isKeyOfType(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        return key.getClass() == _keyType.getKeyClass();
+    }
+
+    private long toLongForUpdate(Object key) {
+        if (!isKeyOfType(key))
+            throw new ClassCastException(key.getClass() + " cannot be compared with " + _keyType.getKeyClass());
+        return _keyType.toLong(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!isKeyOfType(key))
+            return null;
+        long k = _keyType.toLong(key);
+        long[] stamp = new long[1];
+        while (true) {
+            Leaf leaf = findLeaf(k, stamp);
+            if (leaf == null)
+                continue;
+            try {
+                int pos = binarySearch(leaf._keys, leaf._count, k);
+                Object value = pos >= 0 ? leaf._values[pos] : null;
+                if (!leaf._obsolete && leaf._lock.validate(stamp[0]))
+                    return (V) value;
+            } catch (RuntimeException e) {
+                //inconsistent view of the leaf- retry
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(Object key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return putImpl(toLongForUpdate(key), value, false);
+    }
+
+    @Override
+    public V putIfAbsent(Object key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        return putImpl(toLongForUpdate(key), value, true);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!isKeyOfType(key))
+            return null;
+        return removeImpl(_keyType.toLong(key), null);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (value == null || !isKeyOfType(key))
+            return false;
+        return removeImpl(_keyType.toLong(key), value) != null;
+    }
+
+    @Override
+    public boolean replace(Object key, V oldValue, V newValue) {
+        if (oldValue == null || newValue == null)
+            throw new NullPointerException();
+        if (!isKeyOfType(key))
+            return false;
+        return replaceImpl(_keyType.toLong(key), oldValue, newValue) != null;
+    }
+
+    @Override
+    public V replace(Object key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        if (!isKeyOfType(key))
+            return null;
+        return replaceImpl(_keyType.toLong(key), null, value);
+    }
+
+    @Override
+    public int size() {
+        long size = _size.sum();
+        return size < 0 ? 0 : size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        _structureLock.lock();
+        try {
+            //the leaves of the previous tree become obsolete, so pending updates of them start over
+            LockedNodes locked = new LockedNodes();
+            for (Leaf leaf = _head; leaf != null; leaf = leaf._next) {
+                locked.lock(leaf);
+                leaf._obsolete = true;
+            }
+            locked.lock(_root);
+            _root._obsolete = true;
+            _size.reset();
+            Leaf leaf = new Leaf();
+            _head = leaf;
+            _tail = leaf;
+            _height = 1;
+            _root = leaf;
+            locked.unlockAll();
+        } finally {
+            _structureLock.unlock();
+        }
+    }
+
+    /**
+     * @return the lowest key, or null if the map is empty
+     */
+    public Object firstKey() {
+        return edgeKey(false);
+    }
+
+    /**
+     * @return the highest key, or null if the map is empty
+     */
+    public Object lastKey() {
+        return edgeKey(true);
+    }
+
+    private Object edgeKey(boolean last) {
+        while (true) {
+            Leaf leaf = last ? _tail : _head;
+            long stamp = leaf._lock.tryOptimisticRead();
+            if (stamp == 0) {
+                awaitUnlocked(leaf);
+                continue;
+            }
+            try {
+                //empty leaves are unlinked, so only a sole root leaf can be empty
+                boolean edge = !leaf._obsolete && (last ? leaf._next : leaf._prev) == null;
+                int count = leaf._count;
+                long key = count > 0 ? leaf._keys[last ? count - 1 : 0] : 0;
+                if (edge && leaf._lock.validate(stamp))
+                    return count > 0 ? _keyType.toKey(key) : null;
+            } catch (RuntimeException e) {
+                //inconsistent view of the leaf- retry
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the values whose keys are in the given range, in ascending or
+     * descending key order. A null bound means the range is unbounded at that side. Bounds of a type
+     * other than the map key type are not supported.
+     */
+    public Iterator<V> valuesIterator(Object from, boolean fromInclusive, Object to, boolean toInclusive, boolean descending) {
+        return new RangeIterator<V>(this, from, fromInclusive, to, toInclusive, descending, false);
+    }
+
+    @Override
+    public Set<Map.Entry<Object, V>> entrySet() {
+        Set<Map.Entry<Object, V>> es = _entrySet;
+        return es != null ? es : (_entrySet = new EntrySet());
+    }
+
+    private static int binarySearch(long[] keys, int count, long key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = keys[mid];
+            if (midKey < key)
+                low = mid + 1;
+            else if (midKey > key)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    //index of the child of an inner node which covers the key
+    private static int childIndex(Inner inner, long key) {
+        int pos = binarySearch(inner._keys, inner._count, key);
+        return pos >= 0 ? pos + 1 : -(pos + 1);
+    }
+
+    //waits for a writer which holds the node lock, instead of spinning on it
+    private static void awaitUnlocked(Node node) {
+        if (node._lock.isWriteLocked())
+            node._lock.unlockRead(node._lock.readLock());
+    }
+
+    /**
+     * Descends optimistically to the leaf which covers the key. Each node is validated after the
+     * stamp of its child was taken, so the child was linked to it and the key range of the leaf can
+     * only have grown since: a leaf range only shrinks when the leaf itself is split.
+     *
+     * @return the leaf, whose optimistic stamp is set to <tt>stamp[0]</tt>, or null if the descent
+     * raced with a structure modification and should be retried
+     */
+    private Leaf findLeaf(long key, long[] stamp) {
+        Node node = _root;
+        long nodeStamp = node._lock.tryOptimisticRead();
+        if (nodeStamp == 0) {
+            awaitUnlocked(node);
+            return null;
+        }
+        //the previous root is write locked until the root changes
+        if (node != _root)
+            return null;
+        try {
+            for (int level = 0; node instanceof Inner; level++) {
+                Inner inner = (Inner) node;
+                Node child = level < MAX_HEIGHT ? inner._children[childIndex(inner, key)] : null;
+                if (child == null)
+                    return null;
+                long childStamp = child._lock.tryOptimisticRead();
+                if (!inner._lock.validate(nodeStamp))
+                    return null;
+                if (childStamp == 0) {
+                    awaitUnlocked(child);
+                    return null;
+                }
+                node = child;
+                nodeStamp = childStamp;
+            }
+        } catch (RuntimeException e) {
+            //inconsistent view of the tree- retry
+            return null;
+        }
+        stamp[0] = nodeStamp;
+        return (Leaf) node;
+    }
+
+    /**
+     * Write locks the leaf which covers the key
+     *
+     * @return the write stamp, or 0 if the leaf is a leaf of a cleared tree
+     */
+    private long lockLeaf(long key, Leaf[] leaf) {
+        long[] stamp = new long[1];
+        while (true) {
+            Leaf candidate = findLeaf(key, stamp);
+            if (candidate == null)
+                continue;
+            long writeStamp = candidate._lock.tryConvertToWriteLock(stamp[0]);
+            if (writeStamp == 0) {
+                awaitUnlocked(candidate);
+                continue;
+            }
+            if (candidate._obsolete) {
+                candidate._lock.unlockWrite(writeStamp);
+                continue;
+            }
+            leaf[0] = candidate;
+            return writeStamp;
+        }
+    }
+
+    private V putImpl(long key, V value, boolean onlyIfAbsent) {
+        Leaf[] leafHolder = new Leaf[1];
+        long stamp = lockLeaf(key, leafHolder);
+        Leaf leaf = leafHolder[0];
+        try {
+            int pos = binarySearch(leaf._keys, leaf._count, key);
+            if (pos >= 0) {
+                V old = (V) leaf._values[pos];
+                if (!onlyIfAbsent)
+                    leaf._values[pos] = value;
+                return old;
+            }
+            if (leaf._count < NODE_CAPACITY) {
+                leaf.insertAt(-(pos + 1), key, value);
+                _size.increment();
+                return null;
+            }
+        } finally {
+            leaf._lock.unlockWrite(stamp);
+        }
+        return putSplitting(key, value, onlyIfAbsent);
+    }
+
+    private V putSplitting(long key, V value, boolean onlyIfAbsent) {
+        _structureLock.lock();
+        try {
+            Inner[] path = new Inner[_height];
+            int[] pathIndexes = new int[_height];
+            int depth = descend(key, path, pathIndexes);
+            Leaf leaf = depth == 0 ? (Leaf) _root : (Leaf) path[depth - 1]._children[pathIndexes[depth - 1]];
+            LockedNodes locked = new LockedNodes();
+            locked.lock(leaf);
+            try {
+                //the leaf may have been modified since it was found full
+                int pos = binarySearch(leaf._keys, leaf._count, key);
+                if (pos >= 0) {
+                    V old = (V) leaf._values[pos];
+                    if (!onlyIfAbsent)
+                        leaf._values[pos] = value;
+                    return old;
+                }
+                pos = -(pos + 1);
+                if (leaf._count < NODE_CAPACITY) {
+                    leaf.insertAt(pos, key, value);
+                } else {
+                    Leaf right = leaf.split();
+                    locked.lock(right);
+                    if (pos <= leaf._count)
+                        leaf.insertAt(pos, key, value);
+                    else
+                        right.insertAt(pos - leaf._count, key, value);
+                    if (right._next != null) {
+                        locked.lock(right._next);
+                        right._next._prev = right;
+                    } else {
+                        _tail = right;
+                    }
+                    //the leaf stays locked until its parent links the new leaf
+                    insertIntoParent(path, pathIndexes, depth - 1, leaf, right._keys[0], right, locked);
+                }
+                _size.increment();
+                return null;
+            } finally {
+                locked.unlockAll();
+            }
+        } finally {
+            _structureLock.unlock();
+        }
+    }
+
+    //descends from the root while holding the structure lock, which keeps the inner nodes stable
+    private int descend(long key, Inner[] path, int[] pathIndexes) {
+        Node node = _root;
+        int depth = 0;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int ci = childIndex(inner, key);
+            path[depth] = inner;
+            pathIndexes[depth++] = ci;
+            node = inner._children[ci];
+        }
+        return depth;
+    }
+
+    private void insertIntoParent(Inner[] path, int[] pathIndexes, int depth, Node left, long separator, Node right, LockedNodes locked) {
+        while (true) {
+            if (depth < 0) {
+                Inner root = new Inner();
+                root._keys[0] = separator;
+                root._children[0] = left;
+                root._children[1] = right;
+                root._count = 1;
+                _root = root;
+                _height++;
+                return;
+            }
+            Inner parent = path[depth];
+            int ci = pathIndexes[depth];
+            locked.lock(parent);
+            if (parent._count < NODE_CAPACITY) {
+                parent.insertAt(ci, separator, right);
+                return;
+            }
+            //split the parent, the middle key moves up
+            Inner rightInner = new Inner();
+            locked.lock(rightInner);
+            long[] keys = new long[NODE_CAPACITY + 1];
+            Node[] children = new Node[NODE_CAPACITY + 2];
+            System.arraycopy(parent._keys, 0, keys, 0, ci);
+            keys[ci] = separator;
+            System.arraycopy(parent._keys, ci, keys, ci + 1, NODE_CAPACITY - ci);
+            System.arraycopy(parent._children, 0, children, 0, ci + 1);
+            children[ci + 1] = right;
+            System.arraycopy(parent._children, ci + 1, children, ci + 2, NODE_CAPACITY - ci);
+
+            int mid = (NODE_CAPACITY + 1) / 2;
+            long up = keys[mid];
+            int rightKeys = NODE_CAPACITY - mid;
+            System.arraycopy(keys, mid + 1, rightInner._keys, 0, rightKeys);
+            System.arraycopy(children, mid + 1, rightInner._children, 0, rightKeys + 1);
+            rightInner._count = rightKeys;
+
+            long[] leftKeys = new long[NODE_CAPACITY];
+            Node[] leftChildren = new Node[NODE_CAPACITY + 1];
+            System.arraycopy(keys, 0, leftKeys, 0, mid);
+            System.arraycopy(children, 0, leftChildren, 0, mid + 1);
+            parent.reset(leftKeys, leftChildren, mid);
+
+            left = parent;
+            separator = up;
+            right = rightInner;
+            depth--;
+        }
+    }
+
+    private V removeImpl(long key, Object expected) {
+        Leaf[] leafHolder = new Leaf[1];
+        long stamp = lockLeaf(key, leafHolder);
+        Leaf leaf = leafHolder[0];
+        try {
+            int pos = binarySearch(leaf._keys, leaf._count, key);
+            if (pos < 0)
+                return null;
+            V old = (V) leaf._values[pos];
+            if (expected != null && old != expected && !expected.equals(old))
+                return null;
+            //a root leaf is never unlinked, and the root cannot change while it is locked
+            if (leaf._count > 1 || leaf == _root) {
+                leaf.removeAt(pos);
+                _size.decrement();
+                return old;
+            }
+        } finally {
+            leaf._lock.unlockWrite(stamp);
+        }
+        return removeUnlinking(key, expected);
+    }
+
+    private V removeUnlinking(long key, Object expected) {
+        _structureLock.lock();
+        try {
+            Inner[] path = new Inner[_height];
+            int[] pathIndexes = new int[_height];
+            int depth = descend(key, path, pathIndexes);
+            Leaf leaf = depth == 0 ? (Leaf) _root : (Leaf) path[depth - 1]._children[pathIndexes[depth - 1]];
+            LockedNodes locked = new LockedNodes();
+            locked.lock(leaf);
+            try {
+                //the leaf may have been modified since it was found with a single mapping
+                int pos = binarySearch(leaf._keys, leaf._count, key);
+                if (pos < 0)
+                    return null;
+                V old = (V) leaf._values[pos];
+                if (expected != null && old != expected && !expected.equals(old))
+                    return null;
+                leaf.removeAt(pos);
+                _size.decrement();
+                if (leaf._count == 0 && depth > 0)
+                    unlinkEmptyLeaf(leaf, path, pathIndexes, depth - 1, locked);
+                return old;
+            } finally {
+                locked.unlockAll();
+            }
+        } finally {
+            _structureLock.unlock();
+        }
+    }
+
+    private void unlinkEmptyLeaf(Leaf leaf, Inner[] path, int[] pathIndexes, int depth, LockedNodes locked) {
+        leaf._obsolete = true;
+        Leaf prev = leaf._prev;
+        Leaf next = leaf._next;
+        if (prev != null) {
+            locked.lock(prev);
+            prev._next = next;
+        } else {
+            _head = next;
+        }
+        if (next != null) {
+            locked.lock(next);
+            next._prev = prev;
+        } else {
+            _tail = prev;
+        }
+
+        //remove the child from its parent, and empty inner nodes from their parents
+        while (depth >= 0) {
+            Inner parent = path[depth];
+            locked.lock(parent);
+            parent.removeChildAt(pathIndexes[depth]);
+            if (parent._count >= 0)
+                break;
+            parent._obsolete = true;
+            depth--;
+        }
+        //collapse single-child roots
+        while (_root instanceof Inner && ((Inner) _root)._count == 0) {
+            Inner root = (Inner) _root;
+            locked.lock(root);
+            root._obsolete = true;
+            _root = root._children[0];
+            _height--;
+        }
+    }
+
+    private V replaceImpl(long key, Object expected, V value) {
+        Leaf[] leafHolder = new Leaf[1];
+        long stamp = lockLeaf(key, leafHolder);
+        Leaf leaf = leafHolder[0];
+        try {
+            int pos = binarySearch(leaf._keys, leaf._count, key);
+            if (pos < 0)
+                return null;
+            V old = (V) leaf._values[pos];
+            if (expected != null && old != expected && !expected.equals(old))
+                return null;
+            leaf._values[pos] = value;
+            return old;
+        } finally {
+            leaf._lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copies up to <tt>batch.length</tt> mappings following the given key into the batch, reading
+     * the leaves optimistically. A leaf is validated after the stamp of the next leaf was taken, so
+     * no leaf which was linked between them is skipped.
+     *
+     * @return number of mappings copied, or -1 if the scan raced with an update and should be retried
+     */
+    private int fillBatch(boolean hasFrom, long from, boolean fromInclusive, boolean hasTo, long to, boolean toInclusive,
+                          boolean descending, long[] batchKeys, Object[] batchValues) {
+        Leaf leaf;
+        long stamp;
+        if (hasFrom) {
+            long[] stampHolder = new long[1];
+            leaf = findLeaf(from, stampHolder);
+            if (leaf == null)
+                return -1;
+            stamp = stampHolder[0];
+        } else {
+            leaf = descending ? _tail : _head;
+            stamp = leaf._lock.tryOptimisticRead();
+            if (stamp == 0) {
+                awaitUnlocked(leaf);
+                return -1;
+            }
+        }
+        try {
+            if (leaf._obsolete || (!hasFrom && (descending ? leaf._next : leaf._prev) != null))
+                return -1;
+            int pos;
+            if (hasFrom) {
+                pos = binarySearch(leaf._keys, leaf._count, from);
+                if (!descending)
+                    pos = pos >= 0 ? (fromInclusive ? pos : pos + 1) : -(pos + 1);
+                else
+                    pos = pos >= 0 ? (fromInclusive ? pos : pos - 1) : -(pos + 1) - 1;
+            } else {
+                pos = descending ? leaf._count - 1 : 0;
+            }
+            int n = 0;
+            boolean reachedTo = false;
+            while (true) {
+                if (!descending) {
+                    for (int count = leaf._count; pos < count && n < batchKeys.length; pos++) {
+                        long k = leaf._keys[pos];
+                        if (hasTo && (k > to || (k == to && !toInclusive))) {
+                            reachedTo = true;
+                            break;
+                        }
+                        batchKeys[n] = k;
+                        batchValues[n++] = leaf._values[pos];
+                    }
+                } else {
+                    for (; pos >= 0 && n < batchKeys.length; pos--) {
+                        long k = leaf._keys[pos];
+                        if (hasTo && (k < to || (k == to && !toInclusive))) {
+                            reachedTo = true;
+                            break;
+                        }
+                        batchKeys[n] = k;
+                        batchValues[n++] = leaf._values[pos];
+                    }
+                }
+                Leaf next = descending ? leaf._prev : leaf._next;
+                if (!leaf._lock.validate(stamp))
+                    return -1;
+                if (reachedTo || n == batchKeys.length || next == null)
+                    return n;
+                long nextStamp = next._lock.tryOptimisticRead();
+                if (!leaf._lock.validate(stamp))
+                    return -1;
+                if (nextStamp == 0) {
+                    awaitUnlocked(next);
+                    return -1;
+                }
+                leaf = next;
+                stamp = nextStamp;
+                pos = descending ? leaf._count - 1 : 0;
+            }
+        } catch (RuntimeException e) {
+            //inconsistent view of the tree- retry
+            return -1;
+        }
+    }
+
+    private abstract static class Node {
+        final StampedLock _lock = new StampedLock();
+        final long[] _keys = new long[NODE_CAPACITY];
+        int _count;
+        //set while write locked, once the node is no longer linked to the tree
+        boolean _obsolete;
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] _values = new Object[NODE_CAPACITY];
+        Leaf _next;
+        Leaf _prev;
+
+        void insertAt(int pos, long key, Object value) {
+            System.arraycopy(_keys, pos, _keys, pos + 1, _count - pos);
+            System.arraycopy(_values, pos, _values, pos + 1, _count - pos);
+            _keys[pos] = key;
+            _values[pos] = value;
+            _count++;
+        }
+
+        void removeAt(int pos) {
+            System.arraycopy(_keys, pos + 1, _keys, pos, _count - pos - 1);
+            System.arraycopy(_values, pos + 1, _values, pos, _count - pos - 1);
+            _values[--_count] = null;
+        }
+
+        //moves the upper half into a new right sibling
+        Leaf split() {
+            Leaf right = new Leaf();
+            int half = _count / 2;
+            int moved = _count - half;
+            System.arraycopy(_keys, half, right._keys, 0, moved);
+            System.arraycopy(_values, half, right._values, 0, moved);
+            right._count = moved;
+            for (int i = half; i < _count; i++)
+                _values[i] = null;
+            _count = half;
+            right._next = _next;
+            right._prev = this;
+            _next = right;
+            return right;
+        }
+    }
+
+    private static final class Inner extends Node {
+        //_count keys separate _count + 1 children
+        final Node[] _children = new Node[NODE_CAPACITY + 1];
+
+        void insertAt(int childIndex, long separator, Node right) {
+            System.arraycopy(_keys, childIndex, _keys, childIndex + 1, _count - childIndex);
+            System.arraycopy(_children, childIndex + 1, _children, childIndex + 2, _count - childIndex);
+            _keys[childIndex] = separator;
+            _children[childIndex + 1] = right;
+            _count++;
+        }
+
+        //count becomes -1 when the last child is removed
+        void removeChildAt(int childIndex) {
+            if (_count == 0) {
+                _children[0] = null;
+                _count = -1;
+                return;
+            }
+            int keyIndex = childIndex == 0 ? 0 : childIndex - 1;
+            System.arraycopy(_keys, keyIndex + 1, _keys, keyIndex, _count - keyIndex - 1);
+            System.arraycopy(_children, childIndex + 1, _children, childIndex, _count - childIndex);
+            _children[_count] = null;
+            _count--;
+        }
+
+        void reset(long[] keys, Node[] children, int count) {
+            System.arraycopy(keys, 0, _keys, 0, NODE_CAPACITY);
+            System.arraycopy(children, 0, _children, 0, NODE_CAPACITY + 1);
+            _count = count;
+        }
+    }
+
+    //write locks held by a structure modification, released once the tree is consistent again
+    private static final class LockedNodes {
+        private Node[] _nodes = new Node[8];
+        private long[] _stamps = new long[8];
+        private int _count;
+
+        void lock(Node node) {
+            for (int i = 0; i < _count; i++)
+                if (_nodes[i] == node)
+                    return;
+            if (_count == _nodes.length) {
+                _nodes = Arrays.copyOf(_nodes, _count * 2);
+                _stamps = Arrays.copyOf(_stamps, _count * 2);
+            }
+            _stamps[_count] = node._lock.writeLock();
+            _nodes[_count++] = node;
+        }
+
+        void unlockAll() {
+            for (int i = 0; i < _count; i++) {
+                _nodes[i]._lock.unlockWrite(_stamps[i]);
+                _nodes[i] = null;
+            }
+            _count = 0;
+        }
+    }
+
+    private static final class RangeIterator<V> implements Iterator<V> {
+        private static final int BATCH_SIZE = NODE_CAPACITY;
+
+        private final ConcurrentBPlusTreeMap<?> _map;
+        private final boolean _hasTo;
+        private final long _to;
+        private final boolean _toInclusive;
+        private final boolean _descending;
+        private final boolean _entries;
+        private final long[] _batchKeys = new long[BATCH_SIZE];
+        private final Object[] _batchValues = new Object[BATCH_SIZE];
+        private boolean _hasFrom;
+        private long _from;
+        private boolean _fromInclusive;
+        private int _batchSize;
+        private int _batchPos;
+        private boolean _exhausted;
+        private long _lastKey;
+        private boolean _hasLast;
+
+        RangeIterator(ConcurrentBPlusTreeMap<?> map, Object from, boolean fromInclusive, Object to, boolean toInclusive, boolean descending, boolean entries) {
+            _map = map;
+            _hasFrom = from != null;
+            _from = _hasFrom ? map.toLongForUpdate(from) : 0;
+            _fromInclusive = fromInclusive;
+            _hasTo = to != null;
+            _to = _hasTo ? map.toLongForUpdate(to) : 0;
+            _toInclusive = toInclusive;
+            _descending = descending;
+            _entries = entries;
+        }
+
+        private void fetch() {
+            int n;
+            do {
+                n = _map.fillBatch(_hasFrom, _from, _fromInclusive, _hasTo, _to, _toInclusive, _descending, _batchKeys, _batchValues);
+            } while (n < 0);
+            onFetched(n);
+        }
+
+        private void onFetched(int n) {
+            _batchSize = n;
+            _batchPos = 0;
+            if (n < BATCH_SIZE)
+                _exhausted = true;
+            if (n > 0) {
+                //next batch starts right after the last fetched key
+                _hasFrom = true;
+                _from = _batchKeys[n - 1];
+                _fromInclusive = false;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (_batchPos < _batchSize)
+                return true;
+            if (_exhausted)
+                return false;
+            fetch();
+            return _batchPos < _batchSize;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            _lastKey = _batchKeys[_batchPos];
+            _hasLast = true;
+            Object value = _batchValues[_batchPos];
+            _batchValues[_batchPos++] = null;
+            return _entries ? (V) new MapEntry(_map, _map._keyType.toKey(_lastKey), value) : (V) value;
+        }
+
+        @Override
+        public void remove() {
+            if (!_hasLast)
+                throw new IllegalStateException();
+            _map.remove(_map._keyType.toKey(_lastKey));
+            _hasLast = false;
+        }
+    }
+
+    private static final class MapEntry extends AbstractMap.SimpleEntry<Object, Object> {
+        private static final long serialVersionUID = 1L;
+        private final ConcurrentBPlusTreeMap _map;
+
+        MapEntry(ConcurrentBPlusTreeMap map, Object key, Object value) {
+            super(key, value);
+            _map = map;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = super.setValue(value);
+            _map.put(getKey(), value);
+            return old;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Object, V>> {
+        @Override
+        public Iterator<Map.Entry<Object, V>> iterator() {
+            return new RangeIterator<Map.Entry<Object, V>>(ConcurrentBPlusTreeMap.this, null, false, null, false, false, true);
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentBPlusTreeMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentBPlusTreeMap.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentBPlusTreeMap.this.clear();
+        }
+    }
+}
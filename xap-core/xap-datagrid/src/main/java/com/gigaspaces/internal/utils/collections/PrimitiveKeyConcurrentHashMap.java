@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.gigaspaces.internal.utils.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrent map for integral numeric keys (long, int, short, byte and their wrappers). Keys of
+ * the specialized type are kept unboxed in segmented open-addressing tables (linear probing), so no
+ * hash-entry or boxed key object is retained per mapping. Keys of any other type are kept in a
+ * lazily created {@link ConcurrentHashMap}, which keeps the map semantically equivalent to a
+ * regular {@link ConcurrentMap} regardless of the values actually stored.
+ *
+ * <p>Retrievals do not lock. Updates lock a single segment. A slot, once assigned a key, keeps it
+ * until the segment is rehashed - removal only marks the slot value as removed - so lock-free
+ * readers never observe a key paired with another key's value. Iterators are weakly consistent.
+ *
+ * <p>Like {@link ConcurrentHashMap}, <tt>null</tt> keys and values are not allowed.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class PrimitiveKeyConcurrentHashMap<V> extends AbstractMap<Object, V> implements ConcurrentMap<Object, V> {
+
+    private static final int MIN_SEGMENT_CAPACITY = 8;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    //marks a slot whose mapping was removed- the key stays in place until next rehash
+    private static final Object REMOVED = new Object();
+
+    private final KeyType _keyType;
+    private final Segment<V>[] _segments;
+    private final int _segmentShift;
+    private final int _segmentMask;
+    //keys which are not of the specialized type
+    private volatile ConcurrentHashMap<Object, V> _foreignKeys;
+    private transient Set<Map.Entry<Object, V>> _entrySet;
+
+    /**
+     * Key types supported by this map.
+     */
+    public enum KeyType {
+        LONG(Long.class) {
+            @Override
+            long toLong(Object key) {
+                return (Long) key;
+            }
+
+            @Override
+            Object toKey(long key) {
+                return key;
+            }
+        },
+        INTEGER(Integer.class) {
+            @Override
+            long toLong(Object key) {
+                return (Integer) key;
+            }
+
+            @Override
+            Object toKey(long key) {
+                return (int) key;
+            }
+        },
+        SHORT(Short.class) {
+            @Override
+            long toLong(Object key) {
+                return (Short) key;
+            }
+
+            @Override
+            Object toKey(long key) {
+                return (short) key;
+            }
+        },
+        BYTE(Byte.class) {
+            @Override
+            long toLong(Object key) {
+                return (Byte) key;
+            }
+
+            @Override
+            Object toKey(long key) {
+                return (byte) key;
+            }
+        };
+
+        private final Class<?> _keyClass;
+
+        KeyType(Class<?> keyClass) {
+            _keyClass = keyClass;
+        }
+
+        abstract long toLong(Object key);
+
+        abstract Object toKey(long key);
+
+        public Class<?> getKeyClass() {
+            return _keyClass;
+        }
+
+        /**
+         * @return the key type matching the given class (primitive or wrapper), or null if the
+         * class is not supported.
+         */
+        public static KeyType of(Class<?> type) {
+            if (type == null)
+                return null;
+            if (type == Long.class || type == long.class)
+                return LONG;
+            if (type == Integer.class || type == int.class)
+                return INTEGER;
+            if (type == Short.class || type == short.class)
+                return SHORT;
+            if (type == Byte.class || type == byte.class)
+                return BYTE;
+            return null;
+        }
+    }
+
+    public PrimitiveKeyConcurrentHashMap(KeyType keyType) {
+        this(keyType, 16, 16);
+    }
+
+    public PrimitiveKeyConcurrentHashMap(KeyType keyType, int initialCapacity, int concurrencyLevel) {
+        if (keyType == null)
+            throw new IllegalArgumentException("keyType cannot be null");
+        if (initialCapacity < 0 || concurrencyLevel <= 0)
+            throw new IllegalArgumentException();
+        _keyType = keyType;
+
+        int numOfSegments = 1;
+        int shift = 0;
+        while (numOfSegments < concurrencyLevel && numOfSegments < MAX_SEGMENTS) {
+            numOfSegments <<= 1;
+            shift++;
+        }
+        _segmentShift = 32 - shift;
+        _segmentMask = numOfSegments - 1;
+
+        int segmentCapacity = MIN_SEGMENT_CAPACITY;
+        while (segmentCapacity * numOfSegments < initialCapacity)
+            segmentCapacity <<= 1;
+
+        _segments = new Segment[numOfSegments];
+        for (int i = 0; i < numOfSegments; i++)
+            _segments[i] = new Segment<V>(segmentCapacity);
+    }
+
+    public static boolean isSupportedKeyType(Class<?> type) {
+        return KeyType.of(type) != null;
+    }
+
+    public KeyType getKeyType() {
+        return _keyType;
+    }
+
+    private boolean isSpecializedKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        return key.getClass() == _keyType.getKeyClass();
+    }
+
+    private static int hash(long key) {
+        //murmur3 finalizer- spreads sequential ids over both segments and slots
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private Segment<V> segmentFor(int hash) {
+        return _segments[(hash >>> _segmentShift) & _segmentMask];
+    }
+
+    private ConcurrentHashMap<Object, V> getOrCreateForeignKeys() {
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        if (foreignKeys == null) {
+            synchronized (this) {
+                foreignKeys = _foreignKeys;
+                if (foreignKeys == null) {
+                    foreignKeys = new ConcurrentHashMap<Object, V>();
+                    _foreignKeys = foreignKeys;
+                }
+            }
+        }
+        return foreignKeys;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).get(k, hash);
+        }
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        return foreignKeys != null ? foreignKeys.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(Object key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).put(k, hash, value, false);
+        }
+        return getOrCreateForeignKeys().put(key, value);
+    }
+
+    @Override
+    public V putIfAbsent(Object key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).put(k, hash, value, true);
+        }
+        return getOrCreateForeignKeys().putIfAbsent(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).remove(k, hash, null);
+        }
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        return foreignKeys != null ? foreignKeys.remove(key) : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (value == null)
+            return false;
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).remove(k, hash, value) != null;
+        }
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        return foreignKeys != null && foreignKeys.remove(key, value);
+    }
+
+    @Override
+    public boolean replace(Object key, V oldValue, V newValue) {
+        if (oldValue == null || newValue == null)
+            throw new NullPointerException();
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).replace(k, hash, oldValue, newValue) != null;
+        }
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        return foreignKeys != null && foreignKeys.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public V replace(Object key, V value) {
+        if (value == null)
+            throw new NullPointerException();
+        if (isSpecializedKey(key)) {
+            long k = _keyType.toLong(key);
+            int hash = hash(k);
+            return segmentFor(hash).replace(k, hash, null, value);
+        }
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        return foreignKeys != null ? foreignKeys.replace(key, value) : null;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<V> segment : _segments)
+            size += segment._count;
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        if (foreignKeys != null)
+            size += foreignKeys.size();
+        return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment<V> segment : _segments)
+            if (segment._count != 0)
+                return false;
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        return foreignKeys == null || foreignKeys.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<V> segment : _segments)
+            segment.clear();
+        ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+        if (foreignKeys != null)
+            foreignKeys.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<Object, V>> entrySet() {
+        Set<Map.Entry<Object, V>> es = _entrySet;
+        return es != null ? es : (_entrySet = new EntrySet());
+    }
+
+    private static final class Table {
+        final long[] _keys;
+        //null = free slot, REMOVED = removed mapping, otherwise the value
+        final AtomicReferenceArray<Object> _values;
+        final int _mask;
+        final int _threshold;
+
+        Table(int capacity) {
+            _keys = new long[capacity];
+            _values = new AtomicReferenceArray<Object>(capacity);
+            _mask = capacity - 1;
+            _threshold = (capacity >> 1) + (capacity >> 2);
+        }
+    }
+
+    private static final class Segment<V> extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        private volatile Table _table;
+        //number of live mappings
+        private volatile int _count;
+        //number of non-free slots (live + removed), guarded by lock
+        private int _used;
+        private final int _initialCapacity;
+
+        Segment(int initialCapacity) {
+            _initialCapacity = initialCapacity;
+            _table = new Table(initialCapacity);
+        }
+
+        V get(long key, int hash) {
+            Table t = _table;
+            int i = hash & t._mask;
+            while (true) {
+                Object v = t._values.get(i);
+                if (v == null)
+                    return null;
+                if (t._keys[i] == key)
+                    return v == REMOVED ? null : (V) v;
+                i = (i + 1) & t._mask;
+            }
+        }
+
+        V put(long key, int hash, V value, boolean onlyIfAbsent) {
+            lock();
+            try {
+                Table t = _table;
+                int i = hash & t._mask;
+                while (true) {
+                    Object v = t._values.get(i);
+                    if (v == null)
+                        break;
+                    if (t._keys[i] == key) {
+                        if (v == REMOVED) {
+                            t._values.set(i, value);
+                            _count++;
+                            return null;
+                        }
+                        if (!onlyIfAbsent)
+                            t._values.set(i, value);
+                        return (V) v;
+                    }
+                    i = (i + 1) & t._mask;
+                }
+                if (_used + 1 > t._threshold) {
+                    t = rehash(t);
+                    i = freeSlot(t, hash);
+                }
+                //key is written before the value is published
+                t._keys[i] = key;
+                t._values.set(i, value);
+                _used++;
+                _count++;
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * removes the mapping of the key, if expected is not null- only if currently mapped to it.
+         */
+        V remove(long key, int hash, Object expected) {
+            lock();
+            try {
+                Table t = _table;
+                int i = indexOf(t, key, hash);
+                if (i < 0)
+                    return null;
+                Object v = t._values.get(i);
+                if (expected != null && v != expected && !expected.equals(v))
+                    return null;
+                t._values.set(i, REMOVED);
+                _count--;
+                return (V) v;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * replaces the mapping of the key, if expected is not null- only if currently mapped to it.
+         */
+        V replace(long key, int hash, Object expected, V value) {
+            lock();
+            try {
+                Table t = _table;
+                int i = indexOf(t, key, hash);
+                if (i < 0)
+                    return null;
+                Object v = t._values.get(i);
+                if (expected != null && v != expected && !expected.equals(v))
+                    return null;
+                t._values.set(i, value);
+                return (V) v;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                _table = new Table(_initialCapacity);
+                _used = 0;
+                _count = 0;
+            } finally {
+                unlock();
+            }
+        }
+
+        //slot of a live mapping of the key, -1 if none. called under lock
+        private static int indexOf(Table t, long key, int hash) {
+            int i = hash & t._mask;
+            while (true) {
+                Object v = t._values.get(i);
+                if (v == null)
+                    return -1;
+                if (t._keys[i] == key)
+                    return v == REMOVED ? -1 : i;
+                i = (i + 1) & t._mask;
+            }
+        }
+
+        private static int freeSlot(Table t, int hash) {
+            int i = hash & t._mask;
+            while (t._values.get(i) != null)
+                i = (i + 1) & t._mask;
+            return i;
+        }
+
+        //builds a new table without removed slots, grows it if live mappings occupy over half of it
+        private Table rehash(Table t) {
+            int capacity = t._keys.length;
+            if ((_count + 1) * 2 > capacity)
+                capacity <<= 1;
+            Table nt = new Table(capacity);
+            for (int i = 0; i < t._keys.length; i++) {
+                Object v = t._values.get(i);
+                if (v == null || v == REMOVED)
+                    continue;
+                long key = t._keys[i];
+                int slot = freeSlot(nt, hash(key));
+                nt._keys[slot] = key;
+                nt._values.lazySet(slot, v);
+            }
+            _used = _count;
+            //volatile write publishes the fully built table
+            _table = nt;
+            return nt;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Object, V>> {
+        @Override
+        public Iterator<Map.Entry<Object, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return PrimitiveKeyConcurrentHashMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return PrimitiveKeyConcurrentHashMap.this.isEmpty();
+        }
+
+        @Override
+        public void clear() {
+            PrimitiveKeyConcurrentHashMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Object, V>> {
+        private int _segmentIndex;
+        private Table _table;
+        private int _slot;
+        private Iterator<Map.Entry<Object, V>> _foreignIterator;
+        private Map.Entry<Object, V> _next;
+        private Map.Entry<Object, V> _last;
+
+        EntryIterator() {
+            _segmentIndex = 0;
+            _table = _segments[0]._table;
+            _slot = 0;
+            advance();
+        }
+
+        private void advance() {
+            _next = null;
+            while (_table != null) {
+                while (_slot < _table._keys.length) {
+                    int i = _slot++;
+                    Object v = _table._values.get(i);
+                    if (v != null && v != REMOVED) {
+                        _next = new MapEntry(_keyType.toKey(_table._keys[i]), (V) v);
+                        return;
+                    }
+                }
+                _segmentIndex++;
+                _slot = 0;
+                _table = _segmentIndex < _segments.length ? _segments[_segmentIndex]._table : null;
+            }
+            if (_foreignIterator == null) {
+                ConcurrentHashMap<Object, V> foreignKeys = _foreignKeys;
+                if (foreignKeys == null)
+                    return;
+                _foreignIterator = foreignKeys.entrySet().iterator();
+            }
+            if (_foreignIterator.hasNext()) {
+                Map.Entry<Object, V> e = _foreignIterator.next();
+                _next = new MapEntry(e.getKey(), e.getValue());
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return _next != null;
+        }
+
+        @Override
+        public Map.Entry<Object, V> next() {
+            if (_next == null)
+                throw new NoSuchElementException();
+            _last = _next;
+            advance();
+            return _last;
+        }
+
+        @Override
+        public void remove() {
+            if (_last == null)
+                throw new IllegalStateException();
+            PrimitiveKeyConcurrentHashMap.this.remove(_last.getKey());
+            _last = null;
+        }
+    }
+
+    private final class MapEntry extends AbstractMap.SimpleEntry<Object, V> {
+        private static final long serialVersionUID = 1L;
+
+        MapEntry(Object key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = super.setValue(value);
+            PrimitiveKeyConcurrentHashMap.this.put(getKey(), value);
+            return old;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.internal.utils.concurrent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces concurrent operations which share a key into batches which are executed at once.
+ *
+ * The first operation of a batch leads it - its thread waits until the batch is full or the max
+ * delay has passed, and then executes the batch on behalf of all its operations. The other threads
+ * wait for the result of their own operation, so no background thread is involved and an operation
+ * is delayed by at most the max delay plus the batch execution. An operation which is the only one
+ * in progress is executed without any delay, since there is no operation to batch it with.
+ *
+ * @param <K> the key of operations which can be executed in the same batch
+ * @param <T> the operation type
+ * @param <R> the operation result type
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public abstract class OperationCoalescer<K, T, R> {
+    private final ConcurrentMap<K, Batch<T, R>> _batches = new ConcurrentHashMap<K, Batch<T, R>>();
+    //operations which are waiting for their batch or being executed
+    private final AtomicInteger _inProgress = new AtomicInteger();
+    private final int _maxBatchSize;
+    private final long _maxDelayNanos;
+
+    protected OperationCoalescer(int maxBatchSize, long maxDelayNanos) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        this._maxBatchSize = maxBatchSize;
+        this._maxDelayNanos = maxDelayNanos;
+    }
+
+    /**
+     * Executes the batch, setting the result or error of each of its operations. If this method
+     * throws, the exception is the error of all the operations of the batch.
+     */
+    protected abstract void executeBatch(K key, Batch<T, R> batch) throws Exception;
+
+    /**
+     * Adds the operation to the current batch of its key and waits for its result.
+     *
+     * @throws ExecutionException if the operation failed, the cause is the operation error
+     */
+    public R execute(K key, T operation) throws ExecutionException {
+        _inProgress.incrementAndGet();
+        try {
+            return executeInBatch(key, operation);
+        } finally {
+            _inProgress.decrementAndGet();
+        }
+    }
+
+    private R executeInBatch(K key, T operation) throws ExecutionException {
+        while (true) {
+            Batch<T, R> batch = _batches.get(key);
+            if (batch == null) {
+                Batch<T, R> newBatch = new Batch<T, R>(_maxBatchSize);
+                newBatch.add(operation);
+                batch = _batches.putIfAbsent(key, newBatch);
+                if (batch == null)
+                    return lead(key, newBatch);
+            }
+            int index = batch.add(operation);
+            if (index != -1)
+                return batch.awaitResult(index);
+            //the batch is closed, its leader may have not removed it yet
+            _batches.remove(key, batch);
+        }
+    }
+
+    private R lead(K key, Batch<T, R> batch) throws ExecutionException {
+        boolean interrupted = batch.awaitClose(_inProgress.get() > 1 ? _maxDelayNanos : 0);
+        _batches.remove(key, batch);
+        try {
+            executeBatch(key, batch);
+        } catch (Throwable e) {
+            batch.setErrors(e);
+        } finally {
+            batch.complete();
+            //restore the interrupt only after the batch is executed, it belongs to the other operations as well
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+        return batch.awaitResult(0);
+    }
+
+    /**
+     * The operations of a batch and their results.
+     */
+    public static class Batch<T, R> {
+        private final ReentrantLock _lock = new ReentrantLock();
+        private final Condition _condition = _lock.newCondition();
+        private final Object[] _operations;
+        private final Object[] _results;
+        private final Throwable[] _errors;
+        private int _size;
+        private boolean _closed;
+        private boolean _completed;
+
+        private Batch(int maxSize) {
+            this._operations = new Object[maxSize];
+            this._results = new Object[maxSize];
+            this._errors = new Throwable[maxSize];
+        }
+
+        public int size() {
+            return _size;
+        }
+
+        public T getOperation(int index) {
+            return (T) _operations[index];
+        }
+
+        public void setResult(int index, R result) {
+            _results[index] = result;
+        }
+
+        public void setError(int index, Throwable error) {
+            _errors[index] = error;
+        }
+
+        /**
+         * @return the index of the operation in the batch, -1 if the batch is closed
+         */
+        private int add(T operation) {
+            _lock.lock();
+            try {
+                if (_closed)
+                    return -1;
+                int index = _size++;
+                _operations[index] = operation;
+                if (_size == _operations.length) {
+                    _closed = true;
+                    _condition.signalAll();
+                }
+                return index;
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        /**
+         * Waits until the batch is full or the delay has passed, and closes it.
+         *
+         * @return true if the thread was interrupted while waiting
+         */
+        private boolean awaitClose(long delayNanos) {
+            boolean interrupted = false;
+            _lock.lock();
+            try {
+                long nanos = delayNanos;
+                while (!_closed && nanos > 0) {
+                    try {
+                        nanos = _condition.awaitNanos(nanos);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        break;
+                    }
+                }
+                _closed = true;
+            } finally {
+                _lock.unlock();
+            }
+            return interrupted;
+        }
+
+        private void setErrors(Throwable error) {
+            for (int i = 0; i < _size; i++) {
+                _results[i] = null;
+                _errors[i] = error;
+            }
+        }
+
+        private void complete() {
+            _lock.lock();
+            try {
+                _completed = true;
+                _condition.signalAll();
+            } finally {
+                _lock.unlock();
+            }
+        }
+
+        private R awaitResult(int index) throws ExecutionException {
+            _lock.lock();
+            try {
+                //the operation is already executing as part of the batch, interrupting its wait can't cancel it
+                while (!_completed)
+                    _condition.awaitUninterruptibly();
+            } finally {
+                _lock.unlock();
+            }
+            if (_errors[index] != null)
+                throw new ExecutionException(_errors[index]);
+            return (R) _results[index];
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi;
+
+import com.gigaspaces.logger.Constants;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Async invocations waiting for a free resource, e.g. a connection of a {@link ConnectionPool}.
+ * The number of waiting invocations is bounded, an invocation which is not dispatched within the
+ * timeout is rejected, and the invocations are dispatched in their queuing order by a single
+ * thread of the given executor at a time.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class AsyncInvocationQueue<T, R> {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    /**
+     * Acquires the resources and dispatches the invocations of the queue.
+     */
+    public interface Handler<T, R> {
+        /**
+         * @return a free resource, null if all the resources are busy
+         */
+        R tryAcquire();
+
+        /**
+         * Returns a resource which was acquired but not used.
+         */
+        void release(R resource);
+
+        /**
+         * Sends the invocation on the acquired resource, which is owned by the invocation from now on.
+         */
+        void dispatch(T invocation, R resource);
+
+        /**
+         * Fails an invocation which will not be dispatched.
+         */
+        void reject(T invocation, Exception reason);
+    }
+
+    private final Handler<T, R> _handler;
+    private final BlockingQueue<PendingInvocation<T>> _queue;
+    private final int _maxSize;
+    private final long _timeout;
+    private final Executor _dispatcher;
+    private final ScheduledExecutorService _expirer;
+    //dispatch requests since the running dispatch started, a dispatch runs while it's not zero
+    private final AtomicInteger _dispatchRequests = new AtomicInteger();
+    private volatile boolean _closed;
+
+    /**
+     * @param maxSize    the max number of waiting invocations, more invocations are rejected
+     * @param timeout    the max time in milliseconds an invocation waits to be dispatched, zero to
+     *                   wait indefinitely
+     * @param dispatcher runs the dispatch of the invocations, should not be a thread which serves
+     *                   requests
+     * @param expirer    rejects the invocations whose timeout elapsed
+     */
+    public AsyncInvocationQueue(Handler<T, R> handler, int maxSize, long timeout, Executor dispatcher, ScheduledExecutorService expirer) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Max size of async invocations queue should be positive: " + maxSize);
+        _handler = handler;
+        _maxSize = maxSize;
+        _queue = new LinkedBlockingQueue<PendingInvocation<T>>(maxSize);
+        _timeout = timeout;
+        _dispatcher = dispatcher;
+        _expirer = expirer;
+    }
+
+    public boolean isEmpty() {
+        return _queue.isEmpty();
+    }
+
+    /**
+     * Queues the invocation and dispatches the waiting invocations. The invocation is rejected if
+     * the queue is full or closed.
+     */
+    public void add(T invocation) {
+        if (_closed) {
+            _handler.reject(invocation, new IllegalStateException("Async invocations queue is closed"));
+            return;
+        }
+        final PendingInvocation<T> pending = new PendingInvocation<T>(invocation);
+        if (!_queue.offer(pending)) {
+            _handler.reject(invocation, new RejectedExecutionException("Async invocations queue is full [" + _maxSize + "]"));
+            return;
+        }
+        if (_timeout > 0) {
+            pending.expiration = _expirer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    //the invocation may have been dispatched or rejected concurrently
+                    if (_queue.remove(pending))
+                        _handler.reject(pending.invocation, new TimeoutException("Async invocation was not sent within " + _timeout + "ms"));
+                }
+            }, _timeout, TimeUnit.MILLISECONDS);
+        }
+        //the queue may have been closed before the invocation was queued
+        if (_closed && _queue.remove(pending)) {
+            pending.cancelExpiration();
+            _handler.reject(invocation, new IllegalStateException("Async invocations queue is closed"));
+            return;
+        }
+        dispatch();
+    }
+
+    /**
+     * Dispatches the waiting invocations while there are free resources, should be called when a
+     * resource is freed.
+     */
+    public void dispatch() {
+        if (_queue.isEmpty() || _dispatchRequests.getAndIncrement() != 0)
+            return;
+        _dispatcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                dispatchPending();
+            }
+        });
+    }
+
+    private void dispatchPending() {
+        int requests = 1;
+        do {
+            while (!_queue.isEmpty()) {
+                R resource = _handler.tryAcquire();
+                if (resource == null)
+                    break;
+                PendingInvocation<T> pending = _queue.poll();
+                if (pending == null) {
+                    _handler.release(resource);
+                    break;
+                }
+                pending.cancelExpiration();
+                try {
+                    _handler.dispatch(pending.invocation, resource);
+                } catch (Throwable t) {
+                    if (_logger.isWarnEnabled())
+                        _logger.warn("Failed to dispatch async invocation", t);
+                }
+            }
+            //a resource which was freed or an invocation which was queued meanwhile is handled by another round
+            requests = _dispatchRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    /**
+     * Rejects the waiting invocations and the ones which are queued from now on.
+     */
+    public void close(Exception reason) {
+        _closed = true;
+        PendingInvocation<T> pending;
+        while ((pending = _queue.poll()) != null) {
+            pending.cancelExpiration();
+            _handler.reject(pending.invocation, reason);
+        }
+    }
+
+    private static class PendingInvocation<T> {
+        private final T invocation;
+        private volatile ScheduledFuture<?> expiration;
+
+        private PendingInvocation(T invocation) {
+            this.invocation = invocation;
+        }
+
+        private void cancelExpiration() {
+            ScheduledFuture<?> future = expiration;
+            if (future != null)
+                future.cancel(false);
+        }
+    }
+}
@@ -55,18 +55,18 @@ public class ConnPoolInvocationHandler
         // in case of async method do not throw exception when failed to connect, instead return the value using future.
         // no need to free the connection in this case since the connection allocation was failed.
         try {
-            clientPeer = _connPool.getConnection(lrmiMethod);
+            if (lrmiMethod.isAsync && _connPool.isQueueAsyncInvocations()) {
+                clientPeer = _connPool.tryGetConnection(lrmiMethod);
+                if (clientPeer == null) {
+                    _connPool.queueAsyncInvocation(proxy, lrmiMethod, args, prepareFutureResult());
+                    return null;
+                }
+            } else {
+                clientPeer = _connPool.getConnection(lrmiMethod);
+            }
         } catch (Exception e) {
             if (lrmiMethod.isAsync) {
-                ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-                LRMIFuture result = (LRMIFuture) FutureContext.getFutureResult();
-                if (result == null) {
-                    result = new LRMIFuture(contextClassLoader);
-                } else {
-                    result.reset(contextClassLoader);
-                }
-                FutureContext.setFutureResult(result);
-                result.setResult(e);
+                prepareFutureResult().setResult(e);
                 return null;
             } else {
                 throw e;
@@ -88,6 +88,18 @@ public class ConnPoolInvocationHandler
 
     }
 
+    private static LRMIFuture prepareFutureResult() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        LRMIFuture result = (LRMIFuture) FutureContext.getFutureResult();
+        if (result == null) {
+            result = new LRMIFuture(contextClassLoader);
+        } else {
+            result.reset(contextClassLoader);
+        }
+        FutureContext.setFutureResult(result);
+        return result;
+    }
+
     public long getGeneratedTraffic() {
         return _connPool.getGeneratedTraffic();
     }
@@ -17,16 +17,28 @@
 package com.gigaspaces.lrmi;
 
 import com.gigaspaces.config.lrmi.ITransportConfig;
+import com.gigaspaces.exception.lrmi.ApplicationException;
+import com.gigaspaces.exception.lrmi.ProtocolException;
+import com.gigaspaces.exception.lrmi.ProxyClosedException;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
 import com.gigaspaces.internal.lrmi.ConnectionUrlDescriptor;
 import com.gigaspaces.internal.lrmi.LRMIProxyMonitoringDetailsImpl;
 import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.lrmi.LRMIInvocationContext.InvocationStage;
+import com.gigaspaces.lrmi.LRMIInvocationContext.ProxyWriteType;
+import com.gigaspaces.lrmi.nio.async.FutureContext;
+import com.gigaspaces.lrmi.nio.async.LRMIFuture;
+import com.j_spaces.kernel.ClassLoaderHelper;
 import com.j_spaces.kernel.SystemProperties;
 import com.j_spaces.kernel.pool.BlockingResourcePool;
-import com.j_spaces.kernel.pool.IResourcePool;
 import com.j_spaces.kernel.pool.IResourceProcedure;
 
 import java.net.MalformedURLException;
 import java.rmi.RemoteException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.atomic.LongAdder;
 
 
@@ -43,7 +55,15 @@ import java.util.concurrent.atomic.LongAdder;
 public class ConnectionPool {
     private static final LongAdder activeConnections = new LongAdder();
     private final static boolean WAIT_INDEFINITELY_FOR_CONNECTION = !Boolean.valueOf(System.getProperty(SystemProperties.LRMI_ASYNC_THROW_RESOURCE_NOT_AVAILABLE, String.valueOf(SystemProperties.LRMI_ASYNC_THROW_RESOURCE_NOT_AVAILABLE_DEFAULT)));
-    private final IResourcePool<ConnectionResource> _peersPool;
+    private final static boolean QUEUE_ASYNC_INVOCATIONS = Boolean.valueOf(System.getProperty(SystemProperties.LRMI_ASYNC_QUEUE_ON_MAX_CONNECTION_EXCEEDED, String.valueOf(SystemProperties.LRMI_ASYNC_QUEUE_ON_MAX_CONNECTION_EXCEEDED_DEFAULT)));
+    private final static int ASYNC_QUEUE_MAX_SIZE = Integer.getInteger(SystemProperties.LRMI_ASYNC_QUEUE_MAX_SIZE, SystemProperties.LRMI_ASYNC_QUEUE_MAX_SIZE_DEFAULT);
+    private final static long ASYNC_QUEUE_TIMEOUT = Long.getLong(SystemProperties.LRMI_ASYNC_QUEUE_TIMEOUT, SystemProperties.LRMI_ASYNC_QUEUE_TIMEOUT_DEFAULT);
+    //client side threads which send the queued async invocations, the lrmi thread pool serves incoming requests
+    private final static ExecutorService ASYNC_QUEUE_DISPATCHER = Executors.newCachedThreadPool(new GSThreadFactory("LRMI-Async-Queue-Dispatcher", true));
+    private final static ScheduledThreadPoolExecutor ASYNC_QUEUE_EXPIRER = createAsyncQueueExpirer();
+    private final BlockingResourcePool<ConnectionResource> _peersPool;
+    //async invocations waiting for a free connection, see queueAsyncInvocation
+    private final AsyncInvocationQueue<PendingAsyncInvocation, ConnectionResource> _pendingAsyncInvocations;
     private final String _connectionURL;
     private final String _serviceDetails;
     private final PlatformLogicalVersion _serviceVersion;
@@ -69,6 +89,15 @@ public class ConnectionPool {
         //this._peersPool = new ResourcePool<ClientPeer>(new ConnectionFactory(protocolAdapter, config), 0, maxConns);
         this._peersPool = new BlockingResourcePool<ConnectionResource>(new ConnectionFactory(protocolAdapter, config, serviceVersion), 0, maxConns);
         this._serviceDetails = extractServiceDetailsFromConnectionUrl(_connectionURL);
+        this._pendingAsyncInvocations = new AsyncInvocationQueue<PendingAsyncInvocation, ConnectionResource>(new PendingAsyncInvocationsHandler(),
+                ASYNC_QUEUE_MAX_SIZE, ASYNC_QUEUE_TIMEOUT, ASYNC_QUEUE_DISPATCHER, ASYNC_QUEUE_EXPIRER);
+    }
+
+    private static ScheduledThreadPoolExecutor createAsyncQueueExpirer() {
+        ScheduledThreadPoolExecutor expirer = new ScheduledThreadPoolExecutor(1, new GSThreadFactory("LRMI-Async-Queue-Expirer", true));
+        //most queued invocations are sent before they expire
+        expirer.setRemoveOnCancelPolicy(true);
+        return expirer;
     }
 
     private static String extractServiceDetailsFromConnectionUrl(String connectionUrl) {
@@ -89,6 +118,32 @@ public class ConnectionPool {
             waitForConnection = WAIT_INDEFINITELY_FOR_CONNECTION;
         }
         ConnectionResource conn = _peersPool.getResource(waitForConnection);
+        return prepareConnection(conn, lrmiMethod);
+    }
+
+    /**
+     * @return true if async invocations should be queued with {@link #queueAsyncInvocation} when
+     * all the connections are busy
+     */
+    public boolean isQueueAsyncInvocations() {
+        return QUEUE_ASYNC_INVOCATIONS;
+    }
+
+    /**
+     * Returns a connected Client Peer from the pool without blocking. Async invocations which are
+     * already queued are sent first, so a connection is not returned while there are any.
+     *
+     * @return a connected Client Peer, null if all the connections of the pool are busy or async
+     * invocations are waiting for a connection
+     */
+    public ConnectionResource tryGetConnection(LRMIMethod lrmiMethod) throws RemoteException, MalformedURLException {
+        if (!_pendingAsyncInvocations.isEmpty())
+            return null;
+        ConnectionResource conn = _peersPool.tryGetResource();
+        return conn != null ? prepareConnection(conn, lrmiMethod) : null;
+    }
+
+    private ConnectionResource prepareConnection(ConnectionResource conn, LRMIMethod lrmiMethod) throws RemoteException, MalformedURLException {
         try {
             if (_closed) {
                 //Concurrent close, maybe we created a new resource from getResource here and the close process did not find it,
@@ -129,6 +184,22 @@ public class ConnectionPool {
     public void freeConnection(ConnectionResource clientPeer) {
         activeConnections.decrement();
         _peersPool.freeResource(clientPeer);
+        _pendingAsyncInvocations.dispatch();
+    }
+
+    /**
+     * Queues an async invocation which found all the connections of the pool busy. The queued
+     * invocations are sent in their queuing order on the next connections which are freed, so that
+     * a bounded number of connections serves the in-flight async invocations without blocking their
+     * callers. The result is reported through the given future, which fails if the queue is full
+     * or the invocation waits longer than {@link SystemProperties#LRMI_ASYNC_QUEUE_TIMEOUT}.
+     */
+    public void queueAsyncInvocation(Object proxy, LRMIMethod lrmiMethod, Object[] args, LRMIFuture result) {
+        if (_closed) {
+            result.setResult(new ProxyClosedException("proxy is closed [" + _connectionURL + "]"));
+            return;
+        }
+        _pendingAsyncInvocations.add(new PendingAsyncInvocation(proxy, lrmiMethod, args, result));
     }
 
     public long getGeneratedTraffic() {
@@ -169,6 +240,7 @@ public class ConnectionPool {
             return;
 
         _closed = true;
+        _pendingAsyncInvocations.close(new ProxyClosedException("proxy is closed [" + _connectionURL + "]"));
         _peersPool.forAllResources(new IResourceProcedure<ConnectionResource>() {
             @Override
             public void invoke(
@@ -187,4 +259,101 @@ public class ConnectionPool {
         });
     }
 
-}
\ No newline at end of file
+    /**
+     * Sends the queued async invocations on the free connections of the pool.
+     */
+    private final class PendingAsyncInvocationsHandler implements AsyncInvocationQueue.Handler<PendingAsyncInvocation, ConnectionResource> {
+        @Override
+        public ConnectionResource tryAcquire() {
+            return _peersPool.tryGetResource();
+        }
+
+        @Override
+        public void release(ConnectionResource conn) {
+            _peersPool.freeResource(conn);
+        }
+
+        @Override
+        public void dispatch(PendingAsyncInvocation invocation, ConnectionResource conn) {
+            invocation.invoke(conn);
+        }
+
+        @Override
+        public void reject(PendingAsyncInvocation invocation, Exception reason) {
+            invocation.result.setResult(reason);
+        }
+    }
+
+    /**
+     * An async invocation waiting for a free connection. Keeps the state of the invoking thread
+     * which is needed to send the invocation from another thread.
+     */
+    private final class PendingAsyncInvocation {
+        private final Object proxy;
+        private final LRMIMethod lrmiMethod;
+        private final Object[] args;
+        private final LRMIFuture result;
+        private final ClassLoader contextClassLoader;
+        private final LRMIInvocationTrace trace;
+        private final ProxyWriteType proxyWriteType;
+        private final PlatformLogicalVersion targetLogicalVersion;
+        private final boolean useStubCache;
+        private final boolean callbackMethod;
+        private final boolean livenessPriorityEnabled;
+        private final boolean customPriorityEnabled;
+        private final boolean directPriorityEnabled;
+
+        private PendingAsyncInvocation(Object proxy, LRMIMethod lrmiMethod, Object[] args, LRMIFuture result) {
+            this.proxy = proxy;
+            this.lrmiMethod = lrmiMethod;
+            this.args = args;
+            this.result = result;
+            this.contextClassLoader = Thread.currentThread().getContextClassLoader();
+            LRMIInvocationContext context = LRMIInvocationContext.getCurrentContext();
+            this.trace = context.getTrace();
+            this.proxyWriteType = context.getProxyWriteType();
+            this.targetLogicalVersion = context.getTargetLogicalVersion();
+            this.useStubCache = context.isUseStubCache();
+            this.callbackMethod = context.isCallbackMethod();
+            this.livenessPriorityEnabled = context.isLivenessPriorityEnabled();
+            this.customPriorityEnabled = context.isCustomPriorityEnabled();
+            this.directPriorityEnabled = context.isDirectPriorityEnabled();
+        }
+
+        private void invoke(ConnectionResource conn) {
+            ClassLoader previousClassLoader = Thread.currentThread().getContextClassLoader();
+            ClassLoaderHelper.setContextClassLoader(contextClassLoader, true /*ignore security*/);
+            if (callbackMethod)
+                LRMIInvocationContext.enableCallbackModeForNextInvocation();
+            if (livenessPriorityEnabled)
+                LRMIInvocationContext.enableLivenessPriorityForNextInvocation();
+            if (customPriorityEnabled)
+                LRMIInvocationContext.enableCustomPriorityForNextInvocation();
+            if (directPriorityEnabled)
+                LRMIInvocationContext.enableDirectPriorityForNextInvocation();
+            LRMIInvocationContext.updateContext(trace, proxyWriteType, InvocationStage.CLIENT_SEND_REQUEST, null, targetLogicalVersion, true, useStubCache, null);
+            try {
+                ConnectionResource clientPeer;
+                try {
+                    clientPeer = prepareConnection(conn, lrmiMethod);
+                } catch (Exception e) {
+                    result.setResult(e);
+                    return;
+                }
+                FutureContext.setFutureResult(result);
+                try {
+                    clientPeer.invoke(proxy, lrmiMethod, args, ConnectionPool.this);
+                } catch (Throwable t) {
+                    //the invocation did not reach the client handler, which would have freed the connection
+                    freeConnection(clientPeer);
+                    Throwable cause = t instanceof ProtocolException || t instanceof ApplicationException ? t.getCause() : t;
+                    result.setResult(cause instanceof Exception ? cause : new ExecutionException(cause));
+                }
+            } finally {
+                FutureContext.clear();
+                LRMIInvocationContext.restoreContext();
+                ClassLoaderHelper.setContextClassLoader(previousClassLoader, true /*ignore security*/);
+            }
+        }
+    }
+}
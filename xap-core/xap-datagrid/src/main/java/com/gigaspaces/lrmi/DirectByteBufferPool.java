@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi;
+
+import com.j_spaces.kernel.SystemProperties;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct buffers for the LRMI transport, so that the socket channel reads and writes
+ * them without copying through temporary direct buffers of its own.
+ *
+ * Buffers are pooled by size classes which are powers of two, a request is served by a buffer of
+ * the smallest class which can hold it. The LRMI transport splits larger messages into chains of
+ * pooled buffers, other requests larger than the largest class are served by heap buffers which are
+ * not pooled. Each class keeps up to an equal share of the pool memory, buffers released to a full
+ * class are left to the garbage collector.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class DirectByteBufferPool {
+    private static final int MIN_SIZE_SHIFT = 12; //4k
+
+    private static volatile DirectByteBufferPool _defaultPool;
+
+    private final int _maxBufferSize;
+    private final Queue<ByteBuffer>[] _classes;
+    private final AtomicInteger[] _sizes;
+    private final int[] _maxBuffersPerClass;
+
+    /**
+     * @return the pool shared by the LRMI readers and writers, null if direct buffers are not
+     * enabled
+     */
+    public static DirectByteBufferPool getDefaultPool() {
+        if (!Boolean.getBoolean(SystemProperties.LRMI_DIRECT_BUFFERS_ENABLED))
+            return null;
+        if (_defaultPool == null) {
+            synchronized (DirectByteBufferPool.class) {
+                if (_defaultPool == null) {
+                    int maxBufferSize = Integer.getInteger(SystemProperties.LRMI_DIRECT_BUFFERS_MAX_BUFFER_SIZE, SystemProperties.LRMI_DIRECT_BUFFERS_MAX_BUFFER_SIZE_DEFAULT);
+                    long maxMemory = Long.getLong(SystemProperties.LRMI_DIRECT_BUFFERS_MAX_MEMORY, SystemProperties.LRMI_DIRECT_BUFFERS_MAX_MEMORY_DEFAULT);
+                    _defaultPool = new DirectByteBufferPool(maxBufferSize, maxMemory);
+                }
+            }
+        }
+        return _defaultPool;
+    }
+
+    /**
+     * @param maxBufferSize size of the largest pooled buffer, rounded up to a power of two
+     * @param maxMemory     upper bound on the memory kept by the released buffers
+     */
+    public DirectByteBufferPool(int maxBufferSize, long maxMemory) {
+        int maxShift = Math.max(MIN_SIZE_SHIFT, 32 - Integer.numberOfLeadingZeros(maxBufferSize - 1));
+        int numOfClasses = maxShift - MIN_SIZE_SHIFT + 1;
+        this._maxBufferSize = 1 << maxShift;
+        this._classes = new Queue[numOfClasses];
+        this._sizes = new AtomicInteger[numOfClasses];
+        this._maxBuffersPerClass = new int[numOfClasses];
+        for (int i = 0; i < numOfClasses; i++) {
+            _classes[i] = new ConcurrentLinkedQueue<ByteBuffer>();
+            _sizes[i] = new AtomicInteger();
+            _maxBuffersPerClass[i] = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxMemory / numOfClasses / classSize(i)));
+        }
+    }
+
+    public int getMaxBufferSize() {
+        return _maxBufferSize;
+    }
+
+    /**
+     * @return a cleared buffer whose limit is the requested length, direct unless the length is
+     * larger than {@link #getMaxBufferSize()}
+     */
+    public ByteBuffer acquire(int length) {
+        if (length > _maxBufferSize)
+            return ByteBuffer.allocate(length);
+
+        int index = classIndex(length);
+        ByteBuffer buffer = _classes[index].poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(classSize(index));
+        } else {
+            _sizes[index].decrementAndGet();
+            buffer.clear();
+        }
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        buffer.limit(length);
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer which was acquired from this pool. Buffers which were not acquired from a
+     * pool, such as heap buffers and slices, are ignored.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect())
+            return;
+        int capacity = buffer.capacity();
+        if (capacity > _maxBufferSize || Integer.bitCount(capacity) != 1 || capacity < 1 << MIN_SIZE_SHIFT)
+            return;
+
+        int index = classIndex(capacity);
+        if (_sizes[index].incrementAndGet() > _maxBuffersPerClass[index]) {
+            _sizes[index].decrementAndGet();
+            return;
+        }
+        _classes[index].offer(buffer);
+    }
+
+    private static int classIndex(int length) {
+        if (length <= 1 << MIN_SIZE_SHIFT)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SIZE_SHIFT;
+    }
+
+    private static int classSize(int index) {
+        return 1 << (index + MIN_SIZE_SHIFT);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi;
+
+/**
+ * Latency distribution of a single phase of a remote method, kept in a fixed size histogram whose
+ * values are accurate to within 1/16 of their magnitude.
+ *
+ * @see LRMIMethodLatencyDetails
+ * @since 16.5
+ */
+public interface LRMILatencyDetails {
+
+    /**
+     * Gets the number of recorded invocations
+     */
+    long getCount();
+
+    /**
+     * Gets the mean latency in nanoseconds, 0 if nothing was recorded
+     */
+    double getMeanNanos();
+
+    /**
+     * Gets the highest recorded latency in nanoseconds
+     */
+    long getMaxNanos();
+
+    /**
+     * Gets the latency in nanoseconds which the specified percentage of the recorded invocations
+     * did not exceed, 0 if nothing was recorded
+     *
+     * @param percentile a percentage between 0 and 100, e.g. 99.9
+     */
+    long getPercentileNanos(double percentile);
+}
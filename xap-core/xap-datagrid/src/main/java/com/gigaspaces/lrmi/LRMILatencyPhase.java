@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi;
+
+/**
+ * The phases of a remote invocation which LRMI latency monitoring measures.
+ *
+ * @see LRMIMethodLatencyDetails
+ * @since 16.5
+ */
+public enum LRMILatencyPhase {
+    /**
+     * From the moment the client starts writing the request until it has read the reply.
+     */
+    CLIENT_ROUND_TRIP("client-round-trip"),
+    /**
+     * From the moment the server has read the request until a worker thread starts handling it.
+     */
+    SERVER_QUEUE("server-queue"),
+    /**
+     * Unmarshalling the request at the server.
+     */
+    SERVER_UNMARSHAL("server-unmarshal"),
+    /**
+     * Executing the invoked method at the server.
+     */
+    SERVER_EXECUTION("server-execution"),
+    /**
+     * Marshalling and writing the reply at the server.
+     */
+    SERVER_WRITE_REPLY("server-write-reply");
+
+    private final String _metricName;
+
+    LRMILatencyPhase(String metricName) {
+        _metricName = metricName;
+    }
+
+    /**
+     * Gets the name of this phase in metric paths.
+     */
+    public String getMetricName() {
+        return _metricName;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi;
+
+/**
+ * Latency monitoring details of a specific remote method, gathered from all the invocations of the
+ * method at this process.
+ *
+ * @see LRMIMonitoringDetails#getMethodsLatencyDetails()
+ * @since 16.5
+ */
+public interface LRMIMethodLatencyDetails {
+
+    /**
+     * Gets the latency details of the specified phase, client phases are recorded when this process
+     * invoked the method and server phases when it served the method
+     */
+    LRMILatencyDetails getLatencyDetails(LRMILatencyPhase phase);
+}
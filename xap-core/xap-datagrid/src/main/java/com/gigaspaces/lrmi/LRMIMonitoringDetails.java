@@ -16,6 +16,8 @@
 
 package com.gigaspaces.lrmi;
 
+import java.util.Map;
+
 /**
  * Monitoring details of the LRMI layer
  *
@@ -32,4 +34,12 @@ public interface LRMIMonitoringDetails {
      * Return the inbound communication monitoring details
      */
     LRMIInboundMonitoringDetails getInboundMonitoringDetails();
+
+    /**
+     * Return the latency monitoring details of the remote methods by their monitoring id, empty
+     * unless latency monitoring is enabled
+     *
+     * @since 16.5
+     */
+    Map<String, LRMIMethodLatencyDetails> getMethodsLatencyDetails();
 }
@@ -31,6 +31,7 @@ import com.gigaspaces.logger.LogUtils;
 import com.gigaspaces.lrmi.ProtocolAdapter.Side;
 import com.gigaspaces.lrmi.nio.Pivot;
 import com.gigaspaces.lrmi.nio.async.LRMIThreadPoolExecutor;
+import com.gigaspaces.lrmi.nio.async.LRMIVirtualThreadExecutor;
 import com.gigaspaces.lrmi.nio.watchdog.Watchdog;
 import com.gigaspaces.management.transport.ITransportConnection;
 import com.j_spaces.core.service.ServiceConfigLoader;
@@ -46,6 +47,7 @@ import java.rmi.RemoteException;
 import java.security.SecureRandom;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,6 +85,8 @@ public class LRMIRuntime {
     final private LRMIThreadPoolExecutor _livenessPriorityThreadPool;
     final private LRMIThreadPoolExecutor _monitoringPriorityThreadPool;
     final private LRMIThreadPoolExecutor _customThreadPool;
+    //null if virtual threads are disabled or not supported
+    final private LRMIVirtualThreadExecutor _virtualThreadExecutor;
     final private StubCache _stubCache;
     final private INetworkMapper _networkMapper = constructNetworkMapper();
     //Current lrmi usage simply doesn't support shutdown on last registrar since the client 
@@ -147,6 +151,9 @@ public class LRMIRuntime {
                 Thread.NORM_PRIORITY,
                 "LRMI-Custom",
                 true, true);
+        _virtualThreadExecutor = LRMIVirtualThreadExecutor.createIfEnabled("LRMI-Virtual");
+        if (_virtualThreadExecutor != null && _logger.isInfoEnabled())
+            _logger.info("LRMI regular and custom priority requests are executed on virtual threads");
     }
 
 
@@ -215,6 +222,14 @@ public class LRMIRuntime {
         return _customThreadPool;
     }
 
+    /**
+     * @return an executor which runs each task on a new virtual thread, null if virtual threads
+     * are disabled or not supported by the JVM
+     */
+    public Executor getVirtualThreadExecutor() {
+        return _virtualThreadExecutor;
+    }
+
     public boolean isUseNetworkInJVM() {
         return _useNetworkInJVM;
     }
@@ -519,6 +534,8 @@ public class LRMIRuntime {
         _monitoringPriorityThreadPool.shutdownNow();
         _livenessPriorityThreadPool.shutdownNow();
         _customThreadPool.shutdown();
+        if (_virtualThreadExecutor != null)
+            _virtualThreadExecutor.shutdownNow();
 
         DynamicSmartStub.shutdown();
 
@@ -29,6 +29,8 @@ import com.gigaspaces.internal.reflection.IMethod;
 import com.gigaspaces.internal.reflection.ReflectionUtil;
 import com.gigaspaces.internal.version.PlatformLogicalVersion;
 import com.gigaspaces.logger.Constants;
+import com.gigaspaces.lrmi.nio.NIOUtils;
+import com.gigaspaces.lrmi.nio.UnixDomainSockets;
 import com.gigaspaces.management.transport.ConnectionEndpointDetails;
 import com.j_spaces.kernel.ClassLoaderHelper;
 import com.j_spaces.kernel.SystemProperties;
@@ -38,6 +40,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.Socket;
 import java.net.SocketException;
 import java.nio.channels.SocketChannel;
 import java.rmi.Remote;
@@ -439,6 +442,9 @@ public class LRMIUtilities {
 
     public static void initNewSocketProperties(SocketChannel sockChannel)
             throws SocketException {
+        //unix domain sockets have none of the TCP options
+        if (UnixDomainSockets.isUnixDomain(sockChannel))
+            return;
         // Set the socket
         if (SEND_BUFFER_SIZE > 0) {
             try {
@@ -496,8 +502,11 @@ public class LRMIUtilities {
      * @throws SocketException
      */
     public static int getAndSetSocketTimeout(SocketChannel sockChannel, int timeout) throws SocketException {
-        int soTimeout = sockChannel.socket().getSoTimeout();
-        sockChannel.socket().setSoTimeout(timeout);
+        Socket socket = NIOUtils.getSocket(sockChannel);
+        if (socket == null)
+            return 0;
+        int soTimeout = socket.getSoTimeout();
+        socket.setSoTimeout(timeout);
         return soTimeout;
     }
 
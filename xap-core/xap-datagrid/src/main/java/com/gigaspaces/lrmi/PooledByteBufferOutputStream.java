@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * An output stream which writes to a chain of buffers of a {@link DirectByteBufferPool}. When a
+ * buffer is full the stream continues in a new one, twice as large up to the largest pooled size,
+ * so the written bytes are never copied. The chain is handed to the channel as is with a gathering
+ * write. The first bytes of the first buffer may be reserved for a header which is written once the
+ * stream content is complete.
+ *
+ * Naturally, this class is not thread safe.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class PooledByteBufferOutputStream extends OutputStream {
+    private final DirectByteBufferPool _pool;
+    private ByteBuffer[] _buffers = new ByteBuffer[4];
+    private int _count;
+    private ByteBuffer _buffer;
+    //number of bytes in the full buffers before the current one
+    private int _previousSize;
+
+    /**
+     * @param initialCapacity capacity of the first buffer, the stream grows as needed
+     * @param reserved        number of bytes reserved at the start of the buffer
+     */
+    public PooledByteBufferOutputStream(DirectByteBufferPool pool, int initialCapacity, int reserved) {
+        this._pool = pool;
+        addBuffer(Math.min(Math.max(initialCapacity, reserved), pool.getMaxBufferSize()));
+        _buffer.position(reserved);
+    }
+
+    /**
+     * @return the number of bytes written, including the reserved bytes
+     */
+    public int size() {
+        return _previousSize + _buffer.position();
+    }
+
+    @Override
+    public void write(int b) {
+        if (!_buffer.hasRemaining())
+            nextBuffer();
+        _buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            if (!_buffer.hasRemaining())
+                nextBuffer();
+            int n = Math.min(len, _buffer.remaining());
+            _buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void nextBuffer() {
+        _previousSize += _buffer.position();
+        addBuffer(Math.min(_buffer.capacity() * 2, _pool.getMaxBufferSize()));
+    }
+
+    private void addBuffer(int capacity) {
+        _buffer = _pool.acquire(capacity);
+        _buffer.limit(_buffer.capacity());
+        if (_count == _buffers.length)
+            _buffers = Arrays.copyOf(_buffers, _count * 2);
+        _buffers[_count++] = _buffer;
+    }
+
+    /**
+     * Hands over the buffers which hold the first bytes of the stream up to the specified length,
+     * each with position zero and limit of the bytes it holds. Buffers beyond the length are
+     * released, the returned ones should be released to the pool by the caller once used.
+     */
+    public ByteBuffer[] toBuffers(int length) {
+        int used = 0;
+        int remaining = length;
+        for (int i = 0; i < _count; i++) {
+            ByteBuffer buffer = _buffers[i];
+            if (remaining > 0) {
+                int bytes = Math.min(remaining, buffer.position());
+                buffer.position(0);
+                buffer.limit(bytes);
+                remaining -= bytes;
+                used++;
+            } else {
+                _pool.release(buffer);
+            }
+        }
+        return used == _buffers.length ? _buffers : Arrays.copyOf(_buffers, used);
+    }
+
+    /**
+     * Releases the buffers to the pool, when the stream content is discarded.
+     */
+    public void release() {
+        for (int i = 0; i < _count; i++)
+            _pool.release(_buffers[i]);
+    }
+}
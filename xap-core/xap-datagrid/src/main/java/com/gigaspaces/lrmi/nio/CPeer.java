@@ -26,6 +26,7 @@ import com.gigaspaces.exception.lrmi.LRMIUnhandledException.Stage;
 import com.gigaspaces.exception.lrmi.ProtocolException;
 import com.gigaspaces.internal.io.MarshalContextClearedException;
 import com.gigaspaces.internal.lrmi.ConnectionUrlDescriptor;
+import com.gigaspaces.internal.lrmi.LRMILatencyMonitor;
 import com.gigaspaces.internal.lrmi.LRMIMonitoringModule;
 import com.gigaspaces.internal.reflection.ReflectionUtil;
 import com.gigaspaces.internal.utils.StringUtils;
@@ -38,6 +39,7 @@ import com.gigaspaces.lrmi.DynamicSmartStub;
 import com.gigaspaces.lrmi.LRMIInvocationContext;
 import com.gigaspaces.lrmi.LRMIInvocationContext.InvocationStage;
 import com.gigaspaces.lrmi.LRMIInvocationTrace;
+import com.gigaspaces.lrmi.LRMILatencyPhase;
 import com.gigaspaces.lrmi.LRMIMethod;
 import com.gigaspaces.lrmi.LRMIRuntime;
 import com.gigaspaces.lrmi.LRMIUtilities;
@@ -192,7 +194,8 @@ public class CPeer extends BaseClientPeer {
     }
 
     public synchronized void connect(String connectionURL, LRMIMethod lrmiMethod) throws MalformedURLException, RemoteException {
-        if (_asyncConnect && IOBlockFilterManager.getFilterFactory() == null && _slowConsumerThroughput == 0 && clientConversationRunner != null) {
+        if (_asyncConnect && IOBlockFilterManager.getFilterFactory() == null && _slowConsumerThroughput == 0 && clientConversationRunner != null
+                && !isUnixDomainSocketAvailable(connectionURL)) {
             connectAsync(connectionURL, lrmiMethod);
         } else {
             connectSync(connectionURL, lrmiMethod);
@@ -373,6 +376,15 @@ public class CPeer extends BaseClientPeer {
         }
     }
 
+    //the async conversation runner connects over TCP only, a server with a local unix domain socket is connected by the sync connect
+    private boolean isUnixDomainSocketAvailable(String connectionURL) {
+        if (!UnixDomainSockets.isEnabled())
+            return false;
+        ConnectionUrlDescriptor connectionUrlDescriptor = ConnectionUrlDescriptor.fromUrl(connectionURL);
+        ServerAddress transformedAddress = mapAddress(connectionUrlDescriptor.getHostname(), connectionUrlDescriptor.getPort());
+        return UnixDomainSockets.isAvailable(transformedAddress.getHost(), transformedAddress.getPort());
+    }
+
     private ServerAddress mapAddress(String host, int port) {
         return LRMIRuntime.getRuntime().getNetworkMapper().map(new ServerAddress(host, port));
     }
@@ -382,7 +394,7 @@ public class CPeer extends BaseClientPeer {
             String localAddress = "not connected";
             if (m_SockChannel != null) {
                 //Avoid possible NPE if socket gets disconnected
-                Socket socket = m_SockChannel.socket();
+                Socket socket = NIOUtils.getSocket(m_SockChannel);
                 if (socket != null) {
                     SocketAddress localSocketAddress = socket.getLocalSocketAddress();
                     //Avoid possible NPE if socket gets disconnected
@@ -404,7 +416,15 @@ public class CPeer extends BaseClientPeer {
         if (_logger.isDebugEnabled())
             _logger.debug("connecting new socket channel to " + host + ":" + port + ", connect timeout=" + _config.getSocketConnectTimeout() + " keepalive=" + LRMIUtilities.KEEP_ALIVE_MODE);
 
-        SocketChannel sockChannel;
+        SocketChannel sockChannel = UnixDomainSockets.connect(host, port);
+        if (sockChannel != null) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("connected to " + host + ":" + port + " using a unix domain socket");
+            m_Address = new InetSocketAddress(host, port);
+            sockChannel.configureBlocking(_blocking);
+            return sockChannel;
+        }
+
         for (int i = 0; /* true */ ; ++i) {
             sockChannel = createSocket(host, port);
             try {
@@ -691,6 +711,7 @@ public class CPeer extends BaseClientPeer {
 
             previousThreadName = updateThreadNameIfNeeded();
 
+            final long startTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
             _writer.writeRequest(_requestPacket);
 
             /** if <code>true</code> the client peer mode is one way, don't wait for reply */
@@ -752,6 +773,8 @@ public class CPeer extends BaseClientPeer {
             } finally {
                 RemoteClassLoaderContext.set(previousIdentifier);
                 _monitoringModule.monitorActivity(monitoringId, _writer, _reader);
+                if (LRMILatencyMonitor.isEnabled())
+                    LRMILatencyMonitor.record(monitoringId, LRMILatencyPhase.CLIENT_ROUND_TRIP, System.nanoTime() - startTime);
             }
         } catch (LRMIUnhandledException ex) {
             if (ex.getStage() == Stage.DESERIALIZATION) {
@@ -29,6 +29,7 @@ import com.gigaspaces.lrmi.nio.filters.IOFilterException;
 import com.gigaspaces.lrmi.nio.filters.IOFilterManager;
 import com.gigaspaces.lrmi.nio.selector.handler.ReadSelectorThread;
 import com.gigaspaces.lrmi.nio.selector.handler.WriteSelectorThread;
+import com.gigaspaces.lrmi.nio.shm.SharedMemoryServerConnection;
 import com.gigaspaces.time.SystemTime;
 import com.j_spaces.kernel.SystemProperties;
 
@@ -102,6 +103,7 @@ public class ChannelEntry implements IWriteInterestManager {
     private final WriteExecutionPhaseListener _writeExecutionPhaseListener = new ChannelEntryWriteExecutionPhaseListener();
     private volatile State _currentChannelState = State.IDLE;
     private volatile boolean _firstMessage = true;
+    private volatile SharedMemoryServerConnection _sharedMemoryConnection;
 
 
     /**
@@ -192,7 +194,7 @@ public class ChannelEntry implements IWriteInterestManager {
             return _clientEndPointAddress;
         }
 
-        Socket socket = _socketChannel.socket();
+        Socket socket = NIOUtils.getSocket(_socketChannel);
         if (socket == null)
             return null;
         return (InetSocketAddress) socket.getRemoteSocketAddress();
@@ -265,12 +267,26 @@ public class ChannelEntry implements IWriteInterestManager {
     }
 
     public void close() throws IOException {
+        SharedMemoryServerConnection sharedMemoryConnection = _sharedMemoryConnection;
+        if (sharedMemoryConnection != null)
+            sharedMemoryConnection.close();
         //Clear the context the inner streams hold upon disconnection
         _socketChannel.close();
         _writer.closeContext();
         _reader.closeContext();
     }
 
+    /**
+     * Sets the shared memory connection which serves the synchronous invocations of this client,
+     * it is closed along with this channel.
+     */
+    public void setSharedMemoryConnection(SharedMemoryServerConnection sharedMemoryConnection) {
+        SharedMemoryServerConnection previous = _sharedMemoryConnection;
+        _sharedMemoryConnection = sharedMemoryConnection;
+        if (previous != null)
+            previous.close();
+    }
+
     //Flush to main memory
     public synchronized void setSourceDetails(PlatformLogicalVersion logicalVersion, long pid) {
         this._sourceLogicalVersion = logicalVersion;
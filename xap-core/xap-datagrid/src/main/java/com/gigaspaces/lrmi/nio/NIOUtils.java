@@ -16,13 +16,36 @@
 
 package com.gigaspaces.lrmi.nio;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.InetAddress;
+import java.net.NetworkInterface;
 import java.net.Socket;
 import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @com.gigaspaces.api.InternalApi
 public class NIOUtils {
+    private static final Map<String, Boolean> _localHosts = new ConcurrentHashMap<String, Boolean>();
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+
     public static String getSocketDisplayString(SocketChannel channel) {
+        if (UnixDomainSockets.isUnixDomain(channel)) {
+            try {
+                return "unix:" + channel.getRemoteAddress();
+            } catch (IOException e) {
+                return "disconnected";
+            }
+        }
         Socket socket = channel.socket();
         String identifier = "disconnected";
         if (socket != null) {
@@ -34,4 +57,71 @@ public class NIOUtils {
         }
         return identifier;
     }
+
+    /**
+     * @return the socket adaptor of the channel, null for unix domain socket channels which have
+     * none
+     */
+    public static Socket getSocket(SocketChannel channel) {
+        if (UnixDomainSockets.isUnixDomain(channel))
+            return null;
+        try {
+            return channel.socket();
+        } catch (UnsupportedOperationException e) {
+            //a closed unix domain socket channel
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the host is an address of this machine, the result is cached per host
+     */
+    public static boolean isLocalHost(String host) {
+        Boolean isLocal = _localHosts.get(host);
+        if (isLocal == null) {
+            try {
+                InetAddress address = InetAddress.getByName(host);
+                isLocal = address.isLoopbackAddress() || address.isAnyLocalAddress() || NetworkInterface.getByInetAddress(address) != null;
+            } catch (IOException e) {
+                isLocal = false;
+            }
+            _localHosts.put(host, isLocal);
+        }
+        return isLocal;
+    }
+
+    /**
+     * Verifies that the directory is owned by the current user and is not accessible to other
+     * users, on file systems which support posix permissions. Local transports which exchange data
+     * through files, such as unix domain sockets and shared memory, keep them in such a directory.
+     *
+     * @param create true to create the directory with owner only permissions if it does not exist
+     * @throws IOException if the directory does not exist or is not secure
+     */
+    public static void checkPrivateDirectory(File dir, boolean create) throws IOException {
+        Path path = dir.toPath();
+        boolean posix = path.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (create && !Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                if (posix)
+                    Files.createDirectories(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+                else
+                    Files.createDirectories(path);
+            } catch (FileAlreadyExistsException e) {
+                //created concurrently or not a directory, verified below
+            }
+        }
+        if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+            throw new IOException("Directory " + dir + " does not exist or is not a directory");
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal currentUser = path.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(currentUser))
+            throw new IOException("Directory " + dir + " is owned by " + owner.getName() + " rather than the current user " + currentUser.getName());
+        if (posix) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path, LinkOption.NOFOLLOW_LINKS);
+            if (!OWNER_ONLY_DIRECTORY.containsAll(permissions))
+                throw new IOException("Directory " + dir + " is accessible to other users ["
+                        + PosixFilePermissions.toString(permissions) + "], expected [rwx------]");
+        }
+    }
 }
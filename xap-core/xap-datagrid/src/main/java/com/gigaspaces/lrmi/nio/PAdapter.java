@@ -18,6 +18,7 @@ package com.gigaspaces.lrmi.nio;
 
 import com.gigaspaces.config.lrmi.ITransportConfig;
 import com.gigaspaces.config.lrmi.nio.NIOConfiguration;
+import com.gigaspaces.internal.lrmi.LRMILatencyMonitor;
 import com.gigaspaces.internal.lrmi.LRMIMonitoringDetailsImpl;
 import com.gigaspaces.internal.utils.GsEnv;
 import com.gigaspaces.internal.utils.concurrent.GSThread;
@@ -144,14 +145,14 @@ public class PAdapter implements ProtocolAdapter<CPeer> {
         _serverSideInitialized = true;
     }
 
-    private synchronized ClientHandler getClientHandler() {
+    protected synchronized ClientHandler getClientHandler() {
         if (_handlers == null)
             throw new IllegalStateException("attempt to getClientHandler but handlers are not initialized, client side initialized state = " + _clientSideInitialized);
 
         return _handlers[nextIndex.getAndIncrement() % _handlers.length];
     }
 
-    private ClientConversationRunner getClientConversationRunner() {
+    protected ClientConversationRunner getClientConversationRunner() {
         return _clientConversationRunner;
     }
 
@@ -233,6 +234,7 @@ public class PAdapter implements ProtocolAdapter<CPeer> {
 
     @Override
     public LRMIMonitoringDetailsImpl getMonitoringDetails() {
-        return new LRMIMonitoringDetailsImpl(m_Pivot.getMonitoringDetails(), DynamicSmartStub.getMonitoringDetails());
+        return new LRMIMonitoringDetailsImpl(m_Pivot.getMonitoringDetails(), DynamicSmartStub.getMonitoringDetails(),
+                LRMILatencyMonitor.getMethodsLatencyDetails());
     }
 }
@@ -26,6 +26,7 @@ import com.gigaspaces.internal.collections.LongObjectMap;
 import com.gigaspaces.internal.io.MarshalContextClearedException;
 import com.gigaspaces.internal.io.MarshalInputStream;
 import com.gigaspaces.internal.lrmi.LRMIInboundMonitoringDetailsImpl;
+import com.gigaspaces.internal.lrmi.LRMILatencyMonitor;
 import com.gigaspaces.internal.lrmi.LRMIServiceMonitoringDetailsImpl;
 import com.gigaspaces.internal.utils.concurrent.ContextClassLoaderRunnable;
 import com.gigaspaces.internal.version.PlatformLogicalVersion;
@@ -35,6 +36,7 @@ import com.gigaspaces.lrmi.LRMIInvocationContext;
 import com.gigaspaces.lrmi.LRMIInvocationContext.InvocationStage;
 import com.gigaspaces.lrmi.LRMIInvocationContext.ProxyWriteType;
 import com.gigaspaces.lrmi.LRMIInvocationTrace;
+import com.gigaspaces.lrmi.LRMILatencyPhase;
 import com.gigaspaces.lrmi.LRMIMethod;
 import com.gigaspaces.lrmi.LRMIRuntime;
 import com.gigaspaces.lrmi.ObjectRegistry;
@@ -50,6 +52,8 @@ import com.gigaspaces.lrmi.nio.filters.IOFilterException;
 import com.gigaspaces.lrmi.nio.selector.SelectorManager;
 import com.gigaspaces.lrmi.nio.selector.handler.ReadSelectorThread;
 import com.gigaspaces.lrmi.nio.selector.handler.WriteSelectorThread;
+import com.gigaspaces.lrmi.nio.shm.SharedMemoryAttachRequest;
+import com.gigaspaces.lrmi.nio.shm.SharedMemoryServerConnection;
 import com.gigaspaces.management.transport.ITransportConnection;
 import com.j_spaces.kernel.ClassLoaderHelper;
 
@@ -160,15 +164,18 @@ public class Pivot {
         final private Pivot pivot;
         final private ChannelEntry channelEntry;
         final private MarshalInputStream stream;
+        final private long enqueueTime;
 
         private ChannelEntryTask(Pivot pivot, ChannelEntry channelEntry, MarshalInputStream stream) {
             this.pivot = pivot;
             this.channelEntry = channelEntry;
             this.stream = stream;
+            this.enqueueTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
         }
 
         public void run() {
             try {
+                final long startTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
                 setLRMIInvocationContext();
 
                 // setting the threadlocal containing the connection back to the caller
@@ -180,6 +187,11 @@ public class Pivot {
                 if (requestPacket == null) {
                     channelEntry.returnSocket(); // releases Reader Selector
                 } else {
+                    if (LRMILatencyMonitor.isEnabled()) {
+                        String monitoringId = extractMonitoringId(requestPacket);
+                        LRMILatencyMonitor.record(monitoringId, LRMILatencyPhase.SERVER_QUEUE, startTime - enqueueTime);
+                        LRMILatencyMonitor.record(monitoringId, LRMILatencyPhase.SERVER_UNMARSHAL, System.nanoTime() - startTime);
+                    }
                     try {
                         //Update stage once we finished unmarshaling the request
                         LRMIInvocationContext.updateContext(null, null, InvocationStage.INVOCATION_HANDLING, null, null, false, null, null);
@@ -259,10 +271,13 @@ public class Pivot {
                 config.getBindPort(),
                 config.getReadSelectorThreads());
 
-        _threadPool = LRMIRuntime.getRuntime().getThreadPool();
+        //Liveness and monitoring requests keep their dedicated pools, regular and custom requests may block and use
+        //virtual threads when enabled
+        Executor virtualThreadExecutor = LRMIRuntime.getRuntime().getVirtualThreadExecutor();
+        _threadPool = selectRequestExecutor(virtualThreadExecutor, LRMIRuntime.getRuntime().getThreadPool());
         _livenessPriorityThreadPool = LRMIRuntime.getRuntime().getLivenessPriorityThreadPool();
         _monitoringPriorityThreadPool = LRMIRuntime.getRuntime().getMonitoringPriorityThreadPool();
-        _customThreadPool = LRMIRuntime.getRuntime().getCustomThreadPool();
+        _customThreadPool = selectRequestExecutor(virtualThreadExecutor, LRMIRuntime.getRuntime().getCustomThreadPool());
         _directExecutor = Executors.newDirectExecutor();
         _protocolValidationEnabled = config.isProtocolValidationEnabled();
     }
@@ -285,6 +300,14 @@ public class Pivot {
         return _selectorManager.getHostName();
     }
 
+    /**
+     * @param virtualThreadExecutor null if virtual threads are disabled or not supported
+     * @return the executor of requests which are served by the given thread pool
+     */
+    static Executor selectRequestExecutor(Executor virtualThreadExecutor, Executor threadPool) {
+        return virtualThreadExecutor != null ? virtualThreadExecutor : threadPool;
+    }
+
     public static boolean isMonitorActivity() {
         return LRMIRuntime.getRuntime().isMonitorActivity();
     }
@@ -355,7 +378,7 @@ public class Pivot {
 
         WriteSelectorThread writeHandler = _selectorManager.getWriteHandler(key.channel());
 
-        Socket socket = channel.socket();
+        Socket socket = NIOUtils.getSocket(channel);
         InetSocketAddress socketAddress = (InetSocketAddress) (socket == null ? null : socket.getRemoteSocketAddress());
         ChannelEntry channelEntry = new ChannelEntry(writeHandler, readHandler, key, socketAddress, this);
         m_Channels.put(channel, channelEntry);
@@ -385,7 +408,7 @@ public class Pivot {
             // close channel and remove it from table
             // remove client socket mapping before closing the socket
             SocketChannel socketChannel = channelEntry.getSocketChannel();
-            Socket socket = socketChannel.socket();
+            Socket socket = NIOUtils.getSocket(socketChannel);
             if (socket != null) {
                 SocketAddress socketAddress = socket.getRemoteSocketAddress();
                 if (socketAddress != null)
@@ -438,7 +461,8 @@ public class Pivot {
             operationPriority = OperationPriority.MONITORING;
             task = ctx.systemRequestContext.getResponseTask(this, channelEntry, ctx.startTimestamp);
         } else {
-            operationPriority = RequestPacket.getOperationPriorityFromBytes(ctx.bytes);
+            operationPriority = ctx.bytes != null ? RequestPacket.getOperationPriorityFromBytes(ctx.bytes)
+                    : RequestPacket.getOperationPriorityFromBuffer(ctx.buffer);
             task = new ChannelEntryTask(this, channelEntry, stream);
         }
         //We are using the selector thread indication of priority because it is safer because the channel system priority is not volatile
@@ -482,6 +506,15 @@ public class Pivot {
                 LRMIInvocationContext.getCurrentContext().setSourceLogicalVersion(handshakeRequest.getSourcePlatformLogicalVersion());
                 return new ReplyPacket<Object>(null, null);
             }
+            if (reqObject instanceof SharedMemoryAttachRequest) {
+                try {
+                    channelEntry.setSharedMemoryConnection(SharedMemoryServerConnection.attach((SharedMemoryAttachRequest) reqObject,
+                            channelEntry.getSourcePlatformLogicalVersion(), channelEntry.getClientEndPointAddress()));
+                    return new ReplyPacket<Object>(null, null);
+                } catch (IOException e) {
+                    return new ReplyPacket<Object>(null, e);
+                }
+            }
         }
         boolean sendResponse = true;
         Exception resultEx = null;
@@ -579,8 +612,11 @@ public class Pivot {
             ResponseContext.setExistingResponseContext(respContext);
         }
 
+        final long executionStartTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
         ReplyPacket replyPacket = consumeAndHandleRequest(requestPacket, respContext, channelEntry);
         ResponseContext.clearResponseContext();
+        if (LRMILatencyMonitor.isEnabled())
+            LRMILatencyMonitor.record(monitoringId, LRMILatencyPhase.SERVER_EXECUTION, System.nanoTime() - executionStartTime);
 
         //	 If replyPacket is null - it's a one way request or callback
         // return without sending reply to the client
@@ -622,6 +658,7 @@ public class Pivot {
 
     private void sendResponse(ChannelEntry channelEntry, ReplyPacket replyPacket,
                               IResponseContext respContext, boolean reuseBuffer, String monitoringId) {
+        final long startTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
         try {
             //Update state to marshal reply
             LRMIInvocationContext.updateContext(null, null, InvocationStage.SERVER_MARSHAL_REPLY, null, null, false, null, null);
@@ -650,6 +687,9 @@ public class Pivot {
             }
         } catch (Exception ex) {
             handleExceptionFromServer(channelEntry._writer, channelEntry._reader, ex);
+        } finally {
+            if (LRMILatencyMonitor.isEnabled())
+                LRMILatencyMonitor.record(monitoringId, LRMILatencyPhase.SERVER_WRITE_REPLY, System.nanoTime() - startTime);
         }
     }
 
@@ -18,11 +18,13 @@ package com.gigaspaces.lrmi.nio;
 
 import com.gigaspaces.exception.lrmi.LRMIUnhandledException;
 import com.gigaspaces.exception.lrmi.SlowConsumerException;
+import com.gigaspaces.internal.io.ByteBufferInputStream;
 import com.gigaspaces.internal.io.GSByteArrayInputStream;
 import com.gigaspaces.internal.io.MarshalContextClearedException;
 import com.gigaspaces.internal.io.MarshalInputStream;
 import com.gigaspaces.logger.Constants;
 import com.gigaspaces.lrmi.LRMIUtilities;
+import com.gigaspaces.lrmi.DirectByteBufferPool;
 import com.gigaspaces.lrmi.SmartByteBufferCache;
 import com.gigaspaces.lrmi.nio.SystemRequestHandler.SystemRequestContext;
 import com.gigaspaces.lrmi.nio.filters.IOFilterException;
@@ -33,8 +35,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectStreamConstants;
 import java.net.ConnectException;
+import java.net.Socket;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -85,6 +89,9 @@ public class Reader {
 
     /* cached data  buffer */
     final private SmartByteBufferCache _bufferCache = SmartByteBufferCache.getDefaultSmartByteBufferCache();
+    //null unless direct buffers are enabled, in which case the reused stream reads _bbis instead of _bais
+    final private DirectByteBufferPool _directBufferPool = DirectByteBufferPool.getDefaultPool();
+    final private ByteBufferInputStream _bbis = _directBufferPool != null ? new ByteBufferInputStream() : null;
 
     /* data length buffer */
     final private ByteBuffer _headerBuffer = ByteBuffer.allocateDirect(4); // 4 == size of int in bytes
@@ -118,7 +125,7 @@ public class Reader {
         _headerBuffer.order(ByteOrder.BIG_ENDIAN);
         _streamContext = MarshalInputStream.createContext();
         try {
-            _ois = new MarshalInputStream(_bais, _streamContext);
+            _ois = new MarshalInputStream(getReusedInputStream(), _streamContext);
         } catch (IOException e) {
             if (_logger.isErrorEnabled()) {
                 _logger.error(e.getMessage(), e);
@@ -168,6 +175,8 @@ public class Reader {
         public Phase phase = Phase.START;
         public int bytesRead = 0;
         public ByteBuffer buffer = null;
+        //chain of pooled buffers read with a scattering read, in which case buffer is the first one
+        public ByteBuffer[] buffers = null;
         public int dataLength = 0;
         public boolean createNewBuffer = false;
         public byte[] bytes;
@@ -183,6 +192,7 @@ public class Reader {
             phase = Phase.START;
             dataLength = 0;
             buffer = null;
+            buffers = null;
             bytes = null;
             systemRequestContext = null;
             startTimestamp = SystemTime.timeMillis();
@@ -227,6 +237,16 @@ public class Reader {
 
     public ByteBuffer readBytesFromChannelBlocking(boolean createNewBuffer, int slowConsumerLatency, int sizeLimit)
             throws IOException {
+        return readBuffersFromChannelBlocking(createNewBuffer, false, slowConsumerLatency, sizeLimit)[0];
+    }
+
+    /**
+     * @param chained whether a message larger than the largest pooled buffer may be read into a
+     *                chain of pooled buffers
+     * @return the buffer read, or the chain of buffers read with a scattering read
+     */
+    private ByteBuffer[] readBuffersFromChannelBlocking(boolean createNewBuffer, boolean chained, int slowConsumerLatency, int sizeLimit)
+            throws IOException {
         /* read header (data length) */
         int bytesRead = 0;
         int retries = 0;
@@ -305,8 +325,9 @@ public class Reader {
         }
 
         /* allocate the buffer on demand, otherwise reuse the buffer */
+        ByteBuffer[] buffers = chained && !createNewBuffer && isChainRequired(dataLength) ? acquirePooledChain(dataLength) : null;
         ByteBuffer buffer;
-        buffer = getByteBufferAllocated(createNewBuffer, dataLength);
+        buffer = buffers != null ? buffers[0] : getByteBufferAllocated(createNewBuffer, true, dataLength);
 
         /* read to bytes buffer */
         bytesRead = 0;
@@ -315,19 +336,23 @@ public class Reader {
          * reading using all the buffer, this is because Java SocketChannel allocate direct buffer that has the same size as
          * the user buffer when reading from the channel, this may cause our of memory if user buffer is too long. 
          */
-        boolean shouldUseSlidingWindow = dataLength >= BUFFER_LIMIT;
+        boolean shouldUseSlidingWindow = buffers == null && dataLength >= BUFFER_LIMIT;
 
         int bRead;
 
         try {
             originalSoTimeout = LRMIUtilities.getAndSetSocketTimeout(_socketChannel, LRMIUtilities.READ_BLOCK_TIMEOUT);
             while (bytesRead < dataLength) {
-                ByteBuffer workingBuffer = buffer;
-                if (shouldUseSlidingWindow) {
-                    buffer.position(bytesRead).limit(Math.min(dataLength, bytesRead + BUFFER_LIMIT));
-                    workingBuffer = buffer.slice();
+                if (buffers != null) {
+                    bRead = (int) _socketChannel.read(buffers);
+                } else {
+                    ByteBuffer workingBuffer = buffer;
+                    if (shouldUseSlidingWindow) {
+                        buffer.position(bytesRead).limit(Math.min(dataLength, bytesRead + BUFFER_LIMIT));
+                        workingBuffer = buffer.slice();
+                    }
+                    bRead = _socketChannel.read(workingBuffer);
                 }
-                bRead = _socketChannel.read(workingBuffer);
                 if (bRead == -1) // EOF
                     throwCloseConnection();
                 bytesRead += bRead;
@@ -377,17 +402,45 @@ public class Reader {
                 TemporarySelectorFactory.returnSelector(tempSelector);
             }
         }
+        if (buffers != null) {
+            _receivedTraffic += dataLength;
+            receivedTraffic.add(dataLength);
+            for (ByteBuffer chunk : buffers)
+                chunk.flip();
+            return buffers;
+        }
         _receivedTraffic += buffer.position();
         receivedTraffic.add(buffer.position());
         buffer.position(0);
         buffer.limit(dataLength);
-        return buffer;
+        return new ByteBuffer[]{buffer};
     }
 
-    private ByteBuffer getByteBufferAllocated(boolean createNewBuffer, int dataLength) {
+    /**
+     * @return true if a message of the specified length is larger than the largest pooled buffer,
+     * in which case it is read into a chain of pooled buffers rather than into a heap buffer
+     */
+    private boolean isChainRequired(int dataLength) {
+        return isUsingPooledBuffers() && dataLength > _directBufferPool.getMaxBufferSize();
+    }
+
+    private ByteBuffer[] acquirePooledChain(int dataLength) {
+        int chunkSize = _directBufferPool.getMaxBufferSize();
+        ByteBuffer[] buffers = new ByteBuffer[(dataLength + chunkSize - 1) / chunkSize];
+        for (int i = 0; i < buffers.length; i++)
+            buffers[i] = _directBufferPool.acquire(Math.min(chunkSize, dataLength - i * chunkSize));
+        return buffers;
+    }
+
+    /**
+     * @param pooled whether the buffer may be a pooled buffer, which is read by the reused stream
+     */
+    private ByteBuffer getByteBufferAllocated(boolean createNewBuffer, boolean pooled, int dataLength) {
         try {
             if (createNewBuffer) {
                 return ByteBuffer.allocate(dataLength);
+            } else if (pooled && isUsingPooledBuffers()) {
+                return _directBufferPool.acquire(dataLength);
             } else {
                 return _bufferCache.get(dataLength);
             }
@@ -426,10 +479,11 @@ public class Reader {
             }
 
             if (ctx.messageSizeLimit != 0 && ctx.messageSizeLimit <= ctx.dataLength) {
-                String offendingAddress = _socketChannel.socket() != null ? String.valueOf(_socketChannel.socket().getRemoteSocketAddress()) : "unknown";
+                Socket socket = NIOUtils.getSocket(_socketChannel);
+                String offendingAddress = socket != null ? String.valueOf(socket.getRemoteSocketAddress()) : "unknown";
                 String msg = "Handshake failed, expecting message of up to " + ctx.messageSizeLimit + " bytes, actual size is: " + ctx.dataLength + " bytes, offending address is " + offendingAddress;
                 if (offendingMessageLogger.isTraceEnabled()) {
-                    ByteBuffer buffer = getByteBufferAllocated(ctx.createNewBuffer, Math.min(ctx.dataLength, 5 * 1024));
+                    ByteBuffer buffer = getByteBufferAllocated(ctx.createNewBuffer, false, Math.min(ctx.dataLength, 5 * 1024));
                     _socketChannel.read(buffer);
                     buffer.flip();
                     byte[] bytes = new byte[buffer.remaining()];
@@ -440,7 +494,12 @@ public class Reader {
                 throw new ConnectException(msg);
             }
             /** allocate the buffer on demand, otherwise reuse the buffer */
-            ctx.buffer = getByteBufferAllocated(ctx.createNewBuffer, ctx.dataLength);
+            if (!ctx.createNewBuffer && !ctx.isSystemRequest() && isChainRequired(ctx.dataLength)) {
+                ctx.buffers = acquirePooledChain(ctx.dataLength);
+                ctx.buffer = ctx.buffers[0];
+            } else {
+                ctx.buffer = getByteBufferAllocated(ctx.createNewBuffer, !ctx.isSystemRequest(), ctx.dataLength);
+            }
 
             ctx.bytesRead = 0;
             ctx.phase = Context.Phase.BODY;
@@ -450,7 +509,22 @@ public class Reader {
             /* read to bytes buffer */
             boolean shouldUseSlidingWindow = ctx.dataLength >= BUFFER_LIMIT;
 
-            if (shouldUseSlidingWindow) {
+            if (ctx.buffers != null) {
+                long bRead = _socketChannel.read(ctx.buffers);
+                if (bRead == -1) // EOF
+                    throwCloseConnection();
+
+                ctx.bytesRead += bRead;
+                if (ctx.bytesRead < ctx.dataLength) {
+                    return null;
+                }
+                ctx.phase = Context.Phase.FINISH;
+                _receivedTraffic += ctx.dataLength;
+                receivedTraffic.add(ctx.dataLength);
+                for (ByteBuffer chunk : ctx.buffers)
+                    chunk.flip();
+                return ctx.buffer;
+            } else if (shouldUseSlidingWindow) {
                 while (ctx.bytesRead < ctx.dataLength) {
                     ctx.buffer.position(ctx.bytesRead).limit(Math.min(ctx.dataLength, ctx.bytesRead + BUFFER_LIMIT));
                     ByteBuffer window = ctx.buffer.slice();
@@ -488,7 +562,8 @@ public class Reader {
      * @return the endpoint of the connected SocketChannel.
      */
     private SocketAddress getEndPointAddress() {
-        return _socketChannel != null ? _socketChannel.socket().getRemoteSocketAddress() : null;
+        Socket socket = _socketChannel != null ? NIOUtils.getSocket(_socketChannel) : null;
+        return socket != null ? socket.getRemoteSocketAddress() : null;
     }
 
     /**
@@ -528,7 +603,17 @@ public class Reader {
         else
             _bufferIsOccupied = true;
 
-        byte[] res = readBytesNonBlocking(ctx);
+        ByteBuffer buffer = readBytesFromChannelNoneBlocking(ctx);
+        if (buffer != null && !ctx.createNewBuffer && !ctx.isSystemRequest() && isUsingPooledBuffers()) {
+            // the pooled buffer is read as is, and released once the packet is unmarshalled
+            ctx.bytes = null;
+            if (ctx.buffers != null)
+                _bbis.setBuffers(ctx.buffers);
+            else
+                _bbis.setBuffer(buffer);
+            return _ois;
+        }
+        byte[] res = readBytesNonBlocking(ctx, buffer);
 
         boolean endOfRequest = ctx.phase == Context.Phase.FINISH;
         if (endOfRequest) {
@@ -541,7 +626,7 @@ public class Reader {
                     return new MarshalInputStream(new GSByteArrayInputStream(res), _streamContext);
                 }
 
-                _bais.setBuffer(res);
+                setReusedBuffer(res);
                 return _ois;
             }
         }
@@ -561,7 +646,14 @@ public class Reader {
         }
 
         _bufferIsOccupied = true;
-        _bais.setBuffer(readBytesBlocking(false, slowConsumerTimeout, sizeLimit));
+        if (isUsingPooledBuffers()) {
+            ByteBuffer[] buffers = readBuffersFromChannelBlocking(false, true, slowConsumerTimeout, sizeLimit);
+            if (buffers.length == 1)
+                _bbis.setBuffer(buffers[0]);
+            else
+                _bbis.setBuffers(buffers);
+        } else
+            setReusedBuffer(readBytesBlocking(false, slowConsumerTimeout, sizeLimit));
         unmarshall(packet, _ois);
         if (_logger.isTraceEnabled()) {
             _logger.trace("<-- Read packet " + packet);
@@ -588,12 +680,12 @@ public class Reader {
             try {
                 //We need to create a new buffer because this buffer is unusable anymore because it was not read fully
                 if (isReusedBuffer)
-                    _ois = new MarshalInputStream(_bais, _streamContext);
+                    _ois = new MarshalInputStream(getReusedInputStream(), _streamContext);
             } catch (IOException ioe) {
                 throw new UnMarshallingException("Failed to unmarsh:" + packet + " - " + ioe, ioe);
             } finally {
                 if (isReusedBuffer && _bufferIsOccupied) {
-                    _bais.setBuffer(DUMMY_BUFFER); // release the internal reference for the byte array
+                    releaseReusedBuffer();
                     _bufferIsOccupied = false;
                 }
             }
@@ -611,7 +703,8 @@ public class Reader {
                 //this is the only way to do reset on ObjetInputStream:
                 // add reset flag and let the ObjectInputStream to read it 
                 // so all the handles in the ObjectInputStream will be cleared
-                _bais.setBuffer(_resetBuffer);
+                releaseReusedBuffer();
+                setReusedBuffer(_resetBuffer);
                 mis.readObject();
             }
             catch (Throwable t) {
@@ -621,7 +714,7 @@ public class Reader {
 
             } finally {
                 if (_bufferIsOccupied) {
-                    _bais.setBuffer(DUMMY_BUFFER); // release the internal reference for the byte array
+                    releaseReusedBuffer();
                     _bufferIsOccupied = false;
                 }
             }
@@ -644,12 +737,10 @@ public class Reader {
     }
 
     /**
-     * Reads from socket to _bytes.
-     *
+     * @param bytes the bytes read from the socket, null if the read is not complete
      * @return the bytes that was read.
      */
-    private byte[] readBytesNonBlocking(Context ctx) throws IOException, IOFilterException {
-        ByteBuffer bytes = readBytesFromChannelNoneBlocking(ctx);
+    private byte[] readBytesNonBlocking(Context ctx, ByteBuffer bytes) throws IOException, IOFilterException {
         if (bytes == null) {
             return null;
         }
@@ -663,6 +754,36 @@ public class Reader {
         return null;
     }
 
+    private boolean isUsingPooledBuffers() {
+        return _directBufferPool != null && _filterManager == null;
+    }
+
+    private InputStream getReusedInputStream() {
+        return _bbis != null ? _bbis : _bais;
+    }
+
+    private void setReusedBuffer(byte[] bytes) {
+        if (_bbis != null)
+            _bbis.setBuffer(ByteBuffer.wrap(bytes));
+        else
+            _bais.setBuffer(bytes);
+    }
+
+    /**
+     * Releases the internal reference to the bytes read by the reused stream, and returns pooled
+     * buffers to the pool.
+     */
+    private void releaseReusedBuffer() {
+        if (_bbis != null && _bbis.getBuffers() != null) {
+            for (ByteBuffer buffer : _bbis.getBuffers())
+                _directBufferPool.release(buffer);
+            _bbis.clearBuffer();
+        } else if (_bbis != null)
+            _directBufferPool.release(_bbis.clearBuffer());
+        else
+            _bais.setBuffer(DUMMY_BUFFER);
+    }
+
     public void closeContext() {
         _ois.closeContext();
     }
@@ -32,6 +32,7 @@ import com.j_spaces.kernel.ClassLoaderHelper;
 
 import java.io.IOException;
 import java.io.InvalidClassException;
+import java.nio.ByteBuffer;
 import java.rmi.UnmarshalException;
 
 import org.slf4j.Logger;
@@ -368,4 +369,16 @@ public class RequestPacket implements IPacket {
             throw new IllegalStateException("Incoming invocation request is not of known format, byte array length is too small - " + bytes.length);
         return decodePriority(bytes[3]);
     }
+
+    /**
+     * Same as {@link #getOperationPriorityFromBytes(byte[])}, for bytes which were read to a buffer
+     * starting at position zero
+     *
+     * @since 16.5
+     */
+    public static OperationPriority getOperationPriorityFromBuffer(ByteBuffer buffer) {
+        if (buffer.limit() < 4)
+            throw new IllegalStateException("Incoming invocation request is not of known format, buffer length is too small - " + buffer.limit());
+        return decodePriority(buffer.get(3));
+    }
 }
@@ -86,7 +86,7 @@ public class SystemRequestHandlerImpl
                     ChannelEntry.State channelEntryState = null;
 
                     InetAddress clientAddress = null;
-                    Socket socket = channelEntry.getSocketChannel().socket();
+                    Socket socket = NIOUtils.getSocket(channelEntry.getSocketChannel());
                     if (socket != null)
                         clientAddress = socket.getInetAddress();
 
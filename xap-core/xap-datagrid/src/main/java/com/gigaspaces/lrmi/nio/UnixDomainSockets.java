@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio;
+
+import com.gigaspaces.logger.Constants;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Unix domain socket channels for LRMI connections between processes of the same host.
+ *
+ * A server publishes a socket file named after its port in the sockets directory, and a client
+ * which connects to a local host uses the file if it exists instead of a TCP connection. Any process
+ * which can write to the sockets directory can impersonate the servers of the host, so the
+ * directory is created with owner only permissions, and both servers and clients fall back to TCP
+ * if it is owned by another user or accessible to other users. Unix domain sockets are available
+ * since Java 16 while the code base is compiled for older versions, hence they are accessed by
+ * reflection.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class UnixDomainSockets {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    private static final boolean ENABLED;
+    private static final ProtocolFamily UNIX_FAMILY;
+    private static final Class<?> UNIX_ADDRESS_CLASS;
+    private static final Method UNIX_ADDRESS_OF;
+    private static final Method OPEN_SOCKET_CHANNEL;
+    private static final Method OPEN_SERVER_SOCKET_CHANNEL;
+
+    static {
+        ProtocolFamily unixFamily = null;
+        Class<?> unixAddressClass = null;
+        Method unixAddressOf = null;
+        Method openSocketChannel = null;
+        Method openServerSocketChannel = null;
+        if (Boolean.getBoolean(SystemProperties.LRMI_UNIX_DOMAIN_SOCKETS_ENABLED)) {
+            try {
+                unixFamily = StandardProtocolFamily.valueOf("UNIX");
+                unixAddressClass = Class.forName("java.net.UnixDomainSocketAddress");
+                unixAddressOf = unixAddressClass.getMethod("of", Path.class);
+                openSocketChannel = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+                openServerSocketChannel = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+            } catch (Exception e) {
+                _logger.warn("Unix domain sockets are not supported by this JVM (requires java 16 or above), using TCP for local connections");
+                unixFamily = null;
+            }
+        }
+        ENABLED = unixFamily != null;
+        UNIX_FAMILY = unixFamily;
+        UNIX_ADDRESS_CLASS = unixAddressClass;
+        UNIX_ADDRESS_OF = unixAddressOf;
+        OPEN_SOCKET_CHANNEL = openSocketChannel;
+        OPEN_SERVER_SOCKET_CHANNEL = openServerSocketChannel;
+    }
+
+    private UnixDomainSockets() {
+    }
+
+    /**
+     * @return true if unix domain sockets are enabled and supported by the JVM
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return true if the channel is a unix domain socket channel, such channels have no {@link
+     * java.net.Socket} adaptor
+     */
+    public static boolean isUnixDomain(SocketChannel channel) {
+        if (!ENABLED)
+            return false;
+        try {
+            return UNIX_ADDRESS_CLASS.isInstance(channel.getLocalAddress());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the socket file of the LRMI server which listens on the specified port
+     */
+    public static File getSocketFile(int port) {
+        return new File(getSocketsDir(), "lrmi-" + port + ".sock");
+    }
+
+    static File getSocketsDir() {
+        String dir = System.getProperty(SystemProperties.LRMI_UNIX_DOMAIN_SOCKETS_DIR);
+        return dir != null ? new File(dir) : new File(System.getProperty("java.io.tmpdir"), "gigaspaces-lrmi-" + System.getProperty("user.name"));
+    }
+
+    /**
+     * @return true if unix domain sockets are enabled, the host is local and the LRMI server which
+     * listens on the port has published a socket file
+     */
+    public static boolean isAvailable(String host, int port) {
+        return ENABLED && NIOUtils.isLocalHost(host) && getSocketFile(port).exists();
+    }
+
+    /**
+     * Publishes the socket file of the LRMI server which listens on the specified TCP port.
+     *
+     * @return the bound server channel, null if unix domain sockets are disabled or the file could
+     * not be bound
+     */
+    public static ServerSocketChannel bind(int port, int backlog) {
+        if (!ENABLED)
+            return null;
+        File socketFile = getSocketFile(port);
+        ServerSocketChannel serverChannel = null;
+        try {
+            NIOUtils.checkPrivateDirectory(socketFile.getParentFile(), true);
+            if (socketFile.exists()) {
+                //an existing file is left from a process which terminated, unless a server still accepts connections on it
+                if (isListening(socketFile))
+                    throw new IOException("Socket file " + socketFile + " is used by another server");
+                if (!socketFile.delete())
+                    throw new IOException("Failed to delete stale socket file " + socketFile);
+            }
+            serverChannel = (ServerSocketChannel) invoke(OPEN_SERVER_SOCKET_CHANNEL, UNIX_FAMILY);
+            serverChannel.bind(toAddress(socketFile), backlog);
+            socketFile.deleteOnExit();
+            return serverChannel;
+        } catch (IOException e) {
+            _logger.warn("Failed to bind unix domain socket file " + socketFile + ", local clients will use TCP", e);
+            if (serverChannel != null) {
+                try {
+                    serverChannel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Removes the socket file of the LRMI server which listens on the specified TCP port.
+     */
+    public static void unbind(ServerSocketChannel serverChannel, int port) {
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Error while closing the unix domain server socket.", e);
+        }
+        getSocketFile(port).delete();
+    }
+
+    /**
+     * Connects to the LRMI server at the specified address over a unix domain socket, if the host
+     * is local and the server has published a socket file.
+     *
+     * @return a connected blocking channel, null if a unix domain socket can't be used
+     */
+    public static SocketChannel connect(String host, int port) {
+        if (!isAvailable(host, port))
+            return null;
+        File socketFile = getSocketFile(port);
+        SocketChannel channel = null;
+        try {
+            NIOUtils.checkPrivateDirectory(socketFile.getParentFile(), false);
+            channel = (SocketChannel) invoke(OPEN_SOCKET_CHANNEL, UNIX_FAMILY);
+            channel.configureBlocking(true);
+            channel.connect(toAddress(socketFile));
+            return channel;
+        } catch (IOException e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Failed to connect to unix domain socket file " + socketFile + ", using TCP", e);
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    private static boolean isListening(File socketFile) {
+        SocketChannel channel = null;
+        try {
+            channel = (SocketChannel) invoke(OPEN_SOCKET_CHANNEL, UNIX_FAMILY);
+            return channel.connect(toAddress(socketFile));
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static SocketAddress toAddress(File socketFile) throws IOException {
+        return (SocketAddress) invoke(UNIX_ADDRESS_OF, socketFile.toPath());
+    }
+
+    private static Object invoke(Method method, Object arg) throws IOException {
+        try {
+            return method.invoke(null, arg);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new IOException(cause);
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+}
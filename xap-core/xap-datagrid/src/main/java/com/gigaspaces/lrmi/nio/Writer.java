@@ -23,6 +23,8 @@ import com.gigaspaces.internal.io.MarshalOutputStream;
 import com.gigaspaces.logger.Constants;
 import com.gigaspaces.lrmi.LRMIInvocationContext;
 import com.gigaspaces.lrmi.LRMIInvocationTrace;
+import com.gigaspaces.lrmi.DirectByteBufferPool;
+import com.gigaspaces.lrmi.PooledByteBufferOutputStream;
 import com.gigaspaces.lrmi.SmartByteBufferCache;
 import com.gigaspaces.lrmi.nio.filters.IOFilterException;
 import com.gigaspaces.lrmi.nio.filters.IOFilterManager;
@@ -31,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.Socket;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -74,6 +77,10 @@ public class Writer implements IChannelWriter {
      * reuse buffer, growing on demand.
      */
     final private SmartByteBufferCache _bufferCache = SmartByteBufferCache.getDefaultSmartByteBufferCache();
+    //null unless direct buffers are enabled
+    final private DirectByteBufferPool _directBufferPool = DirectByteBufferPool.getDefaultPool();
+    //size of the last packet written to a pooled buffer, used as the initial size of the next one
+    private int _lastPooledBufferSize;
 
     final private int _slowConsumerThroughput;
     final private boolean _slowConsumer;
@@ -145,7 +152,8 @@ public class Writer implements IChannelWriter {
      * @return the endpoint of the connected SocketChannel.
      */
     public SocketAddress getEndPointAddress() {
-        return _sockChannel != null ? _sockChannel.socket().getRemoteSocketAddress() : null;
+        Socket socket = _sockChannel != null ? NIOUtils.getSocket(_sockChannel) : null;
+        return socket != null ? socket.getRemoteSocketAddress() : null;
     }
 
     public void writeRequest(RequestPacket packet, boolean reuseBuffer, Context ctx) throws IOException, IOFilterException {
@@ -187,6 +195,11 @@ public class Writer implements IChannelWriter {
         GSByteArrayOutputStream bos;
 
         final boolean reuseBuffer = requestReuseBuffer && _contexts.isEmpty();
+        if (_directBufferPool != null && _filterManager == null) {
+            writePacketToPooledBuffer(packet, reuseBuffer, ctx);
+            return;
+        }
+
         if (reuseBuffer) {
             mos = new MarshalOutputStream(_baos, _oos);
             _oos = mos;
@@ -238,11 +251,82 @@ public class Writer implements IChannelWriter {
         }
     }
 
+    /**
+     * Marshals the packet directly into a chain of pooled direct buffers, which are written with a
+     * gathering write and released once written. The marshal context is shared or not exactly as
+     * with the cached heap buffer.
+     */
+    private void writePacketToPooledBuffer(IPacket packet, boolean reuseContext, Context ctx) throws IOException, IOFilterException {
+        PooledByteBufferOutputStream bos = new PooledByteBufferOutputStream(_directBufferPool, _lastPooledBufferSize, LENGTH_SIZE);
+        MarshalOutputStream mos;
+        if (reuseContext) {
+            mos = new MarshalOutputStream(bos, _oos);
+            _oos = mos;
+        } else {
+            mos = new MarshalOutputStream(bos, false);
+        }
+
+        boolean marshalled = false;
+        int length = 0;
+        try {
+            packet.writeExternal(mos);
+            mos.flush();
+            length = bos.size();
+            marshalled = true;
+        } catch (MarshalContextClearedException e) {
+            //Keep original exception for upper layer to handle properly
+            throw e;
+        } catch (Exception e) {
+            throw new MarshallingException("Failed to marsh: " + packet, e);
+        } finally {
+            try {
+                if (reuseContext)
+                    mos.reset();
+                else
+                    //Clear context because this output stream is no longer used
+                    mos.closeContext();
+            } finally {
+                if (!marshalled)
+                    bos.release();
+            }
+        }
+
+        //the reset above may have written past the packet
+        ByteBuffer[] buffers = bos.toBuffers(length);
+        buffers[0].putInt(0, length - LENGTH_SIZE);
+        _lastPooledBufferSize = length;
+        _generatedTraffic += length;
+        generatedTraffic.add(length);
+
+        if (ctx != null) {
+            // non blocking mode, the buffers are released once the context is written.
+            ctx.setPooledBuffers(buffers);
+            writeBytesToChannelNoneBlocking(ctx, true);
+        } else {
+            // blocking mode.
+            try {
+                writeBytesToChannelBlocking(buffers);
+            } finally {
+                for (ByteBuffer buffer : buffers)
+                    _directBufferPool.release(buffer);
+            }
+        }
+    }
+
+    private void releasePooledBuffer(Context ctx) {
+        if (ctx.isPooledBuffer()) {
+            for (ByteBuffer buffer : ctx.getBuffers())
+                _directBufferPool.release(buffer);
+        }
+    }
+
     public static class Context {
         public static enum Phase {START, WRITING, FINISH}
 
         private Phase phase = Phase.START;
         private ByteBuffer buffer;
+        private ByteBuffer[] buffers;
+        private boolean pooledBuffer;
         private int totalBytesWritten = 0;
         private int currentPosition = 0;
         private int totalLength;
@@ -262,6 +346,27 @@ public class Writer implements IChannelWriter {
             return buffer;
         }
 
+        /**
+         * Sets a chain of buffers which are written in order with a gathering write, and should be
+         * released to the {@link DirectByteBufferPool} once written
+         */
+        public void setPooledBuffers(ByteBuffer[] buffers) {
+            this.buffer = buffers[0];
+            this.buffers = buffers;
+            this.pooledBuffer = true;
+        }
+
+        /**
+         * @return the pooled buffers chain, null if a single buffer is written
+         */
+        public ByteBuffer[] getBuffers() {
+            return buffers;
+        }
+
+        public boolean isPooledBuffer() {
+            return pooledBuffer;
+        }
+
         public void setTotalBytesWritten(int totalBytesWritten) {
             this.totalBytesWritten = totalBytesWritten;
         }
@@ -387,6 +492,7 @@ public class Writer implements IChannelWriter {
                 setWriteInterest();
                 pendingWrites.increment();
             } else {
+                releasePooledBuffer(ctx);
                 // must call it because we might be here after a ClassProvider writing with a registered
                 // write interest.
                 removeWriteInterest(restoreReadInterest);
@@ -400,11 +506,21 @@ public class Writer implements IChannelWriter {
 
     protected void noneBlockingWrite(Context ctx) throws IOException {
         if (ctx.getPhase() == Context.Phase.START) {
-            int dataLength = ctx.getBuffer().remaining();
+            int dataLength = ctx.getBuffers() != null ? remaining(ctx.getBuffers()) : ctx.getBuffer().remaining();
             ctx.setTotalLength(dataLength);
             ctx.setPhase(Context.Phase.WRITING);
         }
-        if (ctx.getPhase() == Context.Phase.WRITING) {
+        if (ctx.getPhase() == Context.Phase.WRITING && ctx.getBuffers() != null) {
+            //direct buffers need no sliding window, the channel writes them as is
+            long bytes;
+            do {
+                bytes = _sockChannel.write(ctx.getBuffers());
+                ctx.setTotalBytesWritten(ctx.getTotalBytesWritten() + (int) bytes);
+            } while (bytes > 0 && ctx.getTotalBytesWritten() < ctx.getTotalLength());
+
+            if (ctx.getTotalBytesWritten() == ctx.getTotalLength())
+                ctx.setPhase(Context.Phase.FINISH);
+        } else if (ctx.getPhase() == Context.Phase.WRITING) {
             boolean useSlidingWindow = ctx.getTotalLength() >= BUFFER_LIMIT;
 
             int bytes;
@@ -499,25 +615,7 @@ public class Writer implements IChannelWriter {
 
                 bytesRetries += bytes;
                 if (_slowConsumer && bytesRetries < _slowConsumerBytes) {
-                    if (retries-- == 0) {
-                        String slowConsumerCloseMsg = prepareSlowConsumerCloseMsg(getEndPointAddress());
-                        if (_slowerConsumerLogger.isWarnEnabled()) {
-                            _slowerConsumerLogger.warn(slowConsumerCloseMsg);
-                        }
-                        _sockChannel.close();
-                        throw new SlowConsumerException(slowConsumerCloseMsg);
-                    }
-                    //else
-                    try {
-                        if (_slowerConsumerLogger.isDebugEnabled()) {
-                            _slowerConsumerLogger.debug(prepareSlowConsumerSleepMsg(getEndPointAddress(), retries));
-                        }
-                        Thread.sleep(_slowConsumerSleepTime);
-                    } catch (InterruptedException e) {
-                        IOException ioe = new IOException("Interrupted while writing response.");
-                        ioe.initCause(e);
-                        throw ioe;
-                    }
+                    retries = waitForSlowConsumer(retries);
                 } else {
                     bytesRetries = 0;
                     retries = _slowConsumerRetries;
@@ -525,24 +623,113 @@ public class Writer implements IChannelWriter {
 
             }
         } finally {
-            if (tmpKey != null)
-                tmpKey.cancel();
-
-            if (tempSelector != null) {
-                // releases and clears the key.
-                try {
-                    tempSelector.selectNow();
-                } catch (IOException ex) {
-                }
-
-                TemporarySelectorFactory.returnSelector(tempSelector);
-            }
+            returnTemporarySelector(tempSelector, tmpKey);
         }
         /*
         *  _dataBuffer isn't available after this point and should not be used!!
         */
     }
 
+    /**
+     * Writes a chain of direct buffers with gathering writes, in the same manner as {@link
+     * #writeBytesToChannelBlocking(ByteBuffer)}. The buffers are written as is, without a sliding
+     * window.
+     */
+    public void writeBytesToChannelBlocking(ByteBuffer[] buffers)
+            throws IOException, ClosedChannelException, SlowConsumerException {
+        long totalBytesWritten = 0;
+        long bytesRetries = 0;
+        int retries = _slowConsumerRetries;
+        final long length = remaining(buffers);
+
+        Selector tempSelector = null;
+        SelectionKey tmpKey = null;
+
+        try {
+            while (totalBytesWritten < length) {
+                long bytes = _sockChannel.write(buffers);
+                totalBytesWritten += bytes;
+                if (totalBytesWritten >= length) // finish writing all
+                    break;
+
+                if (bytes == 0) {
+                    if (tempSelector == null) {
+                        tempSelector = TemporarySelectorFactory.getSelector();
+                        tmpKey = _sockChannel.register(tempSelector, SelectionKey.OP_WRITE);
+                    }
+
+                    tmpKey.interestOps(tmpKey.interestOps() | SelectionKey.OP_WRITE);
+                    int res = tempSelector.select(1000);
+                    tmpKey.interestOps(tmpKey.interestOps() & (~SelectionKey.OP_WRITE));
+
+                    if (res == 1) {
+                        continue;
+                    }
+                }
+
+                bytesRetries += bytes;
+                if (_slowConsumer && bytesRetries < _slowConsumerBytes) {
+                    retries = waitForSlowConsumer(retries);
+                } else {
+                    bytesRetries = 0;
+                    retries = _slowConsumerRetries;
+                }
+            }
+        } finally {
+            returnTemporarySelector(tempSelector, tmpKey);
+        }
+    }
+
+    private static int remaining(ByteBuffer[] buffers) {
+        int remaining = 0;
+        for (ByteBuffer buffer : buffers)
+            remaining += buffer.remaining();
+        return remaining;
+    }
+
+    /**
+     * Sleeps before retrying a write to a slow consumer, closes the channel once out of retries.
+     *
+     * @return the retries left
+     */
+    private int waitForSlowConsumer(int retries) throws IOException {
+        if (retries-- == 0) {
+            String slowConsumerCloseMsg = prepareSlowConsumerCloseMsg(getEndPointAddress());
+            if (_slowerConsumerLogger.isWarnEnabled()) {
+                _slowerConsumerLogger.warn(slowConsumerCloseMsg);
+            }
+            _sockChannel.close();
+            throw new SlowConsumerException(slowConsumerCloseMsg);
+        }
+        //else
+        try {
+            if (_slowerConsumerLogger.isDebugEnabled()) {
+                _slowerConsumerLogger.debug(prepareSlowConsumerSleepMsg(getEndPointAddress(), retries));
+            }
+            Thread.sleep(_slowConsumerSleepTime);
+        } catch (InterruptedException e) {
+            IOException ioe = new IOException("Interrupted while writing response.");
+            ioe.initCause(e);
+            throw ioe;
+        }
+        return retries;
+    }
+
+    private static void returnTemporarySelector(Selector tempSelector, SelectionKey tmpKey) {
+        if (tmpKey != null)
+            tmpKey.cancel();
+
+        if (tempSelector != null) {
+            // releases and clears the key.
+            try {
+                tempSelector.selectNow();
+            } catch (IOException ex) {
+            }
+
+            TemporarySelectorFactory.returnSelector(tempSelector);
+        }
+    }
+
     /**
      * Called from WriteSelectorThread to complete pending write requests.
      *
@@ -565,6 +752,7 @@ public class Writer implements IChannelWriter {
                     break;
                 } else {
                     traceContextTotalWriteTime(current);
+                    releasePooledBuffer(current);
                     _contexts.poll();
                     pendingWrites.decrement();
                 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.async;
+
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.start.SystemBoot;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.jini.rio.boot.CommonClassLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * An executor which runs each task on a new virtual thread. Virtual threads are available since
+ * Java 21 while the code base is compiled for older versions, hence the executor is created by
+ * reflection, and {@link #create(String)} returns null when the running JVM does not support them.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LRMIVirtualThreadExecutor implements Executor {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    private final ExecutorService _executor;
+    private final ClassLoader _contextClassLoader;
+
+    private LRMIVirtualThreadExecutor(ExecutorService executor) {
+        this._executor = executor;
+        // same as the LRMI pool threads, virtual threads would otherwise inherit the class loader
+        // of the thread which created them
+        this._contextClassLoader = SystemBoot.isRunningWithinGSC() ? CommonClassLoader.getInstance() : null;
+    }
+
+    /**
+     * @param poolName prefix of the virtual threads names
+     * @return a new executor, null if virtual threads are not enabled by {@link
+     * SystemProperties#LRMI_VIRTUAL_THREADS_ENABLED} or not supported by the JVM
+     */
+    public static LRMIVirtualThreadExecutor createIfEnabled(String poolName) {
+        boolean enabled = Boolean.parseBoolean(System.getProperty(SystemProperties.LRMI_VIRTUAL_THREADS_ENABLED,
+                String.valueOf(SystemProperties.LRMI_VIRTUAL_THREADS_ENABLED_DEFAULT)));
+        return enabled ? create(poolName) : null;
+    }
+
+    /**
+     * @param poolName prefix of the virtual threads names
+     * @return a new executor, null if the JVM does not support virtual threads
+     */
+    public static LRMIVirtualThreadExecutor create(String poolName) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, poolName + "-", 1L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = java.util.concurrent.Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return new LRMIVirtualThreadExecutor((ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory));
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (Exception e) {
+            //e.g. a preview feature which is not enabled (java 19/20)
+            if (_logger.isDebugEnabled())
+                _logger.debug("Virtual threads are not supported by this JVM", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (_contextClassLoader == null) {
+            _executor.execute(command);
+            return;
+        }
+        _executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                Thread.currentThread().setContextClassLoader(_contextClassLoader);
+                command.run();
+            }
+        });
+    }
+
+    public void shutdownNow() {
+        _executor.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.filters;
+
+import com.j_spaces.kernel.SystemProperties;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Use this network filter factory to send LZ4 compressed messages between client and server.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class IOStreamLZ4CompressionFilterFactory implements IOFilterFactory {
+
+    public IOStreamLZ4CompressionFilterFactory() {
+    }
+
+    public IOFilter createFilter() {
+        int threshold = Integer.getInteger(SystemProperties.LRMI_LZ4_COMPRESSION_THRESHOLD,
+                SystemProperties.LRMI_LZ4_COMPRESSION_THRESHOLD_DEFAULT);
+        int maxMessageSize = Integer.getInteger(SystemProperties.LRMI_LZ4_COMPRESSION_MAX_MESSAGE_SIZE,
+                SystemProperties.LRMI_LZ4_COMPRESSION_MAX_MESSAGE_SIZE_DEFAULT);
+        return new IOStreamLZ4CompressionFilter(threshold, maxMessageSize);
+    }
+
+    public IOFilter createClientFilter(InetSocketAddress remoteAddress) throws Exception {
+        return createFilter();
+    }
+
+    public IOFilter createServerFilter(InetSocketAddress remoteAddress) throws Exception {
+        return createFilter();
+    }
+}
@@ -20,6 +20,7 @@ import com.gigaspaces.config.lrmi.nio.NIOConfiguration;
 import com.gigaspaces.internal.utils.GsEnv;
 import com.gigaspaces.logger.Constants;
 import com.gigaspaces.lrmi.nio.Pivot;
+import com.gigaspaces.lrmi.nio.UnixDomainSockets;
 import com.gigaspaces.lrmi.nio.selector.handler.AcceptSelectorThread;
 import com.gigaspaces.lrmi.nio.selector.handler.ReadSelectorThread;
 import com.gigaspaces.lrmi.nio.selector.handler.WriteSelectorThread;
@@ -59,6 +60,8 @@ public class SelectorManager extends ManagedRunnable {
     private final ReadSelectorThread[] _readSelectorThread;
     private final WriteSelectorThread[] _writeSelectorThread;
     private final AcceptSelectorThread _acceptSelectorThread;
+    private final ServerSocketChannel _unixDomainServerChannel;
+    private final AcceptSelectorThread _unixDomainAcceptSelectorThread;
 
     public SelectorManager(Pivot pivot, String hostName, String port, int readSelectorThreads) throws IOException {
         _host = hostName;
@@ -80,6 +83,16 @@ public class SelectorManager extends ManagedRunnable {
                     serverSocketChannel);
             _logger.info("Listening to incoming connections on {} (reader threads: {}, writer threads: {})",
                     getBindInetSocketAddress(), readSelectorThreads, readSelectorThreads);
+
+            _unixDomainServerChannel = UnixDomainSockets.bind(_port,
+                    Integer.getInteger(SystemProperties.LRMI_ACCEPT_BACKLOG, SystemProperties.LRMI_ACCEPT_BACKLOG_DEFUALT));
+            if (_unixDomainServerChannel != null) {
+                _unixDomainAcceptSelectorThread = new AcceptSelectorThread(this, "LRMI-Selector-Accept-Thread-unix-" + _port,
+                        _unixDomainServerChannel);
+                _logger.info("Listening to incoming local connections on {}", UnixDomainSockets.getSocketFile(_port));
+            } else {
+                _unixDomainAcceptSelectorThread = null;
+            }
         } catch (IOException e) {
             waitWhileFinish();
             throw e;
@@ -137,9 +150,14 @@ public class SelectorManager extends ManagedRunnable {
             }
         }
 
+        if (_unixDomainServerChannel != null)
+            UnixDomainSockets.unbind(_unixDomainServerChannel, _port);
+
         // accept handler
         if (_acceptSelectorThread != null)
             _acceptSelectorThread.requestShutdown();
+        if (_unixDomainAcceptSelectorThread != null)
+            _unixDomainAcceptSelectorThread.requestShutdown();
 
         // close readers
         for (ReadSelectorThread selectorThread : _readSelectorThread) {
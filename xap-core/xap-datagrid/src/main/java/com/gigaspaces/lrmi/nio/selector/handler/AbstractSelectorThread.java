@@ -17,6 +17,7 @@
 package com.gigaspaces.lrmi.nio.selector.handler;
 
 import com.gigaspaces.logger.Constants;
+import com.gigaspaces.lrmi.nio.NIOUtils;
 import com.gigaspaces.time.SystemTime;
 import com.j_spaces.kernel.ManagedRunnable;
 import org.slf4j.Logger;
@@ -180,11 +181,13 @@ public abstract class AbstractSelectorThread extends ManagedRunnable implements
     protected void closeChannel(SocketChannel channel) {
         if (channel == null)
             return;
-        Socket socket = channel.socket();
+        Socket socket = NIOUtils.getSocket(channel);
         try {
-            socket.shutdownInput();
-            socket.shutdownOutput();
-            socket.close();
+            if (socket != null) {
+                socket.shutdownInput();
+                socket.shutdownOutput();
+                socket.close();
+            }
         } catch (IOException ex) {
             if (_logger.isDebugEnabled()) {
                 _logger.debug("error while closing a key", ex);
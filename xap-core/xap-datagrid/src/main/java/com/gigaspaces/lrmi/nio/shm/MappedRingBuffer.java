@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.gigaspaces.internal.utils.concurrent.UnsafeHolder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A single producer single consumer byte ring over a region of a direct (usually memory mapped)
+ * buffer, which can be shared between processes.
+ *
+ * The region starts with the consumer position and the producer position, each on its own cache
+ * line, followed by the data. Positions only grow, the producer publishes written bytes with an
+ * ordered store of its position and the consumer frees them the same way with its own position.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class MappedRingBuffer {
+    private static final int HEAD_OFFSET = 0;
+    private static final int TAIL_OFFSET = 64;
+    private static final int DATA_OFFSET = 128;
+
+    private final ByteBuffer _data;
+    private final int _dataOffset;
+    private final int _capacity;
+    private final long _headAddress;
+    private final long _tailAddress;
+
+    //positions of this side and the last seen position of the other side
+    private long _head;
+    private long _tail;
+
+    /**
+     * @param buffer direct buffer which contains the region
+     * @param offset offset of the region in the buffer
+     * @param size   size of the region, see {@link #regionSize(int)}
+     */
+    public MappedRingBuffer(ByteBuffer buffer, int offset, int size) {
+        if (size <= DATA_OFFSET)
+            throw new IllegalArgumentException("Region size is too small: " + size);
+        this._data = buffer.duplicate();
+        this._dataOffset = offset + DATA_OFFSET;
+        this._capacity = size - DATA_OFFSET;
+        long address = UnsafeHolder.getDirectBufferAddress(buffer) + offset;
+        this._headAddress = address + HEAD_OFFSET;
+        this._tailAddress = address + TAIL_OFFSET;
+        this._head = UnsafeHolder.getLongVolatile(_headAddress);
+        this._tail = UnsafeHolder.getLongVolatile(_tailAddress);
+    }
+
+    /**
+     * @return the size of a region which holds the specified number of data bytes
+     */
+    public static int regionSize(int capacity) {
+        return DATA_OFFSET + capacity;
+    }
+
+    public int capacity() {
+        return _capacity;
+    }
+
+    /**
+     * Writes as many bytes as there is free space for, may only be called by the producer.
+     *
+     * @return the number of bytes written, 0 if the ring is full
+     */
+    public int write(byte[] src, int off, int len) {
+        long tail = _tail;
+        int free = _capacity - (int) (tail - _head);
+        if (free < len) {
+            _head = UnsafeHolder.getLongVolatile(_headAddress);
+            free = _capacity - (int) (tail - _head);
+        }
+        int count = Math.min(free, len);
+        if (count == 0)
+            return 0;
+
+        int index = (int) (tail % _capacity);
+        int first = Math.min(count, _capacity - index);
+        copyIn(index, src, off, first);
+        if (first < count)
+            copyIn(0, src, off + first, count - first);
+
+        _tail = tail + count;
+        UnsafeHolder.putOrderedLong(_tailAddress, _tail);
+        return count;
+    }
+
+    /**
+     * Reads as many bytes as are available, may only be called by the consumer.
+     *
+     * @return the number of bytes read, 0 if the ring is empty
+     */
+    public int read(byte[] dst, int off, int len) {
+        long head = _head;
+        int available = (int) (_tail - head);
+        if (available < len) {
+            _tail = UnsafeHolder.getLongVolatile(_tailAddress);
+            available = (int) (_tail - head);
+        }
+        int count = Math.min(available, len);
+        if (count == 0)
+            return 0;
+
+        int index = (int) (head % _capacity);
+        int first = Math.min(count, _capacity - index);
+        copyOut(index, dst, off, first);
+        if (first < count)
+            copyOut(0, dst, off + first, count - first);
+
+        _head = head + count;
+        UnsafeHolder.putOrderedLong(_headAddress, _head);
+        return count;
+    }
+
+    /**
+     * @return true if there are bytes to read, may only be called by the consumer
+     */
+    public boolean isReadable() {
+        return UnsafeHolder.getLongVolatile(_tailAddress) != _head;
+    }
+
+    /**
+     * @return true if there is free space to write to, may only be called by the producer
+     */
+    public boolean isWritable() {
+        return _tail - UnsafeHolder.getLongVolatile(_headAddress) < _capacity;
+    }
+
+    private void copyIn(int index, byte[] src, int off, int len) {
+        _data.position(_dataOffset + index);
+        _data.put(src, off, len);
+    }
+
+    private void copyOut(int index, byte[] dst, int off, int len) {
+        _data.position(_dataOffset + index);
+        _data.get(dst, off, len);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.gigaspaces.internal.version.PlatformVersion;
+import com.gigaspaces.serialization.SmartExternalizable;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.rmi.UnmarshalException;
+
+/**
+ * Sent by a client over an established NIO connection to ask the server to serve the invocations
+ * of this connection through the specified shared memory file as well.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SharedMemoryAttachRequest implements SmartExternalizable {
+    // DO NOT CHANGE. use SERIAL_VERSION instead.
+    private static final long serialVersionUID = 1L;
+    private static final byte SERIAL_VERSION = Byte.MIN_VALUE;
+
+    private String _path;
+
+    //For Externalizable
+    public SharedMemoryAttachRequest() {
+    }
+
+    public SharedMemoryAttachRequest(String path) {
+        _path = path;
+    }
+
+    public String getPath() {
+        return _path;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        byte serialVersion = in.readByte();
+        if (serialVersion != SERIAL_VERSION)
+            throw new UnmarshalException("Requested version [" + serialVersion + "] does not match local version [" + SERIAL_VERSION + "]. Please make sure you are using the same version on both ends, service version is " + PlatformVersion.getOfficialVersion());
+        _path = in.readUTF();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(SERIAL_VERSION);
+        out.writeUTF(_path);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.gigaspaces.exception.lrmi.ApplicationException;
+import com.gigaspaces.exception.lrmi.ProtocolException;
+import com.gigaspaces.internal.io.GSByteArrayInputStream;
+import com.gigaspaces.internal.io.GSByteArrayOutputStream;
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
+import com.gigaspaces.internal.lrmi.ConnectionUrlDescriptor;
+import com.gigaspaces.internal.lrmi.LRMILatencyMonitor;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.lrmi.ConnectionPool;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
+import com.gigaspaces.lrmi.LRMILatencyPhase;
+import com.gigaspaces.lrmi.LRMIMethod;
+import com.gigaspaces.lrmi.OperationPriority;
+import com.gigaspaces.lrmi.nio.CPeer;
+import com.gigaspaces.lrmi.nio.NIOUtils;
+import com.gigaspaces.lrmi.nio.PAdapter;
+import com.gigaspaces.lrmi.nio.Pivot;
+import com.gigaspaces.lrmi.nio.ReplyPacket;
+import com.gigaspaces.lrmi.nio.RequestPacket;
+import com.gigaspaces.lrmi.nio.selector.handler.client.ClientConversationRunner;
+import com.gigaspaces.lrmi.nio.selector.handler.client.ClientHandler;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.rmi.ConnectException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+
+/**
+ * A client peer which sends synchronous invocations to a server on the same host through a shared
+ * memory channel.
+ *
+ * The peer connects over NIO as usual and then asks the server to attach a shared memory file to
+ * the connection. Asynchronous, one way and callback invocations, and every invocation of a peer
+ * whose server is remote or did not attach, go through NIO.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SharedMemoryCPeer extends CPeer {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    private final MarshalInputStream.Context _streamContext = MarshalInputStream.createContext();
+    private volatile SharedMemoryChannel _sharedMemoryChannel;
+
+    public SharedMemoryCPeer(PAdapter pAdapter, ClientHandler handler, ClientConversationRunner clientConversationRunner,
+                             PlatformLogicalVersion serviceVersion) {
+        super(pAdapter, handler, clientConversationRunner, serviceVersion);
+    }
+
+    @Override
+    public synchronized void connect(String connectionURL, LRMIMethod lrmiMethod) throws MalformedURLException, RemoteException {
+        super.connect(connectionURL, lrmiMethod);
+        //older servers don't know the attach request
+        if (NIOUtils.isLocalHost(ConnectionUrlDescriptor.fromUrl(connectionURL).getHostname())
+                && getServiceVersion().greaterOrEquals(PlatformLogicalVersion.getLogicalVersion()))
+            attach();
+    }
+
+    private void attach() throws RemoteException {
+        SharedMemoryChannel channel;
+        try {
+            channel = SharedMemoryChannel.create(Integer.getInteger(SystemProperties.LRMI_SHARED_MEMORY_RING_SIZE,
+                    SystemProperties.LRMI_SHARED_MEMORY_RING_SIZE_DEFAULT));
+        } catch (IOException e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Failed to create shared memory file for connection [" + getConnectionURL() + "], using NIO", e);
+            return;
+        }
+
+        ReplyPacket<Object> reply;
+        try {
+            getWriter().writeRequest(new RequestPacket(new SharedMemoryAttachRequest(channel.getFile().getAbsolutePath())));
+            reply = getReader().readReply(true);
+        } catch (Exception e) {
+            channel.close();
+            disconnect();
+            throw new ConnectException("Connect Failed to [" + getConnectionURL() + "]", e);
+        } finally {
+            //the server has mapped the file by now, the OS frees it once both sides close it
+            channel.getFile().delete();
+        }
+
+        if (reply.getException() != null) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Server did not attach shared memory to connection [" + getConnectionURL() + "], using NIO", reply.getException());
+            channel.close();
+            return;
+        }
+        _sharedMemoryChannel = channel;
+        if (_logger.isDebugEnabled())
+            _logger.debug("Attached shared memory file " + channel.getFile() + " to connection [" + getConnectionURL() + "]");
+    }
+
+    @Override
+    public Object invoke(Object proxy, LRMIMethod lrmiMethod, Object[] args, ConnectionPool connPool)
+            throws ApplicationException, ProtocolException, RemoteException, InterruptedException {
+        SharedMemoryChannel channel = _sharedMemoryChannel;
+        if (channel == null || lrmiMethod.isAsync || lrmiMethod.isOneWay || lrmiMethod.isCallBack
+                || LRMIInvocationContext.getCurrentContext().isCallbackMethod())
+            return super.invoke(proxy, lrmiMethod, args, connPool);
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        long clientClassLoaderId = getClassProvider().putClassLoader(contextClassLoader);
+        RequestPacket requestPacket = new RequestPacket(getObjectId(), lrmiMethod.orderId, args, false, false, lrmiMethod,
+                clientClassLoaderId, OperationPriority.REGULAR, getServiceVersion());
+
+        GSByteArrayOutputStream bos = new GSByteArrayOutputStream();
+        try {
+            MarshalOutputStream mos = new MarshalOutputStream(bos, false);
+            try {
+                requestPacket.writeExternal(mos);
+                mos.flush();
+            } finally {
+                mos.closeContext();
+            }
+        } catch (Exception e) {
+            throw new ProtocolException("LRMI transport protocol over shared memory failed to marshal request to [" + getConnectionURL() + "]", e);
+        }
+
+        byte[] replyBytes;
+        final long startTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
+        try {
+            channel.writeFrame(bos.getBuffer(), 0, bos.size());
+            replyBytes = channel.readFrame();
+        } catch (IOException e) {
+            disconnect();
+            throw new ConnectException("LRMI transport protocol over shared memory broken connection with ServerEndPoint: [" + getConnectionURL() + "]", e);
+        }
+        if (LRMILatencyMonitor.isEnabled())
+            LRMILatencyMonitor.record(Pivot.extractMonitoringId(requestPacket), LRMILatencyPhase.CLIENT_ROUND_TRIP, System.nanoTime() - startTime);
+
+        ReplyPacket<Object> replyPacket = new ReplyPacket<Object>();
+        try {
+            replyPacket.readExternal(new MarshalInputStream(new GSByteArrayInputStream(replyBytes), _streamContext));
+        } catch (Exception e) {
+            throw new ProtocolException("LRMI transport protocol over shared memory failed to unmarshal reply from [" + getConnectionURL() + "]", e);
+        }
+
+        Exception exception = replyPacket.getException();
+        if (exception == null)
+            return replyPacket.getResult();
+        if (exception instanceof NoSuchObjectException)
+            disconnect();
+        if (exception instanceof ApplicationException)
+            throw (ApplicationException) exception;
+        if (exception instanceof RemoteException)
+            throw (RemoteException) exception;
+        if (exception instanceof RuntimeException)
+            throw (RuntimeException) exception;
+        throw new ProtocolException("LRMI transport protocol over shared memory connection [" + getConnectionURL() + "] caught unexpected exception: " + exception, exception);
+    }
+
+    @Override
+    public void disconnect() {
+        SharedMemoryChannel channel = _sharedMemoryChannel;
+        if (channel != null) {
+            _sharedMemoryChannel = null;
+            channel.close();
+        }
+        super.disconnect();
+    }
+}
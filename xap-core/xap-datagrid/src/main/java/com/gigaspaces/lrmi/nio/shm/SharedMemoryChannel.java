@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.gigaspaces.internal.utils.concurrent.UnsafeHolder;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.lrmi.nio.NIOUtils;
+import com.gigaspaces.start.SystemInfo;
+import com.j_spaces.kernel.SystemProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A duplex frame channel over a memory mapped file, made of a request ring written by the client
+ * and a reply ring written by the server.
+ *
+ * A blocked side spins, then yields and finally waits on a doorbell, a loopback datagram socket
+ * whose port is published in the file header, since a thread of another process can't be unparked.
+ * A waiting side raises its waiting flag in the header before it checks the ring again, and a side
+ * which writes or reads bytes clears the flag of the other side and rings its doorbell, so a
+ * wakeup is not lost. Each side holds a lock on its own byte of the file, which the OS releases if
+ * the process dies, so a side which waits for a long time checks that the other side is still
+ * alive.
+ *
+ * The files are created with owner only permissions in a directory which is private to the user,
+ * and the length of a frame is verified before it is allocated.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SharedMemoryChannel implements Closeable {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    private static final int MAGIC = 0x47534D31;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RING_SIZE_OFFSET = 4;
+    private static final int CLIENT_LOCK_OFFSET = 8;
+    private static final int SERVER_LOCK_OFFSET = 9;
+    private static final int CLIENT_DOORBELL_OFFSET = 12;
+    private static final int SERVER_DOORBELL_OFFSET = 16;
+    private static final int CLOSED_OFFSET = 64;
+    private static final int CLIENT_WAITING_OFFSET = 72;
+    private static final int SERVER_WAITING_OFFSET = 80;
+    private static final int HEADER_SIZE = 128;
+
+    //spinning only delays the other side when both share a single processor
+    private static final int SPIN_ITERATIONS = Runtime.getRuntime().availableProcessors() > 1 ? 10000 : 0;
+    private static final int YIELD_ITERATIONS = 100;
+    //bounds the wait for a doorbell which is lost, e.g. if the datagram is dropped
+    private static final int MAX_WAIT_MILLIS = 100;
+    private static final long LIVENESS_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_FRAME_SIZE = Integer.getInteger(SystemProperties.LRMI_SHARED_MEMORY_MAX_FRAME_SIZE,
+            SystemProperties.LRMI_SHARED_MEMORY_MAX_FRAME_SIZE_DEFAULT);
+
+    private static final AtomicLong _fileIdGenerator = new AtomicLong();
+
+    private final File _file;
+    private final RandomAccessFile _raf;
+    private final FileChannel _fileChannel;
+    private final FileLock _lock;
+    private final long _closedAddress;
+    private final int _peerLockOffset;
+    private final long _waitingAddress;
+    private final long _peerWaitingAddress;
+    private final int _peerDoorbellOffset;
+    private final DatagramSocket _doorbell;
+    private final DatagramPacket _doorbellPacket = new DatagramPacket(new byte[1], 1);
+    private final MappedRingBuffer _out;
+    private final MappedRingBuffer _in;
+    private final byte[] _writeLengthBuffer = new byte[4];
+    private final byte[] _readLengthBuffer = new byte[4];
+    //keeps the mapping alive as long as the channel is used
+    @SuppressWarnings("FieldCanBeLocal")
+    private final MappedByteBuffer _buffer;
+
+    private SharedMemoryChannel(File file, RandomAccessFile raf, boolean client, int ringSize) throws IOException {
+        this._file = file;
+        this._raf = raf;
+        this._fileChannel = raf.getChannel();
+        int regionSize = MappedRingBuffer.regionSize(ringSize);
+        if (client)
+            raf.setLength(HEADER_SIZE + 2L * regionSize);
+        this._buffer = _fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + 2L * regionSize);
+        this._lock = _fileChannel.tryLock(client ? CLIENT_LOCK_OFFSET : SERVER_LOCK_OFFSET, 1, false);
+        if (_lock == null)
+            throw new IOException("Shared memory file " + file + " is already in use");
+        long address = UnsafeHolder.getDirectBufferAddress(_buffer);
+        this._closedAddress = address + CLOSED_OFFSET;
+        this._peerLockOffset = client ? SERVER_LOCK_OFFSET : CLIENT_LOCK_OFFSET;
+        this._waitingAddress = address + (client ? CLIENT_WAITING_OFFSET : SERVER_WAITING_OFFSET);
+        this._peerWaitingAddress = address + (client ? SERVER_WAITING_OFFSET : CLIENT_WAITING_OFFSET);
+        this._peerDoorbellOffset = client ? SERVER_DOORBELL_OFFSET : CLIENT_DOORBELL_OFFSET;
+        this._doorbell = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try {
+            _doorbell.setSoTimeout(MAX_WAIT_MILLIS);
+            _buffer.putInt(client ? CLIENT_DOORBELL_OFFSET : SERVER_DOORBELL_OFFSET, _doorbell.getLocalPort());
+            if (client) {
+                _buffer.putInt(RING_SIZE_OFFSET, ringSize);
+                _buffer.putInt(MAGIC_OFFSET, MAGIC);
+            }
+        } catch (IOException e) {
+            _doorbell.close();
+            throw e;
+        }
+        MappedRingBuffer requestRing = new MappedRingBuffer(_buffer, HEADER_SIZE, regionSize);
+        MappedRingBuffer replyRing = new MappedRingBuffer(_buffer, HEADER_SIZE + regionSize, regionSize);
+        this._out = client ? requestRing : replyRing;
+        this._in = client ? replyRing : requestRing;
+    }
+
+    /**
+     * Creates the client side of a new channel in the shared memory directory.
+     */
+    public static SharedMemoryChannel create(int ringSize) throws IOException {
+        File dir = getDirectory();
+        NIOUtils.checkPrivateDirectory(dir, true);
+        File file = new File(dir, "lrmi-shm-" + SystemInfo.singleton().os().processId() + "-" + _fileIdGenerator.incrementAndGet() + ".ring");
+        Path path = file.toPath();
+        if (path.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        else
+            Files.createFile(path);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            return new SharedMemoryChannel(file, raf, true, ringSize);
+        } catch (IOException e) {
+            raf.close();
+            file.delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the server side of a channel created by a client.
+     */
+    public static SharedMemoryChannel open(File file) throws IOException {
+        if (!file.getParentFile().getCanonicalFile().equals(getDirectory().getCanonicalFile()))
+            throw new IOException("Shared memory file " + file + " is not in the shared memory directory");
+        NIOUtils.checkPrivateDirectory(getDirectory(), false);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC)
+                throw new IOException("Illegal shared memory file " + file);
+            int ringSize = raf.readInt();
+            if (raf.length() != HEADER_SIZE + 2L * MappedRingBuffer.regionSize(ringSize))
+                throw new IOException("Illegal shared memory file " + file);
+            return new SharedMemoryChannel(file, raf, false, ringSize);
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the directory of the shared memory files
+     */
+    public static File getDirectory() {
+        String dir = System.getProperty(SystemProperties.LRMI_SHARED_MEMORY_DIR);
+        return dir != null ? new File(dir) : new File(System.getProperty("java.io.tmpdir"), "gigaspaces-lrmi-" + System.getProperty("user.name"));
+    }
+
+    public File getFile() {
+        return _file;
+    }
+
+    /**
+     * Writes a frame, blocks while the other side has not consumed enough of the previous ones.
+     */
+    public void writeFrame(byte[] bytes, int offset, int length) throws IOException {
+        _writeLengthBuffer[0] = (byte) (length >>> 24);
+        _writeLengthBuffer[1] = (byte) (length >>> 16);
+        _writeLengthBuffer[2] = (byte) (length >>> 8);
+        _writeLengthBuffer[3] = (byte) length;
+        write(_writeLengthBuffer, 0, 4);
+        write(bytes, offset, length);
+    }
+
+    /**
+     * Reads the next frame, blocks until it is fully written by the other side.
+     */
+    public byte[] readFrame() throws IOException {
+        read(_readLengthBuffer, 0, 4);
+        int length = ((_readLengthBuffer[0] & 0xFF) << 24) | ((_readLengthBuffer[1] & 0xFF) << 16)
+                | ((_readLengthBuffer[2] & 0xFF) << 8) | (_readLengthBuffer[3] & 0xFF);
+        if (length < 0 || length > MAX_FRAME_SIZE)
+            throw new IOException("Illegal frame length: " + length + ", max frame size is " + MAX_FRAME_SIZE);
+        byte[] frame = new byte[length];
+        read(frame, 0, length);
+        return frame;
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        int idleIterations = 0;
+        long idleStart = 0;
+        while (length > 0) {
+            int count = _out.write(bytes, offset, length);
+            if (count > 0) {
+                offset += count;
+                length -= count;
+                idleIterations = 0;
+                wakePeer();
+            } else {
+                if (idleIterations == 0)
+                    idleStart = System.nanoTime();
+                idle(idleIterations++, idleStart, false);
+            }
+        }
+    }
+
+    private void read(byte[] bytes, int offset, int length) throws IOException {
+        int idleIterations = 0;
+        long idleStart = 0;
+        while (length > 0) {
+            int count = _in.read(bytes, offset, length);
+            if (count > 0) {
+                offset += count;
+                length -= count;
+                idleIterations = 0;
+                wakePeer();
+            } else {
+                if (idleIterations == 0)
+                    idleStart = System.nanoTime();
+                idle(idleIterations++, idleStart, true);
+            }
+        }
+    }
+
+    private void idle(int iteration, long idleStart, boolean reading) throws IOException {
+        if (iteration < SPIN_ITERATIONS)
+            return;
+        if (isClosed())
+            throw new ClosedChannelException();
+        if (iteration < SPIN_ITERATIONS + YIELD_ITERATIONS) {
+            Thread.yield();
+            return;
+        }
+        //the flag is raised before the ring is checked again, so bytes which are transferred meanwhile ring the doorbell
+        UnsafeHolder.putLongVolatile(_waitingAddress, 1);
+        try {
+            if (!(reading ? _in.isReadable() : _out.isWritable()) && !isClosed())
+                waitForDoorbell();
+        } finally {
+            UnsafeHolder.putOrderedLong(_waitingAddress, 0);
+        }
+        if (Thread.interrupted())
+            throw new IOException("Interrupted while waiting on shared memory file " + _file);
+        if (System.nanoTime() - idleStart > LIVENESS_CHECK_INTERVAL && !isPeerAlive())
+            throw new IOException("The process on the other side of shared memory file " + _file + " is not alive");
+    }
+
+    private void waitForDoorbell() throws IOException {
+        try {
+            _doorbell.receive(_doorbellPacket);
+        } catch (SocketTimeoutException e) {
+            //checks the ring, the channel and the other side again
+        }
+    }
+
+    /**
+     * Rings the doorbell of the other side if it waits for this side to transfer bytes.
+     */
+    private void wakePeer() {
+        //the compare and swap also orders the flag check after the ring position which was just published
+        if (!UnsafeHolder.compareAndSwapLong(_peerWaitingAddress, 1, 0))
+            return;
+        int port = _buffer.getInt(_peerDoorbellOffset);
+        if (port == 0)
+            return;
+        try {
+            _doorbell.send(new DatagramPacket(new byte[1], 1, InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            //the other side wakes up by its wait timeout
+            if (_logger.isDebugEnabled())
+                _logger.debug("Failed to ring the doorbell of shared memory file " + _file, e);
+        }
+    }
+
+    private boolean isPeerAlive() {
+        try {
+            FileLock peerLock = _fileChannel.tryLock(_peerLockOffset, 1, false);
+            if (peerLock == null)
+                return true;
+            peerLock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            //the other side is in this process
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public boolean isClosed() {
+        return UnsafeHolder.getLongVolatile(_closedAddress) != 0;
+    }
+
+    /**
+     * Closes this side and signals the other side that the channel is closed.
+     */
+    public void close() {
+        UnsafeHolder.putLongVolatile(_closedAddress, 1);
+        wakePeer();
+        _doorbell.close();
+        try {
+            _raf.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
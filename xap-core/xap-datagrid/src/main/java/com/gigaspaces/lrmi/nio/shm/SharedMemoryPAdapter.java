@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.gigaspaces.internal.utils.concurrent.UnsafeHolder;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.lrmi.nio.CPeer;
+import com.gigaspaces.lrmi.nio.PAdapter;
+import com.j_spaces.kernel.SystemProperties;
+
+/**
+ * The NIO protocol adapter with shared memory connections to servers on the same host, used
+ * instead of {@link PAdapter} when {@link SystemProperties#LRMI_SHARED_MEMORY_ENABLED} is set.
+ *
+ * It keeps the NIO protocol name, so stubs and exported objects are not affected, and its servers
+ * accept both NIO clients and shared memory clients.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SharedMemoryPAdapter extends PAdapter {
+    private static final boolean ENABLED = Boolean.getBoolean(SystemProperties.LRMI_SHARED_MEMORY_ENABLED) && UnsafeHolder.isAvailable();
+
+    public SharedMemoryPAdapter() {
+    }
+
+    /**
+     * @return true if shared memory connections are enabled at this process
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    @Override
+    public CPeer getClientPeer(PlatformLogicalVersion serviceVersion) {
+        return new SharedMemoryCPeer(this, getClientHandler(), getClientConversationRunner(), serviceVersion);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.gigaspaces.internal.io.GSByteArrayInputStream;
+import com.gigaspaces.internal.io.GSByteArrayOutputStream;
+import com.gigaspaces.internal.io.MarshalInputStream;
+import com.gigaspaces.internal.io.MarshalOutputStream;
+import com.gigaspaces.internal.lrmi.LRMILatencyMonitor;
+import com.gigaspaces.internal.utils.concurrent.GSThread;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.logger.Constants;
+import com.gigaspaces.lrmi.LRMIInvocationContext;
+import com.gigaspaces.lrmi.LRMIInvocationContext.InvocationStage;
+import com.gigaspaces.lrmi.LRMIInvocationContext.ProxyWriteType;
+import com.gigaspaces.lrmi.LRMILatencyPhase;
+import com.gigaspaces.lrmi.LRMIRuntime;
+import com.gigaspaces.lrmi.ObjectRegistry;
+import com.gigaspaces.lrmi.classloading.protocol.lrmi.LRMIConnection;
+import com.gigaspaces.lrmi.nio.Pivot;
+import com.gigaspaces.lrmi.nio.ReplyPacket;
+import com.gigaspaces.lrmi.nio.RequestPacket;
+import com.j_spaces.kernel.ClassLoaderHelper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.rmi.MarshalException;
+
+/**
+ * Serves the invocations a client sends through a shared memory channel. Each connection has its
+ * own thread which executes the requests, so the caller waiting on the other side of the channel
+ * gets its reply without any hand-off between threads.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SharedMemoryServerConnection implements Runnable, Closeable {
+    private static final Logger _logger = LoggerFactory.getLogger(Constants.LOGGER_LRMI);
+
+    private final SharedMemoryChannel _channel;
+    private final PlatformLogicalVersion _sourceLogicalVersion;
+    private final InetSocketAddress _clientEndPointAddress;
+    private final MarshalInputStream.Context _streamContext = MarshalInputStream.createContext();
+
+    private SharedMemoryServerConnection(SharedMemoryChannel channel, PlatformLogicalVersion sourceLogicalVersion,
+                                         InetSocketAddress clientEndPointAddress) {
+        this._channel = channel;
+        this._sourceLogicalVersion = sourceLogicalVersion;
+        this._clientEndPointAddress = clientEndPointAddress;
+    }
+
+    /**
+     * Opens the shared memory file of the request and starts serving it.
+     *
+     * @throws IOException if shared memory is disabled at this side or the file can't be used
+     */
+    public static SharedMemoryServerConnection attach(SharedMemoryAttachRequest request, PlatformLogicalVersion sourceLogicalVersion,
+                                                      InetSocketAddress clientEndPointAddress) throws IOException {
+        if (!SharedMemoryPAdapter.isEnabled())
+            throw new IOException("Shared memory transport is disabled");
+        SharedMemoryChannel channel = SharedMemoryChannel.open(new File(request.getPath()));
+        SharedMemoryServerConnection connection = new SharedMemoryServerConnection(channel, sourceLogicalVersion, clientEndPointAddress);
+        GSThread.daemon(connection, "LRMI-SharedMemory-Connection-" + channel.getFile().getName()).start();
+        if (_logger.isDebugEnabled())
+            _logger.debug("Serving client " + clientEndPointAddress + " through shared memory file " + channel.getFile());
+        return connection;
+    }
+
+    public void run() {
+        try {
+            while (true) {
+                byte[] frame = _channel.readFrame();
+                GSByteArrayOutputStream reply = handleRequest(frame);
+                _channel.writeFrame(reply.getBuffer(), 0, reply.size());
+            }
+        } catch (IOException e) {
+            if (_logger.isDebugEnabled())
+                _logger.debug("Shared memory connection with client " + _clientEndPointAddress + " closed", e);
+        } finally {
+            _channel.close();
+        }
+    }
+
+    private GSByteArrayOutputStream handleRequest(byte[] frame) throws IOException {
+        ReplyPacket<Object> replyPacket;
+        RequestPacket requestPacket = new RequestPacket();
+        String monitoringId = null;
+        long startTime = LRMILatencyMonitor.isEnabled() ? System.nanoTime() : 0;
+        try {
+            //We do not need a new snapshot because this is called by a thread which we control
+            LRMIInvocationContext.updateContext(null, ProxyWriteType.UNCACHED, InvocationStage.SERVER_UNMARSHAL_REQUEST, _sourceLogicalVersion, null, false, null, _clientEndPointAddress);
+            //callbacks and remote class loading are not served through shared memory
+            LRMIConnection.clearConnection();
+            try {
+                requestPacket.readExternal(new MarshalInputStream(new GSByteArrayInputStream(frame), _streamContext));
+                if (LRMILatencyMonitor.isEnabled()) {
+                    monitoringId = Pivot.extractMonitoringId(requestPacket);
+                    startTime = recordPhase(monitoringId, LRMILatencyPhase.SERVER_UNMARSHAL, startTime);
+                }
+                LRMIInvocationContext.updateContext(null, null, InvocationStage.INVOCATION_HANDLING, null, null, false, null, null);
+                Object result = LRMIRuntime.getRuntime().invoked(requestPacket.getObjectId(),
+                        requestPacket.getInvokeMethod().realMethod,
+                        requestPacket.getArgs());
+                replyPacket = new ReplyPacket<Object>(result, null);
+            } catch (Exception e) {
+                replyPacket = new ReplyPacket<Object>(null, e);
+            } finally {
+                requestPacket.restorePreviousLRMIRemoteClassLoaderState();
+            }
+            if (LRMILatencyMonitor.isEnabled())
+                startTime = recordPhase(monitoringId, LRMILatencyPhase.SERVER_EXECUTION, startTime);
+
+            LRMIInvocationContext.updateContext(null, null, InvocationStage.SERVER_MARSHAL_REPLY, null, null, false, null, null);
+            try {
+                return marshall(replyPacket, requestPacket.getObjectId());
+            } catch (IOException e) {
+                return marshall(new ReplyPacket<Object>(null, new MarshalException("Failed to marshal reply: " + e, e)), requestPacket.getObjectId());
+            } finally {
+                if (LRMILatencyMonitor.isEnabled())
+                    recordPhase(monitoringId, LRMILatencyPhase.SERVER_WRITE_REPLY, startTime);
+            }
+        } finally {
+            //Reset context once the invocation is complete
+            LRMIInvocationContext.resetContext();
+        }
+    }
+
+    private static long recordPhase(String monitoringId, LRMILatencyPhase phase, long startTime) {
+        long endTime = System.nanoTime();
+        LRMILatencyMonitor.record(monitoringId, phase, endTime - startTime);
+        return endTime;
+    }
+
+    private static GSByteArrayOutputStream marshall(ReplyPacket<Object> replyPacket, long objectId) throws IOException {
+        ObjectRegistry.Entry entry = LRMIRuntime.getRuntime().getRegistryObject(objectId);
+        ClassLoader orgThreadCL = Thread.currentThread().getContextClassLoader();
+        ClassLoader marshalClassLoader = entry != null ? entry.getExportedThreadClassLoader() : orgThreadCL;
+
+        final boolean changeCL = orgThreadCL != marshalClassLoader;
+        if (changeCL)
+            ClassLoaderHelper.setContextClassLoader(marshalClassLoader, true /*ignore security*/);
+        GSByteArrayOutputStream bos = new GSByteArrayOutputStream();
+        MarshalOutputStream mos = new MarshalOutputStream(bos, false);
+        try {
+            replyPacket.writeExternal(mos);
+            mos.flush();
+        } finally {
+            mos.closeContext();
+            if (changeCL)
+                ClassLoaderHelper.setContextClassLoader(orgThreadCL, true /*ignore security*/);
+        }
+        return bos;
+    }
+
+    /**
+     * Closes the channel, the serving thread exits once it notices.
+     */
+    public void close() {
+        _channel.close();
+    }
+}
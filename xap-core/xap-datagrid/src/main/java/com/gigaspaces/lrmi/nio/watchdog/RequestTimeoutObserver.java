@@ -23,6 +23,8 @@ import com.gigaspaces.logger.LogLevel;
 import com.gigaspaces.lrmi.ConnectionResource;
 import com.gigaspaces.lrmi.LRMIUtilities;
 import com.gigaspaces.lrmi.nio.CPeer;
+import com.gigaspaces.lrmi.nio.NIOUtils;
+import com.gigaspaces.lrmi.nio.UnixDomainSockets;
 import com.gigaspaces.lrmi.nio.async.AsyncContext;
 import com.gigaspaces.lrmi.nio.watchdog.Watchdog.WatchedObject;
 import com.gigaspaces.time.SystemTime;
@@ -69,6 +71,13 @@ public class RequestTimeoutObserver
      * @see nio.watchdog.TimeoutObserver#timeoutOccured(nio.watchdog.Watchdog.WatchedObject)
      */
     public void timeoutOccured(Collection<WatchedObject> bucket) throws Exception {
+        //a unix domain socket can't be probed with a new TCP connection, a dead local peer is reported by the OS
+        WatchedObject first = bucket.iterator().next();
+        if (UnixDomainSockets.isUnixDomain(first.getSocket())) {
+            first.startWatch();
+            return;
+        }
+
         SocketAddress serverAddress = null;
 
         // Check if the server is still alive
@@ -151,7 +160,7 @@ public class RequestTimeoutObserver
         String localAddress = "not connected";
         if (socketChannel != null) {
             //Avoid possible NPE if socket gets disconnected
-            Socket socket = socketChannel.socket();
+            Socket socket = NIOUtils.getSocket(socketChannel);
             if (socket != null) {
                 SocketAddress localSocketAddress = socket.getLocalSocketAddress();
                 //Avoid possible NPE if socket gets disconnected
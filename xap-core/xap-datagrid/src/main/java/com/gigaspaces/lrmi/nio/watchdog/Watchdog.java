@@ -22,18 +22,20 @@ import com.gigaspaces.internal.utils.concurrent.GSThread;
 import com.gigaspaces.logger.Constants;
 import com.gigaspaces.logger.LogLevel;
 import com.gigaspaces.lrmi.ConnectionResource;
+import com.gigaspaces.lrmi.nio.NIOUtils;
 import com.j_spaces.core.service.ServiceConfigLoader;
 import com.j_spaces.kernel.SystemProperties;
 
 import java.lang.ref.WeakReference;
+import java.net.Socket;
 import java.net.SocketAddress;
 import java.nio.channels.SocketChannel;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -269,6 +271,13 @@ public class Watchdog extends GSThread {
      * WatchdogGroup is a group of objects that are monitored by the Watchdog. Each WatchdogGroup
      * instance has its own configuration.
      *
+     * Watched objects are kept in a hashed timing wheel with a slot per logical clock tick, so a
+     * clock tick only visits the objects whose timeout may be due at it rather than all the watched
+     * objects. All the objects of a group share the same timeout, so the wheel covers a single
+     * timeout and needs no rounds. An object sits in at most one slot, restarting or stopping its
+     * watch only updates its start time and the object is moved to the right slot, or dropped, when
+     * its current slot is due.
+     *
      * @author anna
      * @version 1.0
      * @since 5.1
@@ -285,7 +294,7 @@ public class Watchdog extends GSThread {
         final private TimeoutObserver _observer;
 
         // Logical timer
-        private int _timerLogical;
+        private volatile int _timerLogical;
 
         // Watchdog timeout in logical clock ticks
         final private int _timeoutLogical;
@@ -293,11 +302,10 @@ public class Watchdog extends GSThread {
         // Watchdog wait interval between checks
         final private long _waitInterval;
 
-        // Objects monitored by the watchdog
+        // Objects monitored by the watchdog, by the logical clock tick their timeout is due at
         // ClientPeer is disconnected at finalize()
         // therefore WeakReference is used to avoid memory leaks and unclosed connections
-        final private LinkedBlockingQueue<WeakReference<WatchedObject>> _watchedObjects =
-                new LinkedBlockingQueue<WeakReference<WatchedObject>>();
+        final private ConcurrentLinkedQueue<WeakReference<WatchedObject>>[] _wheel;
 
         // Flag to indicate whether timeout should be executed,
         // next clock tick
@@ -312,6 +320,7 @@ public class Watchdog extends GSThread {
          * @param timeout           watchdog group timeout in milliseconds
          * @param timeoutResolution in percents
          */
+        @SuppressWarnings("unchecked")
         public WatchdogGroup(String name, long timeout, int timeoutResolution,
                              TimeoutObserver observer) {
             super();
@@ -326,36 +335,68 @@ public class Watchdog extends GSThread {
             // Calculate thread time to live for the logical timer
             _timeoutLogical = (int) (_timeout / _waitInterval);
 
+            // An object started at the current tick is due _timeoutLogical ticks later, one more slot
+            // is needed for objects started while the watchdog advances the clock. The number of slots
+            // is a power of two so consecutive ticks keep mapping to consecutive slots when the logical
+            // timer overflows
+            _wheel = new ConcurrentLinkedQueue[Integer.highestOneBit(_timeoutLogical + 1) << 1];
+            for (int i = 0; i < _wheel.length; i++)
+                _wheel[i] = new ConcurrentLinkedQueue<WeakReference<WatchedObject>>();
+        }
+
+        /**
+         * Puts the given watched object in the slot of the given logical clock tick, ticks which
+         * were already processed are replaced by the next one.
+         */
+        private void schedule(WatchedObject watched, int tick) {
+            int nextTick = _timerLogical;
+            if (tick - nextTick < 0)
+                tick = nextTick;
+            _wheel[slotIndex(tick)].add(watched._reference);
+        }
+
+        private int slotIndex(int tick) {
+            return tick & (_wheel.length - 1);
         }
 
         /**
          * Timeout all thread that exceeded their time to live
          */
-        private void timeout() throws Exception {
+        void timeout() throws Exception {
             // Update watchdog timer
             int t = _timerLogical++;
 
             // Update current time
             _time += _waitInterval;
             Map<WatchedObject, Collection<WatchedObject>> watchedObjects = new HashMap<WatchedObject, Collection<WatchedObject>>();
-            for (Iterator<WeakReference<WatchedObject>> iter = _watchedObjects.iterator(); iter.hasNext(); ) {
-                WeakReference<WatchedObject> w = iter.next();
+            ConcurrentLinkedQueue<WeakReference<WatchedObject>> slot = _wheel[slotIndex(t)];
+            // Objects which are put back in this slot go to its tail, so only the current ones are visited
+            for (int pending = slot.size(); pending > 0; pending--) {
+                WeakReference<WatchedObject> w = slot.poll();
+                if (w == null)
+                    break;
                 WatchedObject watched = w.get();
 
-                if (watched == null || !watched.isInUse()) {
-                    iter.remove();
+                if (watched == null || !watched.isInUse())
                     continue;
-                }
                 int time = watched.getTime();
 
                 // Check if the watched object is waiting or not
                 // -1 means that the object is not currently under watch
-                if (time == UNWATCHED)
+                if (time == UNWATCHED) {
+                    watched.unschedule();
                     continue;
+                }
 
-                // Check if the watched object exceeded its waiting time
-                if (t - time < _timeoutLogical)
+                // Check if the watched object exceeded its waiting time, otherwise it was restarted
+                // since it was put in this slot
+                if (t - time < _timeoutLogical) {
+                    schedule(watched, time + _timeoutLogical);
                     continue;
+                }
+
+                // Keep checking it every tick until its watch is restarted or stopped
+                schedule(watched, t + 1);
 
                 if (_logger.isDebugEnabled()) {
                     //log request timeouts as FINE, listening as FINER, idle as FINEST
@@ -405,7 +446,7 @@ public class Watchdog extends GSThread {
          * @param sock socket
          */
         public WatchedObject addRequestWatch(SocketChannel sock, ConnectionResource client) {
-            return addWatch(new WatchedObject(this, sock, client));
+            return new WatchedObject(this, sock, client);
 
         }
 
@@ -415,28 +456,14 @@ public class Watchdog extends GSThread {
          * @param sock socket
          */
         public WatchedObject addResponseWatch(SocketChannel sock, ConnectionResource client) {
-            return addWatch(new ResponseWatchedObject(this, sock, client));
+            return new ResponseWatchedObject(this, sock, client);
         }
 
         /**
          * Add CPeer to the watched objects (idle group)
          */
         public WatchedObject addIdleWatch(ConnectionResource client) {
-            return addWatch(new ClientWatchedObject(this, client));
-        }
-
-        /**
-         * Adds given WatchedObject to the watched objects
-         */
-        private WatchedObject addWatch(WatchedObject watched) {
-            try {
-                _watchedObjects.put(new WeakReference<WatchedObject>(watched));
-            } catch (InterruptedException e) {
-                // if calling thread was interrupted
-                // restore the interrupted status and return
-                interrupt();
-            }
-            return watched;
+            return new ClientWatchedObject(this, client);
         }
 
         /**
@@ -462,9 +489,17 @@ public class Watchdog extends GSThread {
      * @since 5.1
      */
     static public class WatchedObject {
+        private static final AtomicIntegerFieldUpdater<WatchedObject> SCHEDULED_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(WatchedObject.class, "_scheduled");
 
         // Last time this object was added to watch
-        private int _time = UNWATCHED;
+        private volatile int _time = UNWATCHED;
+
+        // 1 while this object is in a slot of its group timing wheel
+        private volatile int _scheduled;
+
+        // The reference held by the timing wheel
+        private final WeakReference<WatchedObject> _reference = new WeakReference<WatchedObject>(this);
         // The socket to watch
         private final SocketChannel _socket;
 
@@ -512,7 +547,24 @@ public class Watchdog extends GSThread {
          * Start watching
          */
         public void startWatch() {
-            _time = _watchdogGroup._timerLogical;
+            int time = _watchdogGroup._timerLogical;
+            // The logical timer passes through the unwatched flag when it overflows
+            if (time == UNWATCHED)
+                time++;
+            _time = time;
+            if (_scheduled == 0 && SCHEDULED_UPDATER.compareAndSet(this, 0, 1))
+                _watchdogGroup.schedule(this, time + _watchdogGroup._timeoutLogical);
+        }
+
+        /**
+         * Called by the watchdog when it takes a stopped object out of the timing wheel
+         */
+        private void unschedule() {
+            _scheduled = 0;
+            // A watch started meanwhile may have seen this object as scheduled and left it to us
+            int time = _time;
+            if (time != UNWATCHED && SCHEDULED_UPDATER.compareAndSet(this, 0, 1))
+                _watchdogGroup.schedule(this, time + _watchdogGroup._timeoutLogical);
         }
 
         /**
@@ -551,8 +603,8 @@ public class Watchdog extends GSThread {
         public boolean equals(Object obj) {
             if (!(obj instanceof WatchedObject))
                 return false;
-            SocketAddress myAddress = _socket.socket().getRemoteSocketAddress();
-            SocketAddress hisAddress = ((WatchedObject) obj)._socket.socket().getRemoteSocketAddress();
+            SocketAddress myAddress = getRemoteSocketAddress(_socket);
+            SocketAddress hisAddress = getRemoteSocketAddress(((WatchedObject) obj)._socket);
             if (myAddress != null)
                 return myAddress.equals(hisAddress);
             return false;
@@ -560,12 +612,17 @@ public class Watchdog extends GSThread {
 
         @Override
         public int hashCode() {
-            SocketAddress address = _socket.socket().getRemoteSocketAddress();
+            SocketAddress address = getRemoteSocketAddress(_socket);
             if (null == address)
                 return 0;
             return address.hashCode();
         }
 
+        private static SocketAddress getRemoteSocketAddress(SocketChannel socketChannel) {
+            Socket socket = NIOUtils.getSocket(socketChannel);
+            return socket != null ? socket.getRemoteSocketAddress() : null;
+        }
+
         // used to map watchdog logs to a specific method invocation
         public String getMonitoringId() {
             return monitoringId;
@@ -62,7 +62,14 @@ public enum SpaceIndexType {
      * Index that supports both equality and comparison.
      * @since 12.3
      */
-    EQUAL_AND_ORDERED;
+    EQUAL_AND_ORDERED,
+    /**
+     * Index that supports equality, intended for low-cardinality properties. In addition to the
+     * equality index, the entries holding each value are kept in a compressed bitmap so that
+     * conjunctions and disjunctions of several such properties are resolved by bitmap operations.
+     * @since 16.5
+     */
+    BITMAP;
 
     /**
      * @return true if this index type indicates an indexed state, false otherwise.
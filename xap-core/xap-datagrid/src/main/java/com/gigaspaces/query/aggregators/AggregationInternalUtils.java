@@ -52,6 +52,8 @@ public class AggregationInternalUtils {
         result.add(SpaceIteratorAggregator.class);
         result.add(SingleValueFunctionAggregator.class);
         result.add(SingleValueAggregator.class);
+        result.add(ApproximateDistinctCountAggregator.class);
+        result.add(ApproximatePercentileAggregator.class);
         return result;
     }
 
@@ -94,6 +96,19 @@ public class AggregationInternalUtils {
         return false;
     }
 
+    /**
+     * @return true if the aggregators can be split to several aggregators whose intermediate
+     * results are then merged within the partition
+     * @since 16.5
+     */
+    public static boolean supportsParallelAggregation(List<SpaceEntriesAggregator> aggregators) {
+        for (SpaceEntriesAggregator aggregator : aggregators) {
+            if (aggregator instanceof SpaceIteratorAggregator)
+                return false;
+        }
+        return !containsCustomAggregators(aggregators);
+    }
+
     public static List<SpaceEntriesAggregator> getSelectors(GroupByAggregator aggregator) {
         return aggregator.getSelectAggregators();
     }
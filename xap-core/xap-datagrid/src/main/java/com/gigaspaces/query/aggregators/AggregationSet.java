@@ -37,6 +37,8 @@ public class AggregationSet implements SmartExternalizable {
     private static final long serialVersionUID = 1L;
 
     private final ArrayList<SpaceEntriesAggregator> aggregators = new ArrayList<SpaceEntriesAggregator>();
+    //not serialized, it only applies to the aggregate operation this set is passed to
+    private transient boolean parallel;
 
     public AggregationSet() {
     }
@@ -120,6 +122,29 @@ public class AggregationSet implements SmartExternalizable {
         return add(new MinEntryAggregator().setPath(path));
     }
 
+    /**
+     * Estimates the number of distinct path values of matching entries.
+     *
+     * @param path Path to inspect
+     * @see ApproximateDistinctCountAggregator
+     * @since 16.5
+     */
+    public AggregationSet approximateDistinctCount(String path) {
+        return add(new ApproximateDistinctCountAggregator().setPath(path));
+    }
+
+    /**
+     * Estimates a percentile of path values of matching entries.
+     *
+     * @param path       Path to inspect (must be a numeric type)
+     * @param percentile Percentile to estimate, between 0 and 100
+     * @see ApproximatePercentileAggregator
+     * @since 16.5
+     */
+    public AggregationSet approximatePercentile(String path, double percentile) {
+        return add(new ApproximatePercentileAggregator().setPercentile(percentile).setPath(path));
+    }
+
     public AggregationSet groupBy(GroupByAggregator aggregator) {
         return add(aggregator);
     }
@@ -132,6 +157,26 @@ public class AggregationSet implements SmartExternalizable {
         return add(aggregator);
     }
 
+    /**
+     * Splits the aggregation within each partition and runs the parts concurrently, regardless of
+     * the space's <code>engine.aggregation.parallel</code> setting. Ignored for custom aggregators
+     * and for queries which cannot be split (e.g. FIFO, by uid or non in-memory).
+     *
+     * @since 16.5
+     */
+    public AggregationSet parallel() {
+        this.parallel = true;
+        return this;
+    }
+
+    /**
+     * @return true if {@link #parallel()} was requested
+     * @since 16.5
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
     public List<SpaceEntriesAggregator> getAggregators() {
         return aggregators;
     }
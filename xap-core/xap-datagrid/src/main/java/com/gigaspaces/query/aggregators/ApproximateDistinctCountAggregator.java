@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.query.aggregators;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Estimates the number of distinct path values of matching entries using a {@link
+ * HyperLogLogSketch}, so that each partition returns a fixed size sketch instead of its distinct
+ * values.
+ *
+ * @since 16.5
+ */
+public class ApproximateDistinctCountAggregator extends AbstractPathAggregator<HyperLogLogSketch> {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient HyperLogLogSketch result;
+
+    private int precision = HyperLogLogSketch.DEFAULT_PRECISION;
+
+    @Override
+    public String getDefaultAlias() {
+        return "approx_count_distinct(" + getPath() + ")";
+    }
+
+    @Override
+    public void aggregate(SpaceEntriesAggregatorContext context) {
+        Object value = getPathValue(context);
+        if (value != null) {
+            if (result == null)
+                result = new HyperLogLogSketch(precision);
+            result.add(value);
+        }
+    }
+
+    @Override
+    public void aggregateIntermediateResult(HyperLogLogSketch partitionResult) {
+        if (partitionResult == null)
+            return;
+        if (result == null)
+            result = partitionResult;
+        else
+            result.merge(partitionResult);
+    }
+
+    @Override
+    public HyperLogLogSketch getIntermediateResult() {
+        return result;
+    }
+
+    @Override
+    public Object getFinalResult() {
+        return result == null ? 0L : result.estimate();
+    }
+
+    @Override
+    public String getName() {
+        return "APPROX_COUNT_DISTINCT";
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * @param precision log2 of the number of registers, between 4 and 18. The standard error is
+     *                  about 1.04/sqrt(2^precision), 0.8% for the default of 14.
+     */
+    public ApproximateDistinctCountAggregator setPrecision(int precision) {
+        if (precision < HyperLogLogSketch.MIN_PRECISION || precision > HyperLogLogSketch.MAX_PRECISION)
+            throw new IllegalArgumentException("precision should be between " + HyperLogLogSketch.MIN_PRECISION + " and " + HyperLogLogSketch.MAX_PRECISION + " - " + precision);
+        this.precision = precision;
+        return this;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+        out.writeByte(precision);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        precision = in.readByte();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.query.aggregators;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Estimates a percentile of the numeric path values of matching entries using a {@link
+ * QuantileSketch}, so that each partition returns a bounded size sketch instead of its values. If
+ * no percentile is set the merged sketch itself is returned, to be queried for several
+ * percentiles.
+ *
+ * @since 16.5
+ */
+public class ApproximatePercentileAggregator extends AbstractPathAggregator<QuantileSketch> {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient QuantileSketch result;
+
+    private double percentile = -1;
+    private int accuracy = QuantileSketch.DEFAULT_K;
+
+    @Override
+    public String getDefaultAlias() {
+        return percentile < 0 ? "approx_percentiles(" + getPath() + ")" : "approx_percentile(" + getPath() + ", " + percentile + ")";
+    }
+
+    @Override
+    public void aggregate(SpaceEntriesAggregatorContext context) {
+        Number value = (Number) getPathValue(context);
+        if (value != null) {
+            if (result == null)
+                result = new QuantileSketch(accuracy);
+            result.add(value.doubleValue());
+        }
+    }
+
+    @Override
+    public void aggregateIntermediateResult(QuantileSketch partitionResult) {
+        if (partitionResult == null)
+            return;
+        if (result == null)
+            result = partitionResult;
+        else
+            result.merge(partitionResult);
+    }
+
+    @Override
+    public QuantileSketch getIntermediateResult() {
+        return result;
+    }
+
+    @Override
+    public Object getFinalResult() {
+        if (percentile < 0)
+            return result;
+        return result == null ? null : result.getQuantile(percentile / 100);
+    }
+
+    @Override
+    public String getName() {
+        return "APPROX_PERCENTILE";
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     */
+    public ApproximatePercentileAggregator setPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile should be between 0 and 100 - " + percentile);
+        this.percentile = percentile;
+        return this;
+    }
+
+    public int getAccuracy() {
+        return accuracy;
+    }
+
+    /**
+     * @param accuracy the k parameter of the sketch - the rank error is about 1.7/k, 0.85% for
+     *                 the default of 200, and the sketch keeps about 3k values.
+     */
+    public ApproximatePercentileAggregator setAccuracy(int accuracy) {
+        if (accuracy < 8)
+            throw new IllegalArgumentException("accuracy should be at least 8 - " + accuracy);
+        this.accuracy = accuracy;
+        return this;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        super.writeExternal(out);
+        out.writeDouble(percentile);
+        out.writeInt(accuracy);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        super.readExternal(in);
+        percentile = in.readDouble();
+        accuracy = in.readInt();
+    }
+}
@@ -80,6 +80,10 @@ public class AverageAggregator extends AbstractPathAggregator<AverageAggregator.
         return this;
     }
 
+    public boolean isWidest() {
+        return widest;
+    }
+
     public static class AverageTuple implements SmartExternalizable {
 
         private static final long serialVersionUID = 1L;
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.query.aggregators;
+
+import com.gigaspaces.serialization.SmartExternalizable;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * HyperLogLog estimation of the number of distinct values. Keeps 2^precision registers of one
+ * byte, with a standard error of about 1.04/sqrt(2^precision). Sketches of the same precision are
+ * merged by taking the maximum of each register.
+ *
+ * Values are hashed by their content for numbers and strings, and by {@link Object#hashCode()}
+ * otherwise, which should therefore be value based.
+ *
+ * @since 16.5
+ */
+public class HyperLogLogSketch implements SmartExternalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private int precision;
+    private byte[] registers;
+
+    /**
+     * Required for Externalizable
+     */
+    public HyperLogLogSketch() {
+    }
+
+    public HyperLogLogSketch(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+            throw new IllegalArgumentException("precision should be between " + MIN_PRECISION + " and " + MAX_PRECISION + " - " + precision);
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(Object value) {
+        addHash(hash(value));
+    }
+
+    private void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        //the marker bit bounds the rank when the remaining bits are all zero
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index])
+            registers[index] = rank;
+    }
+
+    public void merge(HyperLogLogSketch other) {
+        if (other.precision != precision)
+            throw new IllegalArgumentException("Cannot merge sketches of different precisions - " + precision + ", " + other.precision);
+        for (int i = 0; i < registers.length; i++)
+            if (other.registers[i] > registers[i])
+                registers[i] = other.registers[i];
+    }
+
+    /**
+     * @return the estimated number of distinct values added
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0)
+                zeros++;
+        }
+        double estimate = alpha(m) * m * m / sum;
+        //small range correction- linear counting
+        if (estimate <= 2.5 * m && zeros > 0)
+            estimate = m * Math.log((double) m / zeros);
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    static long hash(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return mix(((Number) value).longValue());
+        if (value instanceof Double || value instanceof Float)
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+        if (value instanceof String) {
+            //FNV-1a over the chars
+            String s = (String) value;
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+        return mix(value.hashCode());
+    }
+
+    //murmur3 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(precision);
+        int nonZero = 0;
+        for (byte register : registers)
+            if (register != 0)
+                nonZero++;
+        //low cardinalities are written as (index, register) pairs, 5 bytes each, when shorter than the registers
+        boolean sparse = nonZero * 5 < registers.length;
+        out.writeBoolean(sparse);
+        if (sparse) {
+            out.writeInt(nonZero);
+            for (int i = 0; i < registers.length; i++) {
+                if (registers[i] != 0) {
+                    out.writeInt(i);
+                    out.writeByte(registers[i]);
+                }
+            }
+        } else {
+            out.write(registers);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        precision = in.readByte();
+        registers = new byte[1 << precision];
+        if (in.readBoolean()) {
+            int nonZero = in.readInt();
+            for (int i = 0; i < nonZero; i++) {
+                int index = in.readInt();
+                registers[index] = in.readByte();
+            }
+        } else {
+            in.readFully(registers);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.gigaspaces.query.aggregators;
+
+import com.gigaspaces.serialization.SmartExternalizable;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * KLL sketch of a stream of numbers, answering quantile queries with a rank error of about
+ * 1.7/k. Values are kept in levels, a value at level h standing for 2^h values. A level which
+ * exceeds its capacity is sorted and every other value, starting at a random offset, is promoted to
+ * the next level. Sketches are merged by concatenating their levels and compacting.
+ *
+ * @since 16.5
+ */
+public class QuantileSketch implements SmartExternalizable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_CAPACITY = 2;
+
+    private int k;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double[][] levels;
+    private int[] sizes;
+
+    /**
+     * Required for Externalizable
+     */
+    public QuantileSketch() {
+    }
+
+    public QuantileSketch(int k) {
+        if (k < 8)
+            throw new IllegalArgumentException("k should be at least 8 - " + k);
+        this.k = k;
+        this.levels = new double[][]{new double[k]};
+        this.sizes = new int[1];
+    }
+
+    /**
+     * @return the number of values added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value))
+            return;
+        append(0, value);
+        count++;
+        updateMinMax(value, value);
+        compress();
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.count == 0)
+            return;
+        for (int h = 0; h < other.sizes.length; h++)
+            for (int i = 0; i < other.sizes[h]; i++)
+                append(h, other.levels[h][i]);
+        count += other.count;
+        updateMinMax(other.min, other.max);
+        compress();
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.99 for the 99th percentile
+     * @return the estimated value at the quantile, NaN if no value was added
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1)
+            throw new IllegalArgumentException("quantile should be between 0 and 1 - " + quantile);
+        if (count == 0)
+            return Double.NaN;
+        if (quantile == 0)
+            return min;
+        if (quantile == 1)
+            return max;
+
+        int total = 0;
+        for (int size : sizes)
+            total += size;
+        final double[] values = new double[total];
+        long[] weights = new long[total];
+        int pos = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[pos] = levels[h][i];
+                weights[pos++] = 1L << h;
+            }
+        }
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double target = quantile * count;
+        long cumulative = 0;
+        for (Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative >= target)
+                return values[i];
+        }
+        return max;
+    }
+
+    private void updateMinMax(double otherMin, double otherMax) {
+        if (Double.isNaN(min) || otherMin < min)
+            min = otherMin;
+        if (Double.isNaN(max) || otherMax > max)
+            max = otherMax;
+    }
+
+    private void append(int level, double value) {
+        if (level >= levels.length) {
+            int numOfLevels = levels.length;
+            levels = Arrays.copyOf(levels, level + 1);
+            for (int h = numOfLevels; h <= level; h++)
+                levels[h] = new double[MIN_CAPACITY * 2];
+            sizes = Arrays.copyOf(sizes, level + 1);
+        }
+        if (sizes[level] == levels[level].length)
+            levels[level] = Arrays.copyOf(levels[level], sizes[level] * 2);
+        levels[level][sizes[level]++] = value;
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private void compress() {
+        while (true) {
+            int total = 0;
+            int totalCapacity = 0;
+            for (int h = 0; h < levels.length; h++) {
+                total += sizes[h];
+                totalCapacity += capacity(h);
+            }
+            if (total <= totalCapacity)
+                return;
+            for (int h = 0; h < levels.length; h++) {
+                if (sizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        //an odd item stays at this level so that the total weight is kept
+        int kept = size % 2;
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+        for (int i = kept + offset; i < size; i += 2)
+            append(level + 1, items[i]);
+        //append may have replaced the levels array, not the items array of this level
+        sizes[level] = kept;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(sizes.length);
+        for (int h = 0; h < sizes.length; h++) {
+            out.writeInt(sizes[h]);
+            for (int i = 0; i < sizes[h]; i++)
+                out.writeDouble(levels[h][i]);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        k = in.readInt();
+        count = in.readLong();
+        min = in.readDouble();
+        max = in.readDouble();
+        int numOfLevels = in.readInt();
+        levels = new double[numOfLevels][];
+        sizes = new int[numOfLevels];
+        for (int h = 0; h < numOfLevels; h++) {
+            sizes[h] = in.readInt();
+            levels[h] = new double[Math.max(MIN_CAPACITY * 2, sizes[h])];
+            for (int i = 0; i < sizes[h]; i++)
+                levels[h][i] = in.readDouble();
+        }
+    }
+}
@@ -82,6 +82,10 @@ public class SumAggregator extends AbstractPathAggregator<MutableNumber> {
         return this;
     }
 
+    public boolean isWidest() {
+        return widest;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         super.writeExternal(out);
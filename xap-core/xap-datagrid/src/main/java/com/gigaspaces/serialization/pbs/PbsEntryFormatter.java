@@ -1230,7 +1230,9 @@ public class PbsEntryFormatter {
             output.writeInt(indexes.size());
             for (Entry<String, SpaceIndex> index : indexes.entrySet()) {
                 output.writeString(index.getKey());
-                output.writeByte(SpaceIndexTypeHelper.toCode(index.getValue().getIndexType()));
+                //PBS clients do not know bitmap indexes, which are also equality indexes
+                SpaceIndexType indexType = index.getValue().getIndexType();
+                output.writeByte(SpaceIndexTypeHelper.toCode(indexType == SpaceIndexType.BITMAP ? SpaceIndexType.EQUAL : indexType));
                 output.writeBoolean(index.getValue().isUnique());
             }
         }
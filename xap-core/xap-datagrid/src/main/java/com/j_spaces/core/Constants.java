@@ -416,6 +416,26 @@ public interface Constants {
         String ENGINE_QUERY_RESULT_SIZE_LIMIT_MEMORY_CHECK_BATCH_SIZE = "engine.query.result.size.limit.memory.check.batch.size";
         String ENGINE_QUERY_RESULT_SIZE_LIMIT_MEMORY_CHECK_BATCH_SIZE_DEFAULT = "0";
 
+        /**
+         * @since 16.5
+         */
+        String ENGINE_AGGREGATION_PARALLEL_PROP = "engine.aggregation.parallel";
+        String ENGINE_AGGREGATION_PARALLEL_DEFAULT = "false";
+        /**
+         * Number of threads used by a parallel aggregation, 0 for the number of available processors
+         *
+         * @since 16.5
+         */
+        String ENGINE_AGGREGATION_PARALLELISM_PROP = "engine.aggregation.parallelism";
+        String ENGINE_AGGREGATION_PARALLELISM_DEFAULT = "0";
+        /**
+         * Minimal number of entries of the queried types for an aggregation to run in parallel
+         *
+         * @since 16.5
+         */
+        String ENGINE_AGGREGATION_PARALLEL_MIN_ENTRIES_PROP = "engine.aggregation.parallel.min-entries";
+        String ENGINE_AGGREGATION_PARALLEL_MIN_ENTRIES_DEFAULT = "100000";
+
         String ENGINE_DEMOTE_MIN_TIMEOUT = "engine.demote.min-timeout";
         String ENGINE_DEMOTE_MIN_TIMEOUT_DEFAULT = "5s";
         String ENGINE_DEMOTE_COMPLETION_EVENT_TIMEOUT = "engine.demote.completion-event-timeout";
@@ -740,6 +760,32 @@ public interface Constants {
 
         String CACHE_MANAGER_USE_ECONOMY_HASHMAP_DEFAULT = "false";
 
+        /**
+         * comma separated list of ordered indexes, given as [type name].[index name], to be kept in
+         * a B+-tree instead of a skip-list. applies to long/int/short/byte indexed properties.
+         */
+        String CACHE_MANAGER_BPLUS_TREE_ORDERED_INDEXES_PROP = "engine.bplustree_ordered_indexes";
+
+        String CACHE_MANAGER_BPLUS_TREE_ORDERED_INDEXES_DEFAULT = "";
+
+        /**
+         * comma separated list of properties, given as [type name].[property name], to be kept in
+         * a columnar store for aggregations. applies to numeric and string fixed properties of
+         * memory resident types.
+         */
+        String CACHE_MANAGER_COLUMNAR_PROJECTION_PROP = "engine.columnar_projection";
+
+        String CACHE_MANAGER_COLUMNAR_PROJECTION_DEFAULT = "";
+
+        /**
+         * semicolon separated list of group-by aggregations which are maintained as entries
+         * change, each given as [name]:[type name]:[group by properties]:[functions], e.g.
+         * <code>byDesk:com.acme.Trade:region,desk:count(*),sum(quantity),max(price)</code>
+         */
+        String CACHE_MANAGER_MATERIALIZED_AGGREGATIONS_PROP = "engine.materialized_aggregations";
+
+        String CACHE_MANAGER_MATERIALIZED_AGGREGATIONS_DEFAULT = "";
+
         String CACHE_MANAGER_PARTIAL_UPDATE_REPLICATION_PROP = "engine.partial_update_replication";
 
         String CACHE_MANAGER_PARTIAL_UPDATE_REPLICATION_DEFAULT = "true";
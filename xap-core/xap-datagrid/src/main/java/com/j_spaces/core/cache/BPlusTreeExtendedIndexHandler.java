@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.utils.collections.ConcurrentBPlusTreeMap;
+import com.gigaspaces.internal.utils.collections.PrimitiveKeyConcurrentHashMap;
+import com.j_spaces.kernel.IStoredList;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Extended index over long/int/short/byte values backed by a B+-tree which keeps the values
+ * unboxed, instead of a skip-list. Not applicable to fifo-groups indexes which require the skip-list
+ * ordered store.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class BPlusTreeExtendedIndexHandler<K> extends ExtendedIndexHandler<K> {
+    private final ConcurrentBPlusTreeMap<IStoredList<IEntryCacheInfo>> _tree;
+    private final ConcurrentMap<Object, IEntryCacheInfo> _uniqueTree;
+
+    public BPlusTreeExtendedIndexHandler(TypeDataIndex index, PrimitiveKeyConcurrentHashMap.KeyType keyType) {
+        super(index, null /*orderedStore*/);
+        _tree = new ConcurrentBPlusTreeMap<IStoredList<IEntryCacheInfo>>(keyType);
+        _uniqueTree = index.isUniqueIndex() ? (ConcurrentMap<Object, IEntryCacheInfo>) ((ConcurrentMap) _tree) : null;
+    }
+
+    public static boolean isSupportedValueType(Class<?> valueClass) {
+        return PrimitiveKeyConcurrentHashMap.isSupportedKeyType(valueClass);
+    }
+
+    @Override
+    public ConcurrentSkipListMap<Object, IStoredList<IEntryCacheInfo>> getOrderedStore() {
+        return null;
+    }
+
+    @Override
+    public ConcurrentMap<Object, IStoredList<IEntryCacheInfo>> getNonUniqueEntriesStore() {
+        return _tree;
+    }
+
+    @Override
+    public ConcurrentMap<Object, IEntryCacheInfo> getUniqueEntriesStore() {
+        return _uniqueTree;
+    }
+
+    @Override
+    public IStoredList<IEntryCacheInfo> getIndexEntries(K indexValue) {
+        return _tree.get(indexValue);
+    }
+
+    @Override
+    protected Iterator<IStoredList<IEntryCacheInfo>> scanValues(Object startPos, boolean startInclusive, Object endPos, boolean endPosInclusive, boolean descending) {
+        return _tree.valuesIterator(startPos, startInclusive, endPos, endPosInclusive, descending);
+    }
+
+    @Override
+    public Object getMin() {
+        return _tree.firstKey();
+    }
+
+    @Override
+    public Object getMax() {
+        return _tree.lastKey();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.utils.collections.CompressedBitmap;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps, for each value of a {@link com.gigaspaces.metadata.index.SpaceIndexType#BITMAP} index, a
+ * compressed bitmap of the ordinals of the entries holding that value. Maintained alongside the
+ * regular equality index stores, used by compound AND/OR scans.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class BitmapIndexHandler<K> {
+    private final ConcurrentHashMap<Object, ValueBitmap> _bitmaps = new ConcurrentHashMap<Object, ValueBitmap>();
+    private final EntryOrdinals _ordinals;
+
+    public BitmapIndexHandler(EntryOrdinals ordinals) {
+        _ordinals = ordinals;
+    }
+
+    public EntryOrdinals getOrdinals() {
+        return _ordinals;
+    }
+
+    void insertEntryIndexedField(IEntryCacheInfo pEntry, K fieldValue) {
+        int ordinal = _ordinals.acquire(pEntry);
+        while (true) {
+            ValueBitmap bitmap = _bitmaps.get(fieldValue);
+            if (bitmap == null) {
+                bitmap = new ValueBitmap();
+                ValueBitmap other = _bitmaps.putIfAbsent(fieldValue, bitmap);
+                if (other != null)
+                    bitmap = other;
+            }
+            synchronized (bitmap) {
+                if (bitmap._detached)
+                    continue; //emptied and removed concurrently - retry
+                if (bitmap._bits.add(ordinal))
+                    return;
+            }
+            _ordinals.release(pEntry); //already a member
+            return;
+        }
+    }
+
+    void removeEntryIndexedField(IEntryCacheInfo pEntry, K fieldValue) {
+        int ordinal = _ordinals.ordinalOf(pEntry);
+        if (ordinal < 0)
+            return;
+        ValueBitmap bitmap = _bitmaps.get(fieldValue);
+        if (bitmap != null) {
+            synchronized (bitmap) {
+                if (!bitmap._bits.remove(ordinal))
+                    return; //not a member, don't release a reference held by another value/index
+                if (bitmap._bits.isEmpty()) {
+                    bitmap._detached = true;
+                    _bitmaps.remove(fieldValue, bitmap);
+                }
+            }
+            _ordinals.release(pEntry);
+        }
+    }
+
+    /**
+     * @return a snapshot of the ordinals of the entries holding the value, empty if none
+     */
+    public CompressedBitmap getBitmap(Object value) {
+        ValueBitmap bitmap = _bitmaps.get(value);
+        if (bitmap == null)
+            return new CompressedBitmap();
+        synchronized (bitmap) {
+            return bitmap._bits.copy();
+        }
+    }
+
+    /**
+     * @return the cardinality of the value's bitmap
+     */
+    public int getCardinality(Object value) {
+        ValueBitmap bitmap = _bitmaps.get(value);
+        if (bitmap == null)
+            return 0;
+        synchronized (bitmap) {
+            return bitmap._bits.cardinality();
+        }
+    }
+
+    /**
+     * @return the intersection of the given ordinals with the ordinals of the value, without copying
+     * the value's bitmap
+     */
+    public CompressedBitmap and(CompressedBitmap ordinals, Object value) {
+        ValueBitmap bitmap = _bitmaps.get(value);
+        if (bitmap == null)
+            return new CompressedBitmap();
+        synchronized (bitmap) {
+            return ordinals.and(bitmap._bits);
+        }
+    }
+
+    /**
+     * @return the union of the given ordinals with the ordinals of the value
+     */
+    public CompressedBitmap or(CompressedBitmap ordinals, Object value) {
+        ValueBitmap bitmap = _bitmaps.get(value);
+        if (bitmap == null)
+            return ordinals;
+        synchronized (bitmap) {
+            return ordinals.or(bitmap._bits);
+        }
+    }
+
+    private static final class ValueBitmap {
+        private final CompressedBitmap _bits = new CompressedBitmap();
+        private boolean _detached;
+    }
+}
@@ -2345,6 +2345,8 @@ public class CacheManager extends AbstractCacheManager
         } else {
             updateLock(pXtn, pEntry, context.getOperationID(), template.getTemplateOperation());
         }
+        if (template.getTemplateOperation() != SpaceOperations.READ && template.getTemplateOperation() != SpaceOperations.READ_IE)
+            pXtn.addChangedType(entryHolder.getServerTypeDesc().getTypeName());
 
         switch (template.getTemplateOperation()) {
             case SpaceOperations.READ:
@@ -3001,7 +3003,14 @@ public class CacheManager extends AbstractCacheManager
                 }
 
 
+                long previousExpiration = eh.getEntryData().getExpirationTime();
                 pEntry.getEntryHolder(this).setExpirationTime(time);
+                TypeData typeData = _typeDataMap.get(eh.getServerTypeDesc());
+                if (typeData != null && typeData.getColumnarStore() != null)
+                    typeData.getColumnarStore().updateExpiration(pEntry, time);
+                if (typeData != null && typeData.getMaterializedAggregations() != null)
+                    for (MaterializedAggregation aggregation : typeData.getMaterializedAggregations())
+                        aggregation.updateExpiration(pEntry, previousExpiration, time);
                 break;
 
             default: /* Notify Template */
@@ -3874,6 +3883,7 @@ public class CacheManager extends AbstractCacheManager
                 } else {
                     pXtn.getNewEntries(true/*createIfNull*/).add(pEntry);
                     lockEntry(pXtn, pEntry, context.getOperationID());
+                    pXtn.addChangedType(entryHolder.getServerTypeDesc().getTypeName());
                 }
                 pEntry.getEntryHolder(this).getXidOriginated().setOperatedUpon();
             }
@@ -3885,6 +3895,7 @@ public class CacheManager extends AbstractCacheManager
                 XtnData pXtn = entryHolder.getWriteLockOwner().getXtnData();
                 pXtn.getNewEntries(true/*createIfNull*/).add(pEntry);
                 lockEntry(pXtn, pEntry, context.getOperationID());
+                pXtn.addChangedType(entryHolder.getServerTypeDesc().getTypeName());
                 entryHolder.getWriteLockOwner().setOperatedUpon();
             }
 
@@ -4009,6 +4020,11 @@ public class CacheManager extends AbstractCacheManager
                     pEntry.getBackRefs().set(sequenceNumPlaceHolderPos + 1, pEntry.getBackRefs().remove(curpos));
             }
         }
+        if (pType.getColumnarStore() != null)
+            pType.getColumnarStore().insert(pEntry, pEntry.getEntryHolder(this).getEntryData());
+        if (pType.getMaterializedAggregations() != null)
+            for (MaterializedAggregation aggregation : pType.getMaterializedAggregations())
+                aggregation.insert(pEntry, pEntry.getEntryHolder(this).getEntryData());
     }
 
 
@@ -4159,6 +4175,11 @@ public class CacheManager extends AbstractCacheManager
             entryHolder.updateEntryData(newEntryData, newExpirationTime);
 
             typeData.updateEntryReferences(this, entryHolder, pEntry, originalEntryData);
+            if (typeData.getColumnarStore() != null)
+                typeData.getColumnarStore().update(pEntry, entryHolder.getEntryData());
+            if (typeData.getMaterializedAggregations() != null)
+                for (MaterializedAggregation aggregation : typeData.getMaterializedAggregations())
+                    aggregation.update(pEntry, originalEntryData, entryHolder.getEntryData());
 
             if (context.isReRegisterLeaseOnUpdate())
             //need to re-register in lease manager
@@ -4341,6 +4362,11 @@ public class CacheManager extends AbstractCacheManager
         boolean onError = numOfIndexesInsertedOnError > 0;
         int refpos = 1;
         pType.getEntries().remove(pEntry.getMainListBackRef());
+        if (pType.getColumnarStore() != null)
+            pType.getColumnarStore().remove(pEntry);
+        if (pType.getMaterializedAggregations() != null)
+            for (MaterializedAggregation aggregation : pType.getMaterializedAggregations())
+                aggregation.remove(pEntry, pEntry.getEntryHolder(this).getEntryData());
         int numIndexesProcessed = 0;
         if (pType.hasIndexes()) {
             IEntryData entryData = pEntry.getEntryHolder(this).getEntryData();
@@ -5136,7 +5162,8 @@ public class CacheManager extends AbstractCacheManager
                             continue; //ordered index not defined
                         }
                         indexUsed = true;
-                        if (resultOIS == null || entryType.isBlobStoreClass()) {
+                        //another range index is evaluated when the current one has an estimated size
+                        if (resultOIS == null || entryType.isBlobStoreClass() || resultOIS.hasSize()) {
                             final Object rangeValue = template.getRangeValue(pos);
                             final boolean isInclusive = rangeValue == null ? false : template.getRangeInclusion(pos);
                             //range limit passed- query with "up to" range
@@ -5150,6 +5177,11 @@ public class CacheManager extends AbstractCacheManager
                             }
                             if (resultOIS == null)
                                 return null;  //no values
+                            //keep the range scan with the smallest estimated size
+                            final boolean shorterScan = originalOIS == null || entryType.isBlobStoreClass()
+                                    || (resultOIS.hasSize() && resultOIS.size() < originalOIS.size());
+                            final boolean chosen = shorterScan && uidsSize == Integer.MAX_VALUE
+                                    && (resultSL == null || (resultOIS.hasSize() && resultOIS.size() < resultSL.size()));
 
                             if (context.getExplainPlanContext() != null) {
                                 if (context.getExplainPlanContext().getMatch() == null) {
@@ -5179,19 +5211,21 @@ public class CacheManager extends AbstractCacheManager
                                 else {
                                     indexInfo = new IndexInfo(entryType.getProperty(pos).getName(), indexSize, index.getIndexType(), templateValue, ExplainPlanUtil.getQueryOperator(extendedMatchCode));
                                 }
+                                if (resultOIS.hasSize())
+                                    indexInfo.setSize(resultOIS.size()); //estimated
                                 context.getExplainPlanContext().getMatch().addOption(indexInfo);
-                                if (resultSL == null && uidsSize == Integer.MAX_VALUE) {
+                                if (chosen) {
                                     context.getExplainPlanContext().getMatch().setChosen(indexInfo);
                                 }
                             }
 
-                            if (resultSL == null && uidsSize == Integer.MAX_VALUE) {
+                            if (chosen) {
                                 selectedShortestIndex = index;
                             }
 
                             if (context.isIndicesIntersectionEnabled())
                                 intersectedList = addToIntersectedList(context, intersectedList, resultOIS, template.isFifoTemplate(), false/*shortest*/, entryType);
-                            if (uidsSize != Integer.MAX_VALUE)
+                            if (uidsSize != Integer.MAX_VALUE || !shorterScan)
                                 resultOIS = originalOIS;
                         }
                         break; //evaluate
@@ -5224,7 +5258,9 @@ public class CacheManager extends AbstractCacheManager
             return resultOIS;
         }
 
-        if (resultOIS == null || (resultSL.size() < entryType.getEntries().size() && (uidsSize == Integer.MAX_VALUE || resultSL.size() <= uidsSize))) {
+        // a range scan is preferred only if its estimated size is smaller than the shortest list
+        final boolean shorterOIS = resultOIS != null && uidsSize == Integer.MAX_VALUE && resultOIS.hasSize() && resultOIS.size() < resultSL.size();
+        if (resultOIS == null || (!shorterOIS && resultSL.size() < entryType.getEntries().size() && (uidsSize == Integer.MAX_VALUE || resultSL.size() <= uidsSize))) {
             if (_logger.isTraceEnabled())
                 logSearchCompoundSelection(entryType, resultSL, compound_selection, compound_name);
             if (context.isIndicesIntersectionEnabled()) {
@@ -5754,6 +5790,11 @@ public class CacheManager extends AbstractCacheManager
             keptEntryData = shadowEh.getEntryData();
             pmaster.setBackRefs(shadowEh.getBackRefs());
             pmaster.getEntryHolder(this).restoreUpdateXtnRollback(shadowEh.getEntryData());
+            if (pType.getColumnarStore() != null)
+                pType.getColumnarStore().update(pmaster, keptEntryData);
+            if (pType.getMaterializedAggregations() != null)
+                for (MaterializedAggregation aggregation : pType.getMaterializedAggregations())
+                    aggregation.update(pmaster, deleteEntryData, keptEntryData);
         } else {
             if (shadowEh.getNumOfLeaseUpdates() > 0  /*!pmaster.isSameLeaseManagerRef(shadowEh)*/)
                 _leaseManager.unregister(shadowEh, shadowEh.getEntryData().getExpirationTime());
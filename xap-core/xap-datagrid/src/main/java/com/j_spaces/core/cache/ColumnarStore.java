@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.metadata.PropertyInfo;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+
+import net.jini.core.lease.Lease;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Column-wise copy of selected fixed properties of the entries of a type, kept in primitive
+ * arrays indexed by a dense row number, so that aggregations can scan a property without
+ * dereferencing and unboxing the entry values. Numbers are kept as longs (floating point numbers
+ * as their raw bits) and strings are dictionary encoded.
+ *
+ * Rows are written under a per-row sequence number - readers retry a row which was modified
+ * while being read. Dictionary codes are reference counted by the rows, a code which is no longer
+ * used is reused once no scan which could have read it is running.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ColumnarStore {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    public static final int MAX_COLUMNS = 64;
+
+    public enum Kind {
+        LONG, DOUBLE, DICTIONARY
+    }
+
+    private final Column[] _columns;
+    //number of running scans, see Dictionary
+    private final AtomicInteger _scans;
+    private final ConcurrentHashMap<IEntryCacheInfo, Integer> _rows = new ConcurrentHashMap<IEntryCacheInfo, Integer>();
+    private volatile Chunk[] _chunks = new Chunk[0];
+    //guards allocation of rows
+    private final Object _lock = new Object();
+    private int[] _free = new int[16];
+    private int _freeCount;
+    private int _nextRow;
+
+    private ColumnarStore(Column[] columns, AtomicInteger scans) {
+        _columns = columns;
+        _scans = scans;
+    }
+
+    /**
+     * @return a store of the given properties which have a supported type, null if there are none
+     */
+    public static ColumnarStore create(ITypeDesc typeDesc, List<String> properties) {
+        List<Column> columns = new ArrayList<Column>();
+        AtomicInteger scans = new AtomicInteger();
+        for (String property : properties) {
+            int pos = typeDesc.getFixedPropertyPosition(property);
+            if (pos < 0 || columns.size() == MAX_COLUMNS)
+                continue;
+            PropertyInfo propertyInfo = typeDesc.getFixedProperty(pos);
+            Kind kind = kindOf(propertyInfo.getType());
+            if (kind != null)
+                columns.add(new Column(property, pos, columns.size(), kind, propertyInfo.getType(), scans));
+        }
+        return columns.isEmpty() ? null : new ColumnarStore(columns.toArray(new Column[columns.size()]), scans);
+    }
+
+    public static Kind kindOf(Class<?> type) {
+        if (type == Long.class || type == long.class || type == Integer.class || type == int.class
+                || type == Short.class || type == short.class || type == Byte.class || type == byte.class)
+            return Kind.LONG;
+        if (type == Double.class || type == double.class || type == Float.class || type == float.class)
+            return Kind.DOUBLE;
+        if (type == String.class)
+            return Kind.DICTIONARY;
+        return null;
+    }
+
+    /**
+     * @return the column of the property or null if it is not kept by this store
+     */
+    public Column getColumn(String property) {
+        for (Column column : _columns)
+            if (column._name.equals(property))
+                return column;
+        return null;
+    }
+
+    public Column[] getColumns() {
+        return _columns;
+    }
+
+    public int size() {
+        return _rows.size();
+    }
+
+    void insert(IEntryCacheInfo pEntry, IEntryData entryData) {
+        int row = allocate();
+        Chunk chunk = _chunks[row >>> CHUNK_SHIFT];
+        int index = row & (CHUNK_SIZE - 1);
+        chunk._versions.incrementAndGet(index);
+        write(chunk, index, entryData, false);
+        chunk._entries.set(index, pEntry);
+        chunk._versions.incrementAndGet(index);
+        _rows.put(pEntry, row);
+    }
+
+    void update(IEntryCacheInfo pEntry, IEntryData entryData) {
+        Integer row = _rows.get(pEntry);
+        if (row == null)
+            return;
+        Chunk chunk = _chunks[row >>> CHUNK_SHIFT];
+        int index = row & (CHUNK_SIZE - 1);
+        chunk._versions.incrementAndGet(index);
+        write(chunk, index, entryData, true);
+        chunk._versions.incrementAndGet(index);
+    }
+
+    void updateExpiration(IEntryCacheInfo pEntry, long expirationTime) {
+        Integer row = _rows.get(pEntry);
+        if (row == null)
+            return;
+        Chunk chunk = _chunks[row >>> CHUNK_SHIFT];
+        int index = row & (CHUNK_SIZE - 1);
+        chunk._versions.incrementAndGet(index);
+        chunk._expirations.set(index, expirationTime);
+        chunk._versions.incrementAndGet(index);
+    }
+
+    void remove(IEntryCacheInfo pEntry) {
+        Integer row = _rows.remove(pEntry);
+        if (row == null)
+            return;
+        Chunk chunk = _chunks[row >>> CHUNK_SHIFT];
+        int index = row & (CHUNK_SIZE - 1);
+        chunk._versions.incrementAndGet(index);
+        chunk._entries.set(index, null);
+        chunk._versions.incrementAndGet(index);
+        releaseCodes(chunk, index);
+        free(row);
+    }
+
+    /**
+     * @param replace true if the row holds values whose dictionary codes should be released
+     */
+    private void write(Chunk chunk, int index, IEntryData entryData, boolean replace) {
+        long nulls = 0;
+        final long previousNulls = chunk._nulls.get(index);
+        for (Column column : _columns) {
+            Object value = entryData.getFixedPropertyValue(column._pos);
+            //the new code is taken before the previous one is released, so an unchanged value keeps its code
+            final long previous = chunk._values[column._index].get(index);
+            if (value == null)
+                nulls |= 1L << column._index;
+            else
+                chunk._values[column._index].set(index, column.encode(value));
+            if (replace && column._dictionary != null && (previousNulls & (1L << column._index)) == 0)
+                column._dictionary.release((int) previous);
+        }
+        chunk._nulls.set(index, nulls);
+        chunk._expirations.set(index, entryData.getExpirationTime());
+    }
+
+    private void releaseCodes(Chunk chunk, int index) {
+        final long nulls = chunk._nulls.get(index);
+        for (Column column : _columns)
+            if (column._dictionary != null && (nulls & (1L << column._index)) == 0)
+                column._dictionary.release((int) chunk._values[column._index].get(index));
+    }
+
+    /**
+     * Should be called before {@link #scan}, the dictionary codes read by the scan can be decoded
+     * until {@link #endScan()} is called
+     */
+    public void beginScan() {
+        _scans.incrementAndGet();
+    }
+
+    public void endScan() {
+        _scans.decrementAndGet();
+    }
+
+    /**
+     * Passes the given columns of each row to the consumer. Stops if a row can't be served from the
+     * store - an entry which may be under a transaction - in which case the caller should discard
+     * the partial result and use the regular scan.
+     *
+     * @param columns    the columns to read, their values are passed in this order
+     * @param leaseFilter rows which expired before this time are skipped, as a regular scan skips
+     *                    expired entries, Long.MIN_VALUE to keep them
+     * @return false if the scan was stopped
+     */
+    public boolean scan(CacheManager cacheManager, Column[] columns, long leaseFilter, RowConsumer consumer) {
+        long[] values = new long[columns.length];
+        Chunk[] chunks = _chunks;
+        boolean finiteLease = false;
+        for (Chunk chunk : chunks) {
+            for (int index = 0; index < CHUNK_SIZE; index++) {
+                IEntryCacheInfo pEntry = chunk._entries.get(index);
+                if (pEntry == null)
+                    continue;
+                long nulls = 0;
+                while (true) {
+                    int version = chunk._versions.get(index);
+                    if ((version & 1) != 0)
+                        continue; //being written
+                    pEntry = chunk._entries.get(index);
+                    if (pEntry == null)
+                        break;
+                    finiteLease = chunk._expirations.get(index) != Lease.FOREVER;
+                    nulls = 0;
+                    long rowNulls = chunk._nulls.get(index);
+                    for (int i = 0; i < columns.length; i++) {
+                        if ((rowNulls & (1L << columns[i]._index)) != 0)
+                            nulls |= 1L << i;
+                        else
+                            values[i] = chunk._values[columns[i]._index].get(index);
+                    }
+                    if (chunk._versions.get(index) == version)
+                        break;
+                }
+                if (pEntry == null)
+                    continue;
+                IEntryHolder entryHolder = pEntry.getEntryHolder(cacheManager);
+                if (entryHolder.isMaybeUnderXtn())
+                    return false;
+                if (entryHolder.isDeleted() || (finiteLease && entryHolder.isExpired(leaseFilter)))
+                    continue;
+                consumer.accept(values, nulls);
+            }
+        }
+        return true;
+    }
+
+    private int allocate() {
+        synchronized (_lock) {
+            if (_freeCount > 0)
+                return _free[--_freeCount];
+            int row = _nextRow++;
+            if ((row >>> CHUNK_SHIFT) == _chunks.length) {
+                Chunk[] chunks = Arrays.copyOf(_chunks, _chunks.length + 1);
+                chunks[chunks.length - 1] = new Chunk(_columns.length);
+                _chunks = chunks;
+            }
+            return row;
+        }
+    }
+
+    private void free(int row) {
+        synchronized (_lock) {
+            if (_freeCount == _free.length)
+                _free = Arrays.copyOf(_free, _freeCount * 2);
+            _free[_freeCount++] = row;
+        }
+    }
+
+    /**
+     * receives the values of a row, valid only during the call
+     */
+    public interface RowConsumer {
+        /**
+         * @param nulls bit i is set if the value of the i-th column is null
+         */
+        void accept(long[] values, long nulls);
+    }
+
+    public static final class Column {
+        private final String _name;
+        //fixed property position
+        private final int _pos;
+        private final int _index;
+        private final Kind _kind;
+        private final Class<?> _type;
+        private final Dictionary _dictionary;
+
+        private Column(String name, int pos, int index, Kind kind, Class<?> type, AtomicInteger scans) {
+            _name = name;
+            _pos = pos;
+            _index = index;
+            _kind = kind;
+            _type = type;
+            _dictionary = kind == Kind.DICTIONARY ? new Dictionary(scans) : null;
+        }
+
+        public String getName() {
+            return _name;
+        }
+
+        public Kind getKind() {
+            return _kind;
+        }
+
+        Dictionary getDictionary() {
+            return _dictionary;
+        }
+
+        private long encode(Object value) {
+            switch (_kind) {
+                case LONG:
+                    return ((Number) value).longValue();
+                case DOUBLE:
+                    return Double.doubleToRawLongBits(((Number) value).doubleValue());
+                default:
+                    return _dictionary.encode(value);
+            }
+        }
+
+        /**
+         * @return the stored value boxed as the property type
+         */
+        public Object decode(long value) {
+            switch (_kind) {
+                case LONG:
+                    if (_type == Integer.class || _type == int.class)
+                        return (int) value;
+                    if (_type == Short.class || _type == short.class)
+                        return (short) value;
+                    if (_type == Byte.class || _type == byte.class)
+                        return (byte) value;
+                    return value;
+                case DOUBLE:
+                    double d = Double.longBitsToDouble(value);
+                    if (_type == Float.class || _type == float.class)
+                        return (float) d;
+                    return d;
+                default:
+                    return _dictionary.decode((int) value);
+            }
+        }
+
+        /**
+         * @return the numeric value of a DOUBLE column value
+         */
+        public static double toDouble(long value) {
+            return Double.longBitsToDouble(value);
+        }
+    }
+
+    /**
+     * value <-> code. Each code counts the rows which hold it, and once no row does the value is
+     * dropped. A dropped code is not reused while a scan which started before it was dropped may
+     * still decode it, so the dictionary is bounded by the distinct values in the store plus the
+     * values dropped during running scans.
+     */
+    static final class Dictionary {
+        private final ConcurrentHashMap<Object, Code> _codes = new ConcurrentHashMap<Object, Code>();
+        private final AtomicInteger _scans;
+        private volatile Code[] _byCode = new Code[16];
+        //guarded by this
+        private int _size;
+        private int[] _free = new int[16];
+        private int _freeCount;
+        //dropped codes which a running scan may still decode
+        private int[] _dropped = new int[16];
+        private int _droppedCount;
+
+        Dictionary(AtomicInteger scans) {
+            _scans = scans;
+        }
+
+        int encode(Object value) {
+            Code code = _codes.get(value);
+            if (code != null && code.retain())
+                return code._code;
+            synchronized (this) {
+                code = _codes.get(value);
+                if (code != null) {
+                    //may be 0 if it is being released, which then keeps it
+                    code._refs.incrementAndGet();
+                    return code._code;
+                }
+                code = new Code(value, nextCode());
+                Code[] byCode = _byCode;
+                if (code._code >= byCode.length)
+                    byCode = Arrays.copyOf(byCode, byCode.length * 2);
+                byCode[code._code] = code;
+                _byCode = byCode;
+                _codes.put(value, code);
+                return code._code;
+            }
+        }
+
+        void release(int value) {
+            Code code = _byCode[value];
+            if (code._refs.decrementAndGet() != 0)
+                return;
+            synchronized (this) {
+                if (code._refs.get() != 0 || _codes.get(code._value) != code)
+                    return;
+                _codes.remove(code._value);
+                if (_droppedCount == _dropped.length)
+                    _dropped = Arrays.copyOf(_dropped, _droppedCount * 2);
+                _dropped[_droppedCount++] = code._code;
+            }
+        }
+
+        Object decode(int code) {
+            return _byCode[code]._value;
+        }
+
+        /**
+         * @return the number of values held by rows
+         */
+        int size() {
+            return _codes.size();
+        }
+
+        /**
+         * @return the number of codes allocated, held, dropped or free
+         */
+        synchronized int capacity() {
+            return _size;
+        }
+
+        private int nextCode() {
+            if (_freeCount == 0 && _droppedCount != 0 && _scans.get() == 0) {
+                if (_free.length < _droppedCount)
+                    _free = new int[_dropped.length];
+                System.arraycopy(_dropped, 0, _free, 0, _droppedCount);
+                _freeCount = _droppedCount;
+                _droppedCount = 0;
+            }
+            if (_freeCount != 0)
+                return _free[--_freeCount];
+            return _size++;
+        }
+    }
+
+    private static final class Code {
+        private final Object _value;
+        private final int _code;
+        //number of rows holding the code
+        private final AtomicInteger _refs = new AtomicInteger(1);
+
+        private Code(Object value, int code) {
+            _value = value;
+            _code = code;
+        }
+
+        /**
+         * @return false if the code is being dropped
+         */
+        private boolean retain() {
+            while (true) {
+                int refs = _refs.get();
+                if (refs == 0)
+                    return false;
+                if (_refs.compareAndSet(refs, refs + 1))
+                    return true;
+            }
+        }
+    }
+
+    private static final class Chunk {
+        private final AtomicReferenceArray<IEntryCacheInfo> _entries = new AtomicReferenceArray<IEntryCacheInfo>(CHUNK_SIZE);
+        //odd while the row is being written
+        private final AtomicIntegerArray _versions = new AtomicIntegerArray(CHUNK_SIZE);
+        private final AtomicLongArray _expirations = new AtomicLongArray(CHUNK_SIZE);
+        private final AtomicLongArray _nulls = new AtomicLongArray(CHUNK_SIZE);
+        private final AtomicLongArray[] _values;
+
+        private Chunk(int numOfColumns) {
+            _values = new AtomicLongArray[numOfColumns];
+            for (int i = 0; i < numOfColumns; i++)
+                _values[i] = new AtomicLongArray(CHUNK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dense per-type numbering of the entries which are referenced by bitmap indexes. An entry gets an
+ * ordinal when first inserted to a bitmap index and releases it when removed from the last one, so
+ * the ordinals of live entries stay compact and the bitmaps stay small. Released ordinals are
+ * reused.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class EntryOrdinals {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private final ConcurrentHashMap<IEntryCacheInfo, Ordinal> _ordinals = new ConcurrentHashMap<IEntryCacheInfo, Ordinal>();
+    //ordinal -> entry, read without locking
+    private volatile AtomicReferenceArray<IEntryCacheInfo>[] _chunks = new AtomicReferenceArray[0];
+    //guards allocation of ordinals
+    private final Object _lock = new Object();
+    private int[] _free = new int[16];
+    private int _freeCount;
+    private int _nextOrdinal;
+
+    /**
+     * @return the ordinal of the entry, allocating one if the entry has none
+     */
+    public int acquire(IEntryCacheInfo pEntry) {
+        return _ordinals.compute(pEntry, (entry, current) -> {
+            if (current == null)
+                current = new Ordinal(allocate(entry));
+            current._refs++;
+            return current;
+        })._value;
+    }
+
+    /**
+     * releases one reference to the entry's ordinal, the ordinal is freed when unreferenced
+     */
+    public void release(IEntryCacheInfo pEntry) {
+        _ordinals.computeIfPresent(pEntry, (entry, current) -> {
+            if (--current._refs > 0)
+                return current;
+            free(current._value);
+            return null;
+        });
+    }
+
+    /**
+     * @return the ordinal of the entry or -1 if it has none
+     */
+    public int ordinalOf(IEntryCacheInfo pEntry) {
+        Ordinal ordinal = _ordinals.get(pEntry);
+        return ordinal != null ? ordinal._value : -1;
+    }
+
+    /**
+     * @return the entry currently holding the ordinal or null
+     */
+    public IEntryCacheInfo get(int ordinal) {
+        AtomicReferenceArray<IEntryCacheInfo>[] chunks = _chunks;
+        int chunk = ordinal >>> CHUNK_SHIFT;
+        return chunk < chunks.length ? chunks[chunk].get(ordinal & (CHUNK_SIZE - 1)) : null;
+    }
+
+    public int size() {
+        return _ordinals.size();
+    }
+
+    private int allocate(IEntryCacheInfo pEntry) {
+        synchronized (_lock) {
+            int ordinal;
+            if (_freeCount > 0) {
+                ordinal = _free[--_freeCount];
+            } else {
+                ordinal = _nextOrdinal++;
+                if ((ordinal >>> CHUNK_SHIFT) == _chunks.length) {
+                    AtomicReferenceArray<IEntryCacheInfo>[] chunks = Arrays.copyOf(_chunks, _chunks.length + 1);
+                    chunks[chunks.length - 1] = new AtomicReferenceArray<IEntryCacheInfo>(CHUNK_SIZE);
+                    _chunks = chunks;
+                }
+            }
+            _chunks[ordinal >>> CHUNK_SHIFT].set(ordinal & (CHUNK_SIZE - 1), pEntry);
+            return ordinal;
+        }
+    }
+
+    private void free(int ordinal) {
+        synchronized (_lock) {
+            _chunks[ordinal >>> CHUNK_SHIFT].set(ordinal & (CHUNK_SIZE - 1), null);
+            if (_freeCount == _free.length)
+                _free = Arrays.copyOf(_free, _freeCount * 2);
+            _free[_freeCount++] = ordinal;
+        }
+    }
+
+    private static final class Ordinal {
+        private final int _value;
+        //number of bitmap memberships, guarded by the map
+        private int _refs;
+
+        private Ordinal(int value) {
+            _value = value;
+        }
+    }
+}
@@ -29,7 +29,9 @@ import com.j_spaces.kernel.list.MultiStoredList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 
@@ -52,9 +54,17 @@ public class ExtendedIndexHandler<K>
     private static final boolean FORCE_ORDERED_SCAN = true;
 
     public ExtendedIndexHandler(TypeDataIndex index) {
+        this(index, new CheckedConcurrentSkipListMap<Object, IStoredList<IEntryCacheInfo>>());
+    }
+
+    /**
+     * @param orderedStore the skip-list backing this index, null if a subclass keeps its own ordered
+     *                     store
+     */
+    protected ExtendedIndexHandler(TypeDataIndex index, ConcurrentSkipListMap<Object, IStoredList<IEntryCacheInfo>> orderedStore) {
         _index = index;
-        _orderedStore = new CheckedConcurrentSkipListMap<>();
-        _uniqueOrderedStore = _index.isUniqueIndex() ? (ConcurrentSkipListMap<Object, IEntryCacheInfo>) ((ConcurrentSkipListMap) _orderedStore) : null;
+        _orderedStore = orderedStore;
+        _uniqueOrderedStore = _index.isUniqueIndex() && _orderedStore != null ? (ConcurrentSkipListMap<Object, IEntryCacheInfo>) ((ConcurrentSkipListMap) _orderedStore) : null;
         if (index.getCacheManager().getEngine().getLeaseManager().isSupportsRecentExtendedUpdates())
             _recentExtendedIndexUpdates = new RecentExtendedIndexUpdates(index.getCacheManager());
         else
@@ -330,13 +340,8 @@ public class ExtendedIndexHandler<K>
 
         }
 
-        NavigableMap baseMap = _orderedStore;
-        NavigableMap mapToScan;
-        if (end == null)
-            mapToScan = start != null ? baseMap.tailMap(start, startinclusive) : baseMap;
-        else
-            mapToScan = start != null ? baseMap.subMap(start, startinclusive, end, endInclusive) : baseMap.headMap(end, endInclusive);
-        return new ExtendedIndexIterator<>(mapToScan, _index,originalStart,originalStartCondition, originalEnd,originalEndCondition);
+        return estimateSize(new ExtendedIndexIterator<>(scanValues(start, startinclusive, end, endInclusive, false /*descending*/), _index,originalStart,originalStartCondition, originalEnd,originalEndCondition),
+                start, startinclusive, end, endInclusive);
     }
 
     private ExtendedIndexIterator<IEntryCacheInfo> establishScanOrdered(K startPos, short relation, K endPos, boolean endPosInclusive) {
@@ -350,22 +355,51 @@ public class ExtendedIndexHandler<K>
                 ( !reversedScan ? 0 : relation ) :
                 ( endPosInclusive ? TemplateMatchCodes.LE : TemplateMatchCodes.LT );
 
-        NavigableMap baseMap = reversedScan ? _orderedStore.descendingMap() : _orderedStore;
-        NavigableMap mapToScan;
+        ExtendedIndexIterator<IEntryCacheInfo> res = new ExtendedIndexIterator<>(scanValues(startPos, startinclusive, endPos, endPosInclusive, reversedScan), _index,originalStart,originalStartCondition, originalEnd,originalEndCondition);
+        return reversedScan ? estimateSize(res, endPos, endPosInclusive, startPos, startinclusive) : estimateSize(res, startPos, startinclusive, endPos, endPosInclusive);
+    }
+
+    private ExtendedIndexIterator<IEntryCacheInfo> estimateSize(ExtendedIndexIterator<IEntryCacheInfo> iter, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        IndexValueHistogram histogram = _index.getHistogram();
+        if (histogram != null)
+            iter.setEstimatedSize(histogram.estimateRange(from, fromInclusive, to, toInclusive));
+        return iter;
+    }
+
+    /**
+     * returns the lists of entries whose values are between startPos and endPos (null means no
+     * limit), ordered from startPos towards endPos. if descending startPos is the upper limit.
+     */
+    protected Iterator<IStoredList<IEntryCacheInfo>> scanValues(Object startPos, boolean startInclusive, Object endPos, boolean endPosInclusive, boolean descending) {
+        NavigableMap<Object, IStoredList<IEntryCacheInfo>> baseMap = descending ? _orderedStore.descendingMap() : _orderedStore;
+        NavigableMap<Object, IStoredList<IEntryCacheInfo>> mapToScan;
         if (endPos == null)
-            mapToScan = startPos != null ? baseMap.tailMap(startPos, startinclusive) : baseMap;
+            mapToScan = startPos != null ? baseMap.tailMap(startPos, startInclusive) : baseMap;
         else
-            mapToScan = startPos != null ? baseMap.subMap(startPos, startinclusive, endPos, endPosInclusive) : baseMap.headMap(endPos, endPosInclusive);
-
-        return new ExtendedIndexIterator<>(mapToScan, _index,originalStart,originalStartCondition, originalEnd,originalEndCondition);
+            mapToScan = startPos != null ? baseMap.subMap(startPos, startInclusive, endPos, endPosInclusive) : baseMap.headMap(endPos, endPosInclusive);
+        return mapToScan.values().iterator();
     }
 
+    /**
+     * @return the lowest indexed value, or null if the index is empty
+     */
     public Object getMin() {
-        return _orderedStore.firstKey();
+        try {
+            return _orderedStore.firstKey();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
     }
 
+    /**
+     * @return the highest indexed value, or null if the index is empty
+     */
     public Object getMax() {
-        return _orderedStore.lastKey();
+        try {
+            return _orderedStore.lastKey();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
     }
 
 }
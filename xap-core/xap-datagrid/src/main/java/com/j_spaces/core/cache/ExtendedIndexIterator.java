@@ -43,10 +43,17 @@ public class ExtendedIndexIterator<V>
     private final short _originalStartCondition;
     private final Object _originalEnd;
     private final short _originalEndCondition;
+    //estimated number of entries in the scanned range, -1 if unknown
+    private int _estimatedSize = -1;
 
     public ExtendedIndexIterator(NavigableMap mapToScan, TypeDataIndex idx,
                                  Object originalStart,short originalStartCondition,Object originalEnd, short originalEndCondition){
-        _iter = mapToScan.values().iterator();
+        this(mapToScan.values().iterator(), idx, originalStart, originalStartCondition, originalEnd, originalEndCondition);
+    }
+
+    public ExtendedIndexIterator(Iterator<IStoredList<V>> valuesToScan, TypeDataIndex idx,
+                                 Object originalStart,short originalStartCondition,Object originalEnd, short originalEndCondition){
+        _iter = valuesToScan;
         _idx = idx;
         _originalStart = originalStart;
         _originalStartCondition=originalStartCondition;
@@ -210,4 +217,21 @@ public class ExtendedIndexIterator<V>
         this._rightColumnPosition = rightColumnPosition;
     }
 
+    public void setEstimatedSize(int estimatedSize) {
+        this._estimatedSize = estimatedSize;
+    }
+
+    /**
+     * the size is an estimation based on the index histogram
+     */
+    @Override
+    public boolean hasSize() {
+        return _estimatedSize >= 0;
+    }
+
+    @Override
+    public int size() {
+        return _estimatedSize >= 0 ? _estimatedSize : Integer.MAX_VALUE;
+    }
+
 }
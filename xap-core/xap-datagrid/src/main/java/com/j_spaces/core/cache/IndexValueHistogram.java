@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.j_spaces.kernel.IStoredList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Value distribution of an ordered index, used to estimate the number of entries in a range of
+ * values. Keeps the most common values with their exact counts, and an equi-depth histogram of the
+ * other values. Bucket boundaries are computed from the ordered store when enough modifications
+ * have accumulated, bucket counts are maintained incrementally in between.
+ *
+ * Computing the boundaries scans the ordered store, so it is done by a background thread shared by
+ * all the histograms, and estimates keep using the previous boundaries meanwhile. Until the first
+ * boundaries are computed the estimate is unknown.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class IndexValueHistogram {
+    private static final int NUM_BUCKETS = 64;
+    private static final int MAX_MOST_COMMON_VALUES = 16;
+    private static final int MIN_MODIFICATIONS_TO_REBUILD = 1000;
+
+    private static final Executor REBUILD_EXECUTOR = createRebuildExecutor();
+
+    //the ordered store of the index, iterated in values order
+    private final Map<Object, ? extends IStoredList<?>> _orderedStore;
+    private final Executor _rebuildExecutor;
+    private final LongAdder _modifications = new LongAdder();
+    private final AtomicBoolean _rebuilding = new AtomicBoolean();
+    private volatile Buckets _buckets;
+
+    public IndexValueHistogram(Map<Object, ? extends IStoredList<?>> orderedStore) {
+        this(orderedStore, REBUILD_EXECUTOR);
+    }
+
+    IndexValueHistogram(Map<Object, ? extends IStoredList<?>> orderedStore, Executor rebuildExecutor) {
+        _orderedStore = orderedStore;
+        _rebuildExecutor = rebuildExecutor;
+    }
+
+    private static Executor createRebuildExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new GSThreadFactory("index-histogram-rebuild", true));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public void onInsert(Object value) {
+        _modifications.increment();
+        Buckets buckets = _buckets;
+        if (buckets != null)
+            buckets.add(value, 1);
+    }
+
+    public void onRemove(Object value) {
+        _modifications.increment();
+        Buckets buckets = _buckets;
+        if (buckets != null)
+            buckets.add(value, -1);
+    }
+
+    /**
+     * @param from null for unbounded
+     * @param to   null for unbounded
+     * @return the estimated number of entries in the range, -1 if unknown
+     */
+    public int estimateRange(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        Buckets buckets = getBuckets();
+        if (buckets == null)
+            return -1;
+        double res;
+        try {
+            res = buckets.estimate(from, fromInclusive, to, toInclusive);
+        } catch (ClassCastException e) {
+            return -1; //bounds not comparable with the index values
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, Math.round(res)));
+    }
+
+    /**
+     * @return the current buckets, a rebuild is requested if they are missing or stale
+     */
+    private Buckets getBuckets() {
+        Buckets buckets = _buckets;
+        long threshold = buckets == null ? 0 : Math.max(MIN_MODIFICATIONS_TO_REBUILD, buckets._total / 4);
+        if ((buckets == null || _modifications.sum() > threshold) && _rebuilding.compareAndSet(false, true)) {
+            try {
+                _rebuildExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            //modifications made during the rebuild are reflected by the new boundaries
+                            _modifications.reset();
+                            _buckets = rebuild();
+                        } finally {
+                            _rebuilding.set(false);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                _rebuilding.set(false);
+            }
+            buckets = _buckets;
+        }
+        return buckets;
+    }
+
+    private Buckets rebuild() {
+        //1st pass- total and most common values
+        long total = 0;
+        PriorityQueue<Object[]> mostCommon = new PriorityQueue<Object[]>(MAX_MOST_COMMON_VALUES + 1, (a, b) -> Integer.compare((Integer) a[1], (Integer) b[1]));
+        for (Map.Entry<Object, ? extends IStoredList<?>> entry : _orderedStore.entrySet()) {
+            int size = entry.getValue().size();
+            total += size;
+            if (mostCommon.size() == MAX_MOST_COMMON_VALUES && (Integer) mostCommon.peek()[1] >= size)
+                continue;
+            mostCommon.add(new Object[]{entry.getKey(), size});
+            if (mostCommon.size() > MAX_MOST_COMMON_VALUES)
+                mostCommon.poll();
+        }
+        //a value is kept aside only if it would fill more than a bucket
+        Map<Object, AtomicInteger> mostCommonValues = new HashMap<Object, AtomicInteger>();
+        long rest = total;
+        for (Object[] candidate : mostCommon) {
+            if ((Integer) candidate[1] > total / NUM_BUCKETS) {
+                mostCommonValues.put(candidate[0], new AtomicInteger((Integer) candidate[1]));
+                rest -= (Integer) candidate[1];
+            }
+        }
+
+        //2nd pass- equi-depth boundaries over the other values
+        long depth = Math.max(1, rest / NUM_BUCKETS);
+        List<Object> upperBounds = new ArrayList<Object>(NUM_BUCKETS + 1);
+        List<Integer> counts = new ArrayList<Integer>(NUM_BUCKETS + 2);
+        List<Integer> distinct = new ArrayList<Integer>(NUM_BUCKETS + 2);
+        Object lowest = null;
+        Object last = null;
+        int count = 0;
+        int distinctCount = 0;
+        for (Map.Entry<Object, ? extends IStoredList<?>> entry : _orderedStore.entrySet()) {
+            if (mostCommonValues.containsKey(entry.getKey()))
+                continue;
+            if (lowest == null)
+                lowest = entry.getKey();
+            last = entry.getKey();
+            count += entry.getValue().size();
+            distinctCount++;
+            if (count >= depth) {
+                upperBounds.add(last);
+                counts.add(count);
+                distinct.add(distinctCount);
+                count = 0;
+                distinctCount = 0;
+            }
+        }
+        if (count > 0) {
+            upperBounds.add(last);
+            counts.add(count);
+            distinct.add(distinctCount);
+        }
+        //values above the highest boundary
+        counts.add(0);
+        distinct.add(0);
+        return new Buckets(lowest, upperBounds.toArray(), counts, distinct, mostCommonValues, total);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    private static final class Buckets {
+        private final Object _lowest;
+        //bucket i holds the values in (upperBounds[i-1], upperBounds[i]], the last bucket is open ended
+        private final Object[] _upperBounds;
+        private final AtomicIntegerArray _counts;
+        private final int[] _distinct;
+        private final Map<Object, AtomicInteger> _mostCommonValues;
+        private final long _total;
+
+        private Buckets(Object lowest, Object[] upperBounds, List<Integer> counts, List<Integer> distinct, Map<Object, AtomicInteger> mostCommonValues, long total) {
+            _lowest = lowest;
+            _upperBounds = upperBounds;
+            _counts = new AtomicIntegerArray(counts.size());
+            _distinct = new int[distinct.size()];
+            for (int i = 0; i < _distinct.length; i++) {
+                _counts.set(i, counts.get(i));
+                _distinct[i] = distinct.get(i);
+            }
+            _mostCommonValues = mostCommonValues;
+            _total = total;
+        }
+
+        private void add(Object value, int delta) {
+            AtomicInteger mostCommon = _mostCommonValues.get(value);
+            if (mostCommon != null)
+                mostCommon.addAndGet(delta);
+            else
+                _counts.addAndGet(bucketOf(value), delta);
+        }
+
+        private int bucketOf(Object value) {
+            int pos = Arrays.binarySearch(_upperBounds, value, IndexValueHistogram::compare);
+            return pos >= 0 ? pos : -pos - 1;
+        }
+
+        private double estimate(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+            double res = 0;
+            for (Map.Entry<Object, AtomicInteger> entry : _mostCommonValues.entrySet()) {
+                if (inRange(entry.getKey(), from, fromInclusive, to, toInclusive))
+                    res += Math.max(0, entry.getValue().get());
+            }
+            if (from != null && to != null) {
+                int c = compare(from, to);
+                if (c > 0 || (c == 0 && !(fromInclusive && toInclusive)))
+                    return res;
+                //a most common value is not counted by the buckets
+                if (c == 0 && _mostCommonValues.containsKey(from))
+                    return res;
+            }
+
+            int first = from == null ? 0 : bucketOf(from);
+            int last = to == null ? _counts.length() - 1 : bucketOf(to);
+            for (int i = first; i <= last; i++) {
+                int count = Math.max(0, _counts.get(i));
+                if (count == 0)
+                    continue;
+                boolean partialLow = from != null && i == first;
+                boolean partialHigh = to != null && i == last;
+                if (!partialLow && !partialHigh) {
+                    res += count;
+                } else if (partialLow && partialHigh && compare(from, to) == 0) {
+                    //single value- assume values in the bucket are equally common
+                    res += (double) count / Math.max(1, _distinct[i]);
+                } else {
+                    res += count * fraction(i, partialLow ? from : null, partialHigh ? to : null);
+                }
+            }
+            return res;
+        }
+
+        //the fraction of bucket i which lies between from and to, linear for numbers
+        private double fraction(int bucket, Object from, Object to) {
+            Object low = bucket == 0 ? _lowest : _upperBounds[bucket - 1];
+            Object high = bucket < _upperBounds.length ? _upperBounds[bucket] : null;
+            if (!(low instanceof Number) || !(high instanceof Number)
+                    || (from != null && !(from instanceof Number)) || (to != null && !(to instanceof Number)))
+                return from != null && to != null ? 0.25 : 0.5;
+            double l = ((Number) low).doubleValue();
+            double h = ((Number) high).doubleValue();
+            if (h <= l)
+                return 1;
+            double f = from != null ? Math.max(l, ((Number) from).doubleValue()) : l;
+            double t = to != null ? Math.min(h, ((Number) to).doubleValue()) : h;
+            return Math.max(0, Math.min(1, (t - f) / (h - l)));
+        }
+
+        private static boolean inRange(Object value, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+            if (from != null) {
+                int c = compare(value, from);
+                if (c < 0 || (c == 0 && !fromInclusive))
+                    return false;
+            }
+            if (to != null) {
+                int c = compare(value, to);
+                if (c > 0 || (c == 0 && !toInclusive))
+                    return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.query.AggregationFunction;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.utils.math.MutableNumber;
+import com.gigaspaces.query.aggregators.AbstractPathAggregator;
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByKey;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.GroupByValue;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import com.gigaspaces.time.SystemTime;
+
+import net.jini.core.lease.Lease;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A group-by aggregation of all the entries of a type which is maintained as entries are
+ * inserted, updated and removed, so that reading it costs the number of groups rather than the
+ * number of entries. Aggregate requests whose group-by matches a registered aggregation are
+ * answered from it, in the regular {@link GroupByResult} form.
+ *
+ * Count, sum and average are kept as running totals, min and max as a count per distinct value.
+ * Floating point totals are compensated (Kahan-Babuska summation), so that adding and removing
+ * values does not accumulate rounding errors, and are reset once the group holds no values.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class MaterializedAggregation {
+    private final String _name;
+    private final String[] _groupByPaths;
+    private final int[] _groupByPositions;
+    private final AggregationFunction[] _functions;
+    //null for count(*)
+    private final String[] _paths;
+    //-1 for count(*)
+    private final int[] _positions;
+    private final Class<?>[] _types;
+    private final ConcurrentHashMap<GroupByKey, Group> _groups = new ConcurrentHashMap<GroupByKey, Group>();
+    private final Set<IEntryCacheInfo> _members = ConcurrentHashMap.newKeySet();
+    //expiration time -> number of entries, for entries with a finite lease
+    private final TreeMap<Long, Integer> _expirations = new TreeMap<Long, Integer>();
+
+    private MaterializedAggregation(Definition definition, int[] groupByPositions, int[] positions, Class<?>[] types) {
+        _name = definition._name;
+        _groupByPaths = definition._groupByPaths;
+        _groupByPositions = groupByPositions;
+        _functions = definition._functions;
+        _paths = definition._paths;
+        _positions = positions;
+        _types = types;
+    }
+
+    /**
+     * @return the aggregation of the definition over the given type
+     * @throws IllegalArgumentException if a path isn't a fixed property of the type or isn't
+     *                                  numeric for sum and average
+     */
+    public static MaterializedAggregation create(Definition definition, ITypeDesc typeDesc) {
+        int[] groupByPositions = new int[definition._groupByPaths.length];
+        for (int i = 0; i < groupByPositions.length; i++)
+            groupByPositions[i] = positionOf(definition, typeDesc, definition._groupByPaths[i]);
+        int[] positions = new int[definition._paths.length];
+        Class<?>[] types = new Class<?>[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            if (definition._paths[i] == null) {
+                positions[i] = -1;
+                continue;
+            }
+            positions[i] = positionOf(definition, typeDesc, definition._paths[i]);
+            types[i] = boxed(typeDesc.getFixedProperty(positions[i]).getType());
+            if ((definition._functions[i] == AggregationFunction.SUM || definition._functions[i] == AggregationFunction.AVERAGE) && !isNumber(types[i]))
+                throw new IllegalArgumentException("Materialized aggregation '" + definition._name + "' - property '" + definition._paths[i] + "' is not numeric");
+            if ((definition._functions[i] == AggregationFunction.MIN || definition._functions[i] == AggregationFunction.MAX) && !Comparable.class.isAssignableFrom(types[i]))
+                throw new IllegalArgumentException("Materialized aggregation '" + definition._name + "' - property '" + definition._paths[i] + "' is not comparable");
+        }
+        return new MaterializedAggregation(definition, groupByPositions, positions, types);
+    }
+
+    private static int positionOf(Definition definition, ITypeDesc typeDesc, String path) {
+        int pos = typeDesc.getFixedPropertyPosition(path);
+        if (pos < 0)
+            throw new IllegalArgumentException("Materialized aggregation '" + definition._name + "' - '" + path + "' is not a fixed property of " + typeDesc.getTypeName());
+        return pos;
+    }
+
+    public String getName() {
+        return _name;
+    }
+
+    void insert(IEntryCacheInfo pEntry, IEntryData entryData) {
+        if (!_members.add(pEntry))
+            return;
+        addExpiration(entryData.getExpirationTime(), 1);
+        apply(entryData, 1);
+    }
+
+    void update(IEntryCacheInfo pEntry, IEntryData oldEntryData, IEntryData newEntryData) {
+        if (!_members.contains(pEntry))
+            return;
+        updateExpiration(pEntry, oldEntryData.getExpirationTime(), newEntryData.getExpirationTime());
+        apply(oldEntryData, -1);
+        apply(newEntryData, 1);
+    }
+
+    void updateExpiration(IEntryCacheInfo pEntry, long oldExpiration, long newExpiration) {
+        if (oldExpiration == newExpiration || !_members.contains(pEntry))
+            return;
+        addExpiration(oldExpiration, -1);
+        addExpiration(newExpiration, 1);
+    }
+
+    void remove(IEntryCacheInfo pEntry, IEntryData entryData) {
+        if (!_members.remove(pEntry))
+            return;
+        addExpiration(entryData.getExpirationTime(), -1);
+        apply(entryData, -1);
+    }
+
+    private void addExpiration(long expiration, int delta) {
+        if (expiration == Lease.FOREVER)
+            return;
+        synchronized (_expirations) {
+            _expirations.merge(expiration, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private void apply(IEntryData entryData, int delta) {
+        Object[] keyValues = new Object[_groupByPositions.length];
+        for (int i = 0; i < keyValues.length; i++)
+            keyValues[i] = entryData.getFixedPropertyValue(_groupByPositions[i]);
+        GroupByKey key = new GroupByKey(keyValues);
+        while (true) {
+            Group group = _groups.get(key);
+            if (group == null) {
+                group = new Group(keyValues, _functions.length);
+                Group other = _groups.putIfAbsent(key, group);
+                if (other != null)
+                    group = other;
+            }
+            synchronized (group) {
+                if (group._detached)
+                    continue; //emptied and removed concurrently - retry
+                group.apply(entryData, delta);
+                if (group._rows == 0) {
+                    group._detached = true;
+                    _groups.remove(key, group);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true if some entry has expired and was not removed yet, in which case the
+     * aggregation includes it
+     */
+    boolean hasExpiredEntries(long now) {
+        synchronized (_expirations) {
+            return !_expirations.isEmpty() && _expirations.firstKey() <= now;
+        }
+    }
+
+    /**
+     * @return the positions of the maintained functions which answer the selectors of the request,
+     * null if the request can't be answered by this aggregation
+     */
+    private int[] match(GroupByAggregator request) {
+        if (!Arrays.equals(_groupByPaths, request.getGroupByPaths()) || request.getAggregators() == null)
+            return null;
+        int[] res = new int[request.getAggregators().size()];
+        for (int i = 0; i < res.length; i++) {
+            SpaceEntriesAggregator selector = request.getAggregators().get(i);
+            AggregationFunction function = AggregationFunction.of(selector);
+            if (function == null || ((AbstractPathAggregator) selector).getFunctionCallColumn() != null)
+                return null;
+            res[i] = -1;
+            for (int j = 0; j < _functions.length && res[i] < 0; j++)
+                if (_functions[j] == function && equals(_paths[j], ((AbstractPathAggregator) selector).getPath()))
+                    res[i] = j;
+            if (res[i] < 0)
+                return null;
+        }
+        return res;
+    }
+
+    private GroupByResult read(GroupByAggregator request, int[] selectors) {
+        Map<GroupByKey, GroupByValue> map = new HashMap<GroupByKey, GroupByValue>();
+        for (Group group : _groups.values()) {
+            Object[] values = new Object[selectors.length];
+            synchronized (group) {
+                if (group._detached)
+                    continue;
+                for (int i = 0; i < selectors.length; i++)
+                    values[i] = group.result(selectors[i], request.getAggregators().get(i));
+            }
+            map.put(new GroupByKey(group._keyValues.clone()), new GroupByValue(values));
+        }
+        return map.isEmpty() ? null : new GroupByResult(map);
+    }
+
+    /**
+     * @return the intermediate result of each of the aggregators, all group-by aggregators of the
+     * type answered by materialized aggregations, or null if any of them can't be answered so
+     */
+    public static GroupByResult[] read(CacheManager cacheManager, IServerTypeDesc serverTypeDesc, List<SpaceEntriesAggregator> aggregators) {
+        TypeData typeData = cacheManager.getTypeData(serverTypeDesc);
+        if (typeData == null || typeData.getMaterializedAggregations() == null)
+            return null;
+        //the aggregations cover the entries of the type itself, not of its sub types
+        for (IServerTypeDesc subType : serverTypeDesc.getAssignableTypes()) {
+            if (subType == serverTypeDesc || subType.isInactive())
+                continue;
+            TypeData subTypeData = cacheManager.getTypeData(subType);
+            if (subTypeData != null && subTypeData.getEntries() != null && subTypeData.getEntries().size() > 0)
+                return null;
+        }
+
+        long now = SystemTime.timeMillis();
+        GroupByResult[] results = new GroupByResult[aggregators.size()];
+        for (int i = 0; i < results.length; i++) {
+            if (aggregators.get(i).getClass() != GroupByAggregator.class)
+                return null;
+            GroupByAggregator request = (GroupByAggregator) aggregators.get(i);
+            MaterializedAggregation answering = null;
+            int[] selectors = null;
+            for (MaterializedAggregation aggregation : typeData.getMaterializedAggregations()) {
+                selectors = aggregation.match(request);
+                if (selectors != null) {
+                    answering = aggregation;
+                    break;
+                }
+            }
+            if (answering == null || answering.hasExpiredEntries(now))
+                return null;
+            results[i] = answering.read(request, selectors);
+        }
+        return results;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static boolean isNumber(Class<?> type) {
+        return type == Long.class || type == Integer.class || type == Short.class || type == Byte.class
+                || type == Double.class || type == Float.class;
+    }
+
+    private static boolean isFloatingPoint(Class<?> type) {
+        return type == Double.class || type == Float.class;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive())
+            return type;
+        if (type == long.class)
+            return Long.class;
+        if (type == int.class)
+            return Integer.class;
+        if (type == short.class)
+            return Short.class;
+        if (type == byte.class)
+            return Byte.class;
+        if (type == double.class)
+            return Double.class;
+        if (type == float.class)
+            return Float.class;
+        if (type == boolean.class)
+            return Boolean.class;
+        return Character.class;
+    }
+
+    private static Number zero(Class<?> type) {
+        if (type == Integer.class)
+            return 0;
+        if (type == Short.class)
+            return (short) 0;
+        if (type == Byte.class)
+            return (byte) 0;
+        if (type == Double.class)
+            return 0d;
+        if (type == Float.class)
+            return 0f;
+        return 0L;
+    }
+
+    /**
+     * the running state of a group, guarded by its monitor
+     */
+    private final class Group {
+        private final Object[] _keyValues;
+        private long _rows;
+        //number of non null values per function
+        private final long[] _counts;
+        private final long[] _longs;
+        private final double[] _doubles;
+        //the rounding errors of _doubles
+        private final double[] _compensations;
+        //counts of the values of min and max functions, null for other functions
+        private final List<TreeMap<Object, Integer>> _values;
+        private boolean _detached;
+
+        private Group(Object[] keyValues, int numOfFunctions) {
+            _keyValues = keyValues;
+            _counts = new long[numOfFunctions];
+            _longs = new long[numOfFunctions];
+            _doubles = new double[numOfFunctions];
+            _compensations = new double[numOfFunctions];
+            _values = new ArrayList<TreeMap<Object, Integer>>(numOfFunctions);
+            for (int i = 0; i < numOfFunctions; i++)
+                _values.add(_functions[i] == AggregationFunction.MIN || _functions[i] == AggregationFunction.MAX ? new TreeMap<Object, Integer>() : null);
+        }
+
+        private void apply(IEntryData entryData, int delta) {
+            _rows += delta;
+            for (int i = 0; i < _functions.length; i++) {
+                if (_positions[i] < 0) {
+                    _counts[i] += delta;
+                    continue;
+                }
+                Object value = entryData.getFixedPropertyValue(_positions[i]);
+                if (value == null)
+                    continue;
+                _counts[i] += delta;
+                switch (_functions[i]) {
+                    case SUM:
+                    case AVERAGE:
+                        if (isFloatingPoint(_types[i]))
+                            add(i, delta * ((Number) value).doubleValue());
+                        else
+                            _longs[i] += delta * ((Number) value).longValue();
+                        break;
+                    case MIN:
+                    case MAX:
+                        _values.get(i).merge(value, delta, (a, b) -> a + b == 0 ? null : a + b);
+                        break;
+                    default:
+                }
+            }
+        }
+
+        private void add(int function, double value) {
+            if (_counts[function] == 0) {
+                //no values are left, drop the residue of the removed ones
+                _doubles[function] = 0;
+                _compensations[function] = 0;
+                return;
+            }
+            double sum = _doubles[function];
+            double total = sum + value;
+            if (Math.abs(sum) >= Math.abs(value))
+                _compensations[function] += (sum - total) + value;
+            else
+                _compensations[function] += (value - total) + sum;
+            _doubles[function] = total;
+        }
+
+        private Object result(int function, SpaceEntriesAggregator request) {
+            long count = _counts[function];
+            if (_functions[function] == AggregationFunction.COUNT)
+                return count;
+            if (count == 0)
+                return null;
+            Number total = isFloatingPoint(_types[function]) ? (Number) (_doubles[function] + _compensations[function]) : (Number) _longs[function];
+            switch (_functions[function]) {
+                case SUM:
+                    MutableNumber sum = MutableNumber.fromClass(_types[function], ((SumAggregator) request).isWidest());
+                    sum.add(total);
+                    return sum;
+                case AVERAGE:
+                    return new AverageAggregator.AverageTuple(zero(_types[function]), ((AverageAggregator) request).isWidest()).add(total, count - 1);
+                case MIN:
+                    return _values.get(function).firstKey();
+                default:
+                    return _values.get(function).lastKey();
+            }
+        }
+    }
+
+    /**
+     * A materialized aggregation as configured - name:type name:group by paths:functions, where
+     * group by paths and functions are comma separated and a function is one of count, sum, avg,
+     * min, max followed by a property in brackets, for example
+     * <code>tradesByDesk:com.acme.Trade:region,desk:count(*),sum(quantity),max(price)</code>
+     */
+    public static final class Definition {
+        private final String _name;
+        private final String _typeName;
+        private final String[] _groupByPaths;
+        private final AggregationFunction[] _functions;
+        private final String[] _paths;
+
+        private Definition(String name, String typeName, String[] groupByPaths, AggregationFunction[] functions, String[] paths) {
+            _name = name;
+            _typeName = typeName;
+            _groupByPaths = groupByPaths;
+            _functions = functions;
+            _paths = paths;
+        }
+
+        public String getTypeName() {
+            return _typeName;
+        }
+
+        /**
+         * @param definitions semicolon separated definitions
+         */
+        public static List<Definition> parse(String definitions) {
+            List<Definition> res = new ArrayList<Definition>();
+            for (String definition : definitions.split(";")) {
+                definition = definition.trim();
+                if (definition.isEmpty())
+                    continue;
+                String[] parts = definition.split(":");
+                if (parts.length != 4)
+                    throw new IllegalArgumentException("Invalid materialized aggregation '" + definition + "', expected name:type name:group by paths:functions");
+                String[] groupByPaths = parts[2].split(",");
+                for (int i = 0; i < groupByPaths.length; i++)
+                    groupByPaths[i] = groupByPaths[i].trim();
+                String[] functionDefinitions = parts[3].split(",");
+                AggregationFunction[] functions = new AggregationFunction[functionDefinitions.length];
+                String[] paths = new String[functionDefinitions.length];
+                for (int i = 0; i < functions.length; i++) {
+                    String function = functionDefinitions[i].trim();
+                    int open = function.indexOf('(');
+                    if (open <= 0 || !function.endsWith(")"))
+                        throw new IllegalArgumentException("Invalid function '" + function + "' in materialized aggregation '" + definition + "'");
+                    functions[i] = parseFunction(function.substring(0, open).trim(), definition);
+                    String path = function.substring(open + 1, function.length() - 1).trim();
+                    if (path.equals("*") || path.isEmpty()) {
+                        if (functions[i] != AggregationFunction.COUNT)
+                            throw new IllegalArgumentException("Invalid function '" + function + "' in materialized aggregation '" + definition + "'");
+                        path = null;
+                    }
+                    paths[i] = path;
+                }
+                res.add(new Definition(parts[0].trim(), parts[1].trim(), groupByPaths, functions, paths));
+            }
+            return res;
+        }
+
+        private static AggregationFunction parseFunction(String name, String definition) {
+            switch (name.toLowerCase()) {
+                case "count":
+                    return AggregationFunction.COUNT;
+                case "sum":
+                    return AggregationFunction.SUM;
+                case "avg":
+                    return AggregationFunction.AVERAGE;
+                case "min":
+                    return AggregationFunction.MIN;
+                case "max":
+                    return AggregationFunction.MAX;
+                default:
+                    throw new IllegalArgumentException("Unsupported function '" + name + "' in materialized aggregation '" + definition + "'");
+            }
+        }
+    }
+}
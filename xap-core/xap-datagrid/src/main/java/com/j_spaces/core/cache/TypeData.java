@@ -148,6 +148,12 @@ public class TypeData {
     private final SequenceNumberGenerator _sequenceNumberGenerator;
     private final TypeDataIndex<?> _sequenceNumberIndex; //null if not indexed or undefined
     private final LongCounter _mvccUidsLogicallyDeletedCounter;
+    //dense entry numbering shared by the BITMAP indexes of the type, null if there are none
+    private final EntryOrdinals _entryOrdinals;
+    //column-wise copy of configured properties, null if none
+    private final ColumnarStore _columnarStore;
+    //group-by aggregations maintained for this type, null if none
+    private final List<MaterializedAggregation> _materializedAggregations;
 
     //reasons for replacing type-data
     public static enum TypeDataRecreationReasons {
@@ -240,7 +246,7 @@ public class TypeData {
                     FifoGroupsIndexTypes fifoGroupingType = getIndexFifoGroupingType(index, fifoGroupingName, fifoGroupingIndexes);
                     if (fifoGroupingType == FifoGroupsIndexTypes.AUXILIARY)
                         anyRequestsForFGCompound = true;
-                    currIndex = typeDataFactory.createTypeDataIndex(_typeDataFactory.getCcheManager(), getInternalIndex(index), i, 0 /*indexCreationNumber*/, property.getType(), fifoGroupingType);
+                    currIndex = typeDataFactory.createTypeDataIndex(_typeDataFactory.getCcheManager(), serverTypeDesc.getTypeName(), getInternalIndex(index), i, 0 /*indexCreationNumber*/, property.getType(), fifoGroupingType);
                 } else
                     currIndex = typeDataFactory.createMultiValuePerEntryTypeDataIndex(_typeDataFactory.getCcheManager(), getInternalIndex(index), i, 0 /*indexCreationNumber*/, ((ISpaceIndex) index).getMultiValueIndexType());
 
@@ -388,6 +394,9 @@ public class TypeData {
         if (indexes.size() > 0)
             temp_i = indexes.toArray(temp_i);
         _indexes = temp_i;
+        _entryOrdinals = initBitmapIndexes(_indexes, null);
+        _columnarStore = typeDataFactory.createColumnarStore(serverTypeDesc);
+        _materializedAggregations = initMaterializedAggregations(serverTypeDesc, typeDataFactory);
         if (uniqueIndexes != null)
             _uniqueIndexes = new ArrayList<TypeDataIndex>(uniqueIndexes);
         else
@@ -454,6 +463,8 @@ public class TypeData {
         _columnsOrdinalsByName = originalTypeData._columnsOrdinalsByName;
 
         _entries = originalTypeData._entries;
+        _columnarStore = originalTypeData._columnarStore;
+        _materializedAggregations = originalTypeData._materializedAggregations;
         _typeLock = originalTypeData._typeLock;
 
         _hasInitialIndexes = originalTypeData._hasInitialIndexes;
@@ -501,7 +512,7 @@ public class TypeData {
                         }
                         numNewIndexes++;
                         if (!((ISpaceIndex) index).isMultiValuePerEntryIndex())
-                            currIndex = _typeDataFactory.createTypeDataIndex(_typeDataFactory.getCcheManager(), getInternalIndex(index), i, _lastIndexCreationNumber + numNewIndexes /* index creation #*/, property.getType(), ISpaceIndex.FifoGroupsIndexTypes.NONE);
+                            currIndex = _typeDataFactory.createTypeDataIndex(_typeDataFactory.getCcheManager(), serverTypeDesc.getTypeName(), getInternalIndex(index), i, _lastIndexCreationNumber + numNewIndexes /* index creation #*/, property.getType(), ISpaceIndex.FifoGroupsIndexTypes.NONE);
                         else
                             currIndex = _typeDataFactory.createMultiValuePerEntryTypeDataIndex(_typeDataFactory.getCcheManager(), getInternalIndex(index), i, _lastIndexCreationNumber + numNewIndexes /* index creation #*/, ((ISpaceIndex) index).getMultiValueIndexType());
 
@@ -603,6 +614,7 @@ public class TypeData {
             if (indexes.size() > 0)
                 temp_i = indexes.toArray(temp_i);
             _indexes = temp_i;
+            _entryOrdinals = initBitmapIndexes(_indexes, originalTypeData._entryOrdinals);
 
             if (numNewIndexes > 0)
                 _lastIndexPendingCreationNumber = _lastIndexCreationNumber + numNewIndexes;
@@ -619,6 +631,7 @@ public class TypeData {
             _idPropertyIndex = originalTypeData._idPropertyIndex;
             _uidUsageCounter = originalTypeData._uidUsageCounter;
             _indexes = originalTypeData._indexes;
+            _entryOrdinals = originalTypeData._entryOrdinals;
             _hasIndexes = originalTypeData._hasIndexes;
             _numOfBackRefs = originalTypeData._numOfBackRefs;
             _numOfCustomIndexes = originalTypeData._numOfCustomIndexes;
@@ -761,6 +774,54 @@ public class TypeData {
         return _entries;
     }
 
+    /**
+     * @return the entry ordinals referenced by the BITMAP indexes of this type, null if there are none
+     */
+    public EntryOrdinals getEntryOrdinals() {
+        return _entryOrdinals;
+    }
+
+    /**
+     * @return the columnar store of this type, null if none was configured
+     */
+    public ColumnarStore getColumnarStore() {
+        return _columnarStore;
+    }
+
+    /**
+     * @return the group-by aggregations maintained for this type, null if none
+     */
+    public List<MaterializedAggregation> getMaterializedAggregations() {
+        return _materializedAggregations;
+    }
+
+    private static List<MaterializedAggregation> initMaterializedAggregations(IServerTypeDesc serverTypeDesc, TypeDataFactory typeDataFactory) {
+        List<MaterializedAggregation.Definition> definitions = typeDataFactory.getMaterializedAggregations(serverTypeDesc.getTypeName());
+        if (definitions == null)
+            return null;
+        List<MaterializedAggregation> res = new ArrayList<MaterializedAggregation>(definitions.size());
+        for (MaterializedAggregation.Definition definition : definitions) {
+            try {
+                res.add(MaterializedAggregation.create(definition, serverTypeDesc.getTypeDesc()));
+            } catch (IllegalArgumentException e) {
+                if (_logger.isErrorEnabled())
+                    _logger.error("Materialized aggregation of type " + serverTypeDesc.getTypeName() + " ignored", e);
+            }
+        }
+        return res.isEmpty() ? null : res;
+    }
+
+    private static EntryOrdinals initBitmapIndexes(TypeDataIndex<Object>[] indexes, EntryOrdinals ordinals) {
+        for (TypeDataIndex<Object> index : indexes) {
+            if (!index.supportsBitmapIndex())
+                continue;
+            if (ordinals == null)
+                ordinals = new EntryOrdinals();
+            index.initBitmapIndex(ordinals);
+        }
+        return ordinals;
+    }
+
     public IScanListIterator<IEntryCacheInfo> scanTypeEntries()
     {
         if (getEntries() == null)
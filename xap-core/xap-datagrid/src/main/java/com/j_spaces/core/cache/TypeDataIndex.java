@@ -31,6 +31,7 @@ import com.gigaspaces.internal.server.storage.IEntryData;
 import com.gigaspaces.internal.server.storage.IEntryHolder;
 import com.gigaspaces.internal.server.storage.ShadowEntryHolder;
 import com.gigaspaces.internal.utils.StringUtils;
+import com.gigaspaces.internal.utils.collections.PrimitiveKeyConcurrentHashMap;
 import com.gigaspaces.internal.utils.collections.economy.EconomyConcurrentHashMap;
 import com.gigaspaces.internal.utils.collections.economy.HashEntryHandlerSpaceEntry;
 import com.gigaspaces.internal.utils.collections.economy.IEconomyConcurrentMap;
@@ -143,6 +144,12 @@ public class TypeDataIndex<K> {
     //thin extended index ==> only skip-list no hash map
     private final boolean _thinExtendedIndex;
 
+    //per-value bitmaps of entry ordinals, set by the type data for BITMAP indexes
+    private volatile BitmapIndexHandler<K> _bitmapIndex;
+
+    //value distribution of an ordered index, null if not maintained
+    private final IndexValueHistogram _histogram;
+
     private static final Set<String> _immutableTypes = initImmutableTypes();
 
     public TypeDataIndex(CacheManager cacheManager, ISpaceIndex index, int pos, boolean useEconomyHashmap, int indexCreationNumber) {
@@ -155,6 +162,10 @@ public class TypeDataIndex<K> {
     }
 
     public TypeDataIndex(CacheManager cacheManager, ISpaceIndex index, int pos, boolean useEconomyHashmap, int indexCreationNumber, Class<?> valueClass, ISpaceIndex.FifoGroupsIndexTypes fifoGroupsIndexType) {
+        this(cacheManager, index, pos, useEconomyHashmap, indexCreationNumber, valueClass, fifoGroupsIndexType, false /*bplusTreeOrderedIndex*/);
+    }
+
+    public TypeDataIndex(CacheManager cacheManager, ISpaceIndex index, int pos, boolean useEconomyHashmap, int indexCreationNumber, Class<?> valueClass, ISpaceIndex.FifoGroupsIndexTypes fifoGroupsIndexType, boolean bplusTreeOrderedIndex) {
         this._logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_CACHE + "." + cacheManager.getEngine().getSpaceImpl().getNodeName());
         _cacheManager = cacheManager;
         _useEconomyHashMap = useEconomyHashmap;
@@ -171,6 +182,11 @@ public class TypeDataIndex<K> {
             if (_useEconomyHashMap) {
                 this._uniqueEntriesStore = index.isUnique() ? new EconomyConcurrentHashMap<Object, IEntryCacheInfo>(16, 0.75f, numOfCHMSegents, new HashEntryHandlerSpaceEntry(pos)) : null;
                 this._nonUniqueEntriesStore = new EconomyConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, numOfCHMSegents, new HashEntryHandlerSpaceEntry<Object>(pos));
+            } else if (usePrimitiveKeyStore(valueClass)) {
+                //numeric values are kept unboxed
+                PrimitiveKeyConcurrentHashMap.KeyType keyType = PrimitiveKeyConcurrentHashMap.KeyType.of(valueClass);
+                this._uniqueEntriesStore = index.isUnique() ? new PrimitiveKeyConcurrentHashMap<IEntryCacheInfo>(keyType, 16, numOfCHMSegents) : null;
+                this._nonUniqueEntriesStore = new PrimitiveKeyConcurrentHashMap<IStoredList<IEntryCacheInfo>>(keyType, 16, numOfCHMSegents);
             } else {
                 this._uniqueEntriesStore = index.isUnique() ? new ConcurrentHashMap<Object, IEntryCacheInfo>(16, 0.75f, numOfCHMSegents) : null;
                 this._nonUniqueEntriesStore = new ConcurrentHashMap<Object, IStoredList<IEntryCacheInfo>>(16, 0.75f, numOfCHMSegents);
@@ -188,7 +204,9 @@ public class TypeDataIndex<K> {
         _NNullTemplates = StoredListFactory.createConcurrentSegmentedList(true/* supportFifoPerSegment*/,1 /* inputNumOfSegments*/,true /* padded*/);
 
         if (_indexType.isOrdered()) {
-            _concurrentExtendedIndex = new ExtendedIndexHandler<K>(this);
+            _concurrentExtendedIndex = bplusTreeOrderedIndex ?
+                    new BPlusTreeExtendedIndexHandler<K>(this, PrimitiveKeyConcurrentHashMap.KeyType.of(valueClass)) :
+                    new ExtendedIndexHandler<K>(this);
 
             m_Notify_GT_Index = new TemplatesExtendedIndexHandler<K>(this);
             m_RT_GT_Index = new TemplatesExtendedIndexHandler<K>(this);
@@ -197,7 +215,9 @@ public class TypeDataIndex<K> {
             m_Notify_NE_Index = new TemplatesExtendedIndexHandler<K>(this);
             m_RT_NE_Index = new TemplatesExtendedIndexHandler<K>(this);
 
+            _histogram = useIndexHistogram() ? new IndexValueHistogram(_concurrentExtendedIndex.getNonUniqueEntriesStore()) : null;
         } else {
+            _histogram = null;
             _concurrentExtendedIndex = null;
             m_Notify_GT_Index = null;
             m_RT_GT_Index = null;
@@ -241,6 +261,24 @@ public class TypeDataIndex<K> {
         }
     }
 
+    private static boolean usePrimitiveKeyStore(Class<?> valueClass) {
+        return PrimitiveKeyConcurrentHashMap.isSupportedKeyType(valueClass) &&
+                Boolean.parseBoolean(System.getProperty(SystemProperties.CACHE_MANAGER_PRIMITIVE_KEY_INDEXES,
+                        String.valueOf(SystemProperties.CACHE_MANAGER_PRIMITIVE_KEY_INDEXES_DEFAULT)));
+    }
+
+    private static boolean useIndexHistogram() {
+        return Boolean.parseBoolean(System.getProperty(SystemProperties.CACHE_MANAGER_INDEX_HISTOGRAMS,
+                String.valueOf(SystemProperties.CACHE_MANAGER_INDEX_HISTOGRAMS_DEFAULT)));
+    }
+
+    /**
+     * @return true if the entries stores of this index keep numeric values unboxed
+     */
+    public boolean usesPrimitiveKeyStore() {
+        return _nonUniqueEntriesStore instanceof PrimitiveKeyConcurrentHashMap;
+    }
+
     public boolean isExtendedIndex() {
         return _concurrentExtendedIndex != null;
     }
@@ -253,6 +291,29 @@ public class TypeDataIndex<K> {
         return _concurrentExtendedFifoGroupsIndex;
     }
 
+    /**
+     * @return the value distribution of an ordered index, null if not maintained
+     */
+    public IndexValueHistogram getHistogram() {
+        return _histogram;
+    }
+
+    /**
+     * @return the bitmaps of a BITMAP index, null for other index types
+     */
+    public BitmapIndexHandler<K> getBitmapIndex() {
+        return _bitmapIndex;
+    }
+
+    boolean supportsBitmapIndex() {
+        return _indexType == SpaceIndexType.BITMAP && !_unique && !isMultiValuePerEntryIndex() && !isCompound();
+    }
+
+    void initBitmapIndex(EntryOrdinals ordinals) {
+        if (_bitmapIndex == null)
+            _bitmapIndex = new BitmapIndexHandler<K>(ordinals);
+    }
+
     boolean considerValueClone() {
         return _considerValueClone;
     }
@@ -511,6 +572,10 @@ public class TypeDataIndex<K> {
                 markIndexValue(uniqueValue);
             if (backRefs != null)
                 backRefs.add(isUniqueIndex() ? pEntry : oi);
+            if (_bitmapIndex != null)
+                _bitmapIndex.insertEntryIndexedField(pEntry, fieldValue);
+            if (_histogram != null)
+                _histogram.onInsert(fieldValue);
 
 
             if (isExtendedIndex()) {
@@ -717,6 +782,10 @@ public class TypeDataIndex<K> {
                     pEntry,
                     oi);
         }
+        if (_bitmapIndex != null)
+            _bitmapIndex.removeEntryIndexedField(pEntry, fieldValue);
+        if (_histogram != null)
+            _histogram.onRemove(fieldValue);
 
         if (isExtendedIndex() && !fromFailure) {
             //extended indexing
@@ -48,6 +48,9 @@ public class XtnData {
     //if the xtn contains fifo entries, contain the serial xtn number
     private long _fifoXtnNumber = TerminatingFifoXtnsInfo.UNKNOWN_FIFO_XTN;
 
+    //names of the types whose entries are written, updated or taken under this xtn
+    private volatile Set<String> _changedTypes;
+
     private volatile Map<String, OperationID> _entriesOperationIDs;
     private volatile Map<OperationID, OperationID> _OperationIDs;
     //contains uids of updated entries unter this xtn + array of indicators in case of a relevant partial update Or
@@ -219,6 +222,26 @@ public class XtnData {
 
     }
 
+    /**
+     * signal that an entry of the type is written, updated or taken under the xtn
+     *
+     * @param typeName - name of the type of the entry
+     */
+    public void addChangedType(String typeName) {
+        Set<String> changedTypes = _changedTypes;
+        if (changedTypes == null)
+            _changedTypes = changedTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        changedTypes.add(typeName);
+    }
+
+    /**
+     * @return true if an entry of the type was written, updated or taken under the xtn
+     */
+    public boolean isChangedType(String typeName) {
+        Set<String> changedTypes = _changedTypes;
+        return changedTypes != null && changedTypes.contains(typeName);
+    }
+
     public OperationID getOperationID(String uid) {
         Map<String, OperationID> entriesOperationIDs = _entriesOperationIDs;
         return entriesOperationIDs != null ? entriesOperationIDs.get(uid) : null;
@@ -32,6 +32,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Keeps entries in off-heap memory allocated by an {@link OffHeapSlabAllocator}. An entry is
+ * updated in place when the new data fits its slot, unless it shrinks to a smaller size class by at
+ * least the minimal diff to allocate. Entries allocated above the largest size class are updated in
+ * place when the new data fits their allocated length, unless it shrinks by at least the minimal diff
+ * to allocate.
+ *
  * @author Yael Nahon
  * @since 12.2
  */
@@ -39,6 +45,7 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
 
     private Logger logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_CACHE);
     private int minimalDiffToAllocate;
+    private final OffHeapSlabAllocator allocator;
     private final LongCounter totalCounter = new LongCounter();
     private final Map<Short, LongCounter> typesCounters = new ConcurrentHashMap<Short, LongCounter>();
 
@@ -47,6 +54,7 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
         if (!UnsafeHolder.isAvailable()) {
             throw new RuntimeException(" unsafe instance could not be obtained");
         }
+        this.allocator = new OffHeapSlabAllocator(threshold);
     }
 
     public void setMinimalDiffToAllocate(int minimalDiffToAllocate) {
@@ -58,13 +66,41 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
         setMetricRegistrator(metricRegistrator);
         getMetricRegistrator().register(metricsPath("total"), totalCounter);
         getMetricRegistrator().register(percent(), createPercentGauge());
+        getMetricRegistrator().register(getMetricRegistrator().toPath("reserved-bytes"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return allocator.getReservedBytes();
+            }
+        });
+        getMetricRegistrator().register(getMetricRegistrator().toPath("allocated-bytes"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return allocator.getAllocatedBytes();
+            }
+        });
+        //share of the allocated slots which is not used by entries, due to size class rounding
+        getMetricRegistrator().register(getMetricRegistrator().toPath("fragmentation-percent"), new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                long allocated = allocator.getAllocatedBytes();
+                return allocated != 0 ? (double) (allocated - totalCounter.getCount()) / allocated : 0;
+            }
+        });
+        //share of the reserved arenas which is allocated
+        getMetricRegistrator().register(getMetricRegistrator().toPath("occupancy-percent"), new Gauge<Double>() {
+            @Override
+            public Double getValue() {
+                long reserved = allocator.getReservedBytes();
+                return reserved != 0 ? (double) allocator.getAllocatedBytes() / reserved : 0;
+            }
+        });
     }
 
     private Gauge<Double> createPercentGauge() {
         return new Gauge<Double>() {
             @Override
             public Double getValue() {
-                return threshold != 0 ? ( double )totalCounter.getCount()/threshold : 0;
+                return threshold != 0 ? ( double )getUsedBytes()/threshold : 0;
             }
         };
     }
@@ -84,7 +120,7 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
 
     @Override
     public long getUsedBytes() {
-        return totalCounter.getCount();
+        return allocator.getAllocatedBytes();
     }
 
     @Override
@@ -107,19 +143,39 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
         if (info.getOffHeapAddress() == BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY) {
             throw new IllegalStateException("trying to update when no off heap memory is allocated");
         }
-        int oldHeaderSize = getHeaderSizeFromUnsafe(info.getOffHeapAddress());
-        int oldEntryLength = getHeaderFromUnsafe(info.getOffHeapAddress(), oldHeaderSize);
-        if (oldEntryLength < buf.length || (oldEntryLength - buf.length >= minimalDiffToAllocate)) {
-            deleteImpl(info, true);
+        long address = info.getOffHeapAddress();
+        int slotSize = allocator.getSlotSize(address);
+        if (slotSize == 0) {
+            //allocated above the largest size class, the header keeps the allocated length so it is freed in full
+            int oldHeaderSize = getHeaderSizeFromUnsafe(address);
+            int oldEntryLength = getHeaderFromUnsafe(address, oldHeaderSize);
+            if (oldEntryLength < buf.length || (oldEntryLength - buf.length >= minimalDiffToAllocate))
+                allocateAndWriteImpl(info, buf, true);
+            else
+                writeBytes(address + (long) (oldHeaderSize), buf);
+            return;
+        }
+        int newSize = calculateHeaderSize(buf.length) + buf.length;
+        if (newSize > slotSize || (OffHeapSlabAllocator.sizeClassOf(newSize) != OffHeapSlabAllocator.sizeClassOf(slotSize)
+                && slotSize - newSize >= minimalDiffToAllocate)) {
             allocateAndWriteImpl(info, buf, true);
         } else {
-            writeBytes(info.getOffHeapAddress() + (long) (oldHeaderSize), buf);
+            int oldHeaderSize = getHeaderSizeFromUnsafe(address);
+            int oldEntryLength = getHeaderFromUnsafe(address, oldHeaderSize);
+            decrementMetrics(oldHeaderSize + oldEntryLength, info.getServerTypeDescCode());
+            int headerSize = putHeaderToUnsafe(address, buf.length);
+            writeBytes(address + headerSize, buf);
+            incrementMetrics(headerSize + buf.length, info.getServerTypeDescCode());
         }
     }
 
     @Override
     public void delete(IBlobStoreOffHeapInfo info) {
-        deleteImpl(info, false);
+        long address = info.getOffHeapAddress();
+        if (address != BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY) {
+            free(address, info.getServerTypeDescCode());
+            info.setOffHeapAddress(BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY);
+        }
     }
 
     @Override
@@ -153,23 +209,19 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
 
     private void allocateAndWriteImpl(IBlobStoreOffHeapInfo info, byte[] buf, boolean fromUpdate) {
         long newAddress;
+        long oldAddress = info.getOffHeapAddress();
 
-        if (info.getOffHeapAddress() == BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY) {
+        if (oldAddress == BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY) {
             fromUpdate = false;
         }
 
-        if (info.getOffHeapAddress() != BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY && !fromUpdate) {
+        if (oldAddress != BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY && !fromUpdate) {
             throw new IllegalStateException("trying to allocateAndWrite when already allocated in off heap");
         }
 
         int headerSize = calculateHeaderSize(buf.length);
         try {
-            if (fromUpdate) {
-                newAddress = UnsafeHolder.reallocateMemory(info.getOffHeapAddress(), headerSize + buf.length);
-            } else {
-                newAddress = UnsafeHolder.allocateMemory(headerSize + buf.length);
-            }
-
+            newAddress = allocator.allocate(headerSize + buf.length);
         } catch (Error e) {
             logger.error("failed to allocateAndWrite offheap space", e);
             throw e;
@@ -186,19 +238,16 @@ public class OffHeapMemoryPool extends AbstractMemoryPool {
         writeBytes(newAddress + headerSize, buf);
         info.setOffHeapAddress(newAddress);
         incrementMetrics(headerSize + buf.length, info.getServerTypeDescCode());
+        //the old data is freed only once the new one is written, so a failed update keeps it
+        if (fromUpdate)
+            free(oldAddress, info.getServerTypeDescCode());
     }
 
-    private void deleteImpl(IBlobStoreOffHeapInfo info, boolean fromUpdate) {
-        long valuesAddress = info.getOffHeapAddress();
-        if (valuesAddress != BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY) {
-            int headerSize = getHeaderSizeFromUnsafe(info.getOffHeapAddress());
-            int numOfBytes = getHeaderFromUnsafe(valuesAddress, headerSize);
-            if (!fromUpdate) {
-                UnsafeHolder.freeFromMemory(valuesAddress);
-                info.setOffHeapAddress(BlobStoreRefEntryCacheInfo.UNALLOCATED_OFFHEAP_MEMORY);
-            }
-            decrementMetrics(headerSize + numOfBytes, info.getServerTypeDescCode());
-        }
+    private void free(long address, short typeCode) {
+        int headerSize = getHeaderSizeFromUnsafe(address);
+        int numOfBytes = getHeaderFromUnsafe(address, headerSize);
+        allocator.free(address, headerSize + numOfBytes);
+        decrementMetrics(headerSize + numOfBytes, typeCode);
     }
 
     private static void writeBytes(long address, byte[] bytes) {
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.memory_pool;
+
+import com.gigaspaces.internal.utils.concurrent.UnsafeHolder;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates off-heap memory in slots of fixed size classes, carved out of slabs of large arenas
+ * which are reserved up front, so the native allocator is not involved on the hot path and freed
+ * slots are reused by later allocations of the same size class. A slab whose slots were all freed
+ * is returned to the arenas and may be reused by any size class. Allocations above the largest
+ * size class are served by the native allocator directly.
+ *
+ * A few free slots of the small size classes are cached in stripes owned by the allocator, and each
+ * thread uses the stripe of its id, so most allocations and frees only take an uncontended stripe
+ * lock. The cached slots remain available after a thread terminates, and many short lived or
+ * virtual threads share the same stripes rather than holding slots each.
+ *
+ * @since 16.5
+ */
+public class OffHeapSlabAllocator {
+    static final int SLAB_SIZE = 256 * 1024;
+    static final int MAX_SLOT_SIZE = 64 * 1024;
+    private static final int MAX_ARENA_SIZE = 64 * 1024 * 1024;
+    private static final int MAX_CACHED_SLOT_SIZE = 4 * 1024;
+    private static final int CACHE_BYTES = 8 * 1024;
+    private static final int MAX_CACHE_SLOTS = 64;
+    //16 bytes apart up to 128, then 4 size classes per power of two
+    private static final int[] SLOT_SIZES = createSlotSizes();
+
+    private final int _arenaSize;
+    private final SizeClass[] _sizeClasses;
+    //a power of two, between two and four stripes per processor
+    private final SlotCache[] _caches;
+    private final Object _arenasLock = new Object();
+    //sorted by address, replaced on each new arena
+    private volatile Arena[] _arenas = new Arena[0];
+    //guarded by the arenas lock
+    private final ArrayDeque<Slab> _freeSlabs = new ArrayDeque<Slab>();
+    private final AtomicLong _reservedBytes = new AtomicLong();
+    private final AtomicLong _allocatedBytes = new AtomicLong();
+
+    /**
+     * @param threshold the memory expected to be used, arenas are sized so a small threshold does
+     *                  not reserve much more than needed
+     */
+    public OffHeapSlabAllocator(long threshold) {
+        long slabs = Math.max(1, (threshold + SLAB_SIZE - 1) / SLAB_SIZE);
+        _arenaSize = (int) Math.min(MAX_ARENA_SIZE, slabs * SLAB_SIZE);
+        _sizeClasses = new SizeClass[SLOT_SIZES.length];
+        for (int i = 0; i < _sizeClasses.length; i++)
+            _sizeClasses[i] = new SizeClass(i, SLOT_SIZES[i]);
+        _caches = new SlotCache[Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 2];
+        for (int i = 0; i < _caches.length; i++)
+            _caches[i] = new SlotCache();
+    }
+
+    private static int[] createSlotSizes() {
+        int[] sizes = new int[64];
+        int count = 0;
+        for (int size = 16; size <= 128; size += 16)
+            sizes[count++] = size;
+        for (int base = 128; base < MAX_SLOT_SIZE; base *= 2) {
+            for (int step = 1; step <= 4; step++)
+                sizes[count++] = base + step * base / 4;
+        }
+        return Arrays.copyOf(sizes, count);
+    }
+
+    static int sizeClassOf(int size) {
+        if (size <= 128)
+            return Math.max(0, (size + 15) / 16 - 1);
+        int index = Arrays.binarySearch(SLOT_SIZES, size);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return the address of at least the specified number of bytes
+     */
+    public long allocate(int size) {
+        if (size > MAX_SLOT_SIZE) {
+            long address = UnsafeHolder.allocateMemory(size);
+            _reservedBytes.addAndGet(size);
+            _allocatedBytes.addAndGet(size);
+            return address;
+        }
+        SizeClass sizeClass = _sizeClasses[sizeClassOf(size)];
+        _allocatedBytes.addAndGet(sizeClass._slotSize);
+        if (sizeClass._cacheCapacity == 0)
+            return sizeClass.allocate();
+        return getCache().allocate(sizeClass);
+    }
+
+    /**
+     * Frees the memory at the specified address
+     *
+     * @param size the size which was allocated, only needed for allocations above the largest size
+     *             class
+     */
+    public void free(long address, int size) {
+        Slab slab = getSlab(address);
+        if (slab == null) {
+            UnsafeHolder.freeFromMemory(address);
+            _reservedBytes.addAndGet(-size);
+            _allocatedBytes.addAndGet(-size);
+            return;
+        }
+        SizeClass sizeClass = slab._sizeClass;
+        _allocatedBytes.addAndGet(-sizeClass._slotSize);
+        if (sizeClass._cacheCapacity == 0)
+            sizeClass.free(slab, address);
+        else
+            getCache().free(sizeClass, address);
+    }
+
+    /**
+     * @return the number of bytes which can be written at the specified address, or 0 if it was
+     * allocated above the largest size class
+     */
+    public int getSlotSize(long address) {
+        Slab slab = getSlab(address);
+        return slab != null ? slab._sizeClass._slotSize : 0;
+    }
+
+    /**
+     * @return the bytes reserved from the native allocator
+     */
+    public long getReservedBytes() {
+        return _reservedBytes.get();
+    }
+
+    /**
+     * @return the bytes of the slots and large allocations which were allocated and not freed
+     */
+    public long getAllocatedBytes() {
+        return _allocatedBytes.get();
+    }
+
+    private SlotCache getCache() {
+        return _caches[(int) Thread.currentThread().getId() & (_caches.length - 1)];
+    }
+
+    private Slab getSlab(long address) {
+        Arena[] arenas = _arenas;
+        int low = 0;
+        int high = arenas.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Arena arena = arenas[middle];
+            if (address < arena._address)
+                high = middle - 1;
+            else if (address >= arena._address + _arenaSize)
+                low = middle + 1;
+            else
+                return arena._slabs[(int) ((address - arena._address) / SLAB_SIZE)];
+        }
+        return null;
+    }
+
+    private Slab takeSlab(SizeClass sizeClass) {
+        synchronized (_arenasLock) {
+            Slab slab = _freeSlabs.poll();
+            if (slab == null) {
+                addArena();
+                slab = _freeSlabs.poll();
+            }
+            slab.assign(sizeClass);
+            return slab;
+        }
+    }
+
+    private void releaseSlab(Slab slab) {
+        synchronized (_arenasLock) {
+            _freeSlabs.push(slab);
+        }
+    }
+
+    //should be called under the arenas lock
+    private void addArena() {
+        long address = UnsafeHolder.allocateMemory(_arenaSize);
+        if (address == 0)
+            throw new OutOfMemoryError("failed reserving an off heap arena of " + _arenaSize + " bytes");
+        Arena arena = new Arena(address, _arenaSize / SLAB_SIZE);
+        Arena[] arenas = Arrays.copyOf(_arenas, _arenas.length + 1);
+        int index = arenas.length - 1;
+        while (index > 0 && arenas[index - 1]._address > address) {
+            arenas[index] = arenas[index - 1];
+            index--;
+        }
+        arenas[index] = arena;
+        _arenas = arenas;
+        for (Slab slab : arena._slabs)
+            _freeSlabs.add(slab);
+        _reservedBytes.addAndGet(_arenaSize);
+    }
+
+    private static final class Arena {
+        private final long _address;
+        private final Slab[] _slabs;
+
+        private Arena(long address, int slabs) {
+            _address = address;
+            _slabs = new Slab[slabs];
+            for (int i = 0; i < slabs; i++)
+                _slabs[i] = new Slab(address + (long) i * SLAB_SIZE);
+        }
+    }
+
+    /**
+     * A slab hands out the slots of one size class, first by bumping an offset and then from a list
+     * of freed slots, which is linked through the first bytes of the freed slots themselves.
+     * Guarded by the lock of its size class.
+     */
+    private static final class Slab {
+        private final long _address;
+        private volatile SizeClass _sizeClass;
+        private int _slotSize;
+        private int _capacity;
+        private int _used;
+        private int _bumpOffset;
+        private int _freeOffset;
+
+        private Slab(long address) {
+            _address = address;
+        }
+
+        private void assign(SizeClass sizeClass) {
+            _slotSize = sizeClass._slotSize;
+            _capacity = SLAB_SIZE / _slotSize;
+            _used = 0;
+            _bumpOffset = 0;
+            _freeOffset = -1;
+            _sizeClass = sizeClass;
+        }
+
+        private boolean isFull() {
+            return _used == _capacity;
+        }
+
+        private long allocate() {
+            _used++;
+            if (_freeOffset < 0) {
+                long address = _address + _bumpOffset;
+                _bumpOffset += _slotSize;
+                return address;
+            }
+            long address = _address + _freeOffset;
+            _freeOffset = UnsafeHolder.getInt(address);
+            return address;
+        }
+
+        private void free(long address) {
+            _used--;
+            UnsafeHolder.putInt(address, _freeOffset);
+            _freeOffset = (int) (address - _address);
+        }
+    }
+
+    private final class SizeClass {
+        private final int _index;
+        private final int _slotSize;
+        private final int _cacheCapacity;
+        private Slab _current;
+        //slabs other than the current one which have free slots
+        private final ArrayDeque<Slab> _partialSlabs = new ArrayDeque<Slab>();
+
+        private SizeClass(int index, int slotSize) {
+            _index = index;
+            _slotSize = slotSize;
+            _cacheCapacity = slotSize > MAX_CACHED_SLOT_SIZE ? 0 : Math.min(MAX_CACHE_SLOTS, CACHE_BYTES / slotSize);
+        }
+
+        private synchronized long allocate() {
+            if (_current == null || _current.isFull()) {
+                _current = _partialSlabs.poll();
+                if (_current == null)
+                    _current = takeSlab(this);
+            }
+            return _current.allocate();
+        }
+
+        private synchronized void allocate(long[] addresses, int count) {
+            for (int i = 0; i < count; i++)
+                addresses[i] = allocate();
+        }
+
+        private synchronized void free(Slab slab, long address) {
+            boolean wasFull = slab.isFull();
+            slab.free(address);
+            if (slab == _current)
+                return;
+            if (slab._used == 0) {
+                if (!wasFull)
+                    _partialSlabs.remove(slab);
+                releaseSlab(slab);
+            } else if (wasFull) {
+                _partialSlabs.add(slab);
+            }
+        }
+
+        private synchronized void free(long[] addresses, int from, int count) {
+            for (int i = from; i < from + count; i++)
+                free(getSlab(addresses[i]), addresses[i]);
+        }
+    }
+
+    private final class SlotCache {
+        private final long[][] _slots = new long[SLOT_SIZES.length][];
+        private final int[] _counts = new int[SLOT_SIZES.length];
+
+        private synchronized long allocate(SizeClass sizeClass) {
+            int index = sizeClass._index;
+            long[] slots = _slots[index];
+            if (slots == null)
+                slots = _slots[index] = new long[sizeClass._cacheCapacity];
+            if (_counts[index] == 0) {
+                //refill half of the cache at once
+                _counts[index] = Math.max(1, slots.length / 2);
+                sizeClass.allocate(slots, _counts[index]);
+            }
+            return slots[--_counts[index]];
+        }
+
+        private synchronized void free(SizeClass sizeClass, long address) {
+            int index = sizeClass._index;
+            long[] slots = _slots[index];
+            if (slots == null)
+                slots = _slots[index] = new long[sizeClass._cacheCapacity];
+            if (_counts[index] == slots.length) {
+                //return the older half of the cache at once
+                int count = slots.length / 2;
+                sizeClass.free(slots, 0, count);
+                System.arraycopy(slots, count, slots, 0, slots.length - count);
+                _counts[index] -= count;
+            }
+            slots[_counts[index]++] = address;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.log;
+
+import com.gigaspaces.internal.utils.concurrent.UnsafeHolder;
+import com.gigaspaces.server.blobstore.BlobStoreException;
+import com.gigaspaces.server.blobstore.BlobStoreObjectType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * A single memory mapped file of the {@link LogStructuredBlobStoreStorageHandler} log. Records are
+ * only appended to a segment, and a segment is deleted once the compactor moved its live records
+ * to the end of the log.
+ *
+ * A record is laid out as: length (int, of the entire record), crc (int, of the bytes following
+ * it), object type (byte), flags (byte), id length (int), id bytes and data bytes. Unused space in
+ * the file is zeroed, so a zero length marks the end of the records.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LogSegment {
+    static final int HEADER_SIZE = 14;
+    private static final int CRC_OFFSET = 4;
+    private static final int TYPE_OFFSET = 8;
+    private static final int FLAGS_OFFSET = 9;
+    private static final int ID_LENGTH_OFFSET = 10;
+
+    private static final byte FLAG_TOMBSTONE = 1;
+    private static final byte FLAG_STRING_ID = 2;
+    private static final byte FLAG_BYTES_DATA = 4;
+
+    private static final String FILE_PREFIX = "segment-";
+    private static final String FILE_SUFFIX = ".log";
+    private static final BlobStoreObjectType[] OBJECT_TYPES = BlobStoreObjectType.values();
+
+    private final int _sequence;
+    private final File _file;
+    private final MappedByteBuffer _buffer;
+    private final AtomicInteger _deadBytes = new AtomicInteger();
+    //only modified under the log append lock
+    private volatile int _writePosition;
+
+    private LogSegment(File file, int sequence, int capacity) {
+        _file = file;
+        _sequence = sequence;
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                //the mapping remains valid after the file is closed
+                _buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } finally {
+                raf.close();
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException("failed mapping log segment " + file, e);
+        }
+    }
+
+    /**
+     * Creates a new empty segment file of the specified capacity in the specified directory
+     */
+    public static LogSegment create(File directory, int sequence, int capacity) {
+        File file = new File(directory, FILE_PREFIX + sequence + FILE_SUFFIX);
+        if (file.exists() && !file.delete())
+            throw new BlobStoreException("failed deleting stale log segment " + file);
+        return new LogSegment(file, sequence, capacity);
+    }
+
+    /**
+     * Maps an existing segment file, its records should be recovered with {@link
+     * #validRecordLength(int)} before it is used.
+     */
+    public static LogSegment open(File file) {
+        return new LogSegment(file, sequenceOf(file), (int) file.length());
+    }
+
+    /**
+     * @return the sequence of the specified segment file, or -1 if it is not a segment file
+     */
+    public static int sequenceOf(File file) {
+        String name = file.getName();
+        if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX))
+            return -1;
+        try {
+            return Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public int getSequence() {
+        return _sequence;
+    }
+
+    public int getCapacity() {
+        return _buffer.capacity();
+    }
+
+    public int getWritePosition() {
+        return _writePosition;
+    }
+
+    void setWritePosition(int writePosition) {
+        _writePosition = writePosition;
+    }
+
+    /**
+     * @return bytes of records which were appended and are still referenced
+     */
+    public int getLiveBytes() {
+        return _writePosition - _deadBytes.get();
+    }
+
+    /**
+     * Appends the specified record, should be called under the log append lock
+     *
+     * @return the offset of the record, or -1 if there is no room left for it
+     */
+    public int append(byte[] record) {
+        int offset = _writePosition;
+        if (record.length > _buffer.capacity() - offset)
+            return -1;
+        ByteBuffer buffer = _buffer.duplicate();
+        buffer.position(offset);
+        buffer.put(record);
+        _writePosition = offset + record.length;
+        return offset;
+    }
+
+    public byte[] read(int offset) {
+        ByteBuffer buffer = _buffer.duplicate();
+        byte[] record = new byte[buffer.getInt(offset)];
+        buffer.position(offset);
+        buffer.get(record);
+        return record;
+    }
+
+    /**
+     * Marks the record at the specified offset as no longer referenced
+     */
+    public void release(int offset) {
+        _deadBytes.addAndGet(_buffer.getInt(offset));
+    }
+
+    /**
+     * @return the length of the record at the specified offset, or 0 if there is no complete
+     * record there
+     */
+    public int validRecordLength(int offset) {
+        if (offset > _buffer.capacity() - HEADER_SIZE)
+            return 0;
+        int length = _buffer.getInt(offset);
+        if (length < HEADER_SIZE || length > _buffer.capacity() - offset)
+            return 0;
+        ByteBuffer buffer = _buffer.duplicate();
+        buffer.position(offset + TYPE_OFFSET);
+        buffer.limit(offset + length);
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue() == _buffer.getInt(offset + CRC_OFFSET) ? length : 0;
+    }
+
+    /**
+     * Flushes the appended records to the storage device
+     */
+    public void force() {
+        _buffer.force();
+    }
+
+    /**
+     * Deletes the segment file. The mapping is left for the garbage collector, since concurrent
+     * readers may still hold this segment.
+     */
+    public void delete() {
+        _file.delete();
+    }
+
+    /**
+     * Unmaps the segment, no reads may follow
+     */
+    public void close() {
+        UnsafeHolder.freeDirectBuffer(_buffer);
+    }
+
+    public static byte[] encode(BlobStoreObjectType objectType, Serializable id, Serializable data) {
+        byte flags = 0;
+        byte[] idBytes;
+        if (id instanceof String) {
+            flags |= FLAG_STRING_ID;
+            idBytes = ((String) id).getBytes(StandardCharsets.UTF_8);
+        } else {
+            idBytes = serialize(id);
+        }
+        byte[] dataBytes;
+        if (data == null) {
+            flags |= FLAG_TOMBSTONE;
+            dataBytes = new byte[0];
+        } else if (data instanceof byte[]) {
+            flags |= FLAG_BYTES_DATA;
+            dataBytes = (byte[]) data;
+        } else {
+            dataBytes = serialize(data);
+        }
+
+        byte[] record = new byte[HEADER_SIZE + idBytes.length + dataBytes.length];
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putInt(record.length);
+        buffer.putInt(0);
+        buffer.put((byte) objectType.ordinal());
+        buffer.put(flags);
+        buffer.putInt(idBytes.length);
+        buffer.put(idBytes);
+        buffer.put(dataBytes);
+        CRC32 crc = new CRC32();
+        crc.update(record, TYPE_OFFSET, record.length - TYPE_OFFSET);
+        buffer.putInt(CRC_OFFSET, (int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * @return a record which marks the removal of the specified id
+     */
+    public static byte[] encodeTombstone(BlobStoreObjectType objectType, Serializable id) {
+        return encode(objectType, id, null);
+    }
+
+    public static BlobStoreObjectType objectType(byte[] record) {
+        return OBJECT_TYPES[record[TYPE_OFFSET]];
+    }
+
+    public static boolean isTombstone(byte[] record) {
+        return (record[FLAGS_OFFSET] & FLAG_TOMBSTONE) != 0;
+    }
+
+    public static Serializable id(byte[] record) {
+        int idLength = ByteBuffer.wrap(record).getInt(ID_LENGTH_OFFSET);
+        if ((record[FLAGS_OFFSET] & FLAG_STRING_ID) != 0)
+            return new String(record, HEADER_SIZE, idLength, StandardCharsets.UTF_8);
+        return deserialize(record, HEADER_SIZE, idLength);
+    }
+
+    public static Serializable data(byte[] record) {
+        int dataOffset = HEADER_SIZE + ByteBuffer.wrap(record).getInt(ID_LENGTH_OFFSET);
+        if ((record[FLAGS_OFFSET] & FLAG_BYTES_DATA) == 0)
+            return deserialize(record, dataOffset, record.length - dataOffset);
+        byte[] data = new byte[record.length - dataOffset];
+        System.arraycopy(record, dataOffset, data, 0, data.length);
+        return data;
+    }
+
+    private static byte[] serialize(Serializable object) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(object);
+            out.close();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new BlobStoreException(e);
+        }
+    }
+
+    private static Serializable deserialize(byte[] bytes, int offset, int length) {
+        try {
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length));
+            try {
+                return (Serializable) in.readObject();
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new BlobStoreException(e);
+        } catch (ClassNotFoundException e) {
+            throw new BlobStoreException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LogSegment{sequence=" + _sequence + ", writePosition=" + _writePosition + ", liveBytes=" + getLiveBytes() + "}";
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.core.cache.blobStore.storage.log;
+
+import com.gigaspaces.datasource.DataIterator;
+import com.gigaspaces.internal.utils.concurrent.GSThreadFactory;
+import com.gigaspaces.server.blobstore.BlobStoreAddBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationType;
+import com.gigaspaces.server.blobstore.BlobStoreConfig;
+import com.gigaspaces.server.blobstore.BlobStoreException;
+import com.gigaspaces.server.blobstore.BlobStoreGetBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreObjectType;
+import com.gigaspaces.server.blobstore.BlobStoreRemoveBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreReplaceBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreStorageHandler;
+import com.gigaspaces.server.blobstore.BlobStoreStorageStatistics;
+import com.gigaspaces.start.SystemLocations;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BlobStoreStorageHandler} which appends every add, replace and remove to a log of memory
+ * mapped segment files, and keeps the position of the latest record of each id in an in-heap
+ * table. Reads are served from the mapped segments, so a read costs one table lookup and one copy
+ * out of the page cache.
+ *
+ * Replaced and removed records leave dead bytes behind. A background compactor moves the live
+ * records of sealed segments whose live ratio dropped below the compaction threshold to the end of
+ * the log, and deletes those segments. Operations and moves of the same id are serialized by a
+ * striped lock, so the latest record of an id is always the last one in the log.
+ *
+ * Records are not flushed to the device on every operation unless <tt>syncOnWrite</tt> is set, a
+ * bulk is flushed once after all its operations were appended. When <tt>persistent</tt> is set,
+ * removals are logged as well and a warm start rebuilds the table by replaying the segments,
+ * ignoring a torn record at the end of a segment.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class LogStructuredBlobStoreStorageHandler extends BlobStoreStorageHandler {
+    private static final Logger _logger = LoggerFactory.getLogger(com.gigaspaces.logger.Constants.LOGGER_CACHE);
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+    private static final long DEFAULT_COMPACTION_INTERVAL = 1000;
+    private static final int ID_LOCKS = 1024;
+
+    private String _directoryName;
+    private int _segmentSize = DEFAULT_SEGMENT_SIZE;
+    private double _compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private long _compactionInterval = DEFAULT_COMPACTION_INTERVAL;
+    private boolean _persistent;
+    private boolean _syncOnWrite;
+
+    private File _directory;
+    private final ConcurrentSkipListMap<Integer, LogSegment> _segments = new ConcurrentSkipListMap<Integer, LogSegment>();
+    private final ConcurrentHashMap<Serializable, Long>[] _tables;
+    private final Object[] _idLocks = new Object[ID_LOCKS];
+    private final Object _appendLock = new Object();
+    //guarded by the append lock
+    private LogSegment _activeSegment;
+    //segments which were sealed since the last flush, guarded by the append lock
+    private final List<LogSegment> _unflushedSegments = new ArrayList<LogSegment>();
+    private ScheduledExecutorService _compactor;
+    private final AtomicLong _compactedSegments = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public LogStructuredBlobStoreStorageHandler() {
+        _tables = new ConcurrentHashMap[BlobStoreObjectType.values().length];
+        for (int i = 0; i < _tables.length; i++)
+            _tables[i] = new ConcurrentHashMap<Serializable, Long>(16, 0.75f, 128);
+        for (int i = 0; i < _idLocks.length; i++)
+            _idLocks[i] = new Object();
+    }
+
+    /**
+     * Sets the directory of the segment files, defaults to <tt>work/blobstore/[space name]</tt>
+     */
+    public void setDirectory(String directoryName) {
+        _directoryName = directoryName;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        _segmentSize = segmentSize;
+    }
+
+    /**
+     * Sets the ratio of live bytes below which a sealed segment is compacted
+     */
+    public void setCompactionThreshold(double compactionThreshold) {
+        _compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Sets the interval in milliseconds between compactor runs, a non positive interval disables
+     * the background compactor
+     */
+    public void setCompactionInterval(long compactionInterval) {
+        _compactionInterval = compactionInterval;
+    }
+
+    public void setPersistent(boolean persistent) {
+        _persistent = persistent;
+    }
+
+    public void setSyncOnWrite(boolean syncOnWrite) {
+        _syncOnWrite = syncOnWrite;
+    }
+
+    @Override
+    public void initialize(BlobStoreConfig blobStoreConfig) {
+        _directory = _directoryName != null ? new File(_directoryName)
+                : SystemLocations.singleton().work("blobstore").resolve(blobStoreConfig.getSpaceName()).toFile();
+        if (!_directory.isDirectory() && !_directory.mkdirs())
+            throw new BlobStoreException("failed creating blobstore directory " + _directory);
+
+        File[] files = _directory.listFiles();
+        for (File file : files != null ? files : new File[0]) {
+            if (LogSegment.sequenceOf(file) < 0)
+                continue;
+            if (_persistent && blobStoreConfig.isWarmStart())
+                _segments.put(LogSegment.sequenceOf(file), LogSegment.open(file));
+            else
+                file.delete();
+        }
+        synchronized (_appendLock) {
+            for (LogSegment segment : _segments.values())
+                recover(segment);
+            if (_segments.isEmpty())
+                _segments.put(0, LogSegment.create(_directory, 0, _segmentSize));
+            _activeSegment = _segments.lastEntry().getValue();
+        }
+        if (_logger.isInfoEnabled())
+            _logger.info("Initialized log structured blobstore at " + _directory + " with " + _segments.size() + " segments");
+
+        if (_compactionInterval > 0) {
+            _compactor = Executors.newSingleThreadScheduledExecutor(GSThreadFactory.daemon("BlobStoreLogCompactor"));
+            _compactor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        compact();
+                    } catch (Throwable t) {
+                        _logger.warn("Failed compacting blobstore log", t);
+                    }
+                }
+            }, _compactionInterval, _compactionInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void recover(LogSegment segment) {
+        int offset = 0;
+        int length;
+        while ((length = segment.validRecordLength(offset)) > 0) {
+            byte[] record = segment.read(offset);
+            Map<Serializable, Long> table = getTable(LogSegment.objectType(record));
+            Long previous;
+            if (LogSegment.isTombstone(record)) {
+                previous = table.remove(LogSegment.id(record));
+                segment.release(offset);
+            } else {
+                previous = table.put(LogSegment.id(record), toPosition(segment.getSequence(), offset));
+            }
+            if (previous != null)
+                release(previous);
+            offset += length;
+        }
+        segment.setWritePosition(offset);
+    }
+
+    @Override
+    public Object add(Serializable id, Serializable data, BlobStoreObjectType objectType) {
+        Object result = addImpl(id, data, objectType);
+        if (_syncOnWrite)
+            flush();
+        return result;
+    }
+
+    private Object addImpl(Serializable id, Serializable data, BlobStoreObjectType objectType) {
+        Map<Serializable, Long> table = getTable(objectType);
+        synchronized (lockOf(id)) {
+            if (table.containsKey(id))
+                throw new BlobStoreException("key already exist " + id);
+            table.put(id, append(LogSegment.encode(objectType, id, data)));
+        }
+        return null;
+    }
+
+    @Override
+    public Serializable get(Serializable id, Object position, BlobStoreObjectType objectType) {
+        byte[] record = readRecord(getTable(objectType), id);
+        return record != null ? LogSegment.data(record) : null;
+    }
+
+    @Override
+    public Object replace(Serializable id, Serializable data, Object position, BlobStoreObjectType objectType) {
+        Object result = replaceImpl(id, data, objectType);
+        if (_syncOnWrite)
+            flush();
+        return result;
+    }
+
+    private Object replaceImpl(Serializable id, Serializable data, BlobStoreObjectType objectType) {
+        Map<Serializable, Long> table = getTable(objectType);
+        synchronized (lockOf(id)) {
+            if (!table.containsKey(id))
+                throw new BlobStoreException("no key exist " + id);
+            Long previous = table.put(id, append(LogSegment.encode(objectType, id, data)));
+            if (previous != null)
+                release(previous);
+        }
+        return null;
+    }
+
+    @Override
+    public Serializable remove(Serializable id, Object position, BlobStoreObjectType objectType) {
+        Serializable result = removeImpl(id, objectType);
+        if (_syncOnWrite)
+            flush();
+        return result;
+    }
+
+    private Serializable removeImpl(Serializable id, BlobStoreObjectType objectType) {
+        Map<Serializable, Long> table = getTable(objectType);
+        byte[] record;
+        synchronized (lockOf(id)) {
+            record = readRecord(table, id);
+            Long previous = table.remove(id);
+            if (record == null || previous == null)
+                throw new BlobStoreException("remove: didn't find object with id=" + id);
+            release(previous);
+            if (_persistent)
+                release(append(LogSegment.encodeTombstone(objectType, id)));
+        }
+        return LogSegment.data(record);
+    }
+
+    @Override
+    public List<BlobStoreBulkOperationResult> executeBulk(List<BlobStoreBulkOperationRequest> operations, BlobStoreObjectType objectType, boolean transactional) {
+        List<BlobStoreBulkOperationResult> result = new ArrayList<BlobStoreBulkOperationResult>(operations.size());
+        for (BlobStoreBulkOperationRequest request : operations) {
+            Serializable id = request.getId();
+            try {
+                if (request.getOpType() == BlobStoreBulkOperationType.ADD) {
+                    result.add(new BlobStoreAddBulkOperationResult(id, addImpl(id, request.getData(), objectType)));
+                } else if (request.getOpType() == BlobStoreBulkOperationType.REMOVE) {
+                    removeImpl(id, objectType);
+                    result.add(new BlobStoreRemoveBulkOperationResult(id));
+                } else if (request.getOpType() == BlobStoreBulkOperationType.REPLACE) {
+                    result.add(new BlobStoreReplaceBulkOperationResult(id, replaceImpl(id, request.getData(), objectType), request.getOffHeapInfo()));
+                } else if (request.getOpType() == BlobStoreBulkOperationType.GET) {
+                    result.add(new BlobStoreGetBulkOperationResult(id, get(id, request.getPosition(), objectType), request.getPosition(), request.getOffHeapInfo()));
+                }
+            } catch (Exception ex) {
+                //the log has no rollback, the operations which preceded the failure remain applied
+                if (transactional)
+                    throw new BlobStoreException("bulk operation failed for id " + id, ex);
+                result.add(failedResult(request.getOpType(), id, ex));
+            }
+        }
+        //a single flush for the entire bulk
+        flush();
+        return result;
+    }
+
+    private static BlobStoreBulkOperationResult failedResult(BlobStoreBulkOperationType opType, Serializable id, Exception ex) {
+        switch (opType) {
+            case ADD:
+                return new BlobStoreAddBulkOperationResult(id, ex);
+            case REMOVE:
+                return new BlobStoreRemoveBulkOperationResult(id, ex);
+            case REPLACE:
+                return new BlobStoreReplaceBulkOperationResult(id, ex);
+            default:
+                return new BlobStoreGetBulkOperationResult(id, ex);
+        }
+    }
+
+    @Override
+    public DataIterator<BlobStoreGetBulkOperationResult> iterator(BlobStoreObjectType objectType) {
+        return new TableIterator(getTable(objectType));
+    }
+
+    @Override
+    public BlobStoreStorageStatistics getStatistics() {
+        return new Statistics();
+    }
+
+    @Override
+    public Boolean isPersistent() {
+        return _persistent;
+    }
+
+    @Override
+    public void close() {
+        if (_compactor != null) {
+            _compactor.shutdownNow();
+            try {
+                //the segments are unmapped below, so a running compaction must end first
+                _compactor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (_appendLock) {
+            if (_persistent)
+                flush();
+            for (LogSegment segment : _segments.values())
+                segment.close();
+            _segments.clear();
+            _unflushedSegments.clear();
+            _activeSegment = null;
+        }
+        for (Map<Serializable, Long> table : _tables)
+            table.clear();
+    }
+
+    /**
+     * Flushes the records appended so far to the storage device
+     */
+    public void flush() {
+        synchronized (_appendLock) {
+            for (LogSegment segment : _unflushedSegments)
+                segment.force();
+            _unflushedSegments.clear();
+            if (_activeSegment != null)
+                _activeSegment.force();
+        }
+    }
+
+    /**
+     * Compacts the sealed segments whose live ratio is below the compaction threshold, oldest
+     * first.
+     *
+     * @return number of compacted segments
+     */
+    public synchronized int compact() {
+        int compacted = 0;
+        for (LogSegment segment : _segments.values()) {
+            synchronized (_appendLock) {
+                if (segment == _activeSegment)
+                    break;
+            }
+            if (segment.getLiveBytes() < segment.getWritePosition() * _compactionThreshold) {
+                compact(segment);
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    private void compact(LogSegment segment) {
+        boolean oldest = _segments.firstKey() == segment.getSequence();
+        int offset = 0;
+        while (offset < segment.getWritePosition()) {
+            byte[] record = segment.read(offset);
+            Map<Serializable, Long> table = getTable(LogSegment.objectType(record));
+            Serializable id = LogSegment.id(record);
+            //a record moved after a newer record of its id would win on warm start
+            synchronized (lockOf(id)) {
+                if (LogSegment.isTombstone(record)) {
+                    //a tombstone only matters while older segments may hold records of its id
+                    if (!oldest && !table.containsKey(id))
+                        release(append(record));
+                } else {
+                    long position = toPosition(segment.getSequence(), offset);
+                    Long current = table.get(id);
+                    if (current != null && current == position)
+                        table.put(id, append(record));
+                }
+            }
+            offset += record.length;
+        }
+        //the moved records must be durable before the segment is gone
+        if (_persistent)
+            flush();
+        _segments.remove(segment.getSequence());
+        segment.delete();
+        _compactedSegments.incrementAndGet();
+        if (_logger.isDebugEnabled())
+            _logger.debug("Compacted blobstore log segment " + segment);
+    }
+
+    private long append(byte[] record) {
+        synchronized (_appendLock) {
+            if (_activeSegment == null)
+                throw new BlobStoreException("blobstore is closed");
+            int offset = _activeSegment.append(record);
+            if (offset < 0) {
+                _unflushedSegments.add(_activeSegment);
+                int sequence = _activeSegment.getSequence() + 1;
+                _activeSegment = LogSegment.create(_directory, sequence, Math.max(_segmentSize, record.length));
+                _segments.put(sequence, _activeSegment);
+                offset = _activeSegment.append(record);
+            }
+            return toPosition(_activeSegment.getSequence(), offset);
+        }
+    }
+
+    private byte[] readRecord(Map<Serializable, Long> table, Serializable id) {
+        while (true) {
+            Long position = table.get(id);
+            if (position == null)
+                return null;
+            LogSegment segment = _segments.get(sequenceOf(position));
+            //a null segment was just compacted, and the table already points to the moved record
+            if (segment != null)
+                return segment.read(offsetOf(position));
+        }
+    }
+
+    private void release(long position) {
+        LogSegment segment = _segments.get(sequenceOf(position));
+        if (segment != null)
+            segment.release(offsetOf(position));
+    }
+
+    private Object lockOf(Serializable id) {
+        return _idLocks[(id.hashCode() & Integer.MAX_VALUE) % _idLocks.length];
+    }
+
+    private ConcurrentHashMap<Serializable, Long> getTable(BlobStoreObjectType objectType) {
+        return _tables[objectType.ordinal()];
+    }
+
+    private static long toPosition(int sequence, int offset) {
+        return ((long) sequence << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int sequenceOf(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private class TableIterator implements DataIterator<BlobStoreGetBulkOperationResult> {
+        private final Map<Serializable, Long> _table;
+        private final Iterator<Serializable> _ids;
+        private BlobStoreGetBulkOperationResult _next;
+
+        private TableIterator(Map<Serializable, Long> table) {
+            _table = table;
+            _ids = table.keySet().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            //ids removed while iterating are skipped
+            while (_next == null && _ids.hasNext()) {
+                Serializable id = _ids.next();
+                byte[] record = readRecord(_table, id);
+                if (record != null)
+                    _next = new BlobStoreGetBulkOperationResult(id, LogSegment.data(record), null, null);
+            }
+            return _next != null;
+        }
+
+        @Override
+        public BlobStoreGetBulkOperationResult next() {
+            hasNext();
+            BlobStoreGetBulkOperationResult result = _next;
+            _next = null;
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private class Statistics implements BlobStoreStorageStatistics {
+        @Override
+        public String getName() {
+            return "log-structured";
+        }
+
+        @Override
+        public Map<String, String> toProperties() {
+            long totalBytes = 0;
+            long liveBytes = 0;
+            int segments = 0;
+            for (LogSegment segment : _segments.values()) {
+                totalBytes += segment.getWritePosition();
+                liveBytes += segment.getLiveBytes();
+                segments++;
+            }
+            Map<String, String> properties = new HashMap<String, String>();
+            properties.put("directory", String.valueOf(_directory));
+            properties.put("segments", String.valueOf(segments));
+            properties.put("total-bytes", String.valueOf(totalBytes));
+            properties.put("live-bytes", String.valueOf(liveBytes));
+            properties.put("compacted-segments", String.valueOf(_compactedSegments.get()));
+            return properties;
+        }
+    }
+}
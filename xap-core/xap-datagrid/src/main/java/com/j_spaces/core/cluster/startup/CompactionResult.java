@@ -7,6 +7,7 @@ package com.j_spaces.core.cluster.startup;
 public class CompactionResult {
     private long discardedCount = 0;
     private int deletedFromTxn = 0;
+    private long discardedWeight = 0;
 
     public CompactionResult() {
     }
@@ -40,6 +41,14 @@ public class CompactionResult {
         this.deletedFromTxn = deletedFromTxn;
     }
 
+    public long getDiscardedWeight() {
+        return discardedWeight;
+    }
+
+    public void increaseDiscardedWeight(long discardedWeight) {
+        this.discardedWeight += discardedWeight;
+    }
+
     public boolean isEmpty() {
         return this.discardedCount == 0 && this.deletedFromTxn == 0;
     }
@@ -47,5 +56,6 @@ public class CompactionResult {
     public void appendResult(CompactionResult other) {
         this.discardedCount += other.getDiscardedCount();
         this.deletedFromTxn += other.getDeletedFromTxn();
+        this.discardedWeight += other.getDiscardedWeight();
     }
 }
@@ -1,13 +1,19 @@
 package com.j_spaces.core.cluster.startup;
 
+import com.gigaspaces.internal.cluster.node.impl.ReplicationSingleOperationType;
 import com.gigaspaces.internal.cluster.node.impl.backlog.globalorder.GlobalOrderDiscardedReplicationPacket;
 import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
 import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacketEntryData;
 import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationTransactionalPacketEntryData;
 import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.AbstractTransactionReplicationPacketData;
 import com.j_spaces.core.cluster.ReplicationPolicy;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 
 /**
  * @author Yael Nahon
@@ -96,4 +102,74 @@ public class RedoLogCompactionUtil {
             return packet;
         }
     }
+
+    /**
+     * Discards full updates which are superseded by a later full update or take of the same entry,
+     * starting from the specified key. The packets list should hold packets of consecutive keys.
+     *
+     * A write is never discarded, and neither are the last operation of each entry, so targets which
+     * already received some of the packets in the range converge to the same state. Any other
+     * operation on an entry, and any packet which is not a single entry one, stops the coalescing
+     * of the entries it may affect.
+     *
+     * @param from key to start coalescing from, should be greater than the last key confirmed by
+     *             any target
+     * @return the number and weight of the discarded packets
+     */
+    public static CompactionResult coalesce(long from, List packets) {
+        final CompactionResult result = new CompactionResult();
+        if (packets.isEmpty()) {
+            return result;
+        }
+        final long firstKey = ((IReplicationOrderedPacket) packets.get(0)).getKey();
+        final int fromIndex = (int) Math.max(0, from - firstKey);
+        if (fromIndex >= packets.size()) {
+            return result;
+        }
+
+        //first pass finds the superseded packets, by their offset from the start index
+        final BitSet superseded = new BitSet();
+        final Map<String, Integer> lastFullUpdates = new HashMap<String, Integer>();
+        ListIterator iterator = packets.listIterator(fromIndex);
+        for (int offset = 0; iterator.hasNext(); offset++) {
+            IReplicationOrderedPacket packet = (IReplicationOrderedPacket) iterator.next();
+            if (packet.isDiscardedPacket()) {
+                continue;
+            }
+            IReplicationPacketData<?> data = packet.getData();
+            IReplicationPacketEntryData entryData = data != null && data.isSingleEntryData() ? data.getSingleEntryData() : null;
+            if (entryData == null || entryData.getUid() == null) {
+                //cannot tell which entries are affected
+                lastFullUpdates.clear();
+                continue;
+            }
+            String uid = entryData.getUid();
+            Integer previous = lastFullUpdates.remove(uid);
+            if (data.isFromGateway()) {
+                continue;
+            }
+            ReplicationSingleOperationType operationType = entryData.getOperationType();
+            boolean fullUpdate = operationType == ReplicationSingleOperationType.UPDATE && entryData.containsFullEntryData();
+            if (previous != null && (fullUpdate || operationType == ReplicationSingleOperationType.REMOVE_ENTRY)) {
+                superseded.set(previous);
+            }
+            if (fullUpdate) {
+                lastFullUpdates.put(uid, offset);
+            }
+        }
+
+        if (superseded.isEmpty()) {
+            return result;
+        }
+        iterator = packets.listIterator(fromIndex);
+        for (int offset = 0; iterator.hasNext(); offset++) {
+            IReplicationOrderedPacket packet = (IReplicationOrderedPacket) iterator.next();
+            if (superseded.get(offset)) {
+                result.increaseDiscardedCount(1);
+                result.increaseDiscardedWeight(packet.getWeight());
+                iterator.set(new GlobalOrderDiscardedReplicationPacket(packet.getKey()));
+            }
+        }
+        return result;
+    }
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ import com.j_spaces.core.client.Modifiers;
 import com.j_spaces.core.multiple.write.IWriteResult;
 import com.j_spaces.jdbc.driver.GConnection;
 import com.j_spaces.jdbc.driver.GPreparedStatement;
+import com.j_spaces.jdbc.parser.PreparedNode;
 import com.j_spaces.jdbc.parser.grammar.SqlParser;
 import com.j_spaces.jdbc.request.SetAutoCommitRequest;
 import com.j_spaces.jdbc.request.SetTransaction;
@@ -51,6 +52,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.j_spaces.core.multiple.write.IWriteResult.ResultType.ERROR;
 
@@ -69,6 +71,12 @@ public class QueryHandler {
     private final ISpaceProxy _spaceCluster;
     private final ISpaceProxy _spaceRegular;
     private final QueryCache _queryCache;
+    // select statements whose literals were replaced by parameters, keyed by schema version and normalized text
+    private final QueryCache _normalizedQueryCache;
+    // normalized select statements with the values of their literals, keyed by their raw text
+    private final QueryCache _rawQueryCache;
+    // incremented when tables are altered or dropped, so that plans of the previous schema are not used
+    private final AtomicLong _schemaVersion = new AtomicLong();
     private final QueryProcessorConfiguration _config;
     private final SecurityInterceptor securityInterceptor;
 
@@ -81,6 +89,8 @@ public class QueryHandler {
         _spaceRegular = (ISpaceProxy) spaceRegular;
         this.securityInterceptor = securityInterceptor;
         _queryCache = QueryCache.create();
+        _normalizedQueryCache = QueryCache.create();
+        _rawQueryCache = QueryCache.create();
         _config = config;
     }
 
@@ -112,6 +122,8 @@ public class QueryHandler {
                     ((SelectQuery) query).setExplainPlan(new ExplainPlanImpl(null));
                 }
                 response = query.executeOnSpace(space, session.getTransaction());
+                if (query instanceof AlterTableQuery || query instanceof DropTableQuery)
+                    invalidateQueries();
                 if (query instanceof AbstractDMLQuery && ((AbstractDMLQuery) query).getExplainPlan() != null) {
                     response = new ExplainPlanResponsePacket(response, ((AbstractDMLQuery) query).getExplainPlan().toString());
                 }
@@ -238,6 +250,11 @@ public class QueryHandler {
         // first, try to get it from the cache.
         Query query = _queryCache.getQueryFromCache(request.getStatement());
         try {
+            if (query == null && request.getType() == RequestPacket.Type.STATEMENT) {
+                query = handleNormalizedStatement(request.getStatement(), space);
+                if (query != null)
+                    return query;
+            }
             if (query == null) {
                 if (_logger.isDebugEnabled()) {
                     _logger.debug("Query wasn't in cache, will be parsed");
@@ -280,6 +297,70 @@ public class QueryHandler {
         }
     }
 
+    /**
+     * Gets a select statement by its text with the literals replaced by parameters, so that
+     * statements which differ only by their literals are parsed once. A normalized statement is
+     * also cached by its raw text with the values of its literals, so that a repeated statement
+     * is not normalized again. The raw texts have their own cache, so that the many raw texts of
+     * a normalized statement don't evict the normalized plans. The returned query has the literal values set as its prepared
+     * values.
+     *
+     * @return null if the statement can't be normalized
+     */
+    private Query handleNormalizedStatement(String statement, ISpaceProxy space) {
+        AbstractDMLQuery bound = (AbstractDMLQuery) _rawQueryCache.getQueryFromCache(statement);
+        if (bound == null) {
+            QueryNormalizer.Result normalized = QueryNormalizer.normalize(statement);
+            if (normalized == null)
+                return null;
+
+            // normalized statements are keyed by the schema version, so a plan parsed before the schema changed isn't used
+            String key = _schemaVersion.get() + ":" + normalized.getStatement();
+            AbstractDMLQuery query = (AbstractDMLQuery) _normalizedQueryCache.getQueryFromCache(key);
+            if (query == null) {
+                try {
+                    SqlParser parser = new SqlParser(new BufferedReader(new StringReader(normalized.getStatement())));
+                    Query parsed = parser.parseStatement();
+                    if (!(parsed instanceof SelectQuery) || parsed.containsSubQueries())
+                        return null;
+                    parsed.validateQuery(space);
+                    query = (AbstractDMLQuery) parsed;
+                    if (query.getExpTree() != null) {
+                        query.getExpTree().traverse(node -> {
+                            if (node instanceof PreparedNode)
+                                ((PreparedNode) node).setLiteral(true);
+                        });
+                    }
+                } catch (Throwable t) {
+                    // the statement is parsed as is
+                    if (_logger.isDebugEnabled()) {
+                        _logger.debug("Couldn't parse normalized statement [" + normalized.getStatement() + "]", t);
+                    }
+                    return null;
+                }
+                _normalizedQueryCache.addQueryToCache(key, query);
+            }
+
+            bound = query.clone();
+            bound.setPreparedValues(normalized.getValues());
+            _rawQueryCache.addQueryToCache(statement, bound);
+        }
+
+        AbstractDMLQuery query = bound.clone();
+        query.setPreparedValues(bound.getPreparedValues().clone());
+        return query;
+    }
+
+    /**
+     * Discards the cached queries, called when the schema of a table is changed
+     */
+    private void invalidateQueries() {
+        _schemaVersion.incrementAndGet();
+        _queryCache.clear();
+        _normalizedQueryCache.clear();
+        _rawQueryCache.clear();
+    }
+
     /**
      * Create new transaction using the local transaction manager
      *
@@ -342,6 +423,8 @@ public class QueryHandler {
             _transactionManagerProvider.destroy();
 
         _queryCache.clear();
+        _normalizedQueryCache.clear();
+        _rawQueryCache.clear();
     }
 
     public QueryCache getQueryCache() {
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the literals of the where clause of a select statement with parameters, so that
+ * statements which differ only by their literals share a single parsed query.
+ *
+ * Only literals which are compared to a column (e.g. <code>age &gt; 30</code>, <code>name =
+ * 'x'</code>) are replaced, and their values are extracted exactly as the parser reads them.
+ * Statements with parameters, sub queries, quoted identifiers or comments are not normalized.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class QueryNormalizer {
+
+    private static final String[] COMPARISON_OPERATORS = {"<=", ">=", "<>", "!=", "=", "<", ">"};
+
+    private QueryNormalizer() {
+    }
+
+    /**
+     * @return the normalized statement, null if the statement can't be normalized or has no
+     * literals to replace
+     */
+    public static Result normalize(String statement) {
+        int length = statement.length();
+        StringBuilder normalized = new StringBuilder(length);
+        List<Object> values = new ArrayList<Object>();
+
+        boolean inWhereClause = false;
+        boolean whereClauseEnded = false;
+        int selects = 0;
+        String lastIdentifier = null;
+        boolean lastWasIdentifier = false;
+        int pos = 0;
+        while (pos < length) {
+            char c = statement.charAt(pos);
+            if (c == '\'') {
+                int end = skipString(statement, pos);
+                if (end < 0)
+                    return null;
+                normalized.append(statement, pos, end);
+                pos = end;
+                lastWasIdentifier = false;
+            } else if (c == '?' || c == '"' || c == ';' && pos < length - 1) {
+                return null;
+            } else if (c == '-' && pos + 1 < length && statement.charAt(pos + 1) == '-'
+                    || c == '/' && pos + 1 < length && statement.charAt(pos + 1) == '*') {
+                return null;
+            } else if (isIdentifierStart(c)) {
+                int end = pos + 1;
+                while (end < length && isIdentifierPart(statement.charAt(end)))
+                    end++;
+                String identifier = statement.substring(pos, end);
+                if (identifier.equalsIgnoreCase("SELECT")) {
+                    if (++selects > 1)
+                        return null;
+                } else if (identifier.equalsIgnoreCase("WHERE")) {
+                    inWhereClause = !whereClauseEnded;
+                } else if (isEndOfWhereClause(identifier)) {
+                    whereClauseEnded = true;
+                    inWhereClause = false;
+                }
+                normalized.append(identifier);
+                pos = end;
+                lastIdentifier = identifier;
+                lastWasIdentifier = true;
+            } else if (Character.isDigit(c)) {
+                int end = skipNumber(statement, pos);
+                normalized.append(statement, pos, end);
+                pos = end;
+                lastWasIdentifier = false;
+            } else {
+                String operator = inWhereClause && lastWasIdentifier && !lastIdentifier.equalsIgnoreCase("ROWNUM")
+                        ? comparisonOperatorAt(statement, pos) : null;
+                if (operator == null) {
+                    normalized.append(c);
+                    pos++;
+                    if (!Character.isWhitespace(c))
+                        lastWasIdentifier = false;
+                    continue;
+                }
+                normalized.append(operator);
+                pos += operator.length();
+                lastWasIdentifier = false;
+                pos = replaceLiteral(statement, pos, normalized, values);
+            }
+        }
+
+        if (values.isEmpty() || selects != 1)
+            return null;
+        return new Result(normalized.toString(), values.toArray());
+    }
+
+    /**
+     * Replaces the literal which follows a comparison operator, if any, with a parameter.
+     *
+     * @return the position after the literal, or after the white spaces preceding the next token
+     * if it is not a literal
+     */
+    private static int replaceLiteral(String statement, int pos, StringBuilder normalized, List<Object> values) {
+        int length = statement.length();
+        int start = skipWhitespaces(statement, pos);
+        normalized.append(statement, pos, start);
+        if (start == length)
+            return start;
+
+        char c = statement.charAt(start);
+        if (c == '\'') {
+            int end = skipString(statement, start);
+            if (end < 0 || isDateLiteral(statement, start, end) || end < length && isIdentifierPart(statement.charAt(end)))
+                return start;
+            // same as the parser - the quotes are removed, escaped quotes are kept as is
+            values.add(statement.substring(start + 1, end - 1));
+            normalized.append('?');
+            return end;
+        }
+
+        String negative = "";
+        int numberStart = start;
+        if (c == '-') {
+            // a sign which is separated from its number is kept in the statement as is
+            numberStart = start + 1;
+            if (numberStart == length || !Character.isDigit(statement.charAt(numberStart)))
+                return start;
+            negative = "-";
+        } else if (!Character.isDigit(c)) {
+            return start;
+        }
+
+        int end = skipNumber(statement, numberStart);
+        if (end < length && (isIdentifierPart(statement.charAt(end)) || statement.charAt(end) == '.'))
+            return start;
+        String image = statement.substring(numberStart, end);
+        // the parser reads numbers as strings which are converted to the property type, long
+        // literals without their suffix
+        if (image.endsWith("L"))
+            image = image.substring(0, image.length() - 1);
+        values.add(negative + image);
+        normalized.append('?');
+        return end;
+    }
+
+    private static String comparisonOperatorAt(String statement, int pos) {
+        for (String operator : COMPARISON_OPERATORS) {
+            if (statement.startsWith(operator, pos))
+                return operator;
+        }
+        return null;
+    }
+
+    private static boolean isEndOfWhereClause(String identifier) {
+        return identifier.equalsIgnoreCase("GROUP") || identifier.equalsIgnoreCase("ORDER")
+                || identifier.equalsIgnoreCase("HAVING") || identifier.equalsIgnoreCase("LIMIT")
+                || identifier.equalsIgnoreCase("UNION") || identifier.equalsIgnoreCase("FOR");
+    }
+
+    /**
+     * @return the position after the closing quote, -1 if the string is not closed
+     */
+    private static int skipString(String statement, int pos) {
+        int length = statement.length();
+        int i = pos + 1;
+        while (i < length) {
+            if (statement.charAt(i) == '\'') {
+                if (i + 1 < length && statement.charAt(i + 1) == '\'') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static int skipNumber(String statement, int pos) {
+        int length = statement.length();
+        int i = skipDigits(statement, pos);
+        if (i + 1 < length && statement.charAt(i) == '.' && Character.isDigit(statement.charAt(i + 1)))
+            i = skipDigits(statement, i + 1);
+        if (i < length && (statement.charAt(i) == 'e' || statement.charAt(i) == 'E')) {
+            int exponent = i + 1;
+            if (exponent < length && (statement.charAt(exponent) == '+' || statement.charAt(exponent) == '-'))
+                exponent++;
+            if (exponent < length && Character.isDigit(statement.charAt(exponent)))
+                i = skipDigits(statement, exponent);
+        } else if (i < length && statement.charAt(i) == 'L') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipDigits(String statement, int pos) {
+        while (pos < statement.length() && Character.isDigit(statement.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    private static int skipWhitespaces(String statement, int pos) {
+        while (pos < statement.length() && Character.isWhitespace(statement.charAt(pos)))
+            pos++;
+        return pos;
+    }
+
+    // dates of the form 'dd/mm/yyyy' are date literals for the parser
+    private static boolean isDateLiteral(String statement, int start, int end) {
+        if (end - start != 12)
+            return false;
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = statement.charAt(i);
+            boolean separator = i == start + 3 || i == start + 6;
+            if (separator ? c != '/' : !Character.isDigit(c))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    /**
+     * A normalized statement and the values of the literals it replaced, by their order.
+     */
+    public static class Result {
+        private final String _statement;
+        private final Object[] _values;
+
+        private Result(String statement, Object[] values) {
+            _statement = statement;
+            _values = values;
+        }
+
+        public String getStatement() {
+            return _statement;
+        }
+
+        public Object[] getValues() {
+            return _values;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc.executor;
+
+import com.j_spaces.jdbc.Join;
+
+/**
+ * The way a joined table is matched against the rows of the table it is joined to.
+ *
+ * @since 16.5
+ */
+public enum JoinAlgorithm {
+    /**
+     * every row of the joined table is matched against every outer row
+     */
+    NESTED_LOOPS,
+    /**
+     * the joined table is hashed by the join column, each outer row probes the hash
+     */
+    HASH,
+    /**
+     * the joined table is sorted by the join column, each outer row looks up its matching range
+     */
+    SORTED;
+
+    /**
+     * Picks between nested loops and the given indexed algorithm by their estimated number of
+     * comparisons.
+     *
+     * @param indexed the algorithm supported by the join condition
+     * @param size    number of entries of the joined table
+     * @param probes  estimated number of outer rows
+     */
+    public static JoinAlgorithm choose(JoinAlgorithm indexed, Join.JoinType joinType, long size, long probes) {
+        if (indexed == NESTED_LOOPS)
+            return NESTED_LOOPS;
+        // only the hashed cursor produces the unmatched rows of a left join
+        if (indexed == HASH && joinType == Join.JoinType.LEFT)
+            return HASH;
+        long nestedLoopsCost = probes * size;
+        long indexedCost = indexed == HASH ? size + probes : (size + probes) * log2(size + 1);
+        return nestedLoopsCost <= indexedCost ? NESTED_LOOPS : indexed;
+    }
+
+    private static long log2(long n) {
+        return 64 - Long.numberOfLeadingZeros(n);
+    }
+}
@@ -18,6 +18,7 @@ package com.j_spaces.jdbc.executor;
 
 import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
 import com.gigaspaces.internal.io.IOUtils;
+import com.gigaspaces.internal.query.explainplan.ExplainPlanImpl;
 import com.gigaspaces.internal.transport.IEntryPacket;
 import com.j_spaces.jdbc.AbstractDMLQuery;
 import com.j_spaces.jdbc.JoinedEntry;
@@ -44,6 +45,7 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -390,10 +392,11 @@ public class JoinedQueryExecutor extends AbstractQueryExecutor {
                 throws SQLException {
             _tablesData = tablesData;
 
+            List<IQueryResultSet<IEntryPacket>> tablesEntries = new ArrayList<>(tablesData.size());
             try {
                 for (QueryTableData tableData : query.getTablesData()) {
                     // first all entries for each table in the query
-                    tableData.init(space, txn, query);
+                    tablesEntries.add(tableData.readEntries(space, txn, query));
                 }
             } catch (Exception e) {
                 if (_logger.isErrorEnabled()) {
@@ -402,6 +405,21 @@ public class JoinedQueryExecutor extends AbstractQueryExecutor {
                 throw new SQLException("Failed to read objects: " + e.getMessage(), "GSP", -111, e);
             }
 
+            // the join algorithm of each table is chosen by the number of fetched entries
+            // of the table and of the table it is joined to
+            for (int i = 0; i < _tablesData.size(); i++) {
+                QueryTableData tableData = _tablesData.get(i);
+                IQueryResultSet<IEntryPacket> tableEntries = tablesEntries.get(i);
+                long probes = 0;
+                if (tableData.getJoinCondition() != null) {
+                    QueryTableData outerTable = ((ColumnNode) tableData.getJoinCondition().getLeftChild()).getColumnData().getColumnTableData();
+                    probes = tablesEntries.get(outerTable.getTableIndex()).size();
+                }
+                JoinAlgorithm algorithm = tableData.initCursor(tableEntries, probes);
+                if (algorithm != null)
+                    reportJoin(tableData, algorithm, tableEntries.size(), probes);
+            }
+
             for (QueryTableData tableData : _tablesData) {
                 //check for sequence beginning
                 if (!tableData.isJoined()) {
@@ -411,6 +429,17 @@ public class JoinedQueryExecutor extends AbstractQueryExecutor {
             }
         }
 
+        private void reportJoin(QueryTableData tableData, JoinAlgorithm algorithm, int size, long probes) {
+            String info = tableData.getTableName() + " by " + algorithm + " on " + tableData.getJoinCondition()
+                    + " (entries: " + size + ", outer rows: " + probes + ")";
+            if (_logger.isDebugEnabled()) {
+                _logger.debug("Joining {}", info);
+            }
+            if (query.getExplainPlan() instanceof ExplainPlanImpl) {
+                ((ExplainPlanImpl) query.getExplainPlan()).addJoinInfo(info);
+            }
+        }
+
         boolean next() {
             return _tableData.next();
         }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.jdbc.executor;
+
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.jdbc.parser.ColumnNode;
+import com.j_spaces.jdbc.parser.ExpNode;
+import com.j_spaces.jdbc.query.IQueryResultSet;
+import com.j_spaces.jdbc.query.QueryTableData;
+
+import java.util.Arrays;
+
+
+/**
+ * Sort-based simple index for entry packets. Used for range joins - the entries are sorted once by
+ * the join column and each outer row iterates only the range of entries that satisfies the
+ * condition, instead of scanning all of them.
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class SortedEntriesCursor implements EntriesCursor {
+    private final IEntryPacket[] _entries;
+    private final Comparable[] _values;
+
+    private final QueryTableData _joinTable;
+    private final ColumnNode _joinCol;
+
+    // true if the matching entries are below the outer value, false if above
+    private final boolean _below;
+    private final boolean _inclusive;
+
+    private boolean _initialized;
+    private int _pos;
+    private int _end;
+    private IEntryPacket _currentEntry;
+
+    /**
+     * @param below     true if the condition holds for entries whose value is below the outer value
+     * @param inclusive true if the condition holds for entries whose value equals the outer value
+     */
+    public SortedEntriesCursor(QueryTableData table, ExpNode indexNode, IQueryResultSet<IEntryPacket> entries,
+                               boolean below, boolean inclusive) {
+        _joinCol = (ColumnNode) indexNode.getLeftChild();
+        _joinTable = _joinCol.getColumnData().getColumnTableData();
+        _below = below;
+        _inclusive = inclusive;
+
+        ColumnNode indexCol = (ColumnNode) indexNode.getRightChild();
+        SortedEntry[] sorted = new SortedEntry[entries.size()];
+        int size = 0;
+        for (IEntryPacket entry : entries) {
+            Object fieldValue = indexCol.getFieldValue(entry);
+            // comparison with null is not supported - null values never match
+            if (fieldValue != null)
+                sorted[size++] = new SortedEntry((Comparable) fieldValue, entry);
+        }
+        Arrays.sort(sorted, 0, size);
+
+        _entries = new IEntryPacket[size];
+        _values = new Comparable[size];
+        for (int i = 0; i < size; i++) {
+            _entries[i] = sorted[i].entry;
+            _values[i] = sorted[i].value;
+        }
+    }
+
+    public IEntryPacket getCurrentEntry() {
+        return _currentEntry;
+    }
+
+    public boolean next() {
+        //check if cursor needs to be initialized
+        if (!_initialized) {
+            _initialized = true;
+            Object joinValue = _joinCol.getFieldValue(_joinTable.getCurrentEntry());
+            if (joinValue == null) {
+                _pos = _end = 0;
+            } else if (_below) {
+                _pos = 0;
+                _end = _inclusive ? upperBound(joinValue) : lowerBound(joinValue);
+            } else {
+                _pos = _inclusive ? lowerBound(joinValue) : upperBound(joinValue);
+                _end = _values.length;
+            }
+        }
+
+        if (_pos < _end) {
+            _currentEntry = _entries[_pos++];
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the position of the first value which is not below the given one
+     */
+    private int lowerBound(Object value) {
+        int low = 0;
+        int high = _values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (((Comparable) value).compareTo(_values[mid]) > 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * @return the position of the first value which is above the given one
+     */
+    private int upperBound(Object value) {
+        int low = 0;
+        int high = _values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (((Comparable) value).compareTo(_values[mid]) >= 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public void reset() {
+        _initialized = false;
+    }
+
+    public boolean isBeforeFirst() {
+        return !_initialized;
+    }
+
+    private static class SortedEntry implements Comparable<SortedEntry> {
+        private final Comparable value;
+        private final IEntryPacket entry;
+
+        private SortedEntry(Comparable value, IEntryPacket entry) {
+            this.value = value;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(SortedEntry o) {
+            return value.compareTo(o.value);
+        }
+    }
+}
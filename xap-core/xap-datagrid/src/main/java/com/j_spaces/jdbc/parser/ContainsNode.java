@@ -22,6 +22,7 @@ import com.j_spaces.core.client.TemplateMatchCodes;
 import com.j_spaces.jdbc.builder.QueryTemplateBuilder;
 import com.j_spaces.jdbc.executor.EntriesCursor;
 import com.j_spaces.jdbc.executor.HashedEntriesCursor;
+import com.j_spaces.jdbc.executor.JoinAlgorithm;
 import com.j_spaces.jdbc.query.IQueryResultSet;
 import com.j_spaces.jdbc.query.QueryTableData;
 import com.j_spaces.sadapter.datasource.DefaultSQLQueryBuilder;
@@ -86,6 +87,11 @@ public class ContainsNode extends ExpNode {
         return new HashedEntriesCursor(table, this, entries);
     }
 
+    @Override
+    public JoinAlgorithm getJoinAlgorithm() {
+        return JoinAlgorithm.HASH;
+    }
+
     @Override
     public Object clone() {
         ContainsNode cloned = (ContainsNode) super.clone();
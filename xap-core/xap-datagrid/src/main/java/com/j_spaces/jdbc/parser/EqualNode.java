@@ -21,6 +21,7 @@ import com.j_spaces.core.client.TemplateMatchCodes;
 import com.j_spaces.jdbc.builder.QueryTemplateBuilder;
 import com.j_spaces.jdbc.executor.EntriesCursor;
 import com.j_spaces.jdbc.executor.HashedEntriesCursor;
+import com.j_spaces.jdbc.executor.JoinAlgorithm;
 import com.j_spaces.jdbc.query.IQueryResultSet;
 import com.j_spaces.jdbc.query.QueryTableData;
 import com.j_spaces.sadapter.datasource.DefaultSQLQueryBuilder;
@@ -72,4 +73,9 @@ public class EqualNode extends ExpNode {
     public EntriesCursor createIndex(QueryTableData table, IQueryResultSet<IEntryPacket> entries) {
         return new HashedEntriesCursor(table, this, entries);
     }
+
+    @Override
+    public JoinAlgorithm getJoinAlgorithm() {
+        return JoinAlgorithm.HASH;
+    }
 }
@@ -25,6 +25,7 @@ import com.j_spaces.jdbc.builder.QueryTemplateBuilder;
 import com.j_spaces.jdbc.builder.QueryTemplatePacket;
 import com.j_spaces.jdbc.executor.EntriesCursor;
 import com.j_spaces.jdbc.executor.IQueryExecutor;
+import com.j_spaces.jdbc.executor.JoinAlgorithm;
 import com.j_spaces.jdbc.executor.ScanCursor;
 import com.j_spaces.jdbc.query.IQueryResultSet;
 import com.j_spaces.jdbc.query.QueryTableData;
@@ -244,6 +245,14 @@ public abstract class ExpNode
         return new ScanCursor(tableEntries);
     }
 
+    /**
+     * @return the join algorithm of the cursor created by {@link #createIndex}
+     * @since 16.5
+     */
+    public JoinAlgorithm getJoinAlgorithm() {
+        return JoinAlgorithm.NESTED_LOOPS;
+    }
+
     /**
      * @return true if created join index
      */
@@ -16,8 +16,14 @@
 
 package com.j_spaces.jdbc.parser;
 
+import com.gigaspaces.internal.transport.IEntryPacket;
 import com.j_spaces.core.client.TemplateMatchCodes;
 import com.j_spaces.jdbc.builder.QueryTemplateBuilder;
+import com.j_spaces.jdbc.executor.EntriesCursor;
+import com.j_spaces.jdbc.executor.JoinAlgorithm;
+import com.j_spaces.jdbc.executor.SortedEntriesCursor;
+import com.j_spaces.jdbc.query.IQueryResultSet;
+import com.j_spaces.jdbc.query.QueryTableData;
 import com.j_spaces.sadapter.datasource.DefaultSQLQueryBuilder;
 
 import java.sql.SQLException;
@@ -63,4 +69,14 @@ public class GTENode extends ExpNode {
 
         return toString(DefaultSQLQueryBuilder.mapCodeToSign(TemplateMatchCodes.GE));
     }
+
+    @Override
+    public EntriesCursor createIndex(QueryTableData table, IQueryResultSet<IEntryPacket> entries) {
+        return new SortedEntriesCursor(table, this, entries, true, true);
+    }
+
+    @Override
+    public JoinAlgorithm getJoinAlgorithm() {
+        return JoinAlgorithm.SORTED;
+    }
 }
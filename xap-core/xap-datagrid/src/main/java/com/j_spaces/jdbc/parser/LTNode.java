@@ -16,8 +16,14 @@
 
 package com.j_spaces.jdbc.parser;
 
+import com.gigaspaces.internal.transport.IEntryPacket;
 import com.j_spaces.core.client.TemplateMatchCodes;
 import com.j_spaces.jdbc.builder.QueryTemplateBuilder;
+import com.j_spaces.jdbc.executor.EntriesCursor;
+import com.j_spaces.jdbc.executor.JoinAlgorithm;
+import com.j_spaces.jdbc.executor.SortedEntriesCursor;
+import com.j_spaces.jdbc.query.IQueryResultSet;
+import com.j_spaces.jdbc.query.QueryTableData;
 import com.j_spaces.sadapter.datasource.DefaultSQLQueryBuilder;
 
 import java.sql.SQLException;
@@ -62,4 +68,14 @@ public class LTNode extends ExpNode {
     public String toString() {
         return toString(DefaultSQLQueryBuilder.mapCodeToSign(TemplateMatchCodes.LT));
     }
+
+    @Override
+    public EntriesCursor createIndex(QueryTableData table, IQueryResultSet<IEntryPacket> entries) {
+        return new SortedEntriesCursor(table, this, entries, false, false);
+    }
+
+    @Override
+    public JoinAlgorithm getJoinAlgorithm() {
+        return JoinAlgorithm.SORTED;
+    }
 }
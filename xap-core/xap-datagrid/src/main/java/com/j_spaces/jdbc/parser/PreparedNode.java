@@ -36,6 +36,8 @@ public class PreparedNode extends LiteralNode {
     private static final long serialVersionUID = 1L;
 
     private int index;
+    // true if the value replaces a literal of the statement text (see QueryNormalizer)
+    private boolean literal;
 
     public PreparedNode() {
     }
@@ -57,6 +59,18 @@ public class PreparedNode extends LiteralNode {
         return true;
     }
 
+    public boolean isLiteral() {
+        return literal;
+    }
+
+    /**
+     * @param literal true if the value should be converted to the property type like a literal
+     * @since 16.5
+     */
+    public void setLiteral(boolean literal) {
+        this.literal = literal;
+    }
+
     @Override
     public void prepareValues(Object[] values) throws SQLException {
         if (value != null)
@@ -81,12 +95,14 @@ public class PreparedNode extends LiteralNode {
 
     @Override
     public Object getConvertedObject(ITypeDesc typeDesc, String propertyName) throws SQLException {
-        return SQLUtil.cast(typeDesc, propertyName, value, true);
+        return SQLUtil.cast(typeDesc, propertyName, value, !literal);
     }
 
     //override the clone method in ValueNode. we need the index only.
     public Object clone() {
-        return new PreparedNode(null, this.index);
+        PreparedNode cloned = new PreparedNode(null, this.index);
+        cloned.literal = this.literal;
+        return cloned;
     }
 
     @Override
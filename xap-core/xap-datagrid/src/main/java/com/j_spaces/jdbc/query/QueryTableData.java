@@ -25,6 +25,7 @@ import com.gigaspaces.serialization.SmartExternalizable;
 import com.j_spaces.jdbc.*;
 import com.j_spaces.jdbc.builder.QueryTemplatePacket;
 import com.j_spaces.jdbc.executor.EntriesCursor;
+import com.j_spaces.jdbc.executor.JoinAlgorithm;
 import com.j_spaces.jdbc.executor.ScanCursor;
 import com.j_spaces.jdbc.parser.ColumnNode;
 import com.j_spaces.jdbc.parser.ExpNode;
@@ -294,22 +295,48 @@ public class QueryTableData implements SmartExternalizable {
     /**
      * Fetch the entries from space that match this table condition
      */
-    public void init(ISpaceProxy space, Transaction txn, AbstractDMLQuery query)
+    public IQueryResultSet<IEntryPacket> readEntries(ISpaceProxy space, Transaction txn, AbstractDMLQuery query)
             throws Exception {
 
-        IQueryResultSet<IEntryPacket> tableEntries;
-        if (subQuery != null) {
-            tableEntries = executeSubQuery(space, txn);
-        } else {
-            QueryTemplatePacket template = getTemplate(query.getQueryResultType());
-            tableEntries = template.readMultiple(space, txn, Integer.MAX_VALUE, query.getReadModifier());
+        if (subQuery != null)
+            return executeSubQuery(space, txn);
+
+        QueryTemplatePacket template = getTemplate(query.getQueryResultType());
+        return template.readMultiple(space, txn, Integer.MAX_VALUE, query.getReadModifier());
+    }
+
+    /**
+     * Create the cursor over the fetched entries of this table. A joined table is matched by the
+     * algorithm with the lowest estimated cost.
+     *
+     * @param probes estimated number of rows this table is joined to
+     * @return the join algorithm, null if this table is not joined
+     * @since 16.5
+     */
+    public JoinAlgorithm initCursor(IQueryResultSet<IEntryPacket> tableEntries, long probes) {
+        if (_joinCondition == null) {
+            setEntriesCursor(new ScanCursor(tableEntries));
+            return null;
         }
 
-        if (_joinCondition != null)
+        JoinAlgorithm algorithm = JoinAlgorithm.choose(_joinCondition.getJoinAlgorithm(), _joinType, tableEntries.size(), probes);
+        initCursor(tableEntries, algorithm);
+        return algorithm;
+    }
+
+    /**
+     * Create the cursor of the given join algorithm over the fetched entries of this joined table
+     *
+     * @param algorithm nested loops or the algorithm of the join condition
+     * @since 16.5
+     */
+    public void initCursor(IQueryResultSet<IEntryPacket> tableEntries, JoinAlgorithm algorithm) {
+        if (algorithm == JoinAlgorithm.NESTED_LOOPS)
+            setEntriesCursor(new ScanCursor(tableEntries));
+        else if (algorithm == _joinCondition.getJoinAlgorithm())
             setEntriesCursor(_joinCondition.createIndex(this, tableEntries));
         else
-            setEntriesCursor(new ScanCursor(tableEntries));
-
+            throw new IllegalArgumentException("Join condition " + _joinCondition + " does not support " + algorithm);
     }
 
     public IQueryResultSet<IEntryPacket> executeSubQuery(ISpaceProxy space, Transaction txn) throws Exception{
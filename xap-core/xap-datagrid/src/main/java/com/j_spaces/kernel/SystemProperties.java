@@ -230,6 +230,121 @@ public class SystemProperties extends CommonSystemProperties {
      */
     public final static int LRMI_MAX_CACHED_BUFFER_SIZE_DEFAULT = 50 * 1024 * 1024; //50megabytes
 
+    /**
+     * When true, the LRMI readers and writers marshal through pooled direct buffers instead of the
+     * cached heap buffers, unless an IO filter is used.
+     */
+    public final static String LRMI_DIRECT_BUFFERS_ENABLED = "com.gs.transport_protocol.lrmi.direct-buffers.enabled";
+
+    /**
+     * Set the size of the largest pooled direct buffer, larger messages span a chain of buffers
+     */
+    public final static String LRMI_DIRECT_BUFFERS_MAX_BUFFER_SIZE = "com.gs.transport_protocol.lrmi.direct-buffers.max-buffer-size";
+
+    /**
+     * Default value for {@link #LRMI_DIRECT_BUFFERS_MAX_BUFFER_SIZE}
+     */
+    public final static int LRMI_DIRECT_BUFFERS_MAX_BUFFER_SIZE_DEFAULT = 1024 * 1024; //1megabyte
+
+    /**
+     * Set the maximum memory kept by the pooled direct buffers which are not in use
+     */
+    public final static String LRMI_DIRECT_BUFFERS_MAX_MEMORY = "com.gs.transport_protocol.lrmi.direct-buffers.max-memory";
+
+    /**
+     * Default value for {@link #LRMI_DIRECT_BUFFERS_MAX_MEMORY}
+     */
+    public final static long LRMI_DIRECT_BUFFERS_MAX_MEMORY_DEFAULT = 64 * 1024 * 1024; //64megabytes
+
+    /**
+     * Set whether regular and custom priority LRMI requests are executed on virtual threads
+     * instead of the LRMI thread pools, applies only if the JVM supports virtual threads (java 21
+     * and above). Disabled by default, since a request which blocks while holding a monitor pins
+     * its carrier thread.
+     */
+    public final static String LRMI_VIRTUAL_THREADS_ENABLED = "com.gs.transport_protocol.lrmi.virtual-threads.enabled";
+
+    /**
+     * Default value for {@link #LRMI_VIRTUAL_THREADS_ENABLED}
+     */
+    public final static boolean LRMI_VIRTUAL_THREADS_ENABLED_DEFAULT = false;
+
+    /**
+     * Set the size in bytes below which messages are not compressed by the LZ4 compression network
+     * filter
+     */
+    public final static String LRMI_LZ4_COMPRESSION_THRESHOLD = "com.gs.transport_protocol.lrmi.lz4-compression.threshold";
+
+    /**
+     * Default value for {@link #LRMI_LZ4_COMPRESSION_THRESHOLD}
+     */
+    public final static int LRMI_LZ4_COMPRESSION_THRESHOLD_DEFAULT = 1024;
+
+    /**
+     * Set the max size in bytes of a message decompressed by the LZ4 compression network filter,
+     * larger messages are rejected
+     */
+    public final static String LRMI_LZ4_COMPRESSION_MAX_MESSAGE_SIZE = "com.gs.transport_protocol.lrmi.lz4-compression.max-message-size";
+
+    /**
+     * Default value for {@link #LRMI_LZ4_COMPRESSION_MAX_MESSAGE_SIZE}
+     */
+    public final static int LRMI_LZ4_COMPRESSION_MAX_MESSAGE_SIZE_DEFAULT = 1024 * 1024 * 1024; //1gigabyte
+
+    /**
+     * When true, an LRMI server also listens on a unix domain socket file and clients on the same
+     * host connect through it instead of TCP. Requires java 16 or above, default false.
+     */
+    public final static String LRMI_UNIX_DOMAIN_SOCKETS_ENABLED = "com.gs.transport_protocol.lrmi.unix-domain-sockets.enabled";
+
+    /**
+     * The directory of the LRMI unix domain socket files, defaults to a gigaspaces-lrmi-[user name]
+     * directory under java.io.tmpdir. Clients and servers of the same host must use the same
+     * directory, which should be owned by their user and not accessible to other users.
+     */
+    public final static String LRMI_UNIX_DOMAIN_SOCKETS_DIR = "com.gs.transport_protocol.lrmi.unix-domain-sockets.dir";
+
+    /**
+     * When true, LRMI uses the shared memory protocol adapter, which exchanges synchronous
+     * invocations with servers on the same host through memory mapped ring buffers, and uses NIO
+     * otherwise. Default false.
+     */
+    public final static String LRMI_SHARED_MEMORY_ENABLED = "com.gs.transport_protocol.lrmi.shared-memory.enabled";
+
+    /**
+     * The directory of the LRMI shared memory files, defaults to a gigaspaces-lrmi-[user name]
+     * directory under java.io.tmpdir. Clients and servers of the same host must use the same
+     * directory, which should be owned by their user and not accessible to other users.
+     */
+    public final static String LRMI_SHARED_MEMORY_DIR = "com.gs.transport_protocol.lrmi.shared-memory.dir";
+
+    /**
+     * The size in bytes of each direction of an LRMI shared memory connection.
+     */
+    public final static String LRMI_SHARED_MEMORY_RING_SIZE = "com.gs.transport_protocol.lrmi.shared-memory.ring-size";
+
+    /**
+     * Default value for {@link #LRMI_SHARED_MEMORY_RING_SIZE}
+     */
+    public final static int LRMI_SHARED_MEMORY_RING_SIZE_DEFAULT = 1024 * 1024;
+
+    /**
+     * The max size in bytes of a message read from an LRMI shared memory connection, larger
+     * messages fail the connection.
+     */
+    public final static String LRMI_SHARED_MEMORY_MAX_FRAME_SIZE = "com.gs.transport_protocol.lrmi.shared-memory.max-frame-size";
+
+    /**
+     * Default value for {@link #LRMI_SHARED_MEMORY_MAX_FRAME_SIZE}
+     */
+    public final static int LRMI_SHARED_MEMORY_MAX_FRAME_SIZE_DEFAULT = 1024 * 1024 * 1024; //1gigabyte
+
+    /**
+     * When true, LRMI keeps per remote method latency histograms of the client round trip and of
+     * the server queueing, unmarshal, execution and reply phases. Default false.
+     */
+    public final static String LRMI_LATENCY_MONITORING_ENABLED = "com.gs.transport_protocol.lrmi.latency-monitoring.enabled";
+
     /**
      * Set the ratio that if the currently used buffer size * current cached buffer size is below,
      * the cached buffer expunge threshold counter will be increases
@@ -347,6 +462,27 @@ public class SystemProperties extends CommonSystemProperties {
     public final static String LRMI_ASYNC_THROW_RESOURCE_NOT_AVAILABLE = "com.gs.transport_protocol.lrmi.fail-async-on-max-connection-exceeded";
     public final static boolean LRMI_ASYNC_THROW_RESOURCE_NOT_AVAILABLE_DEFAULT = false;
 
+    /**
+     * When true, async invocations which find all the connections of a pool busy are queued and
+     * sent on the next connection which is freed, instead of blocking the caller.
+     */
+    public final static String LRMI_ASYNC_QUEUE_ON_MAX_CONNECTION_EXCEEDED = "com.gs.transport_protocol.lrmi.queue-async-on-max-connection-exceeded";
+    public final static boolean LRMI_ASYNC_QUEUE_ON_MAX_CONNECTION_EXCEEDED_DEFAULT = false;
+
+    /**
+     * The max number of async invocations which are queued for a connection pool, more
+     * invocations are rejected.
+     */
+    public final static String LRMI_ASYNC_QUEUE_MAX_SIZE = "com.gs.transport_protocol.lrmi.async-queue.max-size";
+    public final static int LRMI_ASYNC_QUEUE_MAX_SIZE_DEFAULT = 10000;
+
+    /**
+     * The max time in milliseconds a queued async invocation waits for a free connection before
+     * it fails, zero to wait indefinitely.
+     */
+    public final static String LRMI_ASYNC_QUEUE_TIMEOUT = "com.gs.transport_protocol.lrmi.async-queue.timeout";
+    public final static long LRMI_ASYNC_QUEUE_TIMEOUT_DEFAULT = 60000;
+
     /**
      * XAP-13299 -- allow adjustment of the tmp selector pool size.
      */
@@ -410,6 +546,32 @@ public class SystemProperties extends CommonSystemProperties {
 
     public final static String STORAGE_TYPE_SERIALIZATION_ZIP_IDEMPOTENT = "com.gs.client.storage-type-serialization.zip.idempotent";
 
+    /**
+     * Set whether concurrent single writes and updates of a space proxy are coalesced into write
+     * multiple operations per partition
+     */
+    public final static String CLIENT_WRITE_COALESCING_ENABLED = "com.gs.client.write-coalescing.enabled";
+
+    /**
+     * Set the maximum number of writes coalesced into a single write multiple operation
+     */
+    public final static String CLIENT_WRITE_COALESCING_MAX_BATCH_SIZE = "com.gs.client.write-coalescing.max-batch-size";
+
+    /**
+     * Default value for {@link #CLIENT_WRITE_COALESCING_MAX_BATCH_SIZE}
+     */
+    public final static int CLIENT_WRITE_COALESCING_MAX_BATCH_SIZE_DEFAULT = 64;
+
+    /**
+     * Set the maximum time in microseconds a write waits for other writes to be coalesced with
+     */
+    public final static String CLIENT_WRITE_COALESCING_MAX_DELAY_MICROS = "com.gs.client.write-coalescing.max-delay-micros";
+
+    /**
+     * Default value for {@link #CLIENT_WRITE_COALESCING_MAX_DELAY_MICROS}
+     */
+    public final static long CLIENT_WRITE_COALESCING_MAX_DELAY_MICROS_DEFAULT = 200;
+
     public static final String AES_PASSPHRASE = "com.gs.property-storage.aes.passphrase";
     public static final String AES_PASSPHRASE_PATH = "com.gs.property-storage.aes.passphrase-path";
     public static final String AES_KEY_LENGTH = "com.gs.property-storage.aes.key-length";
@@ -704,6 +866,22 @@ public class SystemProperties extends CommonSystemProperties {
      */
     public final static int CACHE_MANAGER_HASHMAP_SEGMENTS_DEFAULT = 64;
 
+    /**
+     * Whether equality indexes over long/int/short/byte properties keep their values unboxed in a
+     * primitive-keyed hash map, default is true. Not applicable when the economy hash map is used.
+     */
+    public final static String CACHE_MANAGER_PRIMITIVE_KEY_INDEXES = "com.gs.cacheManager.primitiveKeyIndexes";
+
+    public final static boolean CACHE_MANAGER_PRIMITIVE_KEY_INDEXES_DEFAULT = true;
+
+    /**
+     * Whether ordered indexes maintain value histograms used to estimate the number of entries in
+     * a range when choosing an index, default is false.
+     */
+    public final static String CACHE_MANAGER_INDEX_HISTOGRAMS = "com.gs.cacheManager.indexHistograms";
+
+    public final static boolean CACHE_MANAGER_INDEX_HISTOGRAMS_DEFAULT = false;
+
     /**
      * The timeout that a caller to the lease manager reaper force cycle is ready to wait for the
      * cycle to be completed
@@ -773,6 +951,65 @@ public class SystemProperties extends CommonSystemProperties {
     public static final String REDOLOG_COPY_ON_STARTUP = "com.gs.redolog.copy.on.startup";
 
     public static final boolean REDOLOG_COPY_ON_STARTUP_DEFAULT = false;
+
+    /**
+     * When true, the byte buffer swap of the replication redo log is stored in memory mapped files
+     * rather than accessed through random access files.
+     *
+     * @since 16.5
+     */
+    public static final String REDOLOG_SWAP_MEMORY_MAPPED = "com.gs.redolog.swap.memory-mapped";
+
+    /**
+     * When true, full updates of an entry which are superseded by a later full update or take of
+     * the same entry are discarded from the replication redo log before any target confirmed them.
+     * Nothing is discarded while durable notifications, local views, gateways or other filtered
+     * targets replicate from the redo log.
+     *
+     * @since 16.5
+     */
+    public static final String REDOLOG_COALESCING_ENABLED = "com.gs.redolog.coalescing.enabled";
+
+    /**
+     * When true, a primary space periodically writes a snapshot of its types and entries to the
+     * local disk, and loads it on startup when no other member could recover it.
+     *
+     * @since 16.5
+     */
+    public static final String SPACE_SNAPSHOT_ENABLED = "com.gs.space.snapshot.enabled";
+
+    /**
+     * Directory of the space snapshots, defaults to the snapshots directory under the work
+     * directory.
+     *
+     * @since 16.5
+     */
+    public static final String SPACE_SNAPSHOT_DIRECTORY = "com.gs.space.snapshot.directory";
+
+    /**
+     * Interval in milliseconds between space snapshots.
+     *
+     * @since 16.5
+     */
+    public static final String SPACE_SNAPSHOT_INTERVAL = "com.gs.space.snapshot.interval";
+    public static final long SPACE_SNAPSHOT_INTERVAL_DEFAULT = 10 * 60 * 1000;
+
+    /**
+     * Number of threads which deserialize and write the entries of a space snapshot on startup,
+     * defaults to the number of available processors.
+     *
+     * @since 16.5
+     */
+    public static final String SPACE_SNAPSHOT_LOAD_THREADS = "com.gs.space.snapshot.load-threads";
+
+    /**
+     * When true, a space snapshot is loaded on startup even if the space was modified after it was
+     * written, losing those updates. Otherwise the recovery of the space fails.
+     *
+     * @since 16.5
+     */
+    public static final String SPACE_SNAPSHOT_ALLOW_STALE = "com.gs.space.snapshot.allow-stale";
+
     public static final String REQUIRED_CONSISTENCY_LEVEL = "com.gs.replication.required_consistency_level";
     public static final int REQUIRED_CONSISTENCY_LEVEL_DEFAULT = 1;
 
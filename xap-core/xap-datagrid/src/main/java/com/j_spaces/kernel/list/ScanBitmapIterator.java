@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2016, GigaSpaces Technologies, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.j_spaces.kernel.list;
+
+import com.gigaspaces.internal.utils.collections.CompressedBitmap;
+import com.j_spaces.core.cache.EntryOrdinals;
+import com.j_spaces.core.cache.IEntryCacheInfo;
+import com.j_spaces.kernel.IStoredList;
+
+/**
+ * scan iterator over the entries of a bitmap of entry ordinals, the result of bitmap index
+ * operations. The bitmap is a snapshot, so returned entries are potential matches only.
+ *
+ * NOTE !!!- for single threaded use
+ *
+ * @since 16.5
+ */
+@com.gigaspaces.api.InternalApi
+public class ScanBitmapIterator
+        implements IScanListIterator<IEntryCacheInfo> {
+
+    private final int[] _ordinals;
+    private final EntryOrdinals _entryOrdinals;
+    private int _nextPos;
+    private IEntryCacheInfo _subject;
+
+    public ScanBitmapIterator(EntryOrdinals entryOrdinals, CompressedBitmap bitmap) {
+        _entryOrdinals = entryOrdinals;
+        _ordinals = bitmap.toArray();
+    }
+
+    public boolean hasNext() {
+        while (_nextPos < _ordinals.length) {
+            _subject = _entryOrdinals.get(_ordinals[_nextPos++]);
+            if (_subject != null)
+                return true;
+        }
+        return false;
+    }
+
+    public IEntryCacheInfo next() {
+        IEntryCacheInfo res = _subject;
+        _subject = null;
+        return res;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    public void releaseScan() {
+    }
+
+    public int getAlreadyMatchedFixedPropertyIndexPos() {
+        return -1;
+    }
+
+    public boolean isAlreadyMatched() {
+        return false;
+    }
+
+    public boolean isIterator() {
+        return true;
+    }
+
+    public void reuse(IStoredList<IEntryCacheInfo> list) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasSize() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return _ordinals.length;
+    }
+}
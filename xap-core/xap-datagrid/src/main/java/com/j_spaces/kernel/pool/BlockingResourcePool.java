@@ -101,6 +101,19 @@ public class BlockingResourcePool<R extends IResource> extends ResourcePool<R> {
         }
     }
 
+    /**
+     * Returns a free Resource from the pool without blocking.
+     *
+     * @return free Resource allocated to this request, null if all the resources are busy
+     */
+    public R tryGetResource() {
+        try {
+            return getResource(false);
+        } catch (ResourceNotAvailableException e) {
+            return null;
+        }
+    }
+
     @Override
     public void freeResource(R resourceToFree) {
         super.freeResource(resourceToFree);
@@ -0,0 +1,224 @@
+package com.gigaspaces.internal.client.spaceproxy.actions;
+
+import com.gigaspaces.internal.client.spaceproxy.SpaceProxyImpl;
+import com.gigaspaces.internal.client.spaceproxy.actioninfo.WriteProxyActionInfo;
+import com.gigaspaces.internal.client.spaceproxy.metadata.ISpaceProxyTypeManager;
+import com.gigaspaces.internal.client.spaceproxy.metadata.ObjectType;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntriesSpaceOperationResult;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationRequest;
+import com.gigaspaces.internal.client.spaceproxy.operations.WriteEntrySpaceOperationResult;
+import com.gigaspaces.internal.client.spaceproxy.router.SpaceProxyRouter;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.remoting.RemoteOperationRequest;
+import com.gigaspaces.internal.server.space.operations.WriteEntriesResult;
+import com.gigaspaces.internal.server.space.operations.WriteEntryResult;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.core.LeaseContext;
+import com.j_spaces.core.client.ProxySettings;
+import com.j_spaces.core.client.UpdateModifiers;
+import net.jini.core.lease.Lease;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpaceProxyImplWriteCoalescerTest {
+    private static final int THREADS = 8;
+
+    @Test
+    public void testSameResultsAsSingleWrites() throws Exception {
+        TestSpace single = new TestSpace(false);
+        TestSpace coalesced = new TestSpace(true);
+        List<List<String>> expected = single.run();
+        List<List<String>> actual = coalesced.run();
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(single._entries, coalesced._entries);
+
+        Assert.assertEquals(0, single._batches.size());
+        Assert.assertFalse(coalesced._batches.isEmpty());
+        boolean writeOnlyBatch = false;
+        for (Map.Entry<Integer, Set<Boolean>> batch : coalesced._batches) {
+            //entries without a uid are never sent in a batch which may update
+            if (UpdateModifiers.isPotentialUpdate(batch.getKey()))
+                Assert.assertEquals(Collections.singleton(true), batch.getValue());
+            else if (batch.getValue().equals(Collections.singleton(false)))
+                writeOnlyBatch |= UpdateModifiers.isWriteOnly(batch.getKey());
+        }
+        //default writes of entries without a uid are sent as write only
+        Assert.assertTrue(writeOnlyBatch);
+    }
+
+    /**
+     * A proxy whose router executes the requests on a map of versions by uid, with the write and
+     * update semantics of the space - a single write updates the entry only if it's an update, a
+     * write multiple updates the entries only if its modifiers are a potential update.
+     */
+    private static class TestSpace {
+        private final SpaceProxyImpl _proxy = mock(SpaceProxyImpl.class);
+        private final Map<String, Integer> _entries = new ConcurrentHashMap<String, Integer>();
+        //the modifiers of each write multiple and whether its entries have a uid
+        private final List<Map.Entry<Integer, Set<Boolean>>> _batches = Collections.synchronizedList(new ArrayList<Map.Entry<Integer, Set<Boolean>>>());
+
+        private TestSpace(boolean coalesce) throws Exception {
+            ISpaceProxyTypeManager typeManager = mock(ISpaceProxyTypeManager.class);
+            SpaceProxyRouter router = mock(SpaceProxyRouter.class);
+            ProxySettings proxySettings = mock(ProxySettings.class);
+            when(_proxy.getDirectProxy()).thenReturn(_proxy);
+            when(_proxy.getProxySettings()).thenReturn(proxySettings);
+            when(_proxy.getTypeManager()).thenReturn(typeManager);
+            when(_proxy.getProxyRouter()).thenReturn(router);
+            when(_proxy.initWriteModifiers(anyInt())).thenCallRealMethod();
+            when(_proxy.getWriteCoalescer()).thenReturn(coalesce ? new SpaceProxyImplWriteCoalescer(_proxy, THREADS, TimeUnit.SECONDS.toMicros(1)) : null);
+            when(typeManager.getEntryPacketFromObject(any(), any(ObjectType.class))).thenAnswer(new Answer<IEntryPacket>() {
+                @Override
+                public IEntryPacket answer(InvocationOnMock invocation) {
+                    return ((TestEntry) invocation.getArguments()[0])._packet;
+                }
+            });
+            when(typeManager.processWriteResult(any(WriteEntryResult.class), any(), any(IEntryPacket.class))).thenAnswer(new Answer<LeaseContext<?>>() {
+                @Override
+                public LeaseContext<?> answer(InvocationOnMock invocation) {
+                    WriteEntryResult result = (WriteEntryResult) invocation.getArguments()[0];
+                    LeaseContext<?> lease = mock(LeaseContext.class);
+                    when(lease.getUID()).thenReturn(result.getUid() + ":" + result.getVersion());
+                    return lease;
+                }
+            });
+            doAnswer(new Answer<Object>() {
+                @Override
+                public Object answer(InvocationOnMock invocation) {
+                    execute((RemoteOperationRequest<?>) invocation.getArguments()[0]);
+                    return null;
+                }
+            }).when(router).execute(any(RemoteOperationRequest.class));
+        }
+
+        private void execute(RemoteOperationRequest<?> request) {
+            if (request instanceof WriteEntrySpaceOperationRequest) {
+                WriteEntrySpaceOperationRequest writeRequest = (WriteEntrySpaceOperationRequest) request;
+                WriteEntrySpaceOperationResult result = new WriteEntrySpaceOperationResult();
+                try {
+                    result.setResult(write(writeRequest.getEntryPacket(), writeRequest.isUpdate(), writeRequest.getModifiers()));
+                } catch (Exception e) {
+                    result.setExecutionException(e);
+                }
+                writeRequest.setRemoteOperationResult(result);
+            } else {
+                WriteEntriesSpaceOperationRequest writeRequest = (WriteEntriesSpaceOperationRequest) request;
+                IEntryPacket[] packets = writeRequest.getEntriesPackets();
+                boolean update = UpdateModifiers.isPotentialUpdate(writeRequest.getModifiers());
+                WriteEntriesResult result = new WriteEntriesResult(packets.length);
+                Set<Boolean> withUid = new HashSet<Boolean>();
+                for (int i = 0; i < packets.length; i++) {
+                    withUid.add(packets[i].getUID() != null);
+                    try {
+                        result.setResult(i, write(packets[i], update, writeRequest.getModifiers()));
+                    } catch (Exception e) {
+                        result.setError(i, e);
+                    }
+                }
+                _batches.add(new AbstractMap.SimpleEntry<Integer, Set<Boolean>>(writeRequest.getModifiers(), withUid));
+                writeRequest.setRemoteOperationResult(new WriteEntriesSpaceOperationResult(result, null));
+            }
+        }
+
+        private WriteEntryResult write(IEntryPacket packet, boolean update, int modifiers) {
+            String uid = packet.getUID() != null ? packet.getUID() : (String) packet.getID();
+            synchronized (_entries) {
+                Integer version = _entries.get(uid);
+                if (!update || version == null && UpdateModifiers.isUpdateOrWrite(modifiers)) {
+                    if (version != null)
+                        throw new IllegalStateException("entry already in space " + uid);
+                    version = 0;
+                } else if (version == null) {
+                    throw new IllegalStateException("entry not in space " + uid);
+                }
+                _entries.put(uid, version + 1);
+                return new WriteEntryResult(uid, version + 1, Lease.FOREVER);
+            }
+        }
+
+        /**
+         * @return the results of the writes of each thread
+         */
+        private List<List<String>> run() throws Exception {
+            final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+                for (int i = 0; i < THREADS; i++) {
+                    final String prefix = "t" + i + "-";
+                    futures.add(executor.submit(() -> {
+                        List<String> results = new ArrayList<String>();
+                        //each thread writes its own entries, the threads write concurrently step by step
+                        for (Object[] step : new Object[][]{
+                                {prefix + "a", prefix + "a", 0},
+                                {prefix + "a", prefix + "a", 0},
+                                {prefix + "a", prefix + "a", UpdateModifiers.WRITE_ONLY},
+                                {prefix + "b", prefix + "b", UpdateModifiers.UPDATE_ONLY},
+                                //an entry without a uid is written, even if an entry with its id exists
+                                {null, prefix + "a", 0},
+                                {null, prefix + "c", 0},
+                                {prefix + "c", prefix + "c", UpdateModifiers.PARTIAL_UPDATE},
+                                {prefix + "a", prefix + "a", UpdateModifiers.UPDATE_OR_WRITE},
+                        }) {
+                            barrier.await(10, TimeUnit.SECONDS);
+                            results.add(write((String) step[0], (String) step[1], (Integer) step[2]));
+                        }
+                        return results;
+                    }));
+                }
+                List<List<String>> results = new ArrayList<List<String>>();
+                for (Future<List<String>> future : futures)
+                    results.add(future.get());
+                return results;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private String write(String uid, String id, int modifiers) {
+            ITypeDesc typeDesc = mock(ITypeDesc.class);
+            IEntryPacket packet = mock(IEntryPacket.class);
+            when(packet.getUID()).thenReturn(uid);
+            when(packet.getID()).thenReturn(id);
+            when(packet.getTypeDescriptor()).thenReturn(typeDesc);
+            try {
+                WriteProxyActionInfo actionInfo = new WriteProxyActionInfo(_proxy, new TestEntry(packet), null, Lease.FOREVER, 0, modifiers);
+                LeaseContext<?> lease = new SpaceProxyImplWriteAction().write(_proxy, actionInfo);
+                return lease.getUID();
+            } catch (Exception e) {
+                return e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+        }
+    }
+
+    private static class TestEntry {
+        private final IEntryPacket _packet;
+
+        private TestEntry(IEntryPacket packet) {
+            _packet = packet;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.gigaspaces.internal.cluster.node.impl.backlog.globalorder;
+
+import com.gigaspaces.cluster.replication.ReplicationException;
+import com.gigaspaces.internal.cluster.node.impl.ReplicationOutContext;
+import com.gigaspaces.internal.cluster.node.impl.ReplicationSingleOperationType;
+import com.gigaspaces.internal.cluster.node.impl.backlog.BacklogConfig;
+import com.gigaspaces.internal.cluster.node.impl.backlog.BacklogMemberLimitationConfig;
+import com.gigaspaces.internal.cluster.node.impl.config.DynamicSourceGroupConfigHolder;
+import com.gigaspaces.internal.cluster.node.impl.config.SourceGroupConfig;
+import com.gigaspaces.internal.cluster.node.impl.groups.IReplicationChannelDataFilter;
+import com.gigaspaces.internal.cluster.node.impl.groups.async.IAsyncReplicationGroupOutContext;
+import com.gigaspaces.internal.cluster.node.impl.groups.reliableasync.AsyncChannelConfig;
+import com.gigaspaces.internal.cluster.node.impl.processlog.globalorder.GlobalOrderProcessResult;
+import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacketDataProducer;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.UpdateReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.WriteReplicationPacketData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.j_spaces.core.cluster.ReplicationPolicy;
+import com.j_spaces.core.cluster.SwapBacklogConfig;
+import com.j_spaces.core.filters.ReplicationStatistics.ReplicationMode;
+import com.j_spaces.kernel.SystemProperties;
+import net.jini.core.lease.Lease;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GlobalOrderGroupBacklogCoalescingTest {
+    private static final String TARGET = "target";
+    private static final String MIRROR = "mirror";
+    private static final String NOTIFICATION = "notification";
+    private static final int BATCH_SIZE = (int) ReplicationPolicy.DEFAULT_REDO_LOG_COMPACTION_BATCH_SIZE;
+
+    private IReplicationPacketData<?> _nextData;
+    private DynamicSourceGroupConfigHolder _groupConfigHolder;
+
+    @Before
+    public void setup() {
+        System.setProperty(SystemProperties.REDOLOG_COALESCING_ENABLED, "true");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(SystemProperties.REDOLOG_COALESCING_ENABLED);
+    }
+
+    @Test
+    public void testWeightAndMirrorDiscardedCount() throws Exception {
+        GlobalOrderAsyncGroupBacklog backlog = createBacklog("fixed");
+        add(backlog, write("a"));
+        for (int i = 1; i < BATCH_SIZE; i++)
+            add(backlog, update("a"));
+
+        //the write and the last update are kept
+        Assert.assertEquals(BATCH_SIZE, backlog.size());
+        Assert.assertEquals(2, backlog.getWeight());
+        Assert.assertEquals(2, backlog.getLastConfirmationInternal(TARGET).getWeight());
+        Assert.assertEquals(0, backlog.getLastConfirmationInternal(TARGET).getDiscardedPacketsCount());
+        Assert.assertEquals(2, backlog.getLastConfirmationInternal(MIRROR).getWeight());
+        Assert.assertEquals(BATCH_SIZE - 2, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+
+        //deleting the discarded packets once all members confirmed them decreases the discarded count
+        confirm(backlog, TARGET, BATCH_SIZE / 2 - 1);
+        confirm(backlog, MIRROR, BATCH_SIZE / 2 - 1);
+        Assert.assertEquals(BATCH_SIZE / 2, backlog.size());
+        Assert.assertEquals(1, backlog.getWeight());
+        Assert.assertEquals(1, backlog.getLastConfirmationInternal(TARGET).getWeight());
+        Assert.assertEquals(1, backlog.getLastConfirmationInternal(MIRROR).getWeight());
+        Assert.assertEquals(BATCH_SIZE / 2 - 1, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+    }
+
+    @Test
+    public void testNotCoalescedWhenDisabled() {
+        System.clearProperty(SystemProperties.REDOLOG_COALESCING_ENABLED);
+        GlobalOrderAsyncGroupBacklog backlog = createBacklog("fixed");
+        for (int i = 0; i < BATCH_SIZE; i++)
+            add(backlog, update("a"));
+
+        Assert.assertEquals(BATCH_SIZE, backlog.getWeight());
+        Assert.assertEquals(0, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+    }
+
+    @Test
+    public void testNotCoalescedWithNotificationMember() {
+        GlobalOrderAsyncGroupBacklog backlog = createBacklog("fixed");
+        _groupConfigHolder.addListener(backlog);
+        _groupConfigHolder.addMember(NOTIFICATION, mock(IReplicationChannelDataFilter.class), new BacklogMemberLimitationConfig(),
+                new AsyncChannelConfig(100, 100, 100, ReplicationMode.DURABLE_NOTIFICATION), null);
+        for (int i = 0; i < BATCH_SIZE; i++)
+            add(backlog, update("a"));
+
+        //the notification member needs the event of every update
+        Assert.assertEquals(BATCH_SIZE, backlog.getWeight());
+        Assert.assertEquals(BATCH_SIZE, backlog.getLastConfirmationInternal(NOTIFICATION).getWeight());
+        Assert.assertEquals(0, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+        for (IReplicationOrderedPacket packet : getPackets(backlog, NOTIFICATION))
+            Assert.assertFalse(packet.isDiscardedPacket());
+
+        //once the notification member leaves, the updates are coalesced again
+        _groupConfigHolder.removeMember(NOTIFICATION);
+        for (int i = 0; i < BATCH_SIZE; i++)
+            add(backlog, update("a"));
+        Assert.assertEquals(1, backlog.getLastConfirmationInternal(MIRROR).getWeight());
+        Assert.assertEquals(2 * BATCH_SIZE - 1, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+    }
+
+    @Test
+    public void testPacketsAreCoalescedBeforeSwapped() {
+        BacklogConfig backlogConfig = createBacklogConfig("fixed");
+        //half of the capacity is held by the memory redo log, the rest is cached by the swap before it is flushed
+        backlogConfig.setLimitedMemoryCapacity(4 * BATCH_SIZE);
+        SwapBacklogConfig swapBacklogConfig = new SwapBacklogConfig();
+        swapBacklogConfig.setFlushBufferPacketsCount(10);
+        backlogConfig.setSwapBacklogConfig(swapBacklogConfig);
+        GlobalOrderAsyncGroupBacklog backlog = createBacklog(backlogConfig);
+        for (int i = 0; i < 2 * BATCH_SIZE; i++)
+            add(backlog, write("w" + i));
+        //the memory redo log is full, the next packets are appended to the swap
+        for (int i = 0; i < 10 * BATCH_SIZE; i++)
+            add(backlog, update("a"));
+
+        Assert.assertEquals(12 * BATCH_SIZE, backlog.size());
+        Assert.assertEquals(0, backlog.getStatistics().getExternalStoragePacketsCount());
+        Assert.assertEquals(2 * BATCH_SIZE + 1, backlog.getLastConfirmationInternal(MIRROR).getWeight());
+        Assert.assertEquals(10 * BATCH_SIZE - 1, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+    }
+
+    @Test
+    public void testConfirmedPacketsAreNotCoalesced() throws Exception {
+        GlobalOrderAsyncGroupBacklog backlog = createBacklog("fixed");
+        add(backlog, update("a"));
+        add(backlog, update("a"));
+        confirm(backlog, TARGET, 0);
+        for (int i = 2; i < BATCH_SIZE; i++)
+            add(backlog, update("b"));
+
+        List<IReplicationOrderedPacket> packets = getPackets(backlog, MIRROR);
+        Assert.assertFalse(packets.get(0).isDiscardedPacket());
+        Assert.assertFalse(packets.get(1).isDiscardedPacket());
+        Assert.assertTrue(packets.get(2).isDiscardedPacket());
+        Assert.assertEquals(3, backlog.getWeight());
+        Assert.assertEquals(2, backlog.getLastConfirmationInternal(TARGET).getWeight());
+    }
+
+    @Test
+    public void testFixedWeightOfTargetHoldingInFlightDiscardedKeys() throws Exception {
+        assertTargetHoldingInFlightDiscardedKeys("fixed");
+    }
+
+    @Test
+    public void testAccumulatedWeightOfTargetHoldingInFlightDiscardedKeys() throws Exception {
+        assertTargetHoldingInFlightDiscardedKeys("accumulated");
+    }
+
+    private void assertTargetHoldingInFlightDiscardedKeys(String weightPolicy) throws Exception {
+        GlobalOrderAsyncGroupBacklog backlog = createBacklog(weightPolicy);
+        for (int i = 0; i < BATCH_SIZE / 2; i++)
+            add(backlog, update("a"));
+        //the target received the packets but did not confirm them before they are coalesced
+        List<IReplicationOrderedPacket> inFlight = getPackets(backlog, TARGET);
+        Assert.assertEquals(BATCH_SIZE / 2, inFlight.size());
+        for (int i = BATCH_SIZE / 2; i < BATCH_SIZE; i++)
+            add(backlog, update("b"));
+        add(backlog, update("c"));
+
+        Assert.assertTrue(getPackets(backlog, MIRROR).get(0).isDiscardedPacket());
+        Assert.assertEquals(3, backlog.getLastConfirmationInternal(TARGET).getWeight());
+
+        //the target confirms the packets it processed, which are discarded in the backlog by now
+        backlog.processResult(TARGET, GlobalOrderProcessResult.OK, inFlight);
+        Assert.assertEquals(2, backlog.getLastConfirmationInternal(TARGET).getWeight());
+
+        //the mirror receives the discarded packets instead
+        List<IReplicationOrderedPacket> packets = getPackets(backlog, MIRROR);
+        backlog.processResult(MIRROR, GlobalOrderProcessResult.OK, packets.subList(0, BATCH_SIZE));
+        Assert.assertEquals(1, backlog.getLastConfirmationInternal(MIRROR).getWeight());
+        Assert.assertEquals(BATCH_SIZE / 2 + 1, backlog.size());
+        Assert.assertEquals(2, backlog.getWeight());
+        Assert.assertEquals(BATCH_SIZE / 2 - 1, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+
+        packets = getPackets(backlog, TARGET);
+        backlog.processResult(TARGET, GlobalOrderProcessResult.OK, packets.subList(0, BATCH_SIZE / 2));
+        Assert.assertEquals(1, backlog.getLastConfirmationInternal(TARGET).getWeight());
+        Assert.assertEquals(1, backlog.size());
+        Assert.assertEquals(1, backlog.getWeight());
+        Assert.assertEquals(0, backlog.getLastConfirmationInternal(MIRROR).getDiscardedPacketsCount());
+    }
+
+    private GlobalOrderAsyncGroupBacklog createBacklog(String weightPolicy) {
+        return createBacklog(createBacklogConfig(weightPolicy));
+    }
+
+    private static BacklogConfig createBacklogConfig(String weightPolicy) {
+        BacklogConfig backlogConfig = new BacklogConfig();
+        backlogConfig.setBackLogWeightPolicy(weightPolicy);
+        backlogConfig.setMirrorMemberName(MIRROR);
+        return backlogConfig;
+    }
+
+    private GlobalOrderAsyncGroupBacklog createBacklog(BacklogConfig backlogConfig) {
+        SourceGroupConfig groupConfig = new SourceGroupConfig("group", backlogConfig, TARGET, MIRROR);
+        IReplicationPacketDataProducer dataProducer = mock(IReplicationPacketDataProducer.class);
+        when(dataProducer.createSingleOperationData(any(IEntryHolder.class), any(ReplicationSingleOperationType.class), any(ReplicationOutContext.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+                return _nextData;
+            }
+        });
+        _groupConfigHolder = new DynamicSourceGroupConfigHolder(groupConfig);
+        return new GlobalOrderAsyncGroupBacklog(_groupConfigHolder, "backlog", dataProducer);
+    }
+
+    private void add(GlobalOrderAsyncGroupBacklog backlog, IReplicationPacketData<?> data) {
+        IAsyncReplicationGroupOutContext groupContext = mock(IAsyncReplicationGroupOutContext.class);
+        when(groupContext.getEntireContext()).thenReturn(new ReplicationOutContext());
+        _nextData = data;
+        backlog.add(groupContext, null, ReplicationSingleOperationType.UPDATE);
+    }
+
+    private static void confirm(GlobalOrderAsyncGroupBacklog backlog, String memberName, long key) throws ReplicationException {
+        for (IReplicationOrderedPacket packet : getPackets(backlog, memberName)) {
+            if (packet.getKey() == key) {
+                backlog.processResult(memberName, GlobalOrderProcessResult.OK, packet);
+                return;
+            }
+        }
+        Assert.fail("packet " + key + " is not in the backlog");
+    }
+
+    private static List<IReplicationOrderedPacket> getPackets(GlobalOrderAsyncGroupBacklog backlog, String memberName) {
+        return backlog.getPackets(memberName, Integer.MAX_VALUE, null, PlatformLogicalVersion.getLogicalVersion(),
+                LoggerFactory.getLogger(GlobalOrderGroupBacklogCoalescingTest.class));
+    }
+
+    private static IEntryPacket entry(String uid) {
+        IEntryPacket entry = mock(IEntryPacket.class);
+        when(entry.getUID()).thenReturn(uid);
+        return entry;
+    }
+
+    private static IReplicationPacketData<?> write(String uid) {
+        return new WriteReplicationPacketData(entry(uid), false, Lease.FOREVER);
+    }
+
+    private static IReplicationPacketData<?> update(String uid) {
+        return new UpdateReplicationPacketData(entry(uid), false, false, null, (short) 0, Lease.FOREVER, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.gigaspaces.internal.io;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+
+public class LZ4BlockCodecTest {
+
+    private static byte[] roundTrip(byte[] data) throws DataFormatException {
+        byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = new LZ4BlockCodec().compress(data, 0, data.length, compressed, 0);
+        Assert.assertTrue(compressedLength <= compressed.length);
+        byte[] decompressed = new byte[data.length];
+        LZ4BlockCodec.decompress(compressed, 0, compressedLength, decompressed, 0, data.length);
+        Assert.assertArrayEquals(data, decompressed);
+        return compressed;
+    }
+
+    private static int compressedLength(byte[] data) {
+        byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(data.length)];
+        return new LZ4BlockCodec().compress(data, 0, data.length, compressed, 0);
+    }
+
+    @Test
+    public void testSmallInputs() throws DataFormatException {
+        for (int length = 0; length < 40; length++) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++)
+                data[i] = (byte) (i % 3);
+            roundTrip(data);
+        }
+    }
+
+    @Test
+    public void testRepetitiveData() throws DataFormatException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+            sb.append("<entry id=\"").append(i % 17).append("\" type=\"com.example.Person\"/>");
+        byte[] data = sb.toString().getBytes(Charset.forName("UTF-8"));
+        roundTrip(data);
+        Assert.assertTrue(compressedLength(data) < data.length / 4);
+    }
+
+    @Test
+    public void testLongRuns() throws DataFormatException {
+        //overlapping matches and long literal and match lengths
+        byte[] data = new byte[100000];
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++)
+            data[i] = (byte) random.nextInt();
+        roundTrip(data);
+    }
+
+    @Test
+    public void testRandomData() throws DataFormatException {
+        Random random = new Random(42);
+        for (int length : new int[]{13, 100, 4096, 70000, 300000}) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            roundTrip(data);
+            Assert.assertTrue(compressedLength(data) <= LZ4BlockCodec.maxCompressedLength(length));
+        }
+    }
+
+    @Test
+    public void testMixedData() throws DataFormatException {
+        Random random = new Random(3);
+        byte[] data = new byte[200000];
+        int pos = 0;
+        while (pos < data.length) {
+            int len = Math.min(data.length - pos, 1 + random.nextInt(300));
+            if (random.nextBoolean() && pos > 70000) {
+                //copy from far behind, beyond the max distance
+                System.arraycopy(data, pos - 70000, data, pos, len);
+            } else if (random.nextBoolean() && pos > 0) {
+                int from = pos - 1 - random.nextInt(Math.min(pos, 1000));
+                for (int i = 0; i < len; i++)
+                    data[pos + i] = data[from + i];
+            } else {
+                for (int i = 0; i < len; i++)
+                    data[pos + i] = (byte) random.nextInt(4);
+            }
+            pos += len;
+        }
+        roundTrip(data);
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testWrongLength() throws DataFormatException {
+        byte[] data = "abcdabcdabcdabcdabcdabcdabcd".getBytes(Charset.forName("UTF-8"));
+        byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = new LZ4BlockCodec().compress(data, 0, data.length, compressed, 0);
+        LZ4BlockCodec.decompress(compressed, 0, compressedLength, new byte[data.length + 1], 0, data.length + 1);
+    }
+
+    @Test(expected = DataFormatException.class)
+    public void testTruncatedBlock() throws DataFormatException {
+        byte[] data = new byte[1000];
+        byte[] compressed = new byte[LZ4BlockCodec.maxCompressedLength(data.length)];
+        int compressedLength = new LZ4BlockCodec().compress(data, 0, data.length, compressed, 0);
+        LZ4BlockCodec.decompress(compressed, 0, compressedLength - 3, new byte[data.length], 0, data.length);
+    }
+}
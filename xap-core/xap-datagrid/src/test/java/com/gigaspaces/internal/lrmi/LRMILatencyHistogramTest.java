@@ -0,0 +1,132 @@
+package com.gigaspaces.internal.lrmi;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class LRMILatencyHistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        for (long value = 0; value < 100000; value++) {
+            int index = LRMILatencyHistogram.bucketIndex(value);
+            long highest = LRMILatencyHistogram.bucketHighestValue(index);
+            Assert.assertTrue("value " + value, value <= highest);
+            //within 1/16 of the value
+            Assert.assertTrue("value " + value, highest - value <= value / 16);
+            if (index > 0)
+                Assert.assertTrue("value " + value, LRMILatencyHistogram.bucketHighestValue(index - 1) < value);
+        }
+        Assert.assertEquals(LRMILatencyHistogram.BUCKET_COUNT - 1, LRMILatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        Assert.assertEquals(LRMILatencyHistogram.HIGHEST_TRACKABLE_VALUE,
+                LRMILatencyHistogram.bucketHighestValue(LRMILatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LRMILatencyHistogram histogram = new LRMILatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentileNanos(99));
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L);
+
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(1000000, histogram.getMaxNanos());
+        Assert.assertEquals(500500, histogram.getMeanNanos(), 0.001);
+        assertNear(500000, histogram.getPercentileNanos(50));
+        assertNear(990000, histogram.getPercentileNanos(99));
+        Assert.assertEquals(1000000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        LRMILatencyHistogram histogram = new LRMILatencyHistogram();
+        histogram.record(7);
+        histogram.record(20000);
+        histogram.record(5000000000L);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        histogram.writeExternal(out);
+        out.close();
+        LRMILatencyHistogram copy = new LRMILatencyHistogram();
+        copy.readExternal(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assert.assertEquals(3, copy.getCount());
+        Assert.assertEquals(5000000000L, copy.getMaxNanos());
+        Assert.assertEquals(histogram.getMeanNanos(), copy.getMeanNanos(), 0);
+        Assert.assertEquals(7, copy.getPercentileNanos(30));
+        Assert.assertEquals(histogram.getPercentileNanos(60), copy.getPercentileNanos(60));
+    }
+
+    @Test
+    public void testIntervalSnapshot() {
+        LRMILatencyHistogram histogram = new LRMILatencyHistogram();
+        for (int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000L);
+        LRMILatencyHistogram first = histogram.intervalSnapshot();
+        Assert.assertEquals(1000, first.getCount());
+        Assert.assertEquals(1000000, first.getMaxNanos());
+        assertNear(990000, first.getPercentileNanos(99));
+
+        //an interval without invocations is empty rather than a copy of the previous one
+        LRMILatencyHistogram empty = histogram.intervalSnapshot();
+        Assert.assertEquals(0, empty.getCount());
+        Assert.assertEquals(0, empty.getMaxNanos());
+        Assert.assertEquals(0, empty.getPercentileNanos(99));
+
+        //a later interval reports only its own invocations, regardless of the earlier slow ones
+        for (int i = 1; i <= 100; i++)
+            histogram.record(i);
+        LRMILatencyHistogram second = histogram.intervalSnapshot();
+        Assert.assertEquals(100, second.getCount());
+        Assert.assertEquals(100, second.getMaxNanos());
+        Assert.assertEquals(50.5, second.getMeanNanos(), 0.001);
+        assertNear(99, second.getPercentileNanos(99));
+
+        //the histogram itself keeps all the invocations
+        Assert.assertEquals(1100, histogram.getCount());
+        Assert.assertEquals(1000000, histogram.getMaxNanos());
+        assertNear(990000, histogram.getPercentileNanos(99.9));
+    }
+
+    @Test
+    public void testIntervalSnapshotsWhileRecording() throws Exception {
+        final LRMILatencyHistogram histogram = new LRMILatencyHistogram();
+        final int threads = 4;
+        final int values = 100000;
+        Thread[] recorders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            recorders[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < values; i++)
+                        histogram.record(1000 + i % 1000);
+                }
+            });
+            recorders[t].start();
+        }
+        long count = 0;
+        boolean recording = true;
+        while (recording) {
+            recording = false;
+            for (Thread recorder : recorders)
+                recording |= recorder.isAlive();
+            LRMILatencyHistogram interval = histogram.intervalSnapshot();
+            count += interval.getCount();
+            if (interval.getCount() != 0) {
+                Assert.assertTrue(interval.getMaxNanos() >= 1000 && interval.getMaxNanos() < 2000);
+                Assert.assertTrue(interval.getPercentileNanos(50) >= 1000);
+            }
+        }
+        //each value is counted by exactly one interval
+        Assert.assertEquals((long) threads * values, count + histogram.intervalSnapshot().getCount());
+    }
+
+    private static void assertNear(long expected, long actual) {
+        Assert.assertTrue("expected ~" + expected + " but was " + actual, actual >= expected && actual - expected <= expected / 16);
+    }
+}
@@ -0,0 +1,27 @@
+package com.gigaspaces.internal.metadata;
+
+import com.gigaspaces.internal.version.PlatformLogicalVersion;
+import com.gigaspaces.metadata.index.SpaceIndexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpaceIndexTypeHelperTest {
+
+    @Test
+    public void testRoundTrip() {
+        for (SpaceIndexType indexType : new SpaceIndexType[]{SpaceIndexType.NONE, SpaceIndexType.EQUAL, SpaceIndexType.ORDERED,
+                SpaceIndexType.EQUAL_AND_ORDERED, SpaceIndexType.BITMAP}) {
+            byte code = SpaceIndexTypeHelper.toCode(indexType, PlatformLogicalVersion.v16_5_0);
+            Assert.assertEquals(indexType, SpaceIndexTypeHelper.fromCode(code));
+        }
+        Assert.assertNull(SpaceIndexTypeHelper.fromCode(SpaceIndexTypeHelper.toCode(null)));
+    }
+
+    @Test
+    public void testBitmapForOlderPeer() {
+        byte code = SpaceIndexTypeHelper.toCode(SpaceIndexType.BITMAP, PlatformLogicalVersion.v16_4_0);
+        Assert.assertEquals(SpaceIndexType.EQUAL, SpaceIndexTypeHelper.fromCode(code));
+        code = SpaceIndexTypeHelper.toCode(SpaceIndexType.ORDERED, PlatformLogicalVersion.v16_4_0);
+        Assert.assertEquals(SpaceIndexType.ORDERED, SpaceIndexTypeHelper.fromCode(code));
+    }
+}
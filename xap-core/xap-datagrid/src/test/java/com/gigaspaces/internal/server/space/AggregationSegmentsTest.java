@@ -0,0 +1,199 @@
+package com.gigaspaces.internal.server.space;
+
+import com.gigaspaces.internal.query.RawEntry;
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.MaxValueAggregator;
+import com.gigaspaces.query.aggregators.MinValueAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregatorContext;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import com.gigaspaces.server.ServerEntry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class AggregationSegmentsTest {
+
+    @Test
+    public void testSegmentedEqualsSerial() throws Exception {
+        List<String> uids = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++)
+            uids.add("uid-" + i);
+
+        List<SpaceEntriesAggregator> serial = createAggregators();
+        TestContext serialContext = new TestContext(serial);
+        for (String uid : uids)
+            serialContext.aggregate(uid);
+
+        for (int numOfSegments : new int[]{2, 3, 8}) {
+            List<SpaceEntriesAggregator> merged = createAggregators();
+            aggregateSegmented(uids, numOfSegments, merged, 7);
+            for (int i = 0; i < serial.size(); i++)
+                Assert.assertEquals(serial.get(i).getClass().getSimpleName() + " with " + numOfSegments + " segments",
+                        serial.get(i).getFinalResult(), merged.get(i).getFinalResult());
+        }
+    }
+
+    @Test
+    public void testEachCandidateConsumedOnce() throws Exception {
+        final int numOfSegments = 4;
+        final AggregationSegments<Integer, String> segments = new AggregationSegments<Integer, String>(numOfSegments, 5);
+        final AtomicIntegerArray consumed = new AtomicIntegerArray(1000);
+        ExecutorService executor = Executors.newFixedThreadPool(numOfSegments - 1);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 1; i < numOfSegments; i++) {
+                final int segment = i;
+                futures.add(executor.submit(() -> {
+                    segments.consume(segment, (candidate, scan) -> {
+                        Assert.assertEquals(segment, AggregationSegments.segmentOf("uid-" + candidate, numOfSegments));
+                        Assert.assertEquals(candidate < 500 ? "first" : "second", scan);
+                        consumed.incrementAndGet(candidate);
+                    });
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 1000; i++) {
+                if (!segments.dispatch("uid-" + i, i, i < 500 ? "first" : "second"))
+                    consumed.incrementAndGet(i);
+            }
+            segments.finish();
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 0; i < 1000; i++)
+            Assert.assertEquals("candidate " + i, 1, consumed.get(i));
+    }
+
+    @Test
+    public void testFailedSegment() throws Exception {
+        final AggregationSegments<Integer, String> segments = new AggregationSegments<Integer, String>(2, 1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> future = executor.submit(() -> {
+                segments.consume(1, (candidate, scan) -> {
+                    throw new IllegalStateException("failed " + candidate);
+                });
+                return null;
+            });
+            for (int i = 0; i < 1000; i++)
+                segments.dispatch("uid-" + i, i, "scan");
+            segments.finish();
+            try {
+                future.get();
+                Assert.fail("the failure of the segment should be thrown");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void aggregateSegmented(List<String> uids, int numOfSegments, List<SpaceEntriesAggregator> result, int batchSize)
+            throws Exception {
+        final AggregationSegments<String, Object> segments = new AggregationSegments<String, Object>(numOfSegments, batchSize);
+        final Object scan = new Object();
+        List<List<SpaceEntriesAggregator>> segmentsAggregators = new ArrayList<List<SpaceEntriesAggregator>>();
+        for (int i = 0; i < numOfSegments; i++) {
+            List<SpaceEntriesAggregator> segmentAggregators = new ArrayList<SpaceEntriesAggregator>();
+            for (SpaceEntriesAggregator aggregator : result)
+                segmentAggregators.add(aggregator.clone());
+            segmentsAggregators.add(segmentAggregators);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(numOfSegments - 1);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 1; i < numOfSegments; i++) {
+                final int segment = i;
+                final TestContext context = new TestContext(segmentsAggregators.get(i));
+                futures.add(executor.submit(() -> {
+                    segments.consume(segment, (uid, s) -> context.aggregate(uid));
+                    return null;
+                }));
+            }
+            TestContext context = new TestContext(segmentsAggregators.get(0));
+            for (String uid : uids) {
+                if (!segments.dispatch(uid, uid, scan))
+                    context.aggregate(uid);
+            }
+            segments.finish();
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (List<SpaceEntriesAggregator> segmentAggregators : segmentsAggregators) {
+            for (int i = 0; i < result.size(); i++) {
+                Serializable intermediateResult = segmentAggregators.get(i).getIntermediateResult();
+                if (intermediateResult != null)
+                    result.get(i).aggregateIntermediateResult(intermediateResult);
+            }
+        }
+    }
+
+    private static List<SpaceEntriesAggregator> createAggregators() {
+        return new ArrayList<SpaceEntriesAggregator>(Arrays.<SpaceEntriesAggregator>asList(
+                new CountAggregator().setPath("value"),
+                new SumAggregator().setPath("value"),
+                new AverageAggregator().setPath("value"),
+                new MinValueAggregator().setPath("value"),
+                new MaxValueAggregator().setPath("value")));
+    }
+
+    private static class TestContext extends SpaceEntriesAggregatorContext {
+        private String _uid;
+
+        private TestContext(List<SpaceEntriesAggregator> aggregators) {
+            super(aggregators);
+        }
+
+        void aggregate(String uid) {
+            _uid = uid;
+            aggregate();
+        }
+
+        @Override
+        protected Object getPathValueImpl(String path) {
+            int id = Integer.parseInt(_uid.substring(4));
+            //every tenth entry has no value
+            return id % 10 == 0 ? null : (long) (id * 31 % 1000);
+        }
+
+        @Override
+        public int getPartitionId() {
+            return 0;
+        }
+
+        @Override
+        public String getEntryUid() {
+            return _uid;
+        }
+
+        @Override
+        public RawEntry getRawEntry() {
+            return null;
+        }
+
+        @Override
+        public void applyProjectionTemplate(RawEntry entry) {
+        }
+
+        @Override
+        public ServerEntry getServerEntry() {
+            return null;
+        }
+    }
+}
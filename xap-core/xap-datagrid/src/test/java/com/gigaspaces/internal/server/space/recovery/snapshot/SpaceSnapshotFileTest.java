@@ -0,0 +1,128 @@
+package com.gigaspaces.internal.server.space.recovery.snapshot;
+
+import com.gigaspaces.internal.cluster.node.impl.IIncomingReplicationFacade;
+import com.gigaspaces.internal.cluster.node.impl.replica.IExecutableSpaceReplicaData;
+import com.gigaspaces.internal.cluster.node.impl.replica.ISpaceReplicaConsumeFacade;
+import com.gigaspaces.internal.cluster.node.impl.replica.SpaceCopyIntermediateResult;
+import com.gigaspaces.internal.server.space.metadata.SpaceTypeManager;
+import com.j_spaces.core.cluster.IReplicationFilterEntry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpaceSnapshotFileTest {
+
+    @Test
+    public void testReadWrittenBlocks() throws Exception {
+        File file = File.createTempFile("space", ".snapshot");
+        try {
+            long startTime = System.currentTimeMillis();
+            SpaceSnapshotFile.Writer writer = new SpaceSnapshotFile.Writer(file);
+            writer.writeBlock(SpaceSnapshotFile.BLOCK_TYPES, Arrays.asList(new TestReplicaData("type")));
+            writer.writeBlock(SpaceSnapshotFile.BLOCK_ENTRIES, new ArrayList<TestReplicaData>());
+            writer.writeBlock(SpaceSnapshotFile.BLOCK_ENTRIES, Arrays.asList(new TestReplicaData("a"), new TestReplicaData("b")));
+            writer.close();
+
+            SpaceSnapshotFile.Reader reader = new SpaceSnapshotFile.Reader(file);
+            try {
+                Assert.assertTrue(reader.getCreationTime() >= startTime && reader.getCreationTime() <= System.currentTimeMillis());
+                assertBlock(reader, SpaceSnapshotFile.BLOCK_TYPES, "type");
+                assertBlock(reader, SpaceSnapshotFile.BLOCK_ENTRIES, "a", "b");
+                Assert.assertNull(reader.nextBlock());
+            } finally {
+                reader.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTruncatedFile() throws Exception {
+        File file = File.createTempFile("space", ".snapshot");
+        try {
+            SpaceSnapshotFile.Writer writer = new SpaceSnapshotFile.Writer(file);
+            writer.writeBlock(SpaceSnapshotFile.BLOCK_ENTRIES, Arrays.asList(new TestReplicaData("a")));
+            writer.close();
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            raf.setLength(raf.length() - 4);
+            raf.close();
+
+            SpaceSnapshotFile.Reader reader = new SpaceSnapshotFile.Reader(file);
+            try {
+                reader.nextBlock();
+                reader.nextBlock();
+                Assert.fail("reading a truncated snapshot should fail");
+            } catch (IOException e) {
+            } finally {
+                reader.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void assertBlock(SpaceSnapshotFile.Reader reader, byte kind, String... uids) throws Exception {
+        byte[] block = reader.nextBlock();
+        Assert.assertEquals(kind, reader.getKind());
+        Assert.assertEquals(uids.length, reader.getCount());
+        List<IExecutableSpaceReplicaData> items = SpaceSnapshotFile.deserialize(block, reader.getCount());
+        for (int i = 0; i < uids.length; i++)
+            Assert.assertEquals(uids[i], items.get(i).getUid());
+    }
+
+    public static class TestReplicaData implements IExecutableSpaceReplicaData {
+        private static final long serialVersionUID = 1L;
+        private String _uid;
+
+        public TestReplicaData() {
+        }
+
+        TestReplicaData(String uid) {
+            _uid = uid;
+        }
+
+        @Override
+        public void execute(ISpaceReplicaConsumeFacade consumeFacade, SpaceCopyIntermediateResult intermediateResult,
+                            IIncomingReplicationFacade incomingReplicationFacade) {
+        }
+
+        @Override
+        public IReplicationFilterEntry toFilterEntry(SpaceTypeManager typeManager) {
+            return null;
+        }
+
+        @Override
+        public String getUid() {
+            return _uid;
+        }
+
+        @Override
+        public boolean supportsReplicationFilter() {
+            return false;
+        }
+
+        @Override
+        public boolean isEntryReplicaData() {
+            return true;
+        }
+
+        @Override
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeUTF(_uid);
+        }
+
+        @Override
+        public void readExternal(ObjectInput in) throws IOException {
+            _uid = in.readUTF();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.gigaspaces.internal.server.space.recovery.snapshot;
+
+import com.gigaspaces.cluster.replication.IRedoLogStatistics;
+import com.gigaspaces.internal.cluster.node.impl.ReplicationNode;
+import com.gigaspaces.internal.server.space.SpaceEngine;
+import com.gigaspaces.internal.server.space.SpaceImpl;
+import com.j_spaces.core.ISpaceState;
+import com.j_spaces.core.SpaceRecoveryException;
+import com.j_spaces.core.cache.CacheManager;
+import com.j_spaces.kernel.SystemProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpaceSnapshotManagerTest {
+    private File _directory;
+    private File _file;
+    private long _watermark = 5;
+    private int _state = ISpaceState.STARTED;
+    private boolean _primary = true;
+    private SpaceImpl _space;
+
+    @Before
+    public void setup() throws Exception {
+        _directory = Files.createTempDirectory("snapshots").toFile();
+        _file = SpaceSnapshotFile.getFile(_directory, "space", 1);
+        System.setProperty(SystemProperties.SPACE_SNAPSHOT_ENABLED, "true");
+        System.setProperty(SystemProperties.SPACE_SNAPSHOT_DIRECTORY, _directory.getPath());
+        //the test drives the checkpoints and the modification checks
+        System.setProperty(SystemProperties.SPACE_SNAPSHOT_INTERVAL, String.valueOf(Long.MAX_VALUE / 2));
+
+        _space = mock(SpaceImpl.class);
+        SpaceEngine engine = mock(SpaceEngine.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        ReplicationNode replicationNode = mock(ReplicationNode.class);
+        IRedoLogStatistics statistics = mock(IRedoLogStatistics.class);
+        when(_space.getEngine()).thenReturn(engine);
+        when(_space.getServiceName()).thenReturn("space");
+        when(_space.isPrimary()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return _primary;
+            }
+        });
+        when(_space.getState()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) {
+                return _state;
+            }
+        });
+        when(engine.getSpaceName()).thenReturn("space");
+        when(engine.getFullSpaceName()).thenReturn("container:space");
+        when(engine.getPartitionIdOneBased()).thenReturn(1);
+        when(engine.getCacheManager()).thenReturn(cacheManager);
+        when(engine.getReplicationNode()).thenReturn(replicationNode);
+        when(replicationNode.getBackLogStatistics()).thenReturn(statistics);
+        when(statistics.getLastKeyInRedoLog()).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                return _watermark;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(SystemProperties.SPACE_SNAPSHOT_ENABLED);
+        System.clearProperty(SystemProperties.SPACE_SNAPSHOT_DIRECTORY);
+        System.clearProperty(SystemProperties.SPACE_SNAPSHOT_INTERVAL);
+        System.clearProperty(SystemProperties.SPACE_SNAPSHOT_ALLOW_STALE);
+        for (File file : _directory.listFiles())
+            file.delete();
+        _directory.delete();
+    }
+
+    @Test
+    public void testSnapshotOfIdleSpaceIsLoadedAfterCrash() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        Assert.assertTrue(manager.checkpoint());
+        //the space is idle for a long time, its snapshot stays current
+        for (int i = 0; i < 10; i++) {
+            manager.checkModified();
+            Assert.assertFalse(manager.checkpoint());
+        }
+        Assert.assertEquals(1, manager._writes);
+        Assert.assertFalse(SpaceSnapshotFile.getModifiedMarker(_file).exists());
+
+        //the space crashes, the snapshot is loaded regardless of how long the cluster is down
+        new TestSnapshotManager().verifyNotModified("space", _file);
+    }
+
+    @Test
+    public void testSnapshotOfModifiedSpaceFailsRecovery() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        manager.checkpoint();
+        _watermark++;
+        manager.checkModified();
+        Assert.assertTrue(SpaceSnapshotFile.getModifiedMarker(_file).exists());
+
+        //the space crashes before the next checkpoint
+        assertModified();
+        System.setProperty(SystemProperties.SPACE_SNAPSHOT_ALLOW_STALE, "true");
+        new TestSnapshotManager().verifyNotModified("space", _file);
+    }
+
+    @Test
+    public void testNextCheckpointClearsModification() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        manager.checkpoint();
+        _watermark++;
+        manager.checkModified();
+        Assert.assertTrue(manager.checkpoint());
+        Assert.assertFalse(SpaceSnapshotFile.getModifiedMarker(_file).exists());
+        new TestSnapshotManager().verifyNotModified("space", _file);
+    }
+
+    @Test
+    public void testModificationDuringCheckpointKeepsMarker() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager() {
+            @Override
+            long writeSnapshot(SpaceEngine engine, File file) throws Exception {
+                _watermark++;
+                return super.writeSnapshot(engine, file);
+            }
+        };
+        manager.start();
+        Assert.assertTrue(manager.checkpoint());
+        assertModified();
+    }
+
+    @Test
+    public void testCleanShutdownWritesFinalSnapshot() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        manager.checkpoint();
+        _watermark += 2;
+        manager.checkModified();
+        _state = ISpaceState.STOPPED;
+        manager.close();
+
+        Assert.assertEquals(2, manager._writes);
+        //the cluster may be down for any time, the final snapshot holds every update
+        new TestSnapshotManager().verifyNotModified("space", _file);
+    }
+
+    @Test
+    public void testCleanShutdownOfIdleSpaceDoesNotWrite() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        manager.checkpoint();
+        _state = ISpaceState.STOPPED;
+        manager.close();
+
+        Assert.assertEquals(1, manager._writes);
+        new TestSnapshotManager().verifyNotModified("space", _file);
+    }
+
+    @Test
+    public void testShutdownOfBackupKeepsMarker() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        manager.checkpoint();
+        //the space is demoted and keeps receiving updates as a backup
+        _primary = false;
+        manager.checkModified();
+        _state = ISpaceState.STOPPED;
+        manager.close();
+
+        Assert.assertEquals(1, manager._writes);
+        assertModified();
+    }
+
+    @Test
+    public void testSpaceRecoveredOtherwiseMarksSnapshot() throws Exception {
+        TestSnapshotManager manager = new TestSnapshotManager();
+        manager.start();
+        manager.checkpoint();
+        _state = ISpaceState.STOPPED;
+        manager.close();
+
+        //the space restarts and is recovered from another member, the entries in the snapshot are stale
+        _state = ISpaceState.STARTED;
+        _watermark = 0;
+        new TestSnapshotManager().start();
+        assertModified();
+    }
+
+    private void assertModified() {
+        try {
+            new TestSnapshotManager().verifyNotModified("space", _file);
+            Assert.fail("a snapshot of a space modified after it was written should not be loaded");
+        } catch (SpaceRecoveryException e) {
+        }
+    }
+
+    /**
+     * Writes empty snapshots, and leaves the modification checks to the test
+     */
+    private class TestSnapshotManager extends SpaceSnapshotManager {
+        private int _writes;
+
+        private TestSnapshotManager() {
+            super(_space, Long.MAX_VALUE / 2);
+        }
+
+        @Override
+        long writeSnapshot(SpaceEngine engine, File file) throws Exception {
+            new SpaceSnapshotFile.Writer(file).close();
+            _writes++;
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.mapped;
+
+import com.gigaspaces.internal.server.space.redolog.storage.bytebuffer.IByteBufferStorageCursor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class MappedByteBufferStorageTest {
+    private static final int REGION_SIZE = 16;
+
+    private MappedByteBufferStorage _storage;
+
+    @Before
+    public void setup() throws Exception {
+        _storage = new MappedByteBufferStorage("test", REGION_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        _storage.close();
+    }
+
+    @Test
+    public void testValuesStraddlingRegions() throws Exception {
+        IByteBufferStorageCursor cursor = _storage.getCursor();
+        //every value at an offset from 1 to 15 bytes before the end of a region
+        for (int offset = 1; offset < REGION_SIZE; offset++) {
+            cursor.setPosition(offset * REGION_SIZE * 2 - offset);
+            cursor.writeInt(0x01020304 * offset);
+            cursor.setPosition(offset * REGION_SIZE * 2 + REGION_SIZE - offset);
+            cursor.writeLong(0x0102030405060708L * offset);
+        }
+        for (int offset = 1; offset < REGION_SIZE; offset++) {
+            cursor.setPosition(offset * REGION_SIZE * 2 - offset);
+            Assert.assertEquals(0x01020304 * offset, cursor.readInt());
+            Assert.assertEquals(offset * REGION_SIZE * 2 - offset + 4, cursor.getPosition());
+            cursor.setPosition(offset * REGION_SIZE * 2 + REGION_SIZE - offset);
+            Assert.assertEquals(0x0102030405060708L * offset, cursor.readLong());
+            Assert.assertEquals(offset * REGION_SIZE * 2 + REGION_SIZE - offset + 8, cursor.getPosition());
+        }
+    }
+
+    @Test
+    public void testBytesSpanningRegions() throws Exception {
+        IByteBufferStorageCursor cursor = _storage.getCursor();
+        byte[] bytes = new byte[REGION_SIZE * 3 + 5];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) i;
+        cursor.setPosition(REGION_SIZE - 3);
+        cursor.writeBytes(bytes, 0, bytes.length);
+        cursor.writeByte((byte) 7);
+
+        cursor.setPosition(REGION_SIZE - 3);
+        byte[] result = new byte[bytes.length];
+        cursor.readBytes(result, 0, result.length);
+        Assert.assertTrue(Arrays.equals(bytes, result));
+        Assert.assertEquals(7, cursor.readByte());
+    }
+
+    @Test
+    public void testGrowth() throws Exception {
+        IByteBufferStorageCursor cursor = _storage.getCursor();
+        cursor.writeLong(1);
+        Assert.assertEquals(REGION_SIZE, _storage.getFile().length());
+        //the regions up to the written position are mapped, growing the file
+        cursor.setPosition(REGION_SIZE * 10 + 4);
+        cursor.writeLong(2);
+        Assert.assertEquals(REGION_SIZE * 11, _storage.getFile().length());
+
+        cursor.setPosition(0);
+        Assert.assertEquals(1, cursor.readLong());
+        cursor.setPosition(REGION_SIZE * 10 + 4);
+        Assert.assertEquals(2, cursor.readLong());
+
+        _storage.clear();
+        Assert.assertEquals(0, cursor.getPosition());
+        Assert.assertEquals(0, _storage.getFile().length());
+        cursor.writeInt(3);
+        cursor.setPosition(0);
+        Assert.assertEquals(3, cursor.readInt());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        IByteBufferStorageCursor cursor = _storage.getCursor();
+        cursor.setPosition(REGION_SIZE - 2);
+        cursor.writeLong(5);
+        cursor.close();
+
+        //a new cursor maps the regions again
+        cursor = _storage.getCursor();
+        cursor.setPosition(REGION_SIZE - 2);
+        Assert.assertEquals(5, cursor.readLong());
+
+        _storage.close();
+        Assert.assertFalse(_storage.getFile().exists());
+        try {
+            _storage.getCursor();
+            Assert.fail("a closed storage should not provide a cursor");
+        } catch (MappedByteBufferStorageException e) {
+        }
+    }
+}
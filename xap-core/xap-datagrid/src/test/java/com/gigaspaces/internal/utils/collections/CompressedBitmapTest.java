@@ -0,0 +1,93 @@
+package com.gigaspaces.internal.utils.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class CompressedBitmapTest {
+
+    @Test
+    public void addRemoveTest() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        Random random = new Random(5);
+        for (int i = 0; i < 200000; i++) {
+            //dense low range crosses the array/bitmap container threshold, sparse high range does not
+            int value = random.nextBoolean() ? random.nextInt(20000) : random.nextInt(1 << 24);
+            if (random.nextInt(3) < 2) {
+                Assert.assertEquals(!expected.get(value), bitmap.add(value));
+                expected.set(value);
+            } else {
+                Assert.assertEquals(expected.get(value), bitmap.remove(value));
+                expected.clear(value);
+            }
+        }
+        assertEquals(expected, bitmap);
+
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1))
+            Assert.assertTrue(bitmap.remove(value));
+        Assert.assertTrue(bitmap.isEmpty());
+        Assert.assertEquals(0, bitmap.toArray().length);
+    }
+
+    @Test
+    public void setOperationsTest() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            BitSet a = new BitSet();
+            BitSet b = new BitSet();
+            CompressedBitmap bitmapA = randomBitmap(random, a);
+            CompressedBitmap bitmapB = randomBitmap(random, b);
+
+            BitSet and = (BitSet) a.clone();
+            and.and(b);
+            assertEquals(and, bitmapA.and(bitmapB));
+
+            BitSet or = (BitSet) a.clone();
+            or.or(b);
+            assertEquals(or, bitmapA.or(bitmapB));
+
+            BitSet andNot = (BitSet) a.clone();
+            andNot.andNot(b);
+            assertEquals(andNot, bitmapA.andNot(bitmapB));
+
+            //operands are not modified
+            assertEquals(a, bitmapA);
+            assertEquals(b, bitmapB);
+        }
+    }
+
+    @Test
+    public void copyTest() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < 10000; i++)
+            bitmap.add(i * 3);
+        CompressedBitmap copy = bitmap.copy();
+        bitmap.remove(3);
+        Assert.assertTrue(copy.contains(3));
+        Assert.assertFalse(bitmap.contains(3));
+        Assert.assertEquals(10000, copy.cardinality());
+    }
+
+    private static CompressedBitmap randomBitmap(Random random, BitSet expected) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        int density = 1 + random.nextInt(30);
+        int range = 1 << (16 + random.nextInt(3));
+        for (int i = 0; i < range; i++) {
+            if (random.nextInt(density) == 0) {
+                bitmap.add(i);
+                expected.set(i);
+            }
+        }
+        return bitmap;
+    }
+
+    private static void assertEquals(BitSet expected, CompressedBitmap bitmap) {
+        Assert.assertEquals(expected.cardinality(), bitmap.cardinality());
+        Assert.assertArrayEquals(expected.stream().toArray(), bitmap.toArray());
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1))
+            Assert.assertTrue(bitmap.contains(value));
+    }
+}
@@ -0,0 +1,197 @@
+package com.gigaspaces.internal.utils.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentBPlusTreeMapTest {
+
+    @Test
+    public void randomOperationsTest() {
+        ConcurrentBPlusTreeMap<Long> map = new ConcurrentBPlusTreeMap<Long>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        TreeMap<Long, Long> expected = new TreeMap<Long, Long>();
+        Random random = new Random(17);
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(20000) - 10000;
+            int op = random.nextInt(10);
+            if (op < 6) {
+                Assert.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            } else if (op < 9) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.get(key), map.get(key));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(expected.firstKey(), map.firstKey());
+        Assert.assertEquals(expected.lastKey(), map.lastKey());
+        assertRangesEqual(expected, map, random);
+
+        for (Long key : new ArrayList<Long>(expected.keySet()))
+            Assert.assertEquals(expected.remove(key), map.remove(key));
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.firstKey());
+        Assert.assertFalse(map.valuesIterator(null, false, null, false, false).hasNext());
+    }
+
+    @Test
+    public void rangeScanTest() {
+        ConcurrentBPlusTreeMap<Integer> map = new ConcurrentBPlusTreeMap<Integer>(PrimitiveKeyConcurrentHashMap.KeyType.INTEGER);
+        for (int i = 0; i < 1000; i += 2)
+            map.put(i, i);
+
+        Assert.assertEquals(values(10, 20), toList(map.valuesIterator(10, true, 20, true, false)));
+        Assert.assertEquals(values(12, 18), toList(map.valuesIterator(10, false, 20, false, false)));
+        Assert.assertEquals(values(12, 20), toList(map.valuesIterator(11, true, 21, false, false)));
+        List<Integer> descending = values(990, 998);
+        java.util.Collections.reverse(descending);
+        Assert.assertEquals(descending, toList(map.valuesIterator(null, false, 989, true, true)));
+        Assert.assertEquals(500, toList(map.valuesIterator(null, false, null, false, false)).size());
+    }
+
+    @Test
+    public void foreignKeysTest() {
+        ConcurrentBPlusTreeMap<String> map = new ConcurrentBPlusTreeMap<String>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        map.put(1L, "a");
+        Assert.assertNull(map.get(1));
+        Assert.assertFalse(map.remove(1, "a"));
+        try {
+            map.put(1, "b");
+            Assert.fail("ClassCastException expected");
+        } catch (ClassCastException e) {
+        }
+    }
+
+    @Test
+    public void concurrentScanTest() throws InterruptedException {
+        final ConcurrentBPlusTreeMap<Long> map = new ConcurrentBPlusTreeMap<Long>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        //even keys are stable, odd keys are inserted and removed concurrently
+        for (long i = 0; i < 20000; i += 2)
+            map.put(i, i);
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Random random = new Random(3);
+                for (int i = 0; i < 200000; i++) {
+                    long key = random.nextInt(10000) * 2 + 1;
+                    if (map.putIfAbsent(key, key) != null)
+                        map.remove(key, key);
+                }
+                done.set(true);
+            }
+        });
+        writer.start();
+        while (!done.get()) {
+            long prev = -1;
+            int stable = 0;
+            Iterator<Long> iter = map.valuesIterator(null, false, null, false, false);
+            while (iter.hasNext()) {
+                long value = iter.next();
+                Assert.assertTrue(value > prev);
+                prev = value;
+                if (value % 2 == 0)
+                    stable++;
+            }
+            Assert.assertEquals(10000, stable);
+        }
+        writer.join();
+    }
+
+    @Test
+    public void concurrentWritersTest() throws Throwable {
+        final ConcurrentBPlusTreeMap<Long> map = new ConcurrentBPlusTreeMap<Long>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        final int writers = 4;
+        final int keysPerWriter = 50000;
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            threads[w] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        //each writer owns a range of keys, leaves are split and unlinked by all of them
+                        Random random = new Random(writer);
+                        long base = (long) writer * keysPerWriter;
+                        for (int i = 0; i < keysPerWriter; i++)
+                            Assert.assertNull(map.put(base + i, (long) writer));
+                        for (int i = 0; i < keysPerWriter; i++) {
+                            long key = base + random.nextInt(keysPerWriter);
+                            Assert.assertEquals(Long.valueOf(writer), map.remove(key));
+                            Assert.assertNull(map.putIfAbsent(key, (long) writer));
+                        }
+                        for (int i = keysPerWriter / 4; i < keysPerWriter; i++)
+                            Assert.assertEquals(Long.valueOf(writer), map.remove(base + i));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+            threads[w].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        if (failure.get() != null)
+            throw failure.get();
+
+        TreeMap<Long, Long> expected = new TreeMap<Long, Long>();
+        for (int w = 0; w < writers; w++)
+            for (int i = 0; i < keysPerWriter / 4; i++)
+                expected.put((long) w * keysPerWriter + i, (long) w);
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(new ArrayList<Long>(expected.values()), toList(map.valuesIterator(null, false, null, false, false)));
+        for (Long key : expected.keySet())
+            Assert.assertEquals(expected.get(key), map.get(key));
+        Assert.assertEquals(expected.firstKey(), map.firstKey());
+        Assert.assertEquals(expected.lastKey(), map.lastKey());
+    }
+
+    @Test
+    public void clearTest() {
+        ConcurrentBPlusTreeMap<Long> map = new ConcurrentBPlusTreeMap<Long>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        for (long i = 0; i < 1000; i++)
+            map.put(i, i);
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(5L));
+        Assert.assertNull(map.lastKey());
+        map.put(5L, 5L);
+        Assert.assertEquals(Long.valueOf(5), map.get(5L));
+        Assert.assertEquals(1, map.size());
+    }
+
+    private static void assertRangesEqual(TreeMap<Long, Long> expected, ConcurrentBPlusTreeMap<Long> map, Random random) {
+        for (int i = 0; i < 200; i++) {
+            long from = random.nextInt(24000) - 12000;
+            long to = from + random.nextInt(4000);
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            NavigableMap<Long, Long> sub = expected.subMap(from, fromInclusive, to, toInclusive);
+            Assert.assertEquals(new ArrayList<Long>(sub.values()), toList(map.valuesIterator(from, fromInclusive, to, toInclusive, false)));
+            Assert.assertEquals(new ArrayList<Long>(sub.descendingMap().values()), toList(map.valuesIterator(to, toInclusive, from, fromInclusive, true)));
+        }
+    }
+
+    private static List<Integer> values(int from, int to) {
+        List<Integer> res = new ArrayList<Integer>();
+        for (int i = from; i <= to; i += 2)
+            res.add(i);
+        return res;
+    }
+
+    private static <T> List<T> toList(Iterator<T> iter) {
+        List<T> res = new ArrayList<T>();
+        while (iter.hasNext())
+            res.add(iter.next());
+        return res;
+    }
+}
@@ -0,0 +1,113 @@
+package com.gigaspaces.internal.utils.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class PrimitiveKeyConcurrentHashMapTest {
+
+    @Test
+    public void putGetRemoveTest() {
+        PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<String>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        Assert.assertNull(map.put(1L, "a"));
+        Assert.assertEquals("a", map.put(1L, "b"));
+        Assert.assertEquals("b", map.putIfAbsent(1L, "c"));
+        Assert.assertEquals("b", map.get(1L));
+        Assert.assertNull(map.get(2L));
+        Assert.assertEquals(1, map.size());
+
+        Assert.assertFalse(map.remove(1L, "a"));
+        Assert.assertTrue(map.remove(1L, "b"));
+        Assert.assertNull(map.get(1L));
+        Assert.assertTrue(map.isEmpty());
+
+        //removed slot is reused by the same key
+        Assert.assertNull(map.putIfAbsent(1L, "d"));
+        Assert.assertEquals("d", map.get(1L));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void replaceTest() {
+        PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<String>(PrimitiveKeyConcurrentHashMap.KeyType.INTEGER);
+        Assert.assertNull(map.replace(7, "x"));
+        map.put(7, "a");
+        Assert.assertFalse(map.replace(7, "b", "c"));
+        Assert.assertTrue(map.replace(7, "a", "c"));
+        Assert.assertEquals("c", map.replace(7, "d"));
+        Assert.assertEquals("d", map.get(7));
+    }
+
+    @Test
+    public void foreignKeysTest() {
+        PrimitiveKeyConcurrentHashMap<String> map = new PrimitiveKeyConcurrentHashMap<String>(PrimitiveKeyConcurrentHashMap.KeyType.LONG);
+        map.put(5L, "long");
+        map.put(5, "int");
+        map.put("5", "string");
+        Assert.assertEquals("long", map.get(5L));
+        Assert.assertEquals("int", map.get(5));
+        Assert.assertEquals("string", map.get("5"));
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals("int", map.remove(5));
+        Assert.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void growAndIterateTest() {
+        PrimitiveKeyConcurrentHashMap<Long> map = new PrimitiveKeyConcurrentHashMap<Long>(PrimitiveKeyConcurrentHashMap.KeyType.LONG, 16, 4);
+        Map<Object, Long> expected = new HashMap<Object, Long>();
+        for (long i = -5000; i < 5000; i++) {
+            map.put(i, i * 2);
+            expected.put(i, i * 2);
+        }
+        for (long i = -5000; i < 5000; i += 3) {
+            map.remove(i);
+            expected.remove(i);
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        Assert.assertEquals(expected, new HashMap<Object, Long>(map));
+
+        Iterator<Map.Entry<Object, Long>> iter = map.entrySet().iterator();
+        while (iter.hasNext()) {
+            if ((Long) iter.next().getKey() % 2 == 0)
+                iter.remove();
+        }
+        for (Object key : map.keySet())
+            Assert.assertTrue((Long) key % 2 != 0);
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(1L));
+    }
+
+    @Test
+    public void concurrentUpdatesTest() throws InterruptedException {
+        final PrimitiveKeyConcurrentHashMap<Integer> map = new PrimitiveKeyConcurrentHashMap<Integer>(PrimitiveKeyConcurrentHashMap.KeyType.INTEGER, 16, 8);
+        final int threads = 4;
+        final int perThread = 20000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int base = t * perThread;
+            workers[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = base; i < base + perThread; i++) {
+                        map.put(i, i);
+                        if (i % 2 == 0)
+                            map.remove(i, i);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+
+        Assert.assertEquals(threads * perThread / 2, map.size());
+        for (int i = 0; i < threads * perThread; i++)
+            Assert.assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(i));
+    }
+}
@@ -0,0 +1,126 @@
+package com.gigaspaces.internal.utils.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OperationCoalescerTest {
+
+    private static class NegatingCoalescer extends OperationCoalescer<String, Integer, Integer> {
+        private final AtomicInteger _batches = new AtomicInteger();
+        //batches of the "block" key wait until it's counted down
+        private final CountDownLatch _unblock = new CountDownLatch(1);
+
+        private NegatingCoalescer(int maxBatchSize, long maxDelayNanos) {
+            super(maxBatchSize, maxDelayNanos);
+        }
+
+        @Override
+        protected void executeBatch(String key, Batch<Integer, Integer> batch) throws Exception {
+            _batches.incrementAndGet();
+            if (key.equals("block"))
+                _unblock.await();
+            if (key.equals("fail"))
+                throw new IllegalStateException("batch failed");
+            for (int i = 0; i < batch.size(); i++) {
+                Integer operation = batch.getOperation(i);
+                if (operation < 0)
+                    batch.setError(i, new IllegalArgumentException(String.valueOf(operation)));
+                else
+                    batch.setResult(i, -operation);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleOperation() throws Exception {
+        NegatingCoalescer coalescer = new NegatingCoalescer(10, TimeUnit.MICROSECONDS.toNanos(100));
+        Assert.assertEquals(-5, coalescer.execute("a", 5).intValue());
+        Assert.assertEquals(1, coalescer._batches.get());
+    }
+
+    @Test
+    public void testSingleOperationNotDelayed() throws Exception {
+        NegatingCoalescer coalescer = new NegatingCoalescer(10, TimeUnit.SECONDS.toNanos(30));
+        long start = System.nanoTime();
+        Assert.assertEquals(-5, coalescer.execute("a", 5).intValue());
+        Assert.assertEquals(-6, coalescer.execute("a", 6).intValue());
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        Assert.assertEquals(2, coalescer._batches.get());
+    }
+
+    @Test
+    public void testConcurrentOperationsAreBatched() throws Exception {
+        final int threads = 8;
+        //the delay is long enough for all the threads to join the first batch, which is flushed once full
+        final NegatingCoalescer coalescer = new NegatingCoalescer(threads, TimeUnit.SECONDS.toNanos(30));
+        //an operation in progress, so that the first operation of the batch waits for the others
+        Thread blocked = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    coalescer.execute("block", 0);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        blocked.start();
+        while (coalescer._batches.get() == 0)
+            Thread.sleep(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final List<Object> results = new ArrayList<Object>();
+        for (int i = 0; i < threads; i++) {
+            final int operation = i % 2 == 0 ? i : -i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Object result;
+                    try {
+                        result = coalescer.execute("a", operation);
+                    } catch (ExecutionException e) {
+                        result = e.getCause().getMessage();
+                    }
+                    synchronized (results) {
+                        results.add(operation + "=" + result);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        coalescer._unblock.countDown();
+        blocked.join();
+        Assert.assertEquals(2, coalescer._batches.get());
+        for (int i = 0; i < threads; i++) {
+            int operation = i % 2 == 0 ? i : -i;
+            String expected = operation + "=" + (operation >= 0 ? String.valueOf(-operation) : String.valueOf(operation));
+            Assert.assertTrue(expected, results.contains(expected));
+        }
+    }
+
+    @Test
+    public void testBatchFailure() {
+        NegatingCoalescer coalescer = new NegatingCoalescer(10, 0);
+        try {
+            coalescer.execute("fail", 1);
+            Assert.fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals("batch failed", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testKeysAreBatchedSeparately() throws Exception {
+        NegatingCoalescer coalescer = new NegatingCoalescer(10, 0);
+        Assert.assertEquals(-1, coalescer.execute("a", 1).intValue());
+        Assert.assertEquals(-2, coalescer.execute("b", 2).intValue());
+        Assert.assertEquals(2, coalescer._batches.get());
+    }
+}
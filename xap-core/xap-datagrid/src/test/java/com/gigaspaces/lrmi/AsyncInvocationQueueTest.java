@@ -0,0 +1,182 @@
+package com.gigaspaces.lrmi;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncInvocationQueueTest {
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final ScheduledExecutorService _expirer = Executors.newSingleThreadScheduledExecutor();
+    private final TestHandler _handler = new TestHandler();
+
+    @After
+    public void tearDown() {
+        _expirer.shutdownNow();
+    }
+
+    @Test
+    public void testDispatchedInQueuingOrder() {
+        AsyncInvocationQueue<Integer, Integer> queue = new AsyncInvocationQueue<Integer, Integer>(_handler, 100, 0, DIRECT, _expirer);
+        for (int i = 0; i < 10; i++)
+            queue.add(i);
+        Assert.assertTrue(_handler.dispatched.isEmpty());
+        for (int i = 0; i < 10; i++) {
+            _handler.free(queue);
+            Assert.assertEquals(i + 1, _handler.dispatched.size());
+        }
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), _handler.dispatched);
+        Assert.assertTrue(queue.isEmpty());
+        //a resource which is freed while nothing is queued stays free
+        _handler.free(queue);
+        Assert.assertEquals(1, _handler.freeResources.get());
+    }
+
+    @Test
+    public void testConcurrentDispatchKeepsOrder() throws Exception {
+        ExecutorService dispatcher = Executors.newCachedThreadPool();
+        ExecutorService releaser = Executors.newFixedThreadPool(4);
+        try {
+            final AsyncInvocationQueue<Integer, Integer> queue = new AsyncInvocationQueue<Integer, Integer>(_handler, 100000, 0, dispatcher, _expirer);
+            final int invocations = 20000;
+            _handler.onDispatch = new Runnable() {
+                @Override
+                public void run() {
+                    //the resource is freed by another thread once the invocation is sent
+                    releaser.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            _handler.free(queue);
+                        }
+                    });
+                }
+            };
+            _handler.freeResources.set(3);
+            for (int i = 0; i < invocations; i++)
+                queue.add(i);
+            long deadline = System.currentTimeMillis() + 30000;
+            while (_handler.dispatched.size() < invocations && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < invocations; i++)
+                expected.add(i);
+            Assert.assertEquals(expected, new ArrayList<Integer>(_handler.dispatched));
+        } finally {
+            releaser.shutdownNow();
+            dispatcher.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedWhenFull() {
+        AsyncInvocationQueue<Integer, Integer> queue = new AsyncInvocationQueue<Integer, Integer>(_handler, 3, 0, DIRECT, _expirer);
+        for (int i = 0; i < 4; i++)
+            queue.add(i);
+        Assert.assertEquals(Collections.singleton(3), _handler.rejected.keySet());
+        Assert.assertTrue(_handler.rejected.get(3) instanceof RejectedExecutionException);
+        //the queued invocations are dispatched as usual
+        for (int i = 0; i < 3; i++)
+            _handler.free(queue);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), _handler.dispatched);
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        AsyncInvocationQueue<Integer, Integer> queue = new AsyncInvocationQueue<Integer, Integer>(_handler, 100, 50, DIRECT, _expirer);
+        queue.add(0);
+        queue.add(1);
+        _handler.free(queue);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (_handler.rejected.isEmpty() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        Assert.assertEquals(Collections.singleton(1), _handler.rejected.keySet());
+        Assert.assertTrue(_handler.rejected.get(1) instanceof TimeoutException);
+        Assert.assertTrue(queue.isEmpty());
+        //an expired invocation is not dispatched later
+        _handler.free(queue);
+        Assert.assertEquals(Collections.singletonList(0), _handler.dispatched);
+        //a dispatched invocation does not expire
+        _expirer.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 100, TimeUnit.MILLISECONDS).get();
+        Assert.assertEquals(1, _handler.rejected.size());
+    }
+
+    @Test
+    public void testClose() {
+        AsyncInvocationQueue<Integer, Integer> queue = new AsyncInvocationQueue<Integer, Integer>(_handler, 100, 0, DIRECT, _expirer);
+        queue.add(0);
+        queue.add(1);
+        IllegalStateException reason = new IllegalStateException("closed");
+        queue.close(reason);
+        Assert.assertSame(reason, _handler.rejected.get(0));
+        Assert.assertSame(reason, _handler.rejected.get(1));
+        queue.add(2);
+        Assert.assertTrue(_handler.rejected.get(2) instanceof IllegalStateException);
+        _handler.free(queue);
+        Assert.assertTrue(_handler.dispatched.isEmpty());
+    }
+
+    private static class TestHandler implements AsyncInvocationQueue.Handler<Integer, Integer> {
+        private final AtomicInteger freeResources = new AtomicInteger();
+        private final List<Integer> dispatched = Collections.synchronizedList(new ArrayList<Integer>());
+        private final Map<Integer, Exception> rejected = Collections.synchronizedMap(new LinkedHashMap<Integer, Exception>());
+        private volatile Runnable onDispatch;
+
+        private void free(AsyncInvocationQueue<Integer, Integer> queue) {
+            freeResources.incrementAndGet();
+            queue.dispatch();
+        }
+
+        @Override
+        public Integer tryAcquire() {
+            while (true) {
+                int free = freeResources.get();
+                if (free == 0)
+                    return null;
+                if (freeResources.compareAndSet(free, free - 1))
+                    return free;
+            }
+        }
+
+        @Override
+        public void release(Integer resource) {
+            freeResources.incrementAndGet();
+        }
+
+        @Override
+        public void dispatch(Integer invocation, Integer resource) {
+            dispatched.add(invocation);
+            Runnable action = onDispatch;
+            if (action != null)
+                action.run();
+        }
+
+        @Override
+        public void reject(Integer invocation, Exception reason) {
+            rejected.put(invocation, reason);
+        }
+    }
+}
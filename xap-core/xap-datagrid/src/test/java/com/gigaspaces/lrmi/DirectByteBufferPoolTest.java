@@ -0,0 +1,99 @@
+package com.gigaspaces.lrmi;
+
+import com.gigaspaces.internal.io.ByteBufferInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class DirectByteBufferPoolTest {
+
+    @Test
+    public void testSizeClasses() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(64 * 1024, 1024 * 1024);
+        Assert.assertEquals(64 * 1024, pool.getMaxBufferSize());
+
+        ByteBuffer small = pool.acquire(10);
+        Assert.assertTrue(small.isDirect());
+        Assert.assertEquals(4096, small.capacity());
+        Assert.assertEquals(10, small.limit());
+
+        ByteBuffer medium = pool.acquire(4097);
+        Assert.assertEquals(8192, medium.capacity());
+
+        ByteBuffer large = pool.acquire(64 * 1024 + 1);
+        Assert.assertFalse(large.isDirect());
+        Assert.assertEquals(64 * 1024 + 1, large.capacity());
+    }
+
+    @Test
+    public void testReleasedBuffersAreReused() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(64 * 1024, 1024 * 1024);
+        ByteBuffer buffer = pool.acquire(5000);
+        buffer.put((byte) 1);
+        pool.release(buffer);
+
+        ByteBuffer reused = pool.acquire(6000);
+        Assert.assertSame(buffer, reused);
+        Assert.assertEquals(0, reused.position());
+        Assert.assertEquals(6000, reused.limit());
+
+        //slices and heap buffers are not pooled
+        pool.release(reused.slice());
+        pool.release(ByteBuffer.allocate(8192));
+        Assert.assertNotSame(reused, pool.acquire(6000));
+    }
+
+    @Test
+    public void testMaxMemory() {
+        //a single buffer of each of the 3 classes
+        DirectByteBufferPool pool = new DirectByteBufferPool(16 * 1024, 3 * 16 * 1024);
+        ByteBuffer first = pool.acquire(16 * 1024);
+        ByteBuffer second = pool.acquire(16 * 1024);
+        pool.release(first);
+        pool.release(second);
+        Assert.assertSame(first, pool.acquire(16 * 1024));
+        Assert.assertNotSame(second, pool.acquire(16 * 1024));
+    }
+
+    @Test
+    public void testOutputStreamChainsBuffers() throws IOException {
+        DirectByteBufferPool pool = new DirectByteBufferPool(16 * 1024, 1024 * 1024);
+        PooledByteBufferOutputStream out = new PooledByteBufferOutputStream(pool, 0, 4);
+        byte[] bytes = new byte[40000];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) i;
+        out.write(bytes, 0, bytes.length);
+        out.write(7);
+        Assert.assertEquals(4 + bytes.length + 1, out.size());
+        //written past the length, such as a stream reset
+        out.write(new byte[8000], 0, 8000);
+
+        ByteBuffer[] buffers = out.toBuffers(4 + bytes.length + 1);
+        int[] capacities = {4 * 1024, 8 * 1024, 16 * 1024, 16 * 1024};
+        Assert.assertEquals(capacities.length, buffers.length);
+        int total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            Assert.assertTrue(buffers[i].isDirect());
+            Assert.assertEquals(capacities[i], buffers[i].capacity());
+            Assert.assertEquals(0, buffers[i].position());
+            total += buffers[i].limit();
+        }
+        Assert.assertEquals(4 + bytes.length + 1, total);
+        buffers[0].putInt(0, bytes.length + 1);
+
+        ByteBufferInputStream bbis = new ByteBufferInputStream();
+        bbis.setBuffers(buffers);
+        Assert.assertEquals(total, bbis.available());
+        DataInputStream in = new DataInputStream(bbis);
+        Assert.assertEquals(bytes.length + 1, in.readInt());
+        byte[] read = new byte[bytes.length];
+        in.readFully(read);
+        Assert.assertArrayEquals(bytes, read);
+        Assert.assertEquals(7, in.read());
+        Assert.assertEquals(-1, in.read());
+    }
+}
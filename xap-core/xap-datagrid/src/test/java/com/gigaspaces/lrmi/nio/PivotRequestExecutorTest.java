@@ -0,0 +1,88 @@
+package com.gigaspaces.lrmi.nio;
+
+import com.gigaspaces.lrmi.nio.async.LRMIVirtualThreadExecutor;
+import com.j_spaces.kernel.SystemProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PivotRequestExecutorTest {
+    private final ExecutorService _threadPool = Executors.newSingleThreadExecutor();
+    private final ExecutorService _customThreadPool = Executors.newSingleThreadExecutor();
+    private LRMIVirtualThreadExecutor _virtualThreadExecutor;
+
+    @After
+    public void tearDown() {
+        System.clearProperty(SystemProperties.LRMI_VIRTUAL_THREADS_ENABLED);
+        _threadPool.shutdownNow();
+        _customThreadPool.shutdownNow();
+        if (_virtualThreadExecutor != null)
+            _virtualThreadExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testThreadPoolsByDefault() {
+        System.clearProperty(SystemProperties.LRMI_VIRTUAL_THREADS_ENABLED);
+        _virtualThreadExecutor = LRMIVirtualThreadExecutor.createIfEnabled("test");
+        Assert.assertNull(_virtualThreadExecutor);
+        Assert.assertSame(_threadPool, Pivot.selectRequestExecutor(_virtualThreadExecutor, _threadPool));
+        Assert.assertSame(_customThreadPool, Pivot.selectRequestExecutor(_virtualThreadExecutor, _customThreadPool));
+    }
+
+    @Test
+    public void testThreadPoolsWhenDisabled() {
+        System.setProperty(SystemProperties.LRMI_VIRTUAL_THREADS_ENABLED, "false");
+        _virtualThreadExecutor = LRMIVirtualThreadExecutor.createIfEnabled("test");
+        Assert.assertNull(_virtualThreadExecutor);
+        Assert.assertSame(_threadPool, Pivot.selectRequestExecutor(_virtualThreadExecutor, _threadPool));
+        Assert.assertSame(_customThreadPool, Pivot.selectRequestExecutor(_virtualThreadExecutor, _customThreadPool));
+    }
+
+    @Test
+    public void testVirtualThreadsWhenEnabled() throws Exception {
+        System.setProperty(SystemProperties.LRMI_VIRTUAL_THREADS_ENABLED, "true");
+        _virtualThreadExecutor = LRMIVirtualThreadExecutor.createIfEnabled("test");
+        Executor executor = Pivot.selectRequestExecutor(_virtualThreadExecutor, _threadPool);
+        Executor customExecutor = Pivot.selectRequestExecutor(_virtualThreadExecutor, _customThreadPool);
+        boolean supported = isVirtualThreadsSupported();
+        Assert.assertEquals(supported, _virtualThreadExecutor != null);
+        //the thread pools are used as before when the JVM does not support virtual threads
+        Assert.assertSame(supported ? _virtualThreadExecutor : _threadPool, executor);
+        Assert.assertSame(supported ? _virtualThreadExecutor : _customThreadPool, customExecutor);
+        Assert.assertEquals(supported, isVirtual(runningThread(executor)));
+    }
+
+    private static boolean isVirtualThreadsSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        return isVirtualThreadsSupported() && (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    private static Thread runningThread(Executor executor) throws InterruptedException {
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                thread.set(Thread.currentThread());
+                done.countDown();
+            }
+        });
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        return thread.get();
+    }
+}
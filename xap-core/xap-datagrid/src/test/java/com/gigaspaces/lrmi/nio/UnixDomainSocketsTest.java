@@ -0,0 +1,160 @@
+package com.gigaspaces.lrmi.nio;
+
+import com.j_spaces.kernel.SystemProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+public class UnixDomainSocketsTest {
+    private static final int PORT = 45678;
+
+    static {
+        System.setProperty(SystemProperties.LRMI_UNIX_DOMAIN_SOCKETS_ENABLED, "true");
+    }
+
+    private Path _root;
+    private File _socketsDir;
+
+    @Before
+    public void setUp() throws IOException {
+        _root = Files.createTempDirectory("uds-test");
+        _socketsDir = new File(_root.toFile(), "sockets");
+        System.setProperty(SystemProperties.LRMI_UNIX_DOMAIN_SOCKETS_DIR, _socketsDir.getPath());
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(SystemProperties.LRMI_UNIX_DOMAIN_SOCKETS_DIR);
+        delete(_root.toFile());
+    }
+
+    @Test
+    public void testDirectoryCreatedForOwnerOnly() throws IOException {
+        NIOUtils.checkPrivateDirectory(_socketsDir, true);
+        Assert.assertTrue(_socketsDir.isDirectory());
+        if (isPosix())
+            Assert.assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(_socketsDir.toPath())));
+        //an existing secure directory is accepted
+        NIOUtils.checkPrivateDirectory(_socketsDir, true);
+        NIOUtils.checkPrivateDirectory(_socketsDir, false);
+    }
+
+    @Test
+    public void testMissingDirectoryRejected() {
+        assertInsecure(_socketsDir, false);
+        Assert.assertFalse(_socketsDir.exists());
+    }
+
+    @Test
+    public void testDirectoryAccessibleToOthersRejected() throws IOException {
+        if (!isPosix())
+            return;
+        Files.createDirectory(_socketsDir.toPath());
+        Files.setPosixFilePermissions(_socketsDir.toPath(), PosixFilePermissions.fromString("rwxr-xr-x"));
+        assertInsecure(_socketsDir, true);
+        Files.setPosixFilePermissions(_socketsDir.toPath(), PosixFilePermissions.fromString("rwx-w----"));
+        assertInsecure(_socketsDir, true);
+    }
+
+    @Test
+    public void testSymbolicLinkRejected() throws IOException {
+        File target = new File(_root.toFile(), "target");
+        NIOUtils.checkPrivateDirectory(target, true);
+        try {
+            Files.createSymbolicLink(_socketsDir.toPath(), target.toPath());
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        assertInsecure(_socketsDir, true);
+    }
+
+    @Test
+    public void testStaleSocketFileReplaced() throws IOException {
+        //unix domain sockets require java 16 or above
+        if (!UnixDomainSockets.isEnabled())
+            return;
+        NIOUtils.checkPrivateDirectory(_socketsDir, true);
+        File socketFile = UnixDomainSockets.getSocketFile(PORT);
+        Assert.assertTrue(socketFile.createNewFile());
+        ServerSocketChannel server = UnixDomainSockets.bind(PORT, 10);
+        Assert.assertNotNull(server);
+        try {
+            assertConnects();
+        } finally {
+            UnixDomainSockets.unbind(server, PORT);
+        }
+        Assert.assertFalse(socketFile.exists());
+    }
+
+    @Test
+    public void testSocketFileOfLiveServerKept() throws IOException {
+        if (!UnixDomainSockets.isEnabled())
+            return;
+        ServerSocketChannel server = UnixDomainSockets.bind(PORT, 10);
+        Assert.assertNotNull(server);
+        try {
+            Assert.assertNull(UnixDomainSockets.bind(PORT, 10));
+            Assert.assertTrue(UnixDomainSockets.getSocketFile(PORT).exists());
+            assertConnects();
+        } finally {
+            UnixDomainSockets.unbind(server, PORT);
+        }
+    }
+
+    @Test
+    public void testClientUsesTcpWhenDirectoryInsecure() throws IOException {
+        if (!UnixDomainSockets.isEnabled() || !isPosix())
+            return;
+        ServerSocketChannel server = UnixDomainSockets.bind(PORT, 10);
+        Assert.assertNotNull(server);
+        try {
+            Files.setPosixFilePermissions(_socketsDir.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+            Assert.assertTrue(UnixDomainSockets.isAvailable("localhost", PORT));
+            Assert.assertNull(UnixDomainSockets.connect("localhost", PORT));
+        } finally {
+            UnixDomainSockets.unbind(server, PORT);
+        }
+    }
+
+    @Test
+    public void testNotAvailableWithoutSocketFile() {
+        Assert.assertFalse(UnixDomainSockets.isAvailable("localhost", PORT));
+        Assert.assertNull(UnixDomainSockets.connect("localhost", PORT));
+    }
+
+    private static void assertConnects() throws IOException {
+        SocketChannel channel = UnixDomainSockets.connect("localhost", PORT);
+        Assert.assertNotNull(channel);
+        Assert.assertTrue(UnixDomainSockets.isUnixDomain(channel));
+        channel.close();
+    }
+
+    private boolean isPosix() {
+        return _root.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private static void assertInsecure(File dir, boolean create) {
+        try {
+            NIOUtils.checkPrivateDirectory(dir, create);
+            Assert.fail("Expected IOException for " + dir);
+        } catch (IOException e) {
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.isDirectory() && !Files.isSymbolicLink(file.toPath()) ? file.listFiles() : null;
+        if (children != null)
+            for (File child : children)
+                delete(child);
+        file.delete();
+    }
+}
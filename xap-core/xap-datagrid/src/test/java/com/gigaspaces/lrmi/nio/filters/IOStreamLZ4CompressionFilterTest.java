@@ -0,0 +1,52 @@
+package com.gigaspaces.lrmi.nio.filters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+public class IOStreamLZ4CompressionFilterTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        IOStreamLZ4CompressionFilter filter = new IOStreamLZ4CompressionFilter(16, 1024 * 1024);
+        //highly repetitive data has the largest expansion
+        byte[] data = new byte[1024 * 1024];
+        byte[] wrapped = filter.wrap(ByteBuffer.wrap(data));
+        Assert.assertTrue(wrapped.length < data.length / 200);
+        Assert.assertArrayEquals(data, filter.unrwap(ByteBuffer.wrap(wrapped)));
+
+        byte[] small = {1, 2, 3};
+        Assert.assertArrayEquals(small, filter.unrwap(ByteBuffer.wrap(filter.wrap(ByteBuffer.wrap(small)))));
+    }
+
+    @Test
+    public void testLengthLargerThanCompressedDataCanProduceRejected() throws Exception {
+        IOStreamLZ4CompressionFilter filter = new IOStreamLZ4CompressionFilter(16, Integer.MAX_VALUE);
+        byte[] wrapped = filter.wrap(ByteBuffer.wrap(new byte[4096]));
+        setLength(wrapped, Integer.MAX_VALUE - 8);
+        assertRejected(filter, wrapped);
+        setLength(wrapped, (wrapped.length - 5) * 255 + 1);
+        assertRejected(filter, wrapped);
+    }
+
+    @Test
+    public void testLengthLargerThanMaxMessageSizeRejected() throws Exception {
+        byte[] wrapped = new IOStreamLZ4CompressionFilter(16, Integer.MAX_VALUE).wrap(ByteBuffer.wrap(new byte[4096]));
+        assertRejected(new IOStreamLZ4CompressionFilter(16, 4095), wrapped);
+        Assert.assertEquals(4096, new IOStreamLZ4CompressionFilter(16, 4096).unrwap(ByteBuffer.wrap(wrapped)).length);
+    }
+
+    private static void setLength(byte[] wrapped, int length) {
+        ByteBuffer.wrap(wrapped).putInt(1, length);
+    }
+
+    private static void assertRejected(IOStreamLZ4CompressionFilter filter, byte[] wrapped) throws Exception {
+        try {
+            filter.unrwap(ByteBuffer.wrap(wrapped));
+            Assert.fail("Expected DataFormatException");
+        } catch (DataFormatException e) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.gigaspaces.lrmi.nio.shm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class MappedRingBufferTest {
+
+    @Test
+    public void testWriteAndRead() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MappedRingBuffer.regionSize(16));
+        MappedRingBuffer producer = new MappedRingBuffer(buffer, 0, buffer.capacity());
+        MappedRingBuffer consumer = new MappedRingBuffer(buffer, 0, buffer.capacity());
+        Assert.assertEquals(16, producer.capacity());
+
+        byte[] dst = new byte[16];
+        Assert.assertEquals(0, consumer.read(dst, 0, dst.length));
+        Assert.assertEquals(5, producer.write(new byte[]{1, 2, 3, 4, 5}, 0, 5));
+        Assert.assertEquals(5, consumer.read(dst, 0, dst.length));
+        Assert.assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, java.util.Arrays.copyOf(dst, 5));
+    }
+
+    @Test
+    public void testFullRing() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MappedRingBuffer.regionSize(8));
+        MappedRingBuffer producer = new MappedRingBuffer(buffer, 0, buffer.capacity());
+        MappedRingBuffer consumer = new MappedRingBuffer(buffer, 0, buffer.capacity());
+
+        byte[] src = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        Assert.assertEquals(8, producer.write(src, 0, src.length));
+        Assert.assertEquals(0, producer.write(src, 8, 2));
+
+        byte[] dst = new byte[3];
+        Assert.assertEquals(3, consumer.read(dst, 0, 3));
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, dst);
+        //wraps around the end of the data
+        Assert.assertEquals(2, producer.write(src, 8, 2));
+
+        byte[] rest = new byte[7];
+        Assert.assertEquals(7, consumer.read(rest, 0, 7));
+        Assert.assertArrayEquals(new byte[]{4, 5, 6, 7, 8, 9, 10}, rest);
+    }
+
+    @Test
+    public void testRegionOffset() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(2 * MappedRingBuffer.regionSize(32));
+        int size = MappedRingBuffer.regionSize(32);
+        MappedRingBuffer first = new MappedRingBuffer(buffer, 0, size);
+        MappedRingBuffer second = new MappedRingBuffer(buffer, size, size);
+
+        first.write(new byte[]{1}, 0, 1);
+        second.write(new byte[]{2}, 0, 1);
+
+        byte[] dst = new byte[1];
+        Assert.assertEquals(1, new MappedRingBuffer(buffer, size, size).read(dst, 0, 1));
+        Assert.assertEquals(2, dst[0]);
+        Assert.assertEquals(1, new MappedRingBuffer(buffer, 0, size).read(dst, 0, 1));
+        Assert.assertEquals(1, dst[0]);
+    }
+
+    @Test
+    public void testConcurrentStream() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(MappedRingBuffer.regionSize(1000));
+        final byte[] data = new byte[1000000];
+        new Random(5).nextBytes(data);
+
+        Thread producerThread = new Thread(new Runnable() {
+            public void run() {
+                MappedRingBuffer producer = new MappedRingBuffer(buffer, 0, buffer.capacity());
+                Random random = new Random(7);
+                int pos = 0;
+                while (pos < data.length)
+                    pos += producer.write(data, pos, Math.min(data.length - pos, 1 + random.nextInt(700)));
+            }
+        });
+        producerThread.start();
+
+        MappedRingBuffer consumer = new MappedRingBuffer(buffer, 0, buffer.capacity());
+        byte[] received = new byte[data.length];
+        Random random = new Random(11);
+        int pos = 0;
+        while (pos < received.length)
+            pos += consumer.read(received, pos, Math.min(received.length - pos, 1 + random.nextInt(900)));
+        producerThread.join();
+        Assert.assertArrayEquals(data, received);
+    }
+}
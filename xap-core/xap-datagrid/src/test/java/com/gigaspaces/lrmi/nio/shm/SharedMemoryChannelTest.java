@@ -0,0 +1,140 @@
+package com.gigaspaces.lrmi.nio.shm;
+
+import com.j_spaces.kernel.SystemProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SharedMemoryChannelTest {
+    private static final int MAX_FRAME_SIZE = 1024;
+
+    static {
+        System.setProperty(SystemProperties.LRMI_SHARED_MEMORY_MAX_FRAME_SIZE, String.valueOf(MAX_FRAME_SIZE));
+    }
+
+    private final ExecutorService _executor = Executors.newSingleThreadExecutor();
+    private Path _root;
+    private SharedMemoryChannel _client;
+    private SharedMemoryChannel _server;
+
+    @Before
+    public void setUp() throws IOException {
+        _root = Files.createTempDirectory("shm-test");
+        System.setProperty(SystemProperties.LRMI_SHARED_MEMORY_DIR, new File(_root.toFile(), "shm").getPath());
+        _client = SharedMemoryChannel.create(4096);
+        _server = SharedMemoryChannel.open(_client.getFile());
+    }
+
+    @After
+    public void tearDown() {
+        _executor.shutdownNow();
+        _client.close();
+        _server.close();
+        _client.getFile().delete();
+        _client.getFile().getParentFile().delete();
+        _root.toFile().delete();
+        System.clearProperty(SystemProperties.LRMI_SHARED_MEMORY_DIR);
+    }
+
+    @Test
+    public void testFrames() throws IOException {
+        byte[] large = new byte[MAX_FRAME_SIZE];
+        Arrays.fill(large, (byte) 7);
+        _client.writeFrame(new byte[]{1, 2, 3}, 0, 3);
+        _client.writeFrame(large, 0, large.length);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, _server.readFrame());
+        Assert.assertArrayEquals(large, _server.readFrame());
+        _server.writeFrame(new byte[0], 0, 0);
+        Assert.assertEquals(0, _client.readFrame().length);
+    }
+
+    @Test
+    public void testBlockedReaderWokenByDoorbell() throws Exception {
+        //the reader reaches the doorbell wait long before the frame is written
+        long[] latencies = new long[7];
+        for (int i = 0; i < latencies.length; i++) {
+            Future<Long> read = _executor.submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    _server.readFrame();
+                    return System.nanoTime();
+                }
+            });
+            Thread.sleep(250);
+            long written = System.nanoTime();
+            _client.writeFrame(new byte[]{1}, 0, 1);
+            latencies[i] = read.get(10, TimeUnit.SECONDS) - written;
+        }
+        Arrays.sort(latencies);
+        //without a doorbell the reader would only notice the frame when its wait times out
+        Assert.assertTrue(Arrays.toString(latencies), latencies[latencies.length / 2] < TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    public void testBlockedReaderWokenByClose() throws Exception {
+        Future<Long> read = _executor.submit(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+                try {
+                    _server.readFrame();
+                    return -1L;
+                } catch (ClosedChannelException e) {
+                    return System.nanoTime();
+                }
+            }
+        });
+        Thread.sleep(250);
+        long closed = System.nanoTime();
+        _client.close();
+        long woken = read.get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(woken > 0);
+        Assert.assertTrue(woken - closed < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testFrameLargerThanMaxRejected() throws IOException {
+        _client.writeFrame(new byte[MAX_FRAME_SIZE + 1], 0, MAX_FRAME_SIZE + 1);
+        try {
+            _server.readFrame();
+            Assert.fail("Expected IOException");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Illegal frame length"));
+        }
+    }
+
+    @Test
+    public void testFilesOnlyAccessibleToOwner() throws IOException {
+        Path file = _client.getFile().toPath();
+        if (!file.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            return;
+        Assert.assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        Assert.assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent())));
+    }
+
+    @Test
+    public void testOpenRejectedWhenDirectoryAccessibleToOthers() throws IOException {
+        Path dir = _client.getFile().toPath().getParent();
+        if (!dir.getFileSystem().supportedFileAttributeViews().contains("posix"))
+            return;
+        Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxrwxrwx"));
+        try {
+            SharedMemoryChannel.open(_client.getFile()).close();
+            Assert.fail("Expected IOException");
+        } catch (IOException e) {
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.gigaspaces.lrmi.nio.watchdog;
+
+import com.gigaspaces.lrmi.nio.watchdog.Watchdog.WatchedObject;
+import com.gigaspaces.lrmi.nio.watchdog.Watchdog.WatchdogGroup;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class WatchdogTest {
+    //a timeout of 10 logical ticks
+    private static final long TIMEOUT = 1000;
+    private static final int RESOLUTION = 10;
+    private static final int TIMEOUT_TICKS = 10;
+
+    private final TestObserver _observer = new TestObserver();
+    private final WatchdogGroup _group = new Watchdog("test", TIMEOUT, TIMEOUT, TIMEOUT, RESOLUTION, false)
+            .new WatchdogGroup("test", TIMEOUT, RESOLUTION, _observer);
+
+    @Test
+    public void testTimeoutFiresWithinOneTick() throws Exception {
+        WatchedObject watched = watch();
+        watched.startWatch();
+        for (int i = 0; i < TIMEOUT_TICKS; i++)
+            Assert.assertEquals(Collections.emptyList(), tick());
+        Assert.assertEquals(Collections.singletonList(watched), tick());
+        //an expired object is checked again every tick until its watch is stopped
+        Assert.assertEquals(Collections.singletonList(watched), tick());
+        watched.stopWatch();
+        for (int i = 0; i < 2 * TIMEOUT_TICKS; i++)
+            Assert.assertEquals(Collections.emptyList(), tick());
+
+        //a watch restarted before its timeout is due a full timeout after the restart
+        watched.startWatch();
+        tick(TIMEOUT_TICKS / 2);
+        watched.startWatch();
+        for (int i = 0; i < TIMEOUT_TICKS; i++)
+            Assert.assertEquals(Collections.emptyList(), tick());
+        Assert.assertEquals(Collections.singletonList(watched), tick());
+
+        //an object which is no longer in use is dropped
+        _group.removeWatch(watched);
+        for (int i = 0; i < 2 * TIMEOUT_TICKS; i++)
+            Assert.assertEquals(Collections.emptyList(), tick());
+    }
+
+    @Test
+    public void testUnscheduleRacingWithExpiry() throws Exception {
+        final List<WatchedObject> watched = new ArrayList<WatchedObject>();
+        for (int i = 0; i < 64; i++)
+            watched.add(watch());
+        final long deadline = System.currentTimeMillis() + 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 4; i++) {
+                final List<WatchedObject> owned = watched.subList(i * 16, (i + 1) * 16);
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    //watches are stopped and restarted while their slots are processed
+                    while (System.currentTimeMillis() < deadline) {
+                        WatchedObject object = owned.get(random.nextInt(owned.size()));
+                        if (random.nextBoolean())
+                            object.startWatch();
+                        else
+                            object.stopWatch();
+                    }
+                }));
+            }
+            while (System.currentTimeMillis() < deadline) {
+                //an object is never in the wheel more than once
+                for (Collection<WatchedObject> bucket : _observer.tick(_group))
+                    Assert.assertEquals(1, bucket.size());
+            }
+            for (Future<?> future : futures)
+                future.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //no object was lost from the wheel, each one expires exactly a timeout after its last start
+        for (WatchedObject object : watched)
+            object.startWatch();
+        for (int i = 0; i < TIMEOUT_TICKS; i++)
+            Assert.assertEquals(Collections.emptyList(), tick());
+        List<WatchedObject> expired = tick();
+        Assert.assertEquals(watched.size(), expired.size());
+        Assert.assertTrue(expired.containsAll(watched));
+        for (WatchedObject object : watched)
+            object.stopWatch();
+        for (int i = 0; i < 2 * TIMEOUT_TICKS; i++)
+            Assert.assertEquals(Collections.emptyList(), tick());
+    }
+
+    @Test
+    public void testLongTimeoutsWrapTheWheel() throws Exception {
+        //a long timeout with the finest resolution
+        TestObserver observer = new TestObserver();
+        WatchdogGroup group = new Watchdog("test", TIMEOUT, TIMEOUT, TIMEOUT, RESOLUTION, false)
+                .new WatchdogGroup("test", 100 * TIMEOUT, 1, observer);
+        int timeoutTicks = 100;
+        //start a watch at every tick while the timer goes round the wheel a few times
+        List<WatchedObject> watched = new ArrayList<WatchedObject>();
+        for (int i = 0; i < 5 * timeoutTicks; i++) {
+            WatchedObject object = watch(group);
+            object.startWatch();
+            watched.add(object);
+            List<WatchedObject> expired = expired(observer.tick(group));
+            if (i < timeoutTicks) {
+                Assert.assertEquals(Collections.emptyList(), expired);
+            } else {
+                Assert.assertEquals(Collections.singletonList(watched.get(i - timeoutTicks)), expired);
+                watched.get(i - timeoutTicks).stopWatch();
+            }
+        }
+    }
+
+    @Test
+    public void testLogicalTimerOverflow() throws Exception {
+        //the timer overflows, and later goes through the value of the unwatched flag
+        for (int start : new int[]{Integer.MAX_VALUE - TIMEOUT_TICKS, -1 - TIMEOUT_TICKS}) {
+            TestObserver observer = new TestObserver();
+            WatchdogGroup group = new Watchdog("test", TIMEOUT, TIMEOUT, TIMEOUT, RESOLUTION, false)
+                    .new WatchdogGroup("test", TIMEOUT, RESOLUTION, observer);
+            Field timer = WatchdogGroup.class.getDeclaredField("_timerLogical");
+            timer.setAccessible(true);
+            timer.setInt(group, start);
+            //start a watch at every tick, and stop it once it expires
+            Map<WatchedObject, Integer> startTicks = new HashMap<WatchedObject, Integer>();
+            for (int i = 0; i < 3 * TIMEOUT_TICKS; i++) {
+                WatchedObject object = watch(group);
+                object.startWatch();
+                startTicks.put(object, i);
+                for (WatchedObject expired : expired(observer.tick(group))) {
+                    int delay = i - startTicks.remove(expired);
+                    //a watch started at the value of the unwatched flag is due one tick later
+                    if (start + i - delay == -1)
+                        Assert.assertEquals(TIMEOUT_TICKS + 1, delay);
+                    else
+                        Assert.assertEquals(TIMEOUT_TICKS, delay);
+                    expired.stopWatch();
+                }
+            }
+            //all the watches which were due expired
+            for (int startTick : startTicks.values())
+                Assert.assertTrue(startTick > 2 * TIMEOUT_TICKS - 2);
+        }
+    }
+
+    private WatchedObject watch() {
+        return watch(_group);
+    }
+
+    private static WatchedObject watch(WatchdogGroup group) {
+        return group.addResponseWatch(null, null);
+    }
+
+    private void tick(int ticks) throws Exception {
+        for (int i = 0; i < ticks; i++)
+            tick();
+    }
+
+    private List<WatchedObject> tick() throws Exception {
+        return expired(_observer.tick(_group));
+    }
+
+    private static List<WatchedObject> expired(List<Collection<WatchedObject>> buckets) {
+        List<WatchedObject> expired = new ArrayList<WatchedObject>();
+        for (Collection<WatchedObject> bucket : buckets)
+            expired.addAll(bucket);
+        return expired;
+    }
+
+    private static class TestObserver implements TimeoutObserver {
+        private final List<Collection<WatchedObject>> _buckets = new ArrayList<Collection<WatchedObject>>();
+
+        /**
+         * @return the buckets of the objects which expired at the next tick of the given group
+         */
+        private List<Collection<WatchedObject>> tick(WatchdogGroup group) throws Exception {
+            _buckets.clear();
+            group.timeout();
+            return new ArrayList<Collection<WatchedObject>>(_buckets);
+        }
+
+        @Override
+        public void timeoutOccured(Collection<WatchedObject> bucket) {
+            _buckets.add(bucket);
+        }
+    }
+}
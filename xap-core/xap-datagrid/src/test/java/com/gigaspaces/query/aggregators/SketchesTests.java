@@ -0,0 +1,69 @@
+package com.gigaspaces.query.aggregators;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class SketchesTests {
+
+    @Test
+    public void testDistinctCount() {
+        HyperLogLogSketch sketch = new HyperLogLogSketch(HyperLogLogSketch.DEFAULT_PRECISION);
+        for (int i = 0; i < 100000; i++)
+            sketch.add(i % 50000);
+        assertWithin(50000, sketch.estimate(), 0.03);
+
+        HyperLogLogSketch small = new HyperLogLogSketch(HyperLogLogSketch.DEFAULT_PRECISION);
+        for (int i = 0; i < 100; i++)
+            small.add("value" + (i % 10));
+        Assert.assertEquals(10, small.estimate());
+    }
+
+    @Test
+    public void testDistinctCountMerge() throws Exception {
+        HyperLogLogSketch first = new HyperLogLogSketch(12);
+        HyperLogLogSketch second = new HyperLogLogSketch(12);
+        for (long i = 0; i < 30000; i++) {
+            first.add(i);
+            second.add(i + 20000);
+        }
+        first.merge(serialize(second, new HyperLogLogSketch()));
+        assertWithin(50000, first.estimate(), 0.05);
+        Assert.assertEquals(first.estimate(), serialize(first, new HyperLogLogSketch()).estimate());
+    }
+
+    @Test
+    public void testQuantiles() throws Exception {
+        QuantileSketch merged = new QuantileSketch(QuantileSketch.DEFAULT_K);
+        for (int p = 0; p < 4; p++) {
+            QuantileSketch partition = new QuantileSketch(QuantileSketch.DEFAULT_K);
+            for (int i = p; i < 100000; i += 4)
+                partition.add(i);
+            merged.merge(serialize(partition, new QuantileSketch()));
+        }
+        Assert.assertEquals(100000, merged.getCount());
+        Assert.assertEquals(0, merged.getMin(), 0);
+        Assert.assertEquals(99999, merged.getMax(), 0);
+        Assert.assertEquals(50000, merged.getQuantile(0.5), 100000 * 0.02);
+        Assert.assertEquals(99000, merged.getQuantile(0.99), 100000 * 0.02);
+        Assert.assertTrue(Double.isNaN(new QuantileSketch(QuantileSketch.DEFAULT_K).getQuantile(0.5)));
+    }
+
+    private static void assertWithin(long expected, long actual, double error) {
+        Assert.assertTrue("expected " + expected + " actual " + actual, Math.abs(actual - expected) <= expected * error);
+    }
+
+    private static <T extends Externalizable> T serialize(T source, T target) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        source.writeExternal(out);
+        out.close();
+        target.readExternal(new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        return target;
+    }
+}
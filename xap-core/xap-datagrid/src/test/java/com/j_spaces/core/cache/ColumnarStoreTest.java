@@ -0,0 +1,242 @@
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.metadata.PropertyInfo;
+import com.gigaspaces.internal.query.ColumnarAggregation;
+import com.gigaspaces.internal.query.RawEntry;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.internal.server.storage.IEntryHolder;
+import com.gigaspaces.query.aggregators.AverageAggregator;
+import com.gigaspaces.query.aggregators.CountAggregator;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.GroupByValue;
+import com.gigaspaces.query.aggregators.MaxValueAggregator;
+import com.gigaspaces.query.aggregators.MinValueAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregatorContext;
+import com.gigaspaces.query.aggregators.SumAggregator;
+import com.gigaspaces.server.ServerEntry;
+import net.jini.core.lease.Lease;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ColumnarStoreTest {
+    private static final long NOW = 1000000;
+    private static final String[] PROPERTIES = {"group", "value", "price"};
+
+    private CacheManager _cacheManager;
+    private IServerTypeDesc _serverTypeDesc;
+    private ColumnarStore _store;
+    //values of the entries in the store, by entry
+    private final Map<IEntryCacheInfo, Object[]> _entries = new LinkedHashMap<IEntryCacheInfo, Object[]>();
+
+    @Before
+    public void setUp() {
+        ITypeDesc typeDesc = mock(ITypeDesc.class);
+        Class<?>[] types = {String.class, Long.class, Double.class};
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            PropertyInfo propertyInfo = mock(PropertyInfo.class);
+            when(propertyInfo.getType()).thenReturn((Class) types[i]);
+            when(typeDesc.getFixedPropertyPosition(PROPERTIES[i])).thenReturn(i);
+            when(typeDesc.getFixedProperty(i)).thenReturn(propertyInfo);
+        }
+        _store = ColumnarStore.create(typeDesc, Arrays.asList(PROPERTIES));
+
+        _cacheManager = mock(CacheManager.class);
+        _serverTypeDesc = mock(IServerTypeDesc.class);
+        TypeData typeData = mock(TypeData.class);
+        when(_serverTypeDesc.getAssignableTypes()).thenReturn(new IServerTypeDesc[]{_serverTypeDesc});
+        when(_cacheManager.getTypeData(_serverTypeDesc)).thenReturn(typeData);
+        when(typeData.getColumnarStore()).thenReturn(_store);
+    }
+
+    @Test
+    public void testAggregationMatchesRowScan() {
+        List<IEntryCacheInfo> inserted = new ArrayList<IEntryCacheInfo>();
+        for (int i = 0; i < 10000; i++) {
+            //some entries have a finite lease, some of which already expired
+            long expiration = i % 7 == 0 ? NOW + 1000 : i % 11 == 0 ? NOW - 1000 : Lease.FOREVER;
+            inserted.add(insert(i % 5 == 0 ? null : "group" + (i % 13), i % 9 == 0 ? null : (long) i, i * 0.5, expiration));
+        }
+        for (int i = 0; i < inserted.size(); i += 3)
+            update(inserted.get(i), "other" + (i % 4), (long) -i, i * 0.25, Lease.FOREVER);
+        for (int i = 1; i < inserted.size(); i += 10)
+            remove(inserted.get(i));
+
+        List<SpaceEntriesAggregator> columnar = createAggregators();
+        Assert.assertTrue(ColumnarAggregation.aggregate(_cacheManager, _serverTypeDesc, columnar, NOW));
+        List<SpaceEntriesAggregator> rows = createAggregators();
+        scanRows(rows);
+
+        for (int i = 0; i < 5; i++)
+            Assert.assertEquals(rows.get(i).getDefaultAlias(), rows.get(i).getFinalResult(), columnar.get(i).getFinalResult());
+        GroupByResult expected = (GroupByResult) rows.get(5).getFinalResult();
+        GroupByResult actual = (GroupByResult) columnar.get(5).getFinalResult();
+        Assert.assertEquals(expected.size(), actual.size());
+        for (GroupByValue value : expected) {
+            GroupByValue other = actual.get(value.getKey());
+            Assert.assertNotNull(value.getKey().toString(), other);
+            for (int i = 0; i < 3; i++)
+                Assert.assertEquals(value.getKey() + " [" + i + "]", value.get(i), other.get(i));
+        }
+    }
+
+    @Test
+    public void testScanStopsOnTransaction() {
+        insert("a", 1L, 1.0, Lease.FOREVER);
+        IEntryCacheInfo locked = insert("b", 2L, 2.0, Lease.FOREVER);
+        when(locked.getEntryHolder(_cacheManager).isMaybeUnderXtn()).thenReturn(true);
+        Assert.assertFalse(ColumnarAggregation.aggregate(_cacheManager, _serverTypeDesc, createAggregators(), NOW));
+    }
+
+    @Test
+    public void testDictionaryReclaimsCodes() {
+        ColumnarStore.Dictionary dictionary = getDictionary();
+        List<IEntryCacheInfo> inserted = new ArrayList<IEntryCacheInfo>();
+        for (int i = 0; i < 100; i++)
+            inserted.add(insert("value" + i, (long) i, 0.0, Lease.FOREVER));
+        Assert.assertEquals(100, dictionary.size());
+
+        //values which are no longer held are dropped and their codes reused
+        for (int round = 0; round < 50; round++)
+            for (int i = 0; i < inserted.size(); i++)
+                update(inserted.get(i), "round" + round + "-" + i, (long) i, 0.0, Lease.FOREVER);
+        Assert.assertEquals(100, dictionary.size());
+        Assert.assertTrue("capacity " + dictionary.capacity(), dictionary.capacity() <= 101);
+        for (IEntryCacheInfo pEntry : inserted.subList(0, 50))
+            remove(pEntry);
+        insert("last", 0L, 0.0, Lease.FOREVER);
+        Assert.assertEquals(51, dictionary.size());
+        Assert.assertTrue("capacity " + dictionary.capacity(), dictionary.capacity() <= 101);
+
+        //an unchanged value keeps its code
+        IEntryCacheInfo same = insert("same", 0L, 0.0, Lease.FOREVER);
+        int code = dictionary.encode("same");
+        dictionary.release(code);
+        update(same, "same", 1L, 0.0, Lease.FOREVER);
+        Assert.assertEquals(code, dictionary.encode("same"));
+    }
+
+    @Test
+    public void testDroppedCodeNotReusedDuringScan() {
+        ColumnarStore.Dictionary dictionary = getDictionary();
+        IEntryCacheInfo pEntry = insert("first", 0L, 0.0, Lease.FOREVER);
+        int code = dictionary.encode("first");
+        dictionary.release(code);
+
+        _store.beginScan();
+        try {
+            update(pEntry, "second", 0L, 0.0, Lease.FOREVER);
+            insert("third", 0L, 0.0, Lease.FOREVER);
+            //a running scan may have read the dropped code
+            Assert.assertEquals("first", dictionary.decode(code));
+        } finally {
+            _store.endScan();
+        }
+        insert("fourth", 0L, 0.0, Lease.FOREVER);
+        Assert.assertEquals("fourth", dictionary.decode(code));
+    }
+
+    private ColumnarStore.Dictionary getDictionary() {
+        return _store.getColumn("group").getDictionary();
+    }
+
+    private static List<SpaceEntriesAggregator> createAggregators() {
+        return new ArrayList<SpaceEntriesAggregator>(Arrays.<SpaceEntriesAggregator>asList(
+                new CountAggregator(),
+                new SumAggregator().setPath("value"),
+                new AverageAggregator().setPath("price"),
+                new MinValueAggregator().setPath("group"),
+                new MaxValueAggregator().setPath("price"),
+                new GroupByAggregator().groupBy("group").selectCount().selectSum("price").selectMaxValue("value")));
+    }
+
+    private void scanRows(List<SpaceEntriesAggregator> aggregators) {
+        RowContext context = new RowContext(aggregators);
+        for (Map.Entry<IEntryCacheInfo, Object[]> entry : _entries.entrySet())
+            if (!entry.getKey().getEntryHolder(_cacheManager).isExpired(NOW))
+                context.aggregate(entry.getValue());
+    }
+
+    private IEntryCacheInfo insert(String group, Long value, Double price, long expiration) {
+        IEntryCacheInfo pEntry = mock(IEntryCacheInfo.class);
+        IEntryHolder entryHolder = mock(IEntryHolder.class);
+        when(pEntry.getEntryHolder(_cacheManager)).thenReturn(entryHolder);
+        _store.insert(pEntry, entryData(pEntry, group, value, price, expiration));
+        return pEntry;
+    }
+
+    private void update(IEntryCacheInfo pEntry, String group, Long value, Double price, long expiration) {
+        _store.update(pEntry, entryData(pEntry, group, value, price, expiration));
+    }
+
+    private void remove(IEntryCacheInfo pEntry) {
+        _store.remove(pEntry);
+        _entries.remove(pEntry);
+    }
+
+    private IEntryData entryData(IEntryCacheInfo pEntry, String group, Long value, Double price, long expiration) {
+        Object[] values = {group, value, price};
+        IEntryData entryData = mock(IEntryData.class);
+        for (int i = 0; i < values.length; i++)
+            when(entryData.getFixedPropertyValue(i)).thenReturn(values[i]);
+        when(entryData.getExpirationTime()).thenReturn(expiration);
+        when(pEntry.getEntryHolder(_cacheManager).isExpired(NOW)).thenReturn(expiration < NOW);
+        _entries.put(pEntry, values);
+        return entryData;
+    }
+
+    private static class RowContext extends SpaceEntriesAggregatorContext {
+        private Object[] _values;
+
+        private RowContext(List<SpaceEntriesAggregator> aggregators) {
+            super(aggregators);
+        }
+
+        void aggregate(Object[] values) {
+            _values = values;
+            aggregate();
+        }
+
+        @Override
+        protected Object getPathValueImpl(String path) {
+            return _values[Arrays.asList(PROPERTIES).indexOf(path)];
+        }
+
+        @Override
+        public int getPartitionId() {
+            return 0;
+        }
+
+        @Override
+        public String getEntryUid() {
+            return null;
+        }
+
+        @Override
+        public RawEntry getRawEntry() {
+            return null;
+        }
+
+        @Override
+        public void applyProjectionTemplate(RawEntry entry) {
+        }
+
+        @Override
+        public ServerEntry getServerEntry() {
+            return null;
+        }
+    }
+}
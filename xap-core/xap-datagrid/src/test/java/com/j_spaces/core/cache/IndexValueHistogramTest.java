@@ -0,0 +1,101 @@
+package com.j_spaces.core.cache;
+
+import com.j_spaces.kernel.IStoredList;
+import com.j_spaces.kernel.StoredListFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+
+public class IndexValueHistogramTest {
+
+    private final ConcurrentSkipListMap<Object, IStoredList<Object>> _store = new ConcurrentSkipListMap<Object, IStoredList<Object>>();
+    private final List<Runnable> _pending = new ArrayList<Runnable>();
+    private final IndexValueHistogram _histogram = new IndexValueHistogram(_store, new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            _pending.add(command);
+        }
+    });
+
+    @Test
+    public void testRangeEstimates() {
+        for (int i = 0; i < 10000; i++)
+            insert(i, 1);
+        insert(5000, 2000);
+        buildHistogram();
+
+        assertEstimate(1000, _histogram.estimateRange(1000, true, 2000, false));
+        assertEstimate(2500, _histogram.estimateRange(null, false, 2500, false));
+        assertEstimate(3000, _histogram.estimateRange(7000, true, null, false));
+        //the most common value is counted exactly
+        Assert.assertEquals(2001, _histogram.estimateRange(5000, true, 5000, true));
+        assertEstimate(2001 + 10, _histogram.estimateRange(4995, true, 5005, false));
+        Assert.assertEquals(0, _histogram.estimateRange(2000, true, 1000, true));
+        Assert.assertEquals(-1, _histogram.estimateRange("a", true, "b", true));
+    }
+
+    @Test
+    public void testIncrementalCounts() {
+        for (int i = 0; i < 10000; i++)
+            insert(i, 1);
+        buildHistogram();
+        for (int i = 0; i < 500; i++)
+            insert(i, 1);
+        assertEstimate(1500, _histogram.estimateRange(0, true, 1000, false));
+        Assert.assertTrue(_pending.isEmpty());
+    }
+
+    @Test
+    public void testRebuildIsAsynchronous() {
+        for (int i = 0; i < 1000; i++)
+            insert(i, 1);
+        //no estimate until the first rebuild completes, and a single rebuild is requested
+        Assert.assertEquals(-1, _histogram.estimateRange(0, true, 100, false));
+        Assert.assertEquals(-1, _histogram.estimateRange(0, true, 100, false));
+        Assert.assertEquals(1, _pending.size());
+        runPending();
+        assertEstimate(100, _histogram.estimateRange(0, true, 100, false));
+
+        //enough modifications request a rebuild, the previous buckets are used meanwhile
+        for (int i = 1000; i < 3000; i++)
+            insert(i, 1);
+        int estimate = _histogram.estimateRange(2000, true, 3000, false);
+        Assert.assertEquals(1, _pending.size());
+        Assert.assertTrue(estimate >= 0);
+        runPending();
+        assertEstimate(1000, _histogram.estimateRange(2000, true, 3000, false));
+        Assert.assertTrue(_pending.isEmpty());
+    }
+
+    private void insert(int value, int count) {
+        IStoredList<Object> list = _store.get(value);
+        if (list == null) {
+            list = StoredListFactory.createConcurrentList(false);
+            _store.put(value, list);
+        }
+        for (int i = 0; i < count; i++) {
+            list.add(new Object());
+            _histogram.onInsert(value);
+        }
+    }
+
+    private void buildHistogram() {
+        _histogram.estimateRange(null, false, null, false);
+        runPending();
+    }
+
+    private void runPending() {
+        List<Runnable> pending = new ArrayList<Runnable>(_pending);
+        _pending.clear();
+        for (Runnable task : pending)
+            task.run();
+    }
+
+    private static void assertEstimate(int expected, int actual) {
+        Assert.assertTrue("expected about " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 10 + 1);
+    }
+}
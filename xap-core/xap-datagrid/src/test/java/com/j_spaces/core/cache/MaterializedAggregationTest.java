@@ -0,0 +1,210 @@
+package com.j_spaces.core.cache;
+
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.metadata.PropertyInfo;
+import com.gigaspaces.internal.query.RawEntry;
+import com.gigaspaces.internal.server.metadata.IServerTypeDesc;
+import com.gigaspaces.internal.server.storage.IEntryData;
+import com.gigaspaces.query.aggregators.GroupByAggregator;
+import com.gigaspaces.query.aggregators.GroupByResult;
+import com.gigaspaces.query.aggregators.GroupByValue;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregator;
+import com.gigaspaces.query.aggregators.SpaceEntriesAggregatorContext;
+import com.gigaspaces.server.ServerEntry;
+import net.jini.core.lease.Lease;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MaterializedAggregationTest {
+    private static final String[] PROPERTIES = {"group", "value", "price"};
+
+    private CacheManager _cacheManager;
+    private IServerTypeDesc _serverTypeDesc;
+    private MaterializedAggregation _aggregation;
+    //values of the entries in the aggregation, by entry
+    private final Map<IEntryCacheInfo, Object[]> _entries = new LinkedHashMap<IEntryCacheInfo, Object[]>();
+
+    @Before
+    public void setUp() {
+        ITypeDesc typeDesc = mock(ITypeDesc.class);
+        when(typeDesc.getTypeName()).thenReturn("Trade");
+        Class<?>[] types = {String.class, long.class, Double.class};
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            PropertyInfo propertyInfo = mock(PropertyInfo.class);
+            when(propertyInfo.getType()).thenReturn((Class) types[i]);
+            when(typeDesc.getFixedPropertyPosition(PROPERTIES[i])).thenReturn(i);
+            when(typeDesc.getFixedProperty(i)).thenReturn(propertyInfo);
+        }
+        MaterializedAggregation.Definition definition = MaterializedAggregation.Definition.parse(
+                "byGroup:Trade:group:count(*),sum(value),avg(price),sum(price),min(value),max(price)").get(0);
+        _aggregation = MaterializedAggregation.create(definition, typeDesc);
+
+        _cacheManager = mock(CacheManager.class);
+        _serverTypeDesc = mock(IServerTypeDesc.class);
+        TypeData typeData = mock(TypeData.class);
+        when(_serverTypeDesc.getAssignableTypes()).thenReturn(new IServerTypeDesc[]{_serverTypeDesc});
+        when(_cacheManager.getTypeData(_serverTypeDesc)).thenReturn(typeData);
+        when(typeData.getMaterializedAggregations()).thenReturn(Collections.singletonList(_aggregation));
+    }
+
+    @Test
+    public void testReadMatchesRowScan() {
+        List<IEntryCacheInfo> inserted = new ArrayList<IEntryCacheInfo>();
+        for (int i = 0; i < 5000; i++)
+            inserted.add(insert("group" + (i % 17), (long) i, i % 6 == 0 ? null : i * 0.1));
+        for (int i = 0; i < inserted.size(); i += 3)
+            update(inserted.get(i), "other" + (i % 4), (long) -i, i * 0.3);
+        for (int i = 1; i < inserted.size(); i += 7)
+            remove(inserted.get(i));
+
+        GroupByResult expected = scanRows(createGroupBy());
+        GroupByResult actual = read(createGroupBy());
+        Assert.assertEquals(expected.size(), actual.size());
+        for (GroupByValue value : expected) {
+            GroupByValue other = actual.get(value.getKey());
+            Assert.assertNotNull(value.getKey().toString(), other);
+            Assert.assertEquals(value.getKey().toString(), value.getLong(0), other.getLong(0));
+            Assert.assertEquals(value.getKey().toString(), value.getLong(1), other.getLong(1));
+            Assert.assertEquals(value.getKey().toString(), value.getDouble(2), other.getDouble(2), 1e-9);
+            Assert.assertEquals(value.getKey().toString(), value.getDouble(3), other.getDouble(3), 1e-6);
+            Assert.assertEquals(value.getKey().toString(), value.get(4), other.get(4));
+            Assert.assertEquals(value.getKey().toString(), value.get(5), other.get(5));
+        }
+    }
+
+    @Test
+    public void testUnmatchedRequestNotAnswered() {
+        insert("a", 1L, 1.0);
+        List<SpaceEntriesAggregator> aggregators = new ArrayList<SpaceEntriesAggregator>();
+        aggregators.add(new GroupByAggregator().groupBy("group").selectSum("price").selectMinValue("price"));
+        Assert.assertNull(MaterializedAggregation.read(_cacheManager, _serverTypeDesc, aggregators));
+    }
+
+    @Test
+    public void testDoubleSumDoesNotDrift() {
+        IEntryCacheInfo large = insert("a", 0L, 1e16);
+        for (int i = 0; i < 1000; i++)
+            insert("a", 0L, 1.0);
+        remove(large);
+        Assert.assertEquals(1000.0, read(createGroupBy()).get("a").getDouble(3), 0);
+
+        //adding and removing values which can't be represented exactly leaves no residue
+        List<IEntryCacheInfo> fractions = new ArrayList<IEntryCacheInfo>();
+        for (int i = 0; i < 100000; i++)
+            fractions.add(insert("b", 0L, 0.1 * (i % 10) + 1e6));
+        IEntryCacheInfo kept = insert("b", 0L, 0.1);
+        for (IEntryCacheInfo pEntry : fractions)
+            remove(pEntry);
+        Assert.assertEquals(0.1, read(createGroupBy()).get("b").getDouble(3), 0);
+        Assert.assertEquals(0.1, read(createGroupBy()).get("b").getDouble(2), 0);
+
+        //an emptied group starts over from zero
+        remove(kept);
+        insert("b", 0L, 0.7);
+        Assert.assertEquals(0.7, read(createGroupBy()).get("b").getDouble(3), 0);
+    }
+
+    private static GroupByAggregator createGroupBy() {
+        return new GroupByAggregator().groupBy("group").selectCount().selectSum("value").selectAverage("price").selectSum("price")
+                .selectMinValue("value").selectMaxValue("price");
+    }
+
+    private GroupByResult read(GroupByAggregator groupBy) {
+        List<SpaceEntriesAggregator> aggregators = new ArrayList<SpaceEntriesAggregator>();
+        aggregators.add(groupBy);
+        GroupByResult[] results = MaterializedAggregation.read(_cacheManager, _serverTypeDesc, aggregators);
+        Assert.assertNotNull(results);
+        if (results[0] != null)
+            groupBy.aggregateIntermediateResult(results[0]);
+        return (GroupByResult) groupBy.getFinalResult();
+    }
+
+    private GroupByResult scanRows(GroupByAggregator groupBy) {
+        RowContext context = new RowContext(Arrays.<SpaceEntriesAggregator>asList(groupBy));
+        for (Object[] values : _entries.values())
+            context.aggregate(values);
+        return (GroupByResult) groupBy.getFinalResult();
+    }
+
+    private IEntryCacheInfo insert(String group, long value, Double price) {
+        IEntryCacheInfo pEntry = mock(IEntryCacheInfo.class);
+        _aggregation.insert(pEntry, entryData(pEntry, group, value, price));
+        return pEntry;
+    }
+
+    private void update(IEntryCacheInfo pEntry, String group, long value, Double price) {
+        IEntryData oldEntryData = entryData(pEntry, _entries.get(pEntry));
+        _aggregation.update(pEntry, oldEntryData, entryData(pEntry, group, value, price));
+    }
+
+    private void remove(IEntryCacheInfo pEntry) {
+        _aggregation.remove(pEntry, entryData(pEntry, _entries.remove(pEntry)));
+    }
+
+    private IEntryData entryData(IEntryCacheInfo pEntry, String group, long value, Double price) {
+        Object[] values = {group, value, price};
+        _entries.put(pEntry, values);
+        return entryData(pEntry, values);
+    }
+
+    private static IEntryData entryData(IEntryCacheInfo pEntry, Object[] values) {
+        IEntryData entryData = mock(IEntryData.class);
+        for (int i = 0; i < values.length; i++)
+            when(entryData.getFixedPropertyValue(i)).thenReturn(values[i]);
+        when(entryData.getExpirationTime()).thenReturn(Lease.FOREVER);
+        return entryData;
+    }
+
+    private static class RowContext extends SpaceEntriesAggregatorContext {
+        private Object[] _values;
+
+        private RowContext(List<SpaceEntriesAggregator> aggregators) {
+            super(aggregators);
+        }
+
+        void aggregate(Object[] values) {
+            _values = values;
+            aggregate();
+        }
+
+        @Override
+        protected Object getPathValueImpl(String path) {
+            return _values[Arrays.asList(PROPERTIES).indexOf(path)];
+        }
+
+        @Override
+        public int getPartitionId() {
+            return 0;
+        }
+
+        @Override
+        public String getEntryUid() {
+            return null;
+        }
+
+        @Override
+        public RawEntry getRawEntry() {
+            return null;
+        }
+
+        @Override
+        public void applyProjectionTemplate(RawEntry entry) {
+        }
+
+        @Override
+        public ServerEntry getServerEntry() {
+            return null;
+        }
+    }
+}
@@ -30,6 +30,7 @@ public class OffHeapMemoryPoolTest {
         testBasicUpdate();
         testExceptionOnUpdateOnUnAllocated();
         testUpdateOnShorterBuffer();
+        testUpdateOfLargeEntryInPlace();
     }
 
     //Delete
@@ -114,6 +115,30 @@ public class OffHeapMemoryPoolTest {
         assertBufferWrittenToOffheap(infoMock, buffer);
     }
 
+    private void testUpdateOfLargeEntryInPlace() {
+        OffHeapMemoryPool pool = new OffHeapMemoryPool(1000);
+        pool.setMinimalDiffToAllocate(1024);
+        BlobStoreOffHeapInfoMock infoMock = new BlobStoreOffHeapInfoMock();
+        byte[] buffer = new byte[100 * 1024];
+        Arrays.fill(buffer, (byte) 1);
+
+        pool.write(infoMock, buffer);
+        long address = infoMock.getOffHeapAddress();
+        long usedBytes = pool.getUsedBytes();
+        Arrays.fill(buffer, (byte) 2);
+        pool.update(infoMock, buffer);
+        Assert.assertEquals("large entry should be updated in place\n", address, infoMock.getOffHeapAddress());
+        Assert.assertEquals(usedBytes, pool.getUsedBytes());
+        Assert.assertTrue(Arrays.equals(buffer, pool.get(infoMock)));
+
+        buffer = new byte[200 * 1024];
+        Arrays.fill(buffer, (byte) 3);
+        pool.update(infoMock, buffer);
+        Assert.assertTrue(Arrays.equals(buffer, pool.get(infoMock)));
+        pool.delete(infoMock);
+        Assert.assertEquals(0, pool.getUsedBytes());
+    }
+
     private void testBasicDelete() {
         BlobStoreOffHeapInfoMock infoMock = new BlobStoreOffHeapInfoMock();
         byte[] buffer = "Test Buffer".getBytes();
@@ -0,0 +1,69 @@
+package com.j_spaces.core.cache.blobStore.offheap;
+
+import com.j_spaces.core.cache.blobStore.memory_pool.OffHeapSlabAllocator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class OffHeapSlabAllocatorTest {
+
+    @Test
+    public void testSlotReuse() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024 * 1024);
+        long address = allocator.allocate(100);
+        Assert.assertEquals(112, allocator.getSlotSize(address));
+        Assert.assertEquals(112, allocator.getAllocatedBytes());
+
+        allocator.free(address, 100);
+        Assert.assertEquals(0, allocator.getAllocatedBytes());
+        Assert.assertEquals(address, allocator.allocate(97));
+    }
+
+    @Test
+    public void testDistinctSlots() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024 * 1024);
+        Set<Long> addresses = new HashSet<Long>();
+        for (int i = 0; i < 10000; i++) {
+            long address = allocator.allocate(40);
+            Assert.assertTrue(addresses.add(address));
+            Assert.assertEquals(48, allocator.getSlotSize(address));
+        }
+        Assert.assertEquals(10000 * 48, allocator.getAllocatedBytes());
+        Assert.assertTrue(allocator.getReservedBytes() >= allocator.getAllocatedBytes());
+
+        for (long address : addresses)
+            allocator.free(address, 40);
+        Assert.assertEquals(0, allocator.getAllocatedBytes());
+    }
+
+    @Test
+    public void testLargeAllocation() {
+        OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024 * 1024);
+        long address = allocator.allocate(100 * 1024);
+        Assert.assertEquals(0, allocator.getSlotSize(address));
+        Assert.assertEquals(100 * 1024, allocator.getAllocatedBytes());
+
+        allocator.free(address, 100 * 1024);
+        Assert.assertEquals(0, allocator.getAllocatedBytes());
+    }
+
+    @Test
+    public void testSlotsOfTerminatedThreadsAreReused() throws Exception {
+        final OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(256 * 1024);
+        for (int i = 0; i < 2000; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    allocator.free(allocator.allocate(16), 16);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        Assert.assertEquals(0, allocator.getAllocatedBytes());
+        //the slots cached for the terminated threads fit in a single arena
+        Assert.assertEquals(256 * 1024, allocator.getReservedBytes());
+    }
+}
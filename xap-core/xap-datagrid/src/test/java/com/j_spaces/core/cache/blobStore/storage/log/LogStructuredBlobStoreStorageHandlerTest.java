@@ -0,0 +1,213 @@
+package com.j_spaces.core.cache.blobStore.storage.log;
+
+import com.gigaspaces.server.blobstore.BlobStoreAddBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreBulkOperationResult;
+import com.gigaspaces.server.blobstore.BlobStoreConfig;
+import com.gigaspaces.server.blobstore.BlobStoreException;
+import com.gigaspaces.server.blobstore.BlobStoreObjectType;
+import com.gigaspaces.server.blobstore.BlobStoreRemoveBulkOperationRequest;
+import com.gigaspaces.server.blobstore.BlobStoreReplaceBulkOperationRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LogStructuredBlobStoreStorageHandlerTest {
+
+    private File directory;
+    private LogStructuredBlobStoreStorageHandler handler;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("blobstore-log").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        if (handler != null)
+            handler.close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files)
+                file.delete();
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testOperations() {
+        handler = createHandler(false, 1024 * 1024);
+        handler.initialize(config(false));
+
+        handler.add("a", bytes("first"), BlobStoreObjectType.DATA);
+        handler.add("a", "metadata", BlobStoreObjectType.METADATA);
+        Assert.assertEquals("first", string(handler.get("a", null, BlobStoreObjectType.DATA)));
+        Assert.assertEquals("metadata", handler.get("a", null, BlobStoreObjectType.METADATA));
+        try {
+            handler.add("a", bytes("again"), BlobStoreObjectType.DATA);
+            Assert.fail("add of an existing id should fail");
+        } catch (BlobStoreException e) {
+        }
+
+        handler.replace("a", bytes("second"), null, BlobStoreObjectType.DATA);
+        Assert.assertEquals("second", string(handler.get("a", null, BlobStoreObjectType.DATA)));
+        Assert.assertEquals("second", string(handler.remove("a", null, BlobStoreObjectType.DATA)));
+        Assert.assertNull(handler.get("a", null, BlobStoreObjectType.DATA));
+        Assert.assertEquals("metadata", handler.get("a", null, BlobStoreObjectType.METADATA));
+        try {
+            handler.replace("a", bytes("third"), null, BlobStoreObjectType.DATA);
+            Assert.fail("replace of a missing id should fail");
+        } catch (BlobStoreException e) {
+        }
+    }
+
+    @Test
+    public void testExecuteBulk() {
+        handler = createHandler(false, 1024 * 1024);
+        handler.initialize(config(false));
+        handler.add("b", bytes("old"), BlobStoreObjectType.DATA);
+
+        List<BlobStoreBulkOperationRequest> operations = new ArrayList<BlobStoreBulkOperationRequest>();
+        operations.add(new BlobStoreAddBulkOperationRequest("a", bytes("a"), null));
+        operations.add(new BlobStoreReplaceBulkOperationRequest("b", bytes("new"), null, null));
+        operations.add(new BlobStoreRemoveBulkOperationRequest("c", null, null));
+        List<BlobStoreBulkOperationResult> results = handler.executeBulk(operations, BlobStoreObjectType.DATA, false);
+
+        Assert.assertEquals(3, results.size());
+        Assert.assertNull(results.get(0).getException());
+        Assert.assertNull(results.get(1).getException());
+        Assert.assertNotNull(results.get(2).getException());
+        Assert.assertEquals("a", string(handler.get("a", null, BlobStoreObjectType.DATA)));
+        Assert.assertEquals("new", string(handler.get("b", null, BlobStoreObjectType.DATA)));
+    }
+
+    @Test
+    public void testCompaction() {
+        handler = createHandler(false, 256);
+        handler.initialize(config(false));
+        for (int i = 0; i < 20; i++)
+            handler.add("id" + i, bytes("value" + i), BlobStoreObjectType.DATA);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20; i++)
+                handler.replace("id" + i, bytes("value" + i + "-" + round), null, BlobStoreObjectType.DATA);
+        }
+        int segments = Integer.parseInt(handler.getStatistics().toProperties().get("segments"));
+
+        Assert.assertTrue(handler.compact() > 0);
+        Assert.assertTrue(Integer.parseInt(handler.getStatistics().toProperties().get("segments")) < segments);
+        for (int i = 0; i < 20; i++)
+            Assert.assertEquals("value" + i + "-4", string(handler.get("id" + i, null, BlobStoreObjectType.DATA)));
+    }
+
+    @Test
+    public void testWarmStart() {
+        handler = createHandler(true, 256);
+        handler.initialize(config(false));
+        for (int i = 0; i < 20; i++)
+            handler.add("id" + i, bytes("value" + i), BlobStoreObjectType.DATA);
+        for (int i = 0; i < 20; i += 2)
+            handler.replace("id" + i, bytes("replaced" + i), null, BlobStoreObjectType.DATA);
+        for (int i = 1; i < 20; i += 4)
+            handler.remove("id" + i, null, BlobStoreObjectType.DATA);
+        handler.compact();
+        handler.close();
+
+        handler = createHandler(true, 256);
+        handler.initialize(config(true));
+        for (int i = 0; i < 20; i++) {
+            Object data = handler.get("id" + i, null, BlobStoreObjectType.DATA);
+            if (i % 2 == 0)
+                Assert.assertEquals("replaced" + i, string(data));
+            else if (i % 4 == 1)
+                Assert.assertNull(data);
+            else
+                Assert.assertEquals("value" + i, string(data));
+        }
+    }
+
+    @Test
+    public void testWarmStartAfterConcurrentCompaction() throws Exception {
+        final int ids = 4000;
+        handler = createHandler(true, 4096);
+        handler.initialize(config(false));
+        for (int i = 0; i < ids; i++)
+            handler.add("id" + i, bytes("value" + i), BlobStoreObjectType.DATA);
+        //leaves the first segments mostly dead, so the compactor moves the records of the other ids
+        for (int i = 0; i < ids; i++) {
+            if (i % 5 < 3)
+                handler.replace("id" + i, bytes("replaced" + i), null, BlobStoreObjectType.DATA);
+        }
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger compacted = new AtomicInteger();
+        Thread compactor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!done.get())
+                    compacted.addAndGet(handler.compact());
+            }
+        });
+        List<Thread> writers = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int first = t;
+            writers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    //the ids the compactor moves are replaced or removed while it moves them
+                    for (int i = first * 5 + 3; i < ids; i += 20) {
+                        handler.replace("id" + i, bytes("replaced" + i), null, BlobStoreObjectType.DATA);
+                        handler.remove("id" + (i + 1), null, BlobStoreObjectType.DATA);
+                    }
+                }
+            }));
+        }
+        compactor.start();
+        for (Thread writer : writers)
+            writer.start();
+        for (Thread writer : writers)
+            writer.join();
+        done.set(true);
+        compactor.join();
+        Assert.assertTrue(compacted.get() > 0);
+        handler.close();
+
+        handler = createHandler(true, 4096);
+        handler.initialize(config(true));
+        for (int i = 0; i < ids; i++) {
+            Object data = handler.get("id" + i, null, BlobStoreObjectType.DATA);
+            if (i % 5 == 4)
+                Assert.assertNull("id" + i, data);
+            else
+                Assert.assertEquals("replaced" + i, string(data));
+        }
+    }
+
+    private LogStructuredBlobStoreStorageHandler createHandler(boolean persistent, int segmentSize) {
+        LogStructuredBlobStoreStorageHandler result = new LogStructuredBlobStoreStorageHandler();
+        result.setDirectory(directory.getAbsolutePath());
+        result.setSegmentSize(segmentSize);
+        result.setCompactionInterval(0);
+        result.setPersistent(persistent);
+        return result;
+    }
+
+    private static BlobStoreConfig config(boolean warmStart) {
+        return new BlobStoreConfig("test", 1, 0, warmStart, null);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes();
+    }
+
+    private static String string(Object data) {
+        return new String((byte[]) data);
+    }
+}
@@ -0,0 +1,179 @@
+package com.j_spaces.core.cluster.startup;
+
+import com.gigaspaces.internal.cluster.node.impl.backlog.globalorder.GlobalOrderOperationPacket;
+import com.gigaspaces.internal.cluster.node.impl.packets.IReplicationOrderedPacket;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.IReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.PartialUpdateReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.RemoveReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.TransactionOnePhaseReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.UpdateReplicationPacketData;
+import com.gigaspaces.internal.cluster.node.impl.packets.data.operations.WriteReplicationPacketData;
+import com.gigaspaces.internal.transport.IEntryPacket;
+import net.jini.core.lease.Lease;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RedoLogCompactionUtilTest {
+
+    @Test
+    public void testUpdateSupersededByUpdate() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), update("a"), update("a"));
+        CompactionResult result = RedoLogCompactionUtil.coalesce(0, packets);
+        Assert.assertEquals(2, result.getDiscardedCount());
+        Assert.assertEquals(2, result.getDiscardedWeight());
+        assertDiscarded(packets, 0, 1);
+    }
+
+    @Test
+    public void testUpdateSupersededByTake() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), take("a"));
+        CompactionResult result = RedoLogCompactionUtil.coalesce(0, packets);
+        Assert.assertEquals(1, result.getDiscardedCount());
+        assertDiscarded(packets, 0);
+    }
+
+    @Test
+    public void testWritesAreNeverDiscarded() {
+        List<IReplicationOrderedPacket> packets = packets(0, write("a"), update("a"), update("a"), take("a"), write("a"), take("a"));
+        RedoLogCompactionUtil.coalesce(0, packets);
+        assertDiscarded(packets, 1, 2);
+    }
+
+    @Test
+    public void testEntriesAreCoalescedSeparately() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), update("b"), update("a"), take("c"), update("b"));
+        RedoLogCompactionUtil.coalesce(0, packets);
+        assertDiscarded(packets, 0, 1);
+    }
+
+    @Test
+    public void testPartialUpdateStopsCoalescing() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), partialUpdate("a"), update("a"), partialUpdate("a"), take("a"));
+        CompactionResult result = RedoLogCompactionUtil.coalesce(0, packets);
+        Assert.assertTrue(result.isEmpty());
+        assertDiscarded(packets);
+    }
+
+    @Test
+    public void testGatewayPacketsAreSkipped() {
+        //a gateway packet is never discarded, and the packets before it are kept for it
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), update("a", true), update("a"), take("a", true));
+        CompactionResult result = RedoLogCompactionUtil.coalesce(0, packets);
+        Assert.assertTrue(result.isEmpty());
+        assertDiscarded(packets);
+
+        packets = packets(0, update("a", true), update("a"), update("a"));
+        RedoLogCompactionUtil.coalesce(0, packets);
+        assertDiscarded(packets, 1);
+    }
+
+    @Test
+    public void testNonSingleEntryPacketResetsState() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), update("b"), transaction(), update("a"), update("b"), update("b"));
+        RedoLogCompactionUtil.coalesce(0, packets);
+        assertDiscarded(packets, 4);
+
+        //an entry without a uid may be any entry
+        packets = packets(0, update("a"), update(null), update("a"));
+        RedoLogCompactionUtil.coalesce(0, packets);
+        assertDiscarded(packets);
+    }
+
+    @Test
+    public void testCoalesceFromKey() {
+        List<IReplicationOrderedPacket> packets = packets(10, update("a"), update("a"), update("a"), update("a"));
+        //packets before the start key are neither discarded nor supersede later ones
+        RedoLogCompactionUtil.coalesce(12, packets);
+        assertDiscarded(packets, 12);
+
+        Assert.assertTrue(RedoLogCompactionUtil.coalesce(14, packets).isEmpty());
+        Assert.assertTrue(RedoLogCompactionUtil.coalesce(0, new LinkedList<IReplicationOrderedPacket>()).isEmpty());
+    }
+
+    @Test
+    public void testDiscardedWeight() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), update("b"), update("a"), update("b"));
+        packets.get(0).getData().setWeight(3);
+        packets.get(1).getData().setWeight(5);
+        CompactionResult result = RedoLogCompactionUtil.coalesce(0, packets);
+        Assert.assertEquals(2, result.getDiscardedCount());
+        Assert.assertEquals(8, result.getDiscardedWeight());
+        Assert.assertEquals(0, packets.get(0).getWeight());
+    }
+
+    @Test
+    public void testCoalescingTwiceDiscardsNothingNew() {
+        List<IReplicationOrderedPacket> packets = packets(0, update("a"), update("a"), update("a"));
+        RedoLogCompactionUtil.coalesce(0, packets);
+        packets.add(new GlobalOrderOperationPacket(3, update("a")));
+        //the discarded packets neither supersede nor are superseded again
+        CompactionResult result = RedoLogCompactionUtil.coalesce(0, packets);
+        Assert.assertEquals(1, result.getDiscardedCount());
+        assertDiscarded(packets, 0, 1, 2);
+    }
+
+    private static List<IReplicationOrderedPacket> packets(long firstKey, IReplicationPacketData<?>... data) {
+        List<IReplicationOrderedPacket> packets = new LinkedList<IReplicationOrderedPacket>();
+        for (IReplicationPacketData<?> packetData : data) {
+            packetData.setWeight(1);
+            packets.add(new GlobalOrderOperationPacket(firstKey++, packetData));
+        }
+        return packets;
+    }
+
+    private static void assertDiscarded(List<IReplicationOrderedPacket> packets, long... keys) {
+        List<Long> expected = new ArrayList<Long>();
+        for (long key : keys)
+            expected.add(key);
+        List<Long> actual = new ArrayList<Long>();
+        for (IReplicationOrderedPacket packet : packets) {
+            if (packet.isDiscardedPacket())
+                actual.add(packet.getKey());
+        }
+        Assert.assertEquals(expected, actual);
+    }
+
+    private static IEntryPacket entry(String uid) {
+        IEntryPacket entry = mock(IEntryPacket.class);
+        when(entry.getUID()).thenReturn(uid);
+        return entry;
+    }
+
+    private static IReplicationPacketData<?> write(String uid) {
+        return new WriteReplicationPacketData(entry(uid), false, Lease.FOREVER);
+    }
+
+    private static IReplicationPacketData<?> update(String uid) {
+        return update(uid, false);
+    }
+
+    private static IReplicationPacketData<?> update(String uid, boolean fromGateway) {
+        return new UpdateReplicationPacketData(entry(uid), fromGateway, false, null, (short) 0, Lease.FOREVER, null);
+    }
+
+    private static IReplicationPacketData<?> partialUpdate(String uid) {
+        return new PartialUpdateReplicationPacketData(entry(uid), false, false, null, Lease.FOREVER, null);
+    }
+
+    private static IReplicationPacketData<?> take(String uid) {
+        return take(uid, false);
+    }
+
+    private static IReplicationPacketData<?> take(String uid, boolean fromGateway) {
+        return new RemoveReplicationPacketData(entry(uid), fromGateway, null, false);
+    }
+
+    private static IReplicationPacketData<?> transaction() {
+        TransactionOnePhaseReplicationPacketData data = new TransactionOnePhaseReplicationPacketData(null, false);
+        data.add(new UpdateReplicationPacketData(entry("a"), false, false, null, (short) 0, Lease.FOREVER, null));
+        data.add(new UpdateReplicationPacketData(entry("b"), false, false, null, (short) 0, Lease.FOREVER, null));
+        return data;
+    }
+}
@@ -0,0 +1,105 @@
+package com.j_spaces.jdbc;
+
+import com.gigaspaces.internal.client.spaceproxy.IDirectSpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.ISpaceProxy;
+import com.gigaspaces.internal.client.spaceproxy.metadata.ISpaceProxyTypeManager;
+import com.gigaspaces.internal.metadata.ITypeDesc;
+import com.gigaspaces.internal.metadata.PropertyInfo;
+import com.j_spaces.kernel.SystemProperties;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryHandlerTest {
+    private static final String[] PROPERTIES = {"name", "age", "id"};
+
+    private ISpaceProxy _space;
+    private ISpaceProxyTypeManager _typeManager;
+    private QueryHandler _handler;
+
+    @Before
+    public void setUp() {
+        ITypeDesc typeDesc = mock(ITypeDesc.class);
+        Class<?>[] types = {String.class, Integer.class, Long.class};
+        when(typeDesc.getTypeName()).thenReturn("Person");
+        when(typeDesc.getNumOfFixedProperties()).thenReturn(PROPERTIES.length);
+        for (int i = 0; i < PROPERTIES.length; i++) {
+            PropertyInfo propertyInfo = mock(PropertyInfo.class);
+            when(propertyInfo.getName()).thenReturn(PROPERTIES[i]);
+            when(propertyInfo.getType()).thenReturn((Class) types[i]);
+            when(typeDesc.getFixedProperty(i)).thenReturn(propertyInfo);
+            when(typeDesc.getFixedPropertyPositionIgnoreCase(PROPERTIES[i])).thenReturn(i);
+        }
+        _typeManager = mock(ISpaceProxyTypeManager.class);
+        when(_typeManager.getTypeDescByName("Person")).thenReturn(typeDesc);
+        IDirectSpaceProxy directProxy = mock(IDirectSpaceProxy.class);
+        when(directProxy.getTypeManager()).thenReturn(_typeManager);
+        _space = mock(ISpaceProxy.class);
+        when(_space.getDirectProxy()).thenReturn(directProxy);
+        _handler = new QueryHandler(null, null, null, null);
+    }
+
+    @Test
+    public void testStatementsDifferingByLiteralsParsedOnce() throws Exception {
+        AbstractDMLQuery first = handle("SELECT name FROM Person WHERE age > 30 AND id = 5");
+        AbstractDMLQuery second = handle("SELECT name FROM Person WHERE age > 40 AND id = 6");
+        Assert.assertArrayEquals(new Object[]{"30", "5"}, first.getPreparedValues());
+        Assert.assertArrayEquals(new Object[]{"40", "6"}, second.getPreparedValues());
+        Assert.assertNotSame(first, second);
+        //the table was looked up only by the validation of the single parsed query
+        verify(_typeManager, times(1)).getTypeDescByName("Person");
+    }
+
+    @Test
+    public void testRepeatedStatementKeepsItsValues() throws Exception {
+        String statement = "SELECT name FROM Person WHERE age > 30 AND id = 5";
+        AbstractDMLQuery first = handle(statement);
+        first.getPreparedValues()[0] = "31";
+        handle("SELECT name FROM Person WHERE age > 40 AND id = 6");
+        AbstractDMLQuery repeated = handle(statement);
+        Assert.assertNotSame(first, repeated);
+        Assert.assertArrayEquals(new Object[]{"30", "5"}, repeated.getPreparedValues());
+        verify(_typeManager, times(1)).getTypeDescByName("Person");
+    }
+
+    @Test
+    public void testSeparatedSignIsNotReplaced() throws Exception {
+        AbstractDMLQuery query = handle("SELECT name FROM Person WHERE age > - 30 AND id = 5");
+        Assert.assertArrayEquals(new Object[]{"5"}, query.getPreparedValues());
+    }
+
+    @Test
+    public void testStatementWithoutLiteralsIsParsedAsIs() throws Exception {
+        AbstractDMLQuery query = handle("SELECT name FROM Person");
+        Assert.assertNull(query.getPreparedValues());
+        Assert.assertNotSame(query, handle("SELECT name FROM Person"));
+        verify(_typeManager, times(1)).getTypeDescByName("Person");
+    }
+
+    @Test
+    public void testRawStatementsDoNotEvictNormalizedStatements() throws Exception {
+        System.setProperty(SystemProperties.BOUNDED_QUERY_CACHE_SIZE, "4");
+        try {
+            _handler = new QueryHandler(null, null, null, null);
+        } finally {
+            System.clearProperty(SystemProperties.BOUNDED_QUERY_CACHE_SIZE);
+        }
+        for (int i = 0; i < 20; i++) {
+            AbstractDMLQuery query = handle("SELECT name FROM Person WHERE age > " + i + " AND id = 5");
+            Assert.assertArrayEquals(new Object[]{String.valueOf(i), "5"}, query.getPreparedValues());
+        }
+        verify(_typeManager, times(1)).getTypeDescByName("Person");
+    }
+
+    private AbstractDMLQuery handle(String statement) throws Exception {
+        RequestPacket request = new RequestPacket();
+        request.setType(RequestPacket.Type.STATEMENT);
+        request.setStatement(statement);
+        return (AbstractDMLQuery) _handler.handleStatement(request, _space);
+    }
+}
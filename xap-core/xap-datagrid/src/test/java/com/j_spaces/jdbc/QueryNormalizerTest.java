@@ -0,0 +1,47 @@
+package com.j_spaces.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryNormalizerTest {
+
+    @Test
+    public void testLiteralsAreReplaced() {
+        QueryNormalizer.Result result = QueryNormalizer.normalize(
+                "SELECT * FROM com.test.Person WHERE name = 'O''Brien' AND age >= -30 AND salary<1.5e3 AND id <> 7L");
+        Assert.assertEquals("SELECT * FROM com.test.Person WHERE name = ? AND age >= ? AND salary<? AND id <> ?", result.getStatement());
+        Assert.assertArrayEquals(new Object[]{"O''Brien", "-30", "1.5e3", "7"}, result.getValues());
+    }
+
+    @Test
+    public void testSameShapeSameStatement() {
+        String first = QueryNormalizer.normalize("select name from Person where age > 10 order by name").getStatement();
+        String second = QueryNormalizer.normalize("select name from Person where age > 99 order by name").getStatement();
+        Assert.assertEquals(first, second);
+    }
+
+    @Test
+    public void testOnlyComparedLiteralsInWhereClause() {
+        QueryNormalizer.Result result = QueryNormalizer.normalize(
+                "SELECT * FROM Person WHERE name LIKE 'a%' AND age IN (1, 2) AND rownum < 10 AND x = y AND d = '01/02/2020' AND id = 5 GROUP BY name HAVING name = 'b'");
+        Assert.assertEquals("SELECT * FROM Person WHERE name LIKE 'a%' AND age IN (1, 2) AND rownum < 10 AND x = y AND d = '01/02/2020' AND id = ? GROUP BY name HAVING name = 'b'", result.getStatement());
+        Assert.assertArrayEquals(new Object[]{"5"}, result.getValues());
+    }
+
+    @Test
+    public void testSeparatedSignNotReplaced() {
+        QueryNormalizer.Result result = QueryNormalizer.normalize("SELECT * FROM Person WHERE age >= - 30 AND id = -5 AND x < -y");
+        Assert.assertEquals("SELECT * FROM Person WHERE age >= - 30 AND id = ? AND x < -y", result.getStatement());
+        Assert.assertArrayEquals(new Object[]{"-5"}, result.getValues());
+    }
+
+    @Test
+    public void testNotNormalized() {
+        Assert.assertNull(QueryNormalizer.normalize("SELECT * FROM Person WHERE name = ? AND age = 5"));
+        Assert.assertNull(QueryNormalizer.normalize("SELECT * FROM Person WHERE age = (SELECT max(age) FROM Person WHERE id = 3)"));
+        Assert.assertNull(QueryNormalizer.normalize("SELECT * FROM Person WHERE name = x"));
+        Assert.assertNull(QueryNormalizer.normalize("UPDATE Person SET age = 5 WHERE id = 3"));
+        Assert.assertNull(QueryNormalizer.normalize("SELECT * FROM Person WHERE id = 3 -- comment"));
+        Assert.assertNull(QueryNormalizer.normalize("SELECT * FROM Person WHERE name = 'unterminated"));
+    }
+}
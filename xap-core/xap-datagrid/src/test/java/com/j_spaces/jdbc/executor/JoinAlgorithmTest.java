@@ -0,0 +1,128 @@
+package com.j_spaces.jdbc.executor;
+
+import com.gigaspaces.internal.transport.IEntryPacket;
+import com.j_spaces.jdbc.Join;
+import com.j_spaces.jdbc.parser.ColumnNode;
+import com.j_spaces.jdbc.parser.EqualNode;
+import com.j_spaces.jdbc.parser.ExpNode;
+import com.j_spaces.jdbc.parser.GTENode;
+import com.j_spaces.jdbc.parser.GTNode;
+import com.j_spaces.jdbc.parser.LTENode;
+import com.j_spaces.jdbc.parser.LTNode;
+import com.j_spaces.jdbc.query.ArrayListResult;
+import com.j_spaces.jdbc.query.QueryColumnData;
+import com.j_spaces.jdbc.query.QueryTableData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JoinAlgorithmTest {
+    //outer values cover the boundaries of the joined values, both sides have duplicates and nulls
+    private static final Integer[] OUTER_VALUES = {-1, 0, 3, 3, 5, 9, 10, null};
+    private static final Integer[] JOINED_VALUES = {0, 0, 1, 3, 3, 3, 4, 5, 8, 9, 9, null, null};
+
+    @Test
+    public void testGreaterThan() {
+        assertSameAsNestedLoops(GTNode::new, JoinAlgorithm.SORTED);
+    }
+
+    @Test
+    public void testGreaterThanOrEqual() {
+        assertSameAsNestedLoops(GTENode::new, JoinAlgorithm.SORTED);
+    }
+
+    @Test
+    public void testLessThan() {
+        assertSameAsNestedLoops(LTNode::new, JoinAlgorithm.SORTED);
+    }
+
+    @Test
+    public void testLessThanOrEqual() {
+        assertSameAsNestedLoops(LTENode::new, JoinAlgorithm.SORTED);
+    }
+
+    @Test
+    public void testEqual() {
+        assertSameAsNestedLoops(EqualNode::new, JoinAlgorithm.HASH);
+    }
+
+    @Test
+    public void testChoose() {
+        Assert.assertEquals(JoinAlgorithm.NESTED_LOOPS, JoinAlgorithm.choose(JoinAlgorithm.NESTED_LOOPS, Join.JoinType.INNER, 100000, 100000));
+        Assert.assertEquals(JoinAlgorithm.NESTED_LOOPS, JoinAlgorithm.choose(JoinAlgorithm.SORTED, Join.JoinType.INNER, 2, 1));
+        Assert.assertEquals(JoinAlgorithm.NESTED_LOOPS, JoinAlgorithm.choose(JoinAlgorithm.HASH, Join.JoinType.INNER, 1, 1));
+        Assert.assertEquals(JoinAlgorithm.SORTED, JoinAlgorithm.choose(JoinAlgorithm.SORTED, Join.JoinType.INNER, 1000, 1000));
+        Assert.assertEquals(JoinAlgorithm.HASH, JoinAlgorithm.choose(JoinAlgorithm.HASH, Join.JoinType.INNER, 1000, 1000));
+        //only the hashed cursor emits the unmatched rows of a left join
+        Assert.assertEquals(JoinAlgorithm.HASH, JoinAlgorithm.choose(JoinAlgorithm.HASH, Join.JoinType.LEFT, 1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedAlgorithm() {
+        join(GTNode::new, JoinAlgorithm.HASH);
+    }
+
+    private static void assertSameAsNestedLoops(Condition condition, JoinAlgorithm indexed) {
+        List<String> nestedLoops = join(condition, JoinAlgorithm.NESTED_LOOPS);
+        List<String> indexedResult = join(condition, indexed);
+        Assert.assertFalse(nestedLoops.isEmpty());
+        Assert.assertEquals(indexed.toString(), nestedLoops, indexedResult);
+    }
+
+    /**
+     * @return the matching rows, as outer:joined positions, produced by the given algorithm
+     */
+    private static List<String> join(Condition condition, JoinAlgorithm algorithm) {
+        QueryTableData outerTable = new QueryTableData("Outer", null, 0);
+        QueryTableData joinedTable = new QueryTableData("Joined", null, 1);
+        List<IEntryPacket> outerEntries = new ArrayList<IEntryPacket>();
+        List<IEntryPacket> joinedEntries = new ArrayList<IEntryPacket>();
+        ColumnNode outerColumn = column(outerTable, OUTER_VALUES, outerEntries);
+        ColumnNode joinedColumn = column(joinedTable, JOINED_VALUES, joinedEntries);
+        ExpNode joinCondition = condition.create(outerColumn, joinedColumn);
+
+        outerTable.setJoinTable(joinedTable);
+        joinedTable.setJoinCondition(joinCondition);
+        joinedTable.setJoinType(Join.JoinType.INNER);
+        joinedTable.setJoined(true);
+        Assert.assertNull(outerTable.initCursor(new ArrayListResult(outerEntries), joinedEntries.size()));
+        joinedTable.initCursor(new ArrayListResult(joinedEntries), algorithm);
+
+        List<String> result = new ArrayList<String>();
+        while (outerTable.next()) {
+            IEntryPacket outer = outerTable.getCurrentEntry();
+            IEntryPacket joined = joinedTable.getCurrentEntry();
+            boolean matches = joinCondition.isValidCompare(outerColumn.getFieldValue(outer), joinedColumn.getFieldValue(joined));
+            //the executor filters the joined rows by the join condition, the sorted cursor only produces matches
+            if (algorithm == JoinAlgorithm.SORTED)
+                Assert.assertTrue(algorithm + " produced a row which does not match", matches);
+            if (matches)
+                result.add(outerEntries.indexOf(outer) + ":" + joinedEntries.indexOf(joined));
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static ColumnNode column(QueryTableData table, Integer[] values, List<IEntryPacket> entries) {
+        QueryColumnData columnData = mock(QueryColumnData.class);
+        when(columnData.getColumnTableData()).thenReturn(table);
+        ColumnNode column = mock(ColumnNode.class);
+        when(column.getColumnData()).thenReturn(columnData);
+        for (Integer value : values) {
+            IEntryPacket entry = mock(IEntryPacket.class);
+            when(column.getFieldValue(entry)).thenReturn(value);
+            entries.add(entry);
+        }
+        return column;
+    }
+
+    private interface Condition {
+        ExpNode create(ColumnNode outer, ColumnNode joined);
+    }
+}